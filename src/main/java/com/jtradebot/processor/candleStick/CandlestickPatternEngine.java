@@ -0,0 +1,218 @@
+package com.jtradebot.processor.candleStick;
+
+import com.jtradebot.processor.indicator.ClosedBarState;
+import com.jtradebot.processor.indicator.SeriesStateRegistry;
+import org.springframework.stereotype.Component;
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+
+import static com.jtradebot.processor.candleStick.CandlestickPatternType.*;
+import static com.jtradebot.processor.constants.SignalConstants.MIN_CANDLE_FULL_HEIGHT;
+
+/**
+ * Evaluates all candlestick patterns of a series' forming bar in one pass on primitive OHLC doubles,
+ * returning a bitmask of {@link CandlestickPatternType}. Same rules as {@link CandlestickPattern}.
+ * The parts of two and three candle patterns that only depend on closed bars are computed once per bar close.
+ */
+@Component
+public class CandlestickPatternEngine {
+
+    // Prices are exchange ticks, so real differences are far above double rounding; exact ties stay ties
+    private static final double EPSILON = 1e-9;
+
+    // Closed-bar context per bar series
+    private final SeriesStateRegistry<ClosedBars> closedBars = new SeriesStateRegistry<>(ClosedBars::new);
+
+    /**
+     * Patterns of the forming (last) bar of the series, using the previous bars for multi-candle patterns.
+     * The forming bar is read under the series' state lock, together with the closed bars it is compared with.
+     */
+    public long evaluate(BarSeries series) {
+        return closedBars.read(series, (previous, formingBar) -> {
+            if (formingBar == null) {
+                return 0L;
+            }
+            double open = formingBar.getOpenPrice().doubleValue();
+            double high = formingBar.getHighPrice().doubleValue();
+            double low = formingBar.getLowPrice().doubleValue();
+            double close = formingBar.getClosePrice().doubleValue();
+            long patterns = evaluateSingle(open, high, low, close);
+            if (previous.hasPrevious) {
+                patterns |= evaluateTwoCandle(previous, open, high, low, close);
+            }
+            if (close > open && previous.morningStarSetup && close > previous.close) {
+                patterns |= BULLISH_MORNING_STAR.mask();
+            }
+            if (close < open && previous.eveningStarSetup && close < previous.close) {
+                patterns |= BEARISH_EVENING_STAR.mask();
+            }
+            return patterns;
+        });
+    }
+
+    /**
+     * Single candle patterns of one bar.
+     */
+    public static long evaluateSingle(double open, double high, double low, double close) {
+        double range = high - low;
+        double body = Math.abs(close - open);
+        double lowerShadow = Math.min(open, close) - low;
+        double upperShadow = high - Math.max(open, close);
+        boolean fullHeight = !lessThan(Math.abs(range), MIN_CANDLE_FULL_HEIGHT);
+        long patterns = 0L;
+
+        if (lessThan(body, lowerShadow * 0.5) && lessThan(upperShadow, body)) {
+            patterns |= HAMMER.mask() | HANGING_MAN.mask();
+        }
+        if (lessThan(body, upperShadow * 0.5) && lessThan(lowerShadow, body)) {
+            patterns |= INVERTED_HAMMER.mask() | SHOOTING_STAR.mask();
+        }
+        if (isDoji(open, high, low, close)) {
+            patterns |= DOJI.mask();
+        }
+        if (range != 0 && lessThan(body, range * 0.3)) {
+            patterns |= SPINNING_TOP.mask();
+        }
+        if (lessThan(high - close, range * 0.05) && lessThan(open - low, range * 0.05)) {
+            patterns |= MARUBOZU.mask();
+        }
+        if (lessThan(close - open, range * 0.25)) {
+            patterns |= SHORT_BODY.mask();
+        }
+        if (close > open) {
+            patterns |= GREEN_CANDLE.mask();
+        }
+        if (close < open) {
+            patterns |= RED_CANDLE.mask();
+        }
+        if (!fullHeight) {
+            return patterns;
+        }
+
+        if (lessThan(open - low, range * 0.05)) {
+            patterns |= BULLISH_MARUBOZU.mask();
+        }
+        if (lessThan(high - close, range * 0.05)) {
+            patterns |= BEARISH_MARUBOZU.mask();
+        }
+        if (greaterThan(open - low, (close - open) * 2)) {
+            patterns |= LONG_LOWER_SHADOW.mask();
+        }
+        if (greaterThan(high - open, (close - open) * 2)) {
+            patterns |= LONG_UPPER_SHADOW.mask();
+        }
+        if (greaterThan(close - open, range * 0.75)) {
+            patterns |= LONG_BODY.mask();
+            if (close > open) {
+                patterns |= BULLISH_LONG_BODY.mask();
+            }
+        }
+        if (close < open && greaterThan(open - close, range * 0.75)) {
+            patterns |= BEARISH_LONG_BODY.mask();
+        }
+        if (lessThan(upperShadow, range * 0.25) && greaterThan(body, range * 0.4)) {
+            patterns |= WICK_REJECTION_FILTER_BULLISH.mask();
+        }
+        if (greaterThan(upperShadow, range * 0.4) && lessThan(body, range * 0.3)) {
+            patterns |= WICK_REJECTION_FILTER_BEARISH.mask();
+        }
+        return patterns;
+    }
+
+    private static long evaluateTwoCandle(ClosedBars previous, double open, double high, double low, double close) {
+        double prevOpen = previous.open;
+        double prevClose = previous.close;
+        long patterns = 0L;
+
+        if (prevClose < prevOpen && close > open) {
+            if (open < prevClose && close > prevOpen) {
+                patterns |= BULLISH_ENGULFING.mask();
+            }
+            if (open > prevClose && close < prevOpen) {
+                patterns |= BULLISH_HARAMI.mask();
+            }
+        }
+        if (prevClose > prevOpen && close < open) {
+            if (open > prevClose && close < prevOpen) {
+                patterns |= BEARISH_ENGULFING.mask();
+            }
+            if (open < prevClose && close > prevOpen) {
+                patterns |= BEARISH_HARAMI.mask();
+            }
+        }
+
+        // Same checks as CandlestickPattern, which looks for the breakout on the inside bar itself
+        boolean insideBar = high <= previous.high && low >= previous.low;
+        if (insideBar && (high > previous.high || low < previous.low)) {
+            patterns |= INSIDE_BAR_BREAKOUT.mask();
+        }
+        if (insideBar && low < previous.low) {
+            patterns |= INSIDE_BAR_BREAKDOWN.mask();
+        }
+
+        if (high > previous.high && low <= previous.high) {
+            patterns |= CURRENT_CANDLE_CROSSED_ABOVE_PREV_HIGH.mask();
+        }
+        if (low < previous.low && high >= previous.low) {
+            patterns |= CURRENT_CANDLE_CROSSED_BELOW_PREV_LOW.mask();
+        }
+        return patterns;
+    }
+
+    private static boolean isDoji(double open, double high, double low, double close) {
+        return lessThan(Math.abs(close - open), (high - low) * 0.1);
+    }
+
+    private static boolean lessThan(double value, double threshold) {
+        return value < threshold - EPSILON;
+    }
+
+    private static boolean greaterThan(double value, double threshold) {
+        return value > threshold + EPSILON;
+    }
+
+    /**
+     * The last closed bar and the closed-bar half of the morning/evening star checks, refreshed once per bar close.
+     */
+    private static final class ClosedBars extends ClosedBarState {
+
+        private boolean hasPrevious;
+        private double open;
+        private double high;
+        private double low;
+        private double close;
+        private boolean morningStarSetup;
+        private boolean eveningStarSetup;
+
+        @Override
+        protected void onBarClose(BarSeries series, int index) {
+            hasPrevious = true;
+            morningStarSetup = false;
+            eveningStarSetup = false;
+            Bar second = series.getBar(index);
+            open = second.getOpenPrice().doubleValue();
+            high = second.getHighPrice().doubleValue();
+            low = second.getLowPrice().doubleValue();
+            close = second.getClosePrice().doubleValue();
+            if (index - 1 < series.getBeginIndex() || !isDoji(open, high, low, close)) {
+                return;
+            }
+            Bar first = series.getBar(index - 1);
+            double firstOpen = first.getOpenPrice().doubleValue();
+            double firstClose = first.getClosePrice().doubleValue();
+            double firstHeight = Math.abs(first.getHighPrice().doubleValue() - first.getLowPrice().doubleValue());
+            if (lessThan(firstHeight, MIN_CANDLE_FULL_HEIGHT)) {
+                return;
+            }
+            morningStarSetup = firstClose < firstOpen && close < firstClose;
+            eveningStarSetup = firstClose > firstOpen && close > firstClose;
+        }
+
+        @Override
+        protected void onReset() {
+            hasPrevious = false;
+            morningStarSetup = false;
+            eveningStarSetup = false;
+        }
+    }
+}
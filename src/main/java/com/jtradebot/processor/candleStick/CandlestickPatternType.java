@@ -0,0 +1,51 @@
+package com.jtradebot.processor.candleStick;
+
+/**
+ * Candlestick patterns reported by {@link CandlestickPatternEngine}, one bit each in a {@code long} mask.
+ */
+public enum CandlestickPatternType {
+    // Single candle patterns
+    HAMMER,
+    INVERTED_HAMMER,
+    BULLISH_MARUBOZU,
+    LONG_LOWER_SHADOW,
+    SHOOTING_STAR,
+    HANGING_MAN,
+    BEARISH_MARUBOZU,
+    LONG_UPPER_SHADOW,
+    DOJI,
+    SPINNING_TOP,
+    MARUBOZU,
+    LONG_BODY,
+    SHORT_BODY,
+    BULLISH_LONG_BODY,
+    BEARISH_LONG_BODY,
+    WICK_REJECTION_FILTER_BULLISH,
+    WICK_REJECTION_FILTER_BEARISH,
+    GREEN_CANDLE,
+    RED_CANDLE,
+
+    // Two candle patterns
+    BULLISH_ENGULFING,
+    BULLISH_HARAMI,
+    BEARISH_ENGULFING,
+    BEARISH_HARAMI,
+    INSIDE_BAR_BREAKOUT,
+    INSIDE_BAR_BREAKDOWN,
+    CURRENT_CANDLE_CROSSED_ABOVE_PREV_HIGH,
+    CURRENT_CANDLE_CROSSED_BELOW_PREV_LOW,
+
+    // Three candle patterns
+    BULLISH_MORNING_STAR,
+    BEARISH_EVENING_STAR;
+
+    private final long mask = 1L << ordinal();
+
+    public long mask() {
+        return mask;
+    }
+
+    public boolean isSet(long patterns) {
+        return (patterns & mask) != 0;
+    }
+}
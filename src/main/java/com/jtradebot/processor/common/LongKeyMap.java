@@ -0,0 +1,149 @@
+package com.jtradebot.processor.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Map keyed by primitive long (instrument tokens) without boxing on lookup.
+ * Open addressing with copy-on-write tables: reads are lock-free and never see a half-built table,
+ * writes are synchronized and copy. Suited to per-instrument state, where lookups happen on every tick
+ * and new keys only appear when an instrument is subscribed.
+ */
+public class LongKeyMap<V> {
+
+    private volatile Table table = new Table(16);
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        Table current = table;
+        int index = indexFor(key, current.mask);
+        while (true) {
+            Object value = current.values[index];
+            if (value == null) {
+                return null;
+            }
+            if (current.keys[index] == key) {
+                return (V) value;
+            }
+            index = (index + 1) & current.mask;
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public synchronized V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        V previous = get(key);
+        Table current = table;
+        int capacity = current.values.length;
+        if ((current.size + 1) * 2 > capacity) {
+            capacity <<= 1;
+        }
+        Table next = new Table(capacity);
+        copyExcept(current, next, key);
+        insert(next, key, value);
+        table = next;
+        return previous;
+    }
+
+    public V computeIfAbsent(long key, LongFunction<V> mappingFunction) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        synchronized (this) {
+            value = get(key);
+            if (value == null) {
+                value = mappingFunction.apply(key);
+                put(key, value);
+            }
+            return value;
+        }
+    }
+
+    public synchronized V remove(long key) {
+        V previous = get(key);
+        if (previous != null) {
+            Table current = table;
+            Table next = new Table(current.values.length);
+            copyExcept(current, next, key);
+            table = next;
+        }
+        return previous;
+    }
+
+    public synchronized void clear() {
+        table = new Table(16);
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    public boolean isEmpty() {
+        return table.size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(LongObjectConsumer<V> action) {
+        Table current = table;
+        for (int i = 0; i < current.values.length; i++) {
+            if (current.values[i] != null) {
+                action.accept(current.keys[i], (V) current.values[i]);
+            }
+        }
+    }
+
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size());
+        forEach((key, value) -> values.add(value));
+        return values;
+    }
+
+    private static void copyExcept(Table source, Table target, long skipKey) {
+        for (int i = 0; i < source.values.length; i++) {
+            Object value = source.values[i];
+            if (value != null && source.keys[i] != skipKey) {
+                insert(target, source.keys[i], value);
+            }
+        }
+    }
+
+    private static void insert(Table target, long key, Object value) {
+        int index = indexFor(key, target.mask);
+        while (target.values[index] != null) {
+            index = (index + 1) & target.mask;
+        }
+        target.keys[index] = key;
+        target.values[index] = value;
+        target.size++;
+    }
+
+    private static int indexFor(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static final class Table {
+        private final long[] keys;
+        private final Object[] values;
+        private final int mask;
+        private int size;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+        }
+    }
+
+    @FunctionalInterface
+    public interface LongObjectConsumer<V> {
+        void accept(long key, V value);
+    }
+}
@@ -25,6 +25,9 @@ public class DynamicStrategyConfigService {
     @Getter
     private ScalpingEntryConfig scalpingEntryConfig;
 
+    // Least restrictive scenario cached per scenarios version (recomputed when the configuration is reloaded)
+    private volatile CachedScenario cachedLeastRestrictive;
+
     @PostConstruct
     public void loadConfiguration() {
         scalpingEntryConfig = tradingConfigurationService.getScalpingEntryConfig();
@@ -119,10 +122,7 @@ public class DynamicStrategyConfigService {
                 throw new IllegalStateException("No scenarios found in configuration");
             }
 
-            // Find the scenario with the lowest quality score requirement (least restrictive)
-            Optional<ScalpingEntryConfig.Scenario> leastRestrictive = scenarios.stream()
-                    .filter(scenario -> scenario.getRequirements() != null && scenario.getRequirements().getMinQualityScore() != null)
-                    .min(Comparator.comparing(scenario -> scenario.getRequirements().getMinQualityScore()));
+            Optional<ScalpingEntryConfig.Scenario> leastRestrictive = getLeastRestrictiveScenario();
 
             if (leastRestrictive.isPresent()) {
                 return leastRestrictive.get().getRequirements().getMinQualityScore();
@@ -136,6 +136,23 @@ public class DynamicStrategyConfigService {
         }
     }
 
+    /**
+     * Scenario with the lowest quality score requirement. Cached until the scenarios are reloaded.
+     */
+    public Optional<ScalpingEntryConfig.Scenario> getLeastRestrictiveScenario() {
+        // Version read before the scenarios: a reload in between leaves the cache one version behind, not stale
+        long version = tradingConfigurationService.getScenariosVersion();
+        CachedScenario cached = cachedLeastRestrictive;
+        if (cached == null || cached.version != version) {
+            Optional<ScalpingEntryConfig.Scenario> leastRestrictive = getScenarios().stream()
+                    .filter(scenario -> scenario.getRequirements() != null && scenario.getRequirements().getMinQualityScore() != null)
+                    .min(Comparator.comparing(scenario -> scenario.getRequirements().getMinQualityScore()));
+            cached = new CachedScenario(version, leastRestrictive);
+            cachedLeastRestrictive = cached;
+        }
+        return cached.scenario;
+    }
+
     public int getMaxNTPFromAllScenarios() {
         try {
             return scalpingEntryConfig.getScenarios().stream()
@@ -158,4 +175,14 @@ public class DynamicStrategyConfigService {
             return 0; // Default max NTP
         }
     }
+
+    private static final class CachedScenario {
+        private final long version;
+        private final Optional<ScalpingEntryConfig.Scenario> scenario;
+
+        private CachedScenario(long version, Optional<ScalpingEntryConfig.Scenario> scenario) {
+            this.version = version;
+            this.scenario = scenario;
+        }
+    }
 }
@@ -17,6 +17,7 @@ import org.springframework.stereotype.Service;
 
 import org.springframework.beans.factory.InitializingBean;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @Slf4j
@@ -35,6 +36,8 @@ public class TradingConfigurationService implements InitializingBean {
     private TimingConfig timingConfig;
     @Getter
     private ScalpingEntryConfig scalpingEntryConfig;
+    // Bumped whenever the scenarios are (re)loaded, so values derived from them can be cached per version
+    private final AtomicLong scenariosVersion = new AtomicLong();
 
     public TradingConfigurationService(ObjectMapper objectMapper, MongoConfigurationService mongoConfigurationService, TickSetupService tickSetupService) {
         this.objectMapper = objectMapper;
@@ -111,6 +114,7 @@ public class TradingConfigurationService implements InitializingBean {
 
             // Load configurable sections from MongoDB
             scalpingEntryConfig.setScenarios(mongoConfigurationService.getScenariosFromMongoDB());
+            scenariosVersion.incrementAndGet();
             log.info("Loaded {} scenarios from MongoDB", scalpingEntryConfig.getScenarios().size());
             
             scalpingEntryConfig.setCategoryScoring(mongoConfigurationService.getCategoryScoringFromMongoDB());
@@ -346,6 +350,13 @@ public class TradingConfigurationService implements InitializingBean {
         }
     }
 
+    /**
+     * Version of the loaded scenarios, incremented on every load or refresh.
+     */
+    public long getScenariosVersion() {
+        return scenariosVersion.get();
+    }
+
     /**
      * Refresh configuration from MongoDB
      * This method can be called to reload the configurable sections from MongoDB
@@ -356,6 +367,7 @@ public class TradingConfigurationService implements InitializingBean {
             
             // Reload configurable sections from MongoDB
             scalpingEntryConfig.setScenarios(mongoConfigurationService.getScenariosFromMongoDB());
+            scenariosVersion.incrementAndGet();
             scalpingEntryConfig.setCategoryScoring(mongoConfigurationService.getCategoryScoringFromMongoDB());
             scalpingEntryConfig.setNoTradeZones(mongoConfigurationService.getNoTradeZonesFromMongoDB());
             
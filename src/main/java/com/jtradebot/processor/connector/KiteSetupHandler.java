@@ -1,7 +1,9 @@
 package com.jtradebot.processor.connector;
 
 
+import com.jtradebot.processor.config.TradingHoursConfig;
 import com.jtradebot.processor.handler.KiteInstrumentHandler;
+import com.jtradebot.processor.manager.TickDataManager;
 import com.jtradebot.processor.repository.document.TradeConfig;
 import com.jtradebot.processor.service.TickSetupService;
 import com.zerodhatech.kiteconnect.KiteConnect;
@@ -11,6 +13,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.Date;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +23,8 @@ public class KiteSetupHandler {
     private final KiteInstrumentHandler kiteInstrumentHandler;
     private final KiteTickerHandler kiteTickerHandler;
     private final TickSetupService tickSetupService;
+    private final TickDataManager tickDataManager;
+    private final TradingHoursConfig tradingHoursConfig;
 
     public void init() throws KiteException, IOException {
         TradeConfig tradeConfig = tickSetupService.getTradeConfig();
@@ -28,11 +33,29 @@ public class KiteSetupHandler {
         }
         kiteConnect.setAccessToken(tradeConfig.getAccessToken());
         kiteTickerHandler.subscribeTickIndex(kiteInstrumentHandler.getNifty50Token());
-        kiteTickerHandler.subscribeTick(kiteInstrumentHandler.getNifty50FutureToken());
+        kiteTickerHandler.pinTick(kiteInstrumentHandler.getNifty50FutureToken());
+        warmUp(kiteInstrumentHandler.getNifty50Token());
+        warmUp(kiteInstrumentHandler.getNifty50FutureToken());
         kiteTickerHandler.setupWebSocket();
         log.info("Initialized KiteTickerHandler for Nifty50 on {}", tradeConfig.getDate());
     }
 
+    /**
+     * Load historical bars before an instrument's ticks start so the first tick does not wait on Kite's historical API.
+     * Initialisation on the first tick remains as the fallback if this fails.
+     */
+    private void warmUp(Long instrumentToken) {
+        if (instrumentToken == null || !tickDataManager.isNotInitialized(instrumentToken)) {
+            return;
+        }
+        try {
+            log.info("Warming up historical bars for instrument: {}", instrumentToken);
+            tickDataManager.initialize(String.valueOf(instrumentToken), tradingHoursConfig.getLastMarketTime(new Date()));
+        } catch (Exception e) {
+            log.warn("Historical warm-up failed for instrument: {} - {}", instrumentToken, e.getMessage());
+        }
+    }
+
     public void generateInstruments() throws IOException, KiteException {
         kiteInstrumentHandler.deleteInstruments();
         kiteInstrumentHandler.saveInstrumentTokens("NFO");
@@ -40,6 +63,13 @@ public class KiteSetupHandler {
 
     public void subscribeToken(String token) {
         log.info("Subscribing new token: {}", token);
-        kiteTickerHandler.subscribeTick(Long.parseLong(token));
+        Long instrumentToken = Long.parseLong(token);
+        warmUp(instrumentToken);
+        kiteTickerHandler.subscribeTick(instrumentToken);
+    }
+
+    public void unsubscribeToken(String token) {
+        log.info("Unsubscribing token: {}", token);
+        kiteTickerHandler.unsubscribeTick(Long.parseLong(token));
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.jtradebot.processor.connector;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reference-counted set of websocket token subscriptions.
+ * Pinned tokens (index and its future) are always subscribed; other tokens such as option strikes
+ * stay subscribed while at least one caller holds them. Changes are collected as a pending batch and
+ * applied by KiteTickerHandler on the live connection, so adding or removing a token never reconnects.
+ */
+@Component
+@Slf4j
+public class KiteSubscriptionManager {
+
+    private final Set<Long> pinnedTokens = new LinkedHashSet<>();
+    private final Map<Long, Integer> refCounts = new HashMap<>();
+    private final Set<Long> pendingSubscribe = new LinkedHashSet<>();
+    private final Set<Long> pendingUnsubscribe = new LinkedHashSet<>();
+
+    public synchronized void pin(long token) {
+        if (pinnedTokens.add(token) && !refCounts.containsKey(token)) {
+            markSubscribe(token);
+        }
+    }
+
+    public synchronized void acquire(long token) {
+        int count = refCounts.merge(token, 1, Integer::sum);
+        if (count == 1 && !pinnedTokens.contains(token)) {
+            markSubscribe(token);
+        }
+        log.debug("Token {} acquired - references: {}", token, count);
+    }
+
+    public synchronized void release(long token) {
+        Integer count = refCounts.get(token);
+        if (count == null) {
+            log.warn("Release requested for token {} which is not subscribed", token);
+            return;
+        }
+        if (count > 1) {
+            refCounts.put(token, count - 1);
+            return;
+        }
+        refCounts.remove(token);
+        if (!pinnedTokens.contains(token)) {
+            pendingSubscribe.remove(token);
+            pendingUnsubscribe.add(token);
+        }
+        log.debug("Token {} released - no references left", token);
+    }
+
+    public synchronized boolean isSubscribed(long token) {
+        return pinnedTokens.contains(token) || refCounts.containsKey(token);
+    }
+
+    public synchronized ArrayList<Long> getActiveTokens() {
+        Set<Long> active = new LinkedHashSet<>(pinnedTokens);
+        active.addAll(refCounts.keySet());
+        return new ArrayList<>(active);
+    }
+
+    public synchronized boolean hasPendingChanges() {
+        return !pendingSubscribe.isEmpty() || !pendingUnsubscribe.isEmpty();
+    }
+
+    /**
+     * Take the pending batch. Callers that fail to apply it should call restore.
+     */
+    public synchronized SubscriptionChanges drainPendingChanges() {
+        SubscriptionChanges changes = new SubscriptionChanges(new ArrayList<>(pendingSubscribe), new ArrayList<>(pendingUnsubscribe));
+        pendingSubscribe.clear();
+        pendingUnsubscribe.clear();
+        return changes;
+    }
+
+    public synchronized void restore(SubscriptionChanges changes) {
+        for (Long token : changes.getSubscribe()) {
+            if (isSubscribed(token)) {
+                pendingSubscribe.add(token);
+            }
+        }
+        for (Long token : changes.getUnsubscribe()) {
+            if (!isSubscribed(token)) {
+                pendingUnsubscribe.add(token);
+            }
+        }
+    }
+
+    /**
+     * Active tokens for a full (re)subscription, which makes the pending batch obsolete. Taken in one step so that
+     * a token acquired concurrently is either in the returned list or left pending for the next flush.
+     */
+    public synchronized ArrayList<Long> takeFullSubscription() {
+        pendingSubscribe.clear();
+        pendingUnsubscribe.clear();
+        return getActiveTokens();
+    }
+
+    private void markSubscribe(long token) {
+        pendingUnsubscribe.remove(token);
+        pendingSubscribe.add(token);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class SubscriptionChanges {
+        private final ArrayList<Long> subscribe;
+        private final ArrayList<Long> unsubscribe;
+
+        public boolean isEmpty() {
+            return subscribe.isEmpty() && unsubscribe.isEmpty();
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.jtradebot.processor.connector;
 
-import com.jtradebot.processor.service.TickOrchestrationService;
+import com.jtradebot.processor.pipeline.TickIngestionService;
 import com.zerodhatech.kiteconnect.KiteConnect;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.Tick;
@@ -8,6 +8,7 @@ import com.zerodhatech.ticker.KiteTicker;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -18,11 +19,11 @@ import java.util.ArrayList;
 public class KiteTickerHandler {
     @Getter
     private long lastTickReceivedTime = System.currentTimeMillis();
-    private KiteTicker kiteTicker;
+    // Replaced and used under this handler's lock (setupWebSocket, flushSubscriptions, reSubscribeTokens)
+    private volatile KiteTicker kiteTicker;
     private final KiteConnect kiteConnect;
-    private final TickOrchestrationService tickOrchestrationService;
-    private final ArrayList<Long> indexTokens = new ArrayList<>();
-    private final ArrayList<Long> tokens = new ArrayList<>();
+    private final TickIngestionService tickIngestionService;
+    private final KiteSubscriptionManager subscriptionManager;
 
     // Static counter to track the number of open connections
     private static int openConnectionCount = 0;
@@ -32,7 +33,7 @@ public class KiteTickerHandler {
     @Getter
     private long lastReconnectionAttemptTime = 0;
 
-    public void setupWebSocket() throws KiteException {
+    public synchronized void setupWebSocket() throws KiteException {
         disconnectExistingTicker(); // Disconnect any existing ticker before creating a new one
         kiteTicker = new KiteTicker(kiteConnect.getAccessToken(), kiteConnect.getApiKey());
 
@@ -59,10 +60,12 @@ public class KiteTickerHandler {
         kiteTicker.connect();
         incrementConnectionCount();
         log.info("Connection is open: {}, Active connections: {}", kiteTicker.isConnectionOpen(), openConnectionCount);
+        ArrayList<Long> tokens = subscriptionManager.takeFullSubscription(); // supersedes any pending batch
+        kiteTicker.subscribe(tokens);
         kiteTicker.setMode(tokens, KiteTicker.modeFull);
     }
 
-    public void disconnectExistingTicker() {
+    public synchronized void disconnectExistingTicker() {
         if (kiteTicker != null && kiteTicker.isConnectionOpen()) {
             log.warn("Existing connection found. Disconnecting...");
             kiteTicker.disconnect();
@@ -72,34 +75,64 @@ public class KiteTickerHandler {
 
     private void handleTicks(ArrayList<Tick> ticks) {
         try {
-            tickOrchestrationService.processLiveTicks(ticks,false); // market hours check is needed for live processing
+            tickIngestionService.publish(ticks); // strategy pipeline runs on the ingestion consumer thread
         } catch (Exception e) {
-            log.error("Error processing live ticks: {}", e.getMessage());
+            log.error("Error publishing live ticks: {}", e.getMessage());
         }
     }
 
     public void subscribeTickIndex(Long token) {
-        indexTokens.add(token);
-        subscribeTick(token);
+        pinTick(token);
     }
 
+    /**
+     * Subscribe a token for the whole session (index and its future). Idempotent.
+     */
+    public void pinTick(Long token) {
+        subscriptionManager.pin(token);
+        flushSubscriptions();
+    }
+
+    /**
+     * Add a reference to a token (e.g. an option strike). Batched and applied on the live connection by the next
+     * flush, without reconnecting.
+     */
     public void subscribeTick(Long token) {
-        if (!tokens.contains(token)) {
-            log.warn("Subscribing to token: {}", token);
-            addNewToken(token);
-            try {
-                setupWebSocket();
-                reSubscribeTokens();
-            } catch (KiteException e) {
-                throw new RuntimeException(e);
-            }
-        }
+        log.warn("Subscribing to token: {}", token);
+        subscriptionManager.acquire(token);
     }
 
-    private void addNewToken(Long token) {
-        tokens.clear();
-        tokens.addAll(indexTokens);
-        tokens.add(token);
+    /**
+     * Drop a reference to a token; it is unsubscribed by the next flush once no reference is left.
+     */
+    public void unsubscribeTick(Long token) {
+        log.warn("Releasing token: {}", token);
+        subscriptionManager.release(token);
+    }
+
+    /**
+     * Apply the pending subscribe/unsubscribe batch on the open connection.
+     * When disconnected the batch stays pending and setupWebSocket subscribes the full active set.
+     */
+    @Scheduled(fixedDelayString = "${kite-ticker.subscription-flush-ms:250}")
+    public synchronized void flushSubscriptions() {
+        if (!isConnectionOpen() || !subscriptionManager.hasPendingChanges()) {
+            return;
+        }
+        KiteSubscriptionManager.SubscriptionChanges changes = subscriptionManager.drainPendingChanges();
+        try {
+            if (!changes.getSubscribe().isEmpty()) {
+                kiteTicker.subscribe(changes.getSubscribe());
+                kiteTicker.setMode(changes.getSubscribe(), KiteTicker.modeFull);
+            }
+            if (!changes.getUnsubscribe().isEmpty()) {
+                kiteTicker.unsubscribe(changes.getUnsubscribe());
+            }
+            log.info("Applied subscription changes - Subscribed: {}, Unsubscribed: {}", changes.getSubscribe(), changes.getUnsubscribe());
+        } catch (Exception e) {
+            subscriptionManager.restore(changes);
+            log.error("Failed to apply subscription changes: {}", e.getMessage());
+        }
     }
 
     private void reconnect() {
@@ -139,8 +172,10 @@ public class KiteTickerHandler {
     }
 
 
-    public void reSubscribeTokens() {
+    public synchronized void reSubscribeTokens() {
         if (kiteTicker != null && kiteTicker.isConnectionOpen()) {
+            ArrayList<Long> tokens = subscriptionManager.takeFullSubscription();
+            kiteTicker.subscribe(tokens);
             kiteTicker.setMode(tokens, KiteTicker.modeFull);
             log.info("Re-subscribed tokens after reconnection");
         }
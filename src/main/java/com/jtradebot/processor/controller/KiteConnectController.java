@@ -178,6 +178,19 @@ public class KiteConnectController {
         return response;
     }
 
+    @PostMapping("/unsubscribeToken")
+    public Map<String, String> unsubscribeToken(@RequestBody Map<String, String> request) {
+        Map<String, String> response = new HashMap<>();
+        try {
+            String token = request.get("token");
+            kiteSetupHandler.unsubscribeToken(token);
+            response.put("message", "Token unsubscribed successfully");
+        } catch (Exception e) {
+            response.put("message", "Failed to unsubscribe token: " + e.getMessage());
+        }
+        return response;
+    }
+
     @GetMapping("/checkOptionInstruments")
     public Map<String, Object> checkOptionInstruments() {
         Map<String, Object> response = new HashMap<>();
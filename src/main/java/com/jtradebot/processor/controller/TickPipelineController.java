@@ -0,0 +1,90 @@
+package com.jtradebot.processor.controller;
+
+import com.jtradebot.processor.model.response.TickPipelineMetricsResponse;
+import com.jtradebot.processor.pipeline.TickIngestionService;
+import com.jtradebot.processor.service.tracking.DecisionLogService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller for tick ingestion pipeline metrics
+ * Exposes ring buffer depth, drop counters and publish-to-consume latency, and recent decision records
+ */
+@CrossOrigin(origins = {"http://localhost:5173", "https://jtradebot.com", "https://www.jtradebot.com"})
+@RestController
+@RequestMapping("/api/pipeline")
+@RequiredArgsConstructor
+@Slf4j
+public class TickPipelineController {
+
+    private final TickIngestionService tickIngestionService;
+    private final DecisionLogService decisionLogService;
+
+    /**
+     * Get current ingestion ring buffer metrics
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getPipelineMetrics() {
+        try {
+            TickPipelineMetricsResponse metrics = tickIngestionService.getMetrics();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", metrics);
+            response.put("message", "Tick pipeline metrics retrieved successfully");
+            response.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("❌ ERROR GETTING TICK PIPELINE METRICS: {}", e.getMessage(), e);
+
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "Failed to get tick pipeline metrics");
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+
+    /**
+     * Get the most recent per-tick decision records, rendered newest first
+     */
+    @GetMapping("/decisions")
+    public ResponseEntity<Map<String, Object>> getRecentDecisions(@RequestParam(defaultValue = "50") int limit) {
+        try {
+            List<String> records = decisionLogService.getRecentRecords(limit);
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("records", records);
+            data.put("recordedCount", decisionLogService.getRecordedCount());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", data);
+            response.put("message", "Decision records retrieved successfully");
+            response.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("❌ ERROR GETTING DECISION RECORDS: {}", e.getMessage(), e);
+
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "Failed to get decision records");
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.jtradebot.processor.handler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * Session calendar for bar boundaries, precomputed per market day so that mapping a tick to its bar start
+ * is integer arithmetic plus an array lookup. Regular open/close, half-days (early close) and special
+ * sessions (e.g. Muhurat trading) are all configured under {@code market-session}.
+ * Asia/Kolkata has no DST, so a market day is a fixed-offset division of epoch millis.
+ */
+@Component
+@Slf4j
+public class MarketSessionCalendar {
+
+    public static final ZoneId MARKET_ZONE = ZoneId.of("Asia/Kolkata");
+    public static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private static final int CALENDAR_DAYS_BACK = 400;
+    private static final int CALENDAR_DAYS_AHEAD = 400;
+
+    private final long zoneOffsetMillis;
+    private final int regularOpenMillis;
+    private final int regularCloseMillis;
+    private final long firstDay;
+    private final int[] openMillisByDay;
+    private final int[] closeMillisByDay;
+
+    @Autowired
+    public MarketSessionCalendar(@Value("${market-session.open:09:15}") String open,
+                                 @Value("${market-session.close:15:30}") String close,
+                                 @Value("${market-session.half-days:}") String halfDays,
+                                 @Value("${market-session.special-sessions:}") String specialSessions) {
+        this(open, close, halfDays, specialSessions, System.currentTimeMillis());
+    }
+
+    MarketSessionCalendar(String open, String close, String halfDays, String specialSessions, long nowMillis) {
+        this.zoneOffsetMillis = MARKET_ZONE.getRules().getOffset(Instant.ofEpochMilli(nowMillis)).getTotalSeconds() * 1000L;
+        this.regularOpenMillis = millisOfDay(open);
+        this.regularCloseMillis = millisOfDay(close);
+        this.firstDay = marketDay(nowMillis) - CALENDAR_DAYS_BACK;
+        this.openMillisByDay = new int[CALENDAR_DAYS_BACK + CALENDAR_DAYS_AHEAD + 1];
+        this.closeMillisByDay = new int[openMillisByDay.length];
+        Arrays.fill(openMillisByDay, regularOpenMillis);
+        Arrays.fill(closeMillisByDay, regularCloseMillis);
+
+        // Half-days: "yyyy-MM-dd=HH:mm" (early close), comma separated
+        for (String entry : entries(halfDays)) {
+            String[] parts = entry.split("=");
+            int index = dayIndex(LocalDate.parse(parts[0].trim()).toEpochDay());
+            if (index >= 0) {
+                closeMillisByDay[index] = millisOfDay(parts[1]);
+            }
+        }
+        // Special sessions: "yyyy-MM-dd=HH:mm-HH:mm", comma separated
+        for (String entry : entries(specialSessions)) {
+            String[] parts = entry.split("=");
+            String[] times = parts[1].split("-");
+            int index = dayIndex(LocalDate.parse(parts[0].trim()).toEpochDay());
+            if (index >= 0) {
+                openMillisByDay[index] = millisOfDay(times[0]);
+                closeMillisByDay[index] = millisOfDay(times[1]);
+            }
+        }
+        log.info("📅 Market session calendar ready - Regular session: {}-{}, Half-days: [{}], Special sessions: [{}]",
+                open, close, halfDays, specialSessions);
+    }
+
+    /**
+     * Market day (epoch day in the market zone) of an instant.
+     */
+    public long marketDay(long epochMillis) {
+        return Math.floorDiv(epochMillis + zoneOffsetMillis, MILLIS_PER_DAY);
+    }
+
+    public long getSessionOpenMillis(long epochMillis) {
+        long day = marketDay(epochMillis);
+        return dayStartMillis(day) + openMillisOfDay(day);
+    }
+
+    public long getSessionCloseMillis(long epochMillis) {
+        long day = marketDay(epochMillis);
+        return dayStartMillis(day) + closeMillisOfDay(day);
+    }
+
+    public boolean isInSession(long epochMillis) {
+        return epochMillis >= getSessionOpenMillis(epochMillis) && epochMillis < getSessionCloseMillis(epochMillis);
+    }
+
+    /**
+     * Start of the bar containing the instant, with bars anchored at the day's session open.
+     * Instants before the open map to the open; bars of a day or longer start at the session open.
+     */
+    public long getBarStartMillis(long epochMillis, long barMillis) {
+        long day = marketDay(epochMillis);
+        long sessionOpen = dayStartMillis(day) + openMillisOfDay(day);
+        if (barMillis >= MILLIS_PER_DAY || epochMillis <= sessionOpen) {
+            return sessionOpen;
+        }
+        // Bars are aligned to whole minutes since the open, as Kite candles are
+        long minutesSinceOpen = (epochMillis - sessionOpen) / 60_000L;
+        long barMinutes = barMillis / 60_000L;
+        return sessionOpen + (minutesSinceOpen / barMinutes) * barMinutes * 60_000L;
+    }
+
+    private long dayStartMillis(long day) {
+        return day * MILLIS_PER_DAY - zoneOffsetMillis;
+    }
+
+    private int openMillisOfDay(long day) {
+        int index = dayIndex(day);
+        return index >= 0 ? openMillisByDay[index] : regularOpenMillis;
+    }
+
+    private int closeMillisOfDay(long day) {
+        int index = dayIndex(day);
+        return index >= 0 ? closeMillisByDay[index] : regularCloseMillis;
+    }
+
+    private int dayIndex(long day) {
+        long index = day - firstDay;
+        return index >= 0 && index < openMillisByDay.length ? (int) index : -1;
+    }
+
+    private static int millisOfDay(String time) {
+        return LocalTime.parse(time.trim()).toSecondOfDay() * 1000;
+    }
+
+    private static String[] entries(String value) {
+        return value == null || value.isBlank() ? new String[0] : value.split(",");
+    }
+}
@@ -0,0 +1,84 @@
+package com.jtradebot.processor.indicator;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+
+/**
+ * Closed-bar half of a streaming indicator. Every bar except the series' last (forming) one is folded exactly once,
+ * when it closes; a {@link FormingBarRead} applies the forming bar provisionally on top of this state on every read,
+ * so the per-tick cost does not depend on the series length.
+ * Subclasses fold one bar in {@link #onBarClose} and drop what they folded in {@link #onReset}.
+ * Not thread-safe: states are kept and locked per series by {@link SeriesStateRegistry}.
+ */
+public abstract class ClosedBarState {
+
+    private int firstClosedIndex;
+    private int lastClosedIndex = -1;
+
+    /**
+     * Fold bars closed since the last call. Starts over if the series moved past the folded bars
+     * (evicted while idle) or went backwards.
+     *
+     * @return true if a bar was folded or the state started over
+     */
+    public boolean sync(BarSeries series) {
+        int closedEnd = series.getEndIndex() - 1;
+        boolean changed = false;
+        if (closedEnd < lastClosedIndex || lastClosedIndex < series.getBeginIndex() - 1) {
+            firstClosedIndex = series.getBeginIndex();
+            lastClosedIndex = firstClosedIndex - 1;
+            onReset();
+            changed = true;
+        }
+        while (lastClosedIndex < closedEnd) {
+            onBarClose(series, lastClosedIndex + 1);
+            lastClosedIndex++;
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Fold the bar at {@code index}, which just closed. {@link #getLastClosedIndex()} is still the previous bar.
+     */
+    protected abstract void onBarClose(BarSeries series, int index);
+
+    /**
+     * Drop everything folded so far; folding restarts at {@link #getFirstClosedIndex()}.
+     */
+    protected abstract void onReset();
+
+    /**
+     * Start over on the next {@link #sync}, e.g. after the state's capacity changed.
+     */
+    protected void invalidate() {
+        lastClosedIndex = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Index of the first bar folded since the last reset.
+     */
+    public int getFirstClosedIndex() {
+        return firstClosedIndex;
+    }
+
+    /**
+     * Index of the last folded bar, below {@link #getFirstClosedIndex()} if none.
+     */
+    public int getLastClosedIndex() {
+        return lastClosedIndex;
+    }
+
+    /**
+     * Forming-bar half of a streaming indicator: a value at the series' last bar, computed from the folded closed
+     * bars plus that bar. Must leave the folded state unchanged; the bar is folded once it has closed.
+     */
+    @FunctionalInterface
+    public interface FormingBarRead<S extends ClosedBarState, R> {
+
+        /**
+         * @param formingBar the series' last bar, null if the series is empty
+         */
+        R read(S state, Bar formingBar);
+    }
+}
@@ -6,17 +6,21 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.ta4j.core.Bar;
 import org.ta4j.core.BarSeries;
-import org.ta4j.core.indicators.EMAIndicator;
-import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
 
 @Component
 @Slf4j
 public class MACDIndicator {
     
+    private static final int FAST_PERIOD = 12;
+    private static final int SLOW_PERIOD = 26;
+    private static final int SIGNAL_PERIOD = 9;
+
+    private final SeriesStateRegistry<MacdState> seriesStates = new SeriesStateRegistry<>(MacdState::new);
+
     /**
-     * Calculate MACD values for the given timeframe
+     * Calculate MACD values for the given timeframe.
+     * Fast/slow EMAs and the closed bars' MACD values are carried across calls; only the forming bar is recomputed.
      */
     public MACDResult calculateMACD(BarSeries barSeries) {
         try {
@@ -25,72 +29,82 @@ public class MACDIndicator {
                          barSeries != null ? barSeries.getBarCount() : 0);
                 return MACDResult.noSignal();
             }
-            
-            ClosePriceIndicator closePrice = new ClosePriceIndicator(barSeries);
-            
-            // Calculate MACD (12-period EMA - 26-period EMA)
-            EMAIndicator ema12 = new EMAIndicator(closePrice, 12);
-            EMAIndicator ema26 = new EMAIndicator(closePrice, 26);
-            
-            // Calculate MACD line manually
-            int endIndex = barSeries.getEndIndex();
-            double currentEma12 = ema12.getValue(endIndex).doubleValue();
-            double currentEma26 = ema26.getValue(endIndex).doubleValue();
-            double currentMacd = currentEma12 - currentEma26;
-            
-            double previousEma12 = endIndex > 0 ? ema12.getValue(endIndex - 1).doubleValue() : currentEma12;
-            double previousEma26 = endIndex > 0 ? ema26.getValue(endIndex - 1).doubleValue() : currentEma26;
-            double previousMacd = previousEma12 - previousEma26;
-            
-            // Calculate Signal line (9-period average of MACD)
-            double signalLine = calculateSignalLine(barSeries, endIndex);
-            double previousSignalLine = endIndex > 0 ? calculateSignalLine(barSeries, endIndex - 1) : signalLine;
-            
-            // Determine signals
-            boolean bullishCrossover = currentMacd > signalLine && previousMacd <= previousSignalLine;
-            boolean bearishCrossover = currentMacd < signalLine && previousMacd >= previousSignalLine;
-            boolean aboveZero = currentMacd > 0;
-            boolean belowZero = currentMacd < 0;
-            
+
+            MACDResult result = seriesStates.read(barSeries, (state, formingBar) -> {
+                int endIndex = barSeries.getEndIndex();
+                double close = formingBar.getClosePrice().doubleValue();
+                double currentMacd = state.fastEma.peek(close) - state.slowEma.peek(close);
+                double previousMacd = state.closedCount > 0 ? state.lastClosedMacd(0) : currentMacd;
+
+                // Signal line (9-period average of MACD) at the forming bar and at the last closed bar
+                int periods = Math.min(SIGNAL_PERIOD, endIndex + 1);
+                double signalLine = (currentMacd + state.sumOfLastClosed(periods - 1)) / periods;
+                int previousPeriods = Math.min(SIGNAL_PERIOD, endIndex);
+                double previousSignalLine = previousPeriods > 0 && state.closedCount >= previousPeriods
+                        ? state.sumOfLastClosed(previousPeriods) / previousPeriods : signalLine;
+
+                // Determine signals
+                return MACDResult.builder()
+                        .macdLine(currentMacd)
+                        .signalLine(signalLine)
+                        .isBullishCrossover(currentMacd > signalLine && previousMacd <= previousSignalLine)
+                        .isBearishCrossover(currentMacd < signalLine && previousMacd >= previousSignalLine)
+                        .isAboveZero(currentMacd > 0)
+                        .isBelowZero(currentMacd < 0)
+                        .build();
+            });
+
             log.debug("MACD Analysis - MACD: {}, Signal: {}, Bullish Crossover: {}, Bearish Crossover: {}, Above Zero: {}", 
-                     currentMacd, signalLine, bullishCrossover, bearishCrossover, aboveZero);
-            
-            return MACDResult.builder()
-                    .macdLine(currentMacd)
-                    .signalLine(signalLine)
-                    .isBullishCrossover(bullishCrossover)
-                    .isBearishCrossover(bearishCrossover)
-                    .isAboveZero(aboveZero)
-                    .isBelowZero(belowZero)
-                    .build();
+                     result.getMacdLine(), result.getSignalLine(), result.isBullishCrossover(), result.isBearishCrossover(), result.isAboveZero());
+
+            return result;
                     
         } catch (Exception e) {
             log.error("Error calculating MACD: {}", e.getMessage(), e);
             return MACDResult.noSignal();
         }
     }
-    
+
     /**
-     * Calculate simple signal line (9-period average of MACD)
+     * Fast/slow EMAs folded up to the last closed bar and a ring of the closed bars' MACD values,
+     * enough for the simple-average signal line at the forming and the last closed bar.
      */
-    private double calculateSignalLine(BarSeries barSeries, int endIndex) {
-        try {
-            ClosePriceIndicator closePrice = new ClosePriceIndicator(barSeries);
-            EMAIndicator ema12 = new EMAIndicator(closePrice, 12);
-            EMAIndicator ema26 = new EMAIndicator(closePrice, 26);
-            
-            double sum = 0.0;
-            int periods = Math.min(9, endIndex + 1);
-            
-            for (int i = endIndex - periods + 1; i <= endIndex; i++) {
-                double ema12Value = ema12.getValue(i).doubleValue();
-                double ema26Value = ema26.getValue(i).doubleValue();
-                sum += (ema12Value - ema26Value);
+    private static final class MacdState extends ClosedBarState {
+
+        private static final int MACD_RING_SIZE = 16;
+
+        private final StreamingEma fastEma = new StreamingEma(FAST_PERIOD);
+        private final StreamingEma slowEma = new StreamingEma(SLOW_PERIOD);
+        private final double[] macdValues = new double[MACD_RING_SIZE];
+        private long closedCount;
+
+        @Override
+        protected void onBarClose(BarSeries series, int index) {
+            double close = series.getBar(index).getClosePrice().doubleValue();
+            double macd = fastEma.update(close) - slowEma.update(close);
+            macdValues[(int) (closedCount++ & (MACD_RING_SIZE - 1))] = macd;
+        }
+
+        @Override
+        protected void onReset() {
+            fastEma.reset();
+            slowEma.reset();
+            closedCount = 0;
+        }
+
+        /**
+         * MACD of the closed bar {@code back} bars before the last closed one.
+         */
+        double lastClosedMacd(int back) {
+            return macdValues[(int) ((closedCount - 1 - back) & (MACD_RING_SIZE - 1))];
+        }
+
+        double sumOfLastClosed(int count) {
+            double sum = 0;
+            for (int back = 0; back < Math.min(count, closedCount); back++) {
+                sum += lastClosedMacd(back);
             }
-            
-            return sum / periods;
-        } catch (Exception e) {
-            return 0.0;
+            return sum;
         }
     }
     
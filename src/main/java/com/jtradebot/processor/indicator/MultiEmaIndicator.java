@@ -1,7 +1,6 @@
 package com.jtradebot.processor.indicator;
 
 import com.jtradebot.processor.model.enums.CandleTimeFrameEnum;
-import com.jtradebot.processor.model.indicator.EmaIndicatorInfo;
 import com.jtradebot.processor.model.indicator.EmaInfo;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -9,6 +8,8 @@ import org.ta4j.core.BarSeries;
 import org.ta4j.core.indicators.EMAIndicator;
 import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
 
+import java.util.Arrays;
+
 
 @Component
 @Slf4j
@@ -22,6 +23,10 @@ public class MultiEmaIndicator {
     private static final int EMA_34 = 34;
     private static final int EMA_200 = 200;
 
+    private static final int[] STANDARD_PERIODS = {EMA_5, EMA_9, EMA_14, EMA_20, EMA_34, EMA_200};
+
+    private final SeriesStateRegistry<SeriesEmaState> seriesStates = new SeriesStateRegistry<>(SeriesEmaState::new);
+
     /**
      * Creates EMA indicator for a given period
      */
@@ -30,48 +35,54 @@ public class MultiEmaIndicator {
     }
 
     /**
-     * Calculates EMA values for all standard periods at the end index
+     * Calculates EMA values for all standard periods at the end index.
+     * Closed bars are folded into streaming EMAs once; the forming bar's close is applied provisionally.
+     * An empty series yields no EMA values.
      */
     public EmaInfo calculateEmaValues(BarSeries series, CandleTimeFrameEnum timeframe) {
-        EmaIndicatorInfo emaIndicatorInfo = createEmaInfoForTimeframes(series, timeframe);
-        int endIndex = series.getEndIndex();
-        
-        EmaInfo emaInfo = new EmaInfo();
-        emaInfo.setTimeFrame(timeframe);
-        emaInfo.setEma5(getEmaValueAt(emaIndicatorInfo.getEma5(), endIndex));
-        emaInfo.setEma9(getEmaValueAt(emaIndicatorInfo.getEma9(), endIndex));
-        emaInfo.setEma14(getEmaValueAt(emaIndicatorInfo.getEma14(), endIndex));
-        emaInfo.setEma20(getEmaValueAt(emaIndicatorInfo.getEma20(), endIndex));
-        emaInfo.setEma34(getEmaValueAt(emaIndicatorInfo.getEma34(), endIndex));
-        emaInfo.setEma200(getEmaValueAt(emaIndicatorInfo.getEma200(), endIndex));
-        return emaInfo;
+        return seriesStates.read(series, (state, formingBar) -> {
+            EmaInfo emaInfo = new EmaInfo();
+            emaInfo.setTimeFrame(timeframe);
+            if (formingBar == null) {
+                return emaInfo;
+            }
+            double close = formingBar.getClosePrice().doubleValue();
+            emaInfo.setEma5(state.get(series, EMA_5).peek(close));
+            emaInfo.setEma9(state.get(series, EMA_9).peek(close));
+            emaInfo.setEma14(state.get(series, EMA_14).peek(close));
+            emaInfo.setEma20(state.get(series, EMA_20).peek(close));
+            emaInfo.setEma34(state.get(series, EMA_34).peek(close));
+            emaInfo.setEma200(state.get(series, EMA_200).peek(close));
+            return emaInfo;
+        });
     }
 
     /**
-     * Gets EMA value for a specific period at a specific index
+     * Gets EMA value for a specific period at a specific index.
+     * The forming bar and the last closed bar come from the streaming state; older indices are recomputed.
      */
     public double getEmaValue(BarSeries series, int barCount, int endIndex) {
+        int seriesEndIndex = series.getEndIndex();
+        if (endIndex == seriesEndIndex || endIndex == seriesEndIndex - 1) {
+            Double streamed = seriesStates.read(series, (state, formingBar) -> {
+                if (formingBar == null) {
+                    return null;
+                }
+                StreamingEma ema = state.get(series, barCount);
+                if (endIndex == seriesEndIndex) {
+                    return ema.peek(formingBar.getClosePrice().doubleValue());
+                }
+                return ema.isSeeded() ? ema.getValue() : null;
+            });
+            if (streamed != null) {
+                return streamed;
+            }
+        }
         ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
         EMAIndicator emaIndicator = createEmaIndicator(closePrice, barCount);
         return getEmaValueAt(emaIndicator, endIndex);
     }
 
-    /**
-     * Creates EMA indicator info for all standard periods
-     */
-    public EmaIndicatorInfo createEmaInfoForTimeframes(BarSeries series, CandleTimeFrameEnum timeframe) {
-        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
-        EmaIndicatorInfo emaIndicatorInfo = new EmaIndicatorInfo();
-        emaIndicatorInfo.setTimeFrame(timeframe);
-        emaIndicatorInfo.setEma5(createEmaIndicator(closePrice, EMA_5));
-        emaIndicatorInfo.setEma9(createEmaIndicator(closePrice, EMA_9));
-        emaIndicatorInfo.setEma14(createEmaIndicator(closePrice, EMA_14));
-        emaIndicatorInfo.setEma20(createEmaIndicator(closePrice, EMA_20));
-        emaIndicatorInfo.setEma34(createEmaIndicator(closePrice, EMA_34));
-        emaIndicatorInfo.setEma200(createEmaIndicator(closePrice, EMA_200));
-        return emaIndicatorInfo;
-    }
-
     /**
      * Gets EMA value at a specific index
      */
@@ -79,5 +90,59 @@ public class MultiEmaIndicator {
         return emaIndicator.getValue(index).doubleValue();
     }
 
+    private static double closeAt(BarSeries series, int index) {
+        return series.getBar(index).getClosePrice().doubleValue();
+    }
+
+    /**
+     * EMAs of one series folded up to its last closed bar. Seeded at the first retained bar like a freshly built
+     * ta4j EMAIndicator; once older bars are evicted the seed's weight is below BarRetentionPolicy's tolerance.
+     */
+    static final class SeriesEmaState extends ClosedBarState {
+
+        private StreamingEma[] emas = new StreamingEma[0];
+
+        SeriesEmaState() {
+            for (int period : STANDARD_PERIODS) {
+                add(new StreamingEma(period));
+            }
+        }
 
+        @Override
+        protected void onBarClose(BarSeries series, int index) {
+            double close = closeAt(series, index);
+            for (StreamingEma ema : emas) {
+                ema.update(close);
+            }
+        }
+
+        @Override
+        protected void onReset() {
+            for (StreamingEma ema : emas) {
+                ema.reset();
+            }
+        }
+
+        /**
+         * EMA for the period, replaying the folded bars when a non-standard period is first requested.
+         */
+        StreamingEma get(BarSeries series, int period) {
+            for (StreamingEma ema : emas) {
+                if (ema.getPeriod() == period) {
+                    return ema;
+                }
+            }
+            StreamingEma ema = new StreamingEma(period);
+            for (int i = Math.max(getFirstClosedIndex(), series.getBeginIndex()); i <= getLastClosedIndex(); i++) {
+                ema.update(closeAt(series, i));
+            }
+            add(ema);
+            return ema;
+        }
+
+        private void add(StreamingEma ema) {
+            emas = Arrays.copyOf(emas, emas.length + 1);
+            emas[emas.length - 1] = ema;
+        }
+    }
 }
@@ -25,6 +25,9 @@ public class PriceVolumeSurgeIndicator {
     private final Map<String, VolumeSurgeCacheEntry> volumeSurgeCache = new ConcurrentHashMap<>();
     private static final long CACHE_DURATION_MS = 1000; // 1 second cache
 
+    // Rolling volume windows per bar series
+    private final SeriesStateRegistry<VolumeWindows> volumeWindows = new SeriesStateRegistry<>(VolumeWindows::new);
+
     public VolumeSurgeResult calculateVolumeSurge(String instrumentToken, CandleTimeFrameEnum timeframe, long currentVolume) {
         try {
             BarSeries barSeries = tickDataManager.getBarSeriesForTimeFrame(instrumentToken, timeframe);
@@ -33,8 +36,16 @@ public class PriceVolumeSurgeIndicator {
                         instrumentToken, timeframe, barSeries != null ? barSeries.getBarCount() : 0);
                 return VolumeSurgeResult.noSurge();
             }
-            double avgVol = calculateAverageVolume(barSeries, 20);
-            double recentAvgVol = calculateAverageVolume(barSeries, 5);
+            VolumeStats stats = volumeWindows.read(barSeries, (windows, formingBar) -> {
+                double formingVolume = formingBar.getVolume().doubleValue();
+                return new VolumeStats(windows.averageVolume(formingVolume), windows.recentAverageVolume(formingVolume),
+                        barSeries.getBarCount() >= 10 && windows.isVolumeTrendingUp(formingVolume),
+                        windows.volumeMomentum(formingVolume));
+            });
+            double avgVol = stats.averageVolume;
+            double recentAvgVol = stats.recentAverageVolume;
+            boolean trendingUp = stats.trendingUp;
+            double momentum = stats.momentum;
             final double MIN_AVG_VOL = 1.0, MAX_VOL_MULT = 100.0;
             log.debug("Volume Analysis - Instrument: {}, Timeframe: {}, Current: {}, Avg(20): {}, Avg(5): {}",
                     instrumentToken, timeframe, currentVolume, avgVol, recentAvgVol);
@@ -51,8 +62,6 @@ public class PriceVolumeSurgeIndicator {
                         MAX_VOL_MULT, instrumentToken, timeframe, currentVolume, avgVol, recentAvgVol);
             }
             VolumeSurgeStrength strength = determineSurgeStrength(volMult, recentVolMult);
-            boolean trendingUp = checkVolumeTrend(barSeries);
-            double momentum = calculateVolumeMomentum(barSeries);
             double threshold = configService.getCallVolumeSurgeMultiplier();
             return VolumeSurgeResult.builder()
                     .surge(volMult >= threshold)
@@ -103,7 +112,8 @@ public class PriceVolumeSurgeIndicator {
             }
             
             Bar currentBar = barSeries.getBar(barSeries.getEndIndex());
-            double avgVolume = calculateAverageVolume(barSeries, 20);
+            double avgVolume = volumeWindows.read(barSeries,
+                    (windows, formingBar) -> windows.averageVolume(formingBar.getVolume().doubleValue()));
             double volumeMultiplier = avgVolume > 0 ? currentBar.getVolume().doubleValue() / avgVolume : 1.0;
             
             // Check if volume surge threshold is met
@@ -139,15 +149,6 @@ public class PriceVolumeSurgeIndicator {
         }
     }
 
-    private double calculateAverageVolume(BarSeries barSeries, int periods) {
-        if (barSeries.getBarCount() < periods) return 0.0;
-        double sum = 0.0;
-        int start = barSeries.getBarCount() - periods;
-        for (int i = start; i < barSeries.getBarCount(); i++)
-            sum += barSeries.getBar(i).getVolume().doubleValue();
-        return sum / periods;
-    }
-
     private VolumeSurgeStrength determineSurgeStrength(double volMult, double recentVolMult) {
         double base = configService.getCallVolumeSurgeMultiplier();
         if (volMult >= base * 2.5 || recentVolMult >= base * 2.5) return VolumeSurgeStrength.EXTREME;
@@ -157,25 +158,88 @@ public class PriceVolumeSurgeIndicator {
         return VolumeSurgeStrength.NONE;
     }
 
-    private boolean checkVolumeTrend(BarSeries barSeries) {
-        if (barSeries.getBarCount() < 10) return false;
-        double recent = calculateAverageVolume(barSeries, 5);
-        double older = 0.0;
-        int start = barSeries.getBarCount() - 10, end = barSeries.getBarCount() - 5;
-        for (int i = start; i < end; i++)
-            older += barSeries.getBar(i).getVolume().doubleValue();
-        older /= 5.0;
-        return recent > older * 1.05;
-    }
+    /**
+     * Rolling volume sums of one series' closed bars, updated once per bar close. Windows match the previous
+     * bar walks: the 20- and 5-bar averages include the forming bar, the trend compares the last 5 bars with
+     * the 5 before them, and momentum compares the forming bar with the last closed one.
+     */
+    private static final class VolumeWindows extends ClosedBarState {
+
+        private static final int RING_SIZE = 32;
+        private static final int LONG_PERIOD = 20;
+        private static final int SHORT_PERIOD = 5;
+
+        private final double[] volumes = new double[RING_SIZE];
+        private long closedCount;
+
+        // Closed bars 0..18 and 0..3 back from the newest closed bar, and 4..8 back (bars 6 to 10 from the end)
+        private double closedSumLong;
+        private double closedSumShort;
+        private double olderSum;
+
+        @Override
+        protected void onBarClose(BarSeries series, int index) {
+            push(series.getBar(index).getVolume().doubleValue());
+        }
+
+        @Override
+        protected void onReset() {
+            closedCount = 0;
+            closedSumLong = 0;
+            closedSumShort = 0;
+            olderSum = 0;
+        }
+
+        private void push(double volume) {
+            volumes[(int) (closedCount++ & (RING_SIZE - 1))] = volume;
+            closedSumLong += volume - back(LONG_PERIOD - 1);
+            closedSumShort += volume - back(SHORT_PERIOD - 1);
+            olderSum += back(SHORT_PERIOD - 1) - back(2 * SHORT_PERIOD - 1);
+        }
 
-    private double calculateVolumeMomentum(BarSeries barSeries) {
-        if (barSeries.getBarCount() < 3) return 0.0;
-        double curr = barSeries.getBar(barSeries.getBarCount() - 1).getVolume().doubleValue();
-        double prev = barSeries.getBar(barSeries.getBarCount() - 2).getVolume().doubleValue();
-        if (prev == 0) return 0.0;
-        return ((curr - prev) / prev) * 100;
+        /**
+         * Volume of the closed bar {@code n} bars before the newest closed one, 0 before the first.
+         */
+        private double back(int n) {
+            return n < closedCount ? volumes[(int) ((closedCount - 1 - n) & (RING_SIZE - 1))] : 0.0;
+        }
+
+        double averageVolume(double formingVolume) {
+            return (closedSumLong + formingVolume) / LONG_PERIOD;
+        }
+
+        double recentAverageVolume(double formingVolume) {
+            return (closedSumShort + formingVolume) / SHORT_PERIOD;
+        }
+
+        boolean isVolumeTrendingUp(double formingVolume) {
+            return recentAverageVolume(formingVolume) > (olderSum / SHORT_PERIOD) * 1.05;
+        }
+
+        double volumeMomentum(double formingVolume) {
+            double previous = back(0);
+            if (closedCount < 2 || previous == 0) return 0.0;
+            return ((formingVolume - previous) / previous) * 100;
+        }
     }
 
+    /**
+     * Volume averages read at the forming bar.
+     */
+    private static final class VolumeStats {
+
+        private final double averageVolume;
+        private final double recentAverageVolume;
+        private final boolean trendingUp;
+        private final double momentum;
+
+        private VolumeStats(double averageVolume, double recentAverageVolume, boolean trendingUp, double momentum) {
+            this.averageVolume = averageVolume;
+            this.recentAverageVolume = recentAverageVolume;
+            this.trendingUp = trendingUp;
+            this.momentum = momentum;
+        }
+    }
 
     @Getter
     @Builder
@@ -1,29 +1,40 @@
 package com.jtradebot.processor.indicator;
 
 import com.jtradebot.processor.model.enums.DivergenceType;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.ta4j.core.Bar;
 import org.ta4j.core.BarSeries;
-import org.ta4j.core.Indicator;
-import org.ta4j.core.indicators.RSIIndicator;
-import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
-import org.ta4j.core.num.Num;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class RsiIndicator {
 
+    // Incremental RSI state per RSI period, and divergence state per RSI period and lookback
+    private final Map<Integer, SeriesStateRegistry<RsiState>> rsiStates = new ConcurrentHashMap<>();
+    private final Map<Long, SeriesStateRegistry<DivergenceState>> divergenceStates = new ConcurrentHashMap<>();
+
+    private final boolean divergenceEnabled;
+
+    public RsiIndicator() {
+        this(false);
+    }
+
+    @Autowired
+    public RsiIndicator(@Value("${indicators.rsi-divergence.enabled:false}") boolean divergenceEnabled) {
+        this.divergenceEnabled = divergenceEnabled;
+    }
+
+    /**
+     * RSI at the forming bar. Average gain/loss are carried across closed bars, the forming bar is applied provisionally.
+     */
     public double getRsiValue(BarSeries series, int barCount) {
-        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
-        // RSI 14 Indicator
-        RSIIndicator rsi14 = new RSIIndicator(closePrice, barCount);
-        int lastIndex = series.getEndIndex();
-        return rsi14.getValue(lastIndex).doubleValue();
+        return rsiStates(barCount).read(series, RsiState::currentRsi);
     }
 
     /**
@@ -35,109 +46,220 @@ public class RsiIndicator {
      */
     public double getRsiMaValue(BarSeries series, int rsiPeriod, int maPeriod) {
         try {
-            ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
-            RSIIndicator rsiIndicator = new RSIIndicator(closePrice, rsiPeriod);
-            
-            // Calculate simple moving average of RSI values
-            double sum = 0.0;
-            int startIndex = Math.max(series.getBeginIndex(), series.getEndIndex() - maPeriod + 1);
-            int count = 0;
-            
-            for (int i = startIndex; i <= series.getEndIndex(); i++) {
-                sum += rsiIndicator.getValue(i).doubleValue();
-                count++;
-            }
-            
-            return count > 0 ? sum / count : 0.0;
+            return rsiStates(rsiPeriod).read(series, (state, formingBar) -> {
+                state.sync(series, maPeriod);
+                // Simple moving average of the forming bar's RSI and the last closed bars' RSI values
+                int closedValues = (int) Math.min(maPeriod - 1, state.getClosedCount());
+                double sum = state.currentRsi(formingBar) + state.sumOfLastClosed(closedValues);
+                return sum / (closedValues + 1);
+            });
         } catch (Exception e) {
             log.error("Error calculating RSI MA: {}", e.getMessage());
             return 0.0;
         }
     }
 
-    // Adjust the lookback period
-    private List<Integer> findSwingHighs(Indicator<Num> indicator, int startIndex, int endIndex, int lookback) {
-        List<Integer> swingHighs = new ArrayList<>();
-        for (int i = startIndex + lookback; i <= endIndex - lookback; i++) {
-            boolean isSwingHigh = true;
-            Num currentValue = indicator.getValue(i);
-            for (int j = i - lookback; j <= i + lookback; j++) {
-                if (j == i) continue;
-                if (indicator.getValue(j).isGreaterThanOrEqual(currentValue)) {
-                    isSwingHigh = false;
-                    break;
-                }
+    private SeriesStateRegistry<RsiState> rsiStates(int rsiPeriod) {
+        return rsiStates.computeIfAbsent(rsiPeriod, p -> new SeriesStateRegistry<>(() -> new RsiState(p)));
+    }
+
+    private static double closeAt(BarSeries series, int index) {
+        return series.getBar(index).getClosePrice().doubleValue();
+    }
+
+    private static double rsi(double averageGain, double averageLoss) {
+        if (averageLoss == 0) {
+            return averageGain == 0 ? 0 : 100;
+        }
+        return 100 - 100 / (1 + averageGain / averageLoss);
+    }
+
+    /**
+     * Wilder RSI folded up to the last closed bar, plus a ring of the closed bars' RSI values for the RSI MA.
+     * Mirrors ta4j's RSIIndicator: the first retained bar has zero gain and loss and seeds both averages.
+     */
+    static final class RsiState extends ClosedBarState {
+
+        private final StreamingEma averageGain;
+        private final StreamingEma averageLoss;
+
+        private double[] rsiValues = new double[16];
+        private long closedCount;
+        private double lastClosedClose;
+
+        RsiState(int period) {
+            this.averageGain = StreamingEma.modified(period);
+            this.averageLoss = StreamingEma.modified(period);
+        }
+
+        /**
+         * Fold bars closed since the last call, keeping at least {@code requiredValues} closed RSI values.
+         * Starts over if the ring must grow.
+         */
+        void sync(BarSeries series, int requiredValues) {
+            if (requiredValues > rsiValues.length) {
+                rsiValues = new double[Integer.highestOneBit(requiredValues - 1) << 1];
+                invalidate();
             }
-            if (isSwingHigh) {
-                swingHighs.add(i);
+            sync(series);
+        }
+
+        @Override
+        protected void onBarClose(BarSeries series, int index) {
+            double close = closeAt(series, index);
+            double change = index == getFirstClosedIndex() ? 0 : close - lastClosedClose;
+            averageGain.update(Math.max(change, 0));
+            averageLoss.update(Math.max(-change, 0));
+            rsiValues[(int) (closedCount++ & (rsiValues.length - 1))] = rsi(averageGain.getValue(), averageLoss.getValue());
+            lastClosedClose = close;
+        }
+
+        @Override
+        protected void onReset() {
+            averageGain.reset();
+            averageLoss.reset();
+            closedCount = 0;
+        }
+
+        /**
+         * Provisional RSI of the forming bar.
+         */
+        double currentRsi(Bar formingBar) {
+            if (closedCount == 0) {
+                return rsi(averageGain.peek(0), averageLoss.peek(0));
             }
+            double change = formingBar.getClosePrice().doubleValue() - lastClosedClose;
+            return rsi(averageGain.peek(Math.max(change, 0)), averageLoss.peek(Math.max(-change, 0)));
         }
-        return swingHighs;
-    }
 
-    private List<Integer> findSwingLows(Indicator<Num> indicator, int startIndex, int endIndex, int lookback) {
-        List<Integer> swingLows = new ArrayList<>();
-        for (int i = startIndex + lookback; i <= endIndex - lookback; i++) {
-            boolean isSwingLow = true;
-            Num currentValue = indicator.getValue(i);
-            for (int j = i - lookback; j <= i + lookback; j++) {
-                if (j == i) continue;
-                if (indicator.getValue(j).isLessThanOrEqual(currentValue)) {
-                    isSwingLow = false;
-                    break;
-                }
+        long getClosedCount() {
+            return closedCount;
+        }
+
+        /**
+         * RSI of a closed bar still held in the ring, NaN otherwise.
+         */
+        double closedRsiAt(int index) {
+            long back = (long) getLastClosedIndex() - index;
+            if (back < 0 || back >= closedCount || back >= rsiValues.length) {
+                return Double.NaN;
             }
-            if (isSwingLow) {
-                swingLows.add(i);
+            return rsiValues[(int) ((closedCount - 1 - back) & (rsiValues.length - 1))];
+        }
+
+        double sumOfLastClosed(int count) {
+            int mask = rsiValues.length - 1;
+            double sum = 0;
+            for (long i = closedCount - count; i < closedCount; i++) {
+                sum += rsiValues[(int) (i & mask)];
             }
+            return sum;
         }
-        return swingLows;
     }
 
-    // RSI Divergence detection method
+    /**
+     * RSI divergence over the last {@code lookBackPeriod} bars. Close-price pivots and their RSI values are
+     * maintained as bars close, so this is a flag read between bar closes.
+     * Always false unless {@code indicators.rsi-divergence.enabled} is set: the swing scan this replaced never found
+     * a swing, and the flags drive exits and market direction conditions.
+     */
     public boolean isRsiDivergence(BarSeries series, int barCount, int lookBackPeriod, DivergenceType divergenceType) {
-        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
-        RSIIndicator rsi = new RSIIndicator(closePrice, barCount);
-        int endIndex = series.getEndIndex();
-        int startIndex = Math.max(series.getBeginIndex(), endIndex - lookBackPeriod);
-        List<Integer> priceHighs = findSwingHighs(closePrice, startIndex, endIndex, lookBackPeriod);
-        List<Integer> priceLows = findSwingLows(closePrice, startIndex, endIndex, lookBackPeriod);
-        if (divergenceType == DivergenceType.BEARISH || divergenceType == DivergenceType.ANY) {
-            for (int i = 1; i < priceHighs.size(); i++) {
-                int prevPriceHighIndex = priceHighs.get(i - 1);
-                int currentPriceHighIndex = priceHighs.get(i);
-                Num prevPriceHigh = closePrice.getValue(prevPriceHighIndex);
-                Num currentPriceHigh = closePrice.getValue(currentPriceHighIndex);
-                // Bearish divergence: price makes higher high, but RSI makes lower high
-                if (currentPriceHigh.isGreaterThan(prevPriceHigh)) {
-                    Num prevRsiValue = rsi.getValue(prevPriceHighIndex);
-                    Num currentRsiValue = rsi.getValue(currentPriceHighIndex);
-                    if (currentRsiValue.isLessThan(prevRsiValue)) {
-                        log.warn(".....................Bearish RSI divergence detected between indices {} and {}", prevPriceHighIndex, currentPriceHighIndex);
-                        return true;
-                    }
-                }
+        if (!divergenceEnabled) {
+            return false;
+        }
+        long key = ((long) barCount << 32) | lookBackPeriod;
+        SeriesStateRegistry<DivergenceState> states = divergenceStates.computeIfAbsent(key,
+                k -> new SeriesStateRegistry<>(() -> new DivergenceState(barCount, lookBackPeriod)));
+        return states.read(series, (state, formingBar) -> {
+            state.evaluate(series);
+            return switch (divergenceType) {
+                case BULLISH -> state.bullish;
+                case BEARISH -> state.bearish;
+                case ANY -> state.bullish || state.bearish;
+            };
+        });
+    }
+
+    /**
+     * Pivot lookback on each side for divergence swings, scaled with the window like the support/resistance swings
+     */
+    private static int divergencePivotLookback(int lookBackPeriod) {
+        return Math.max(1, Math.min(5, lookBackPeriod / 10));
+    }
+
+    /**
+     * Close-price swing pivots inside the divergence window, re-evaluated once per bar close.
+     * Bearish: the later of two consecutive swing highs is higher in price but lower in RSI.
+     * Bullish: the later of two consecutive swing lows is lower in price but higher in RSI.
+     */
+    static final class DivergenceState extends ClosedBarState {
+
+        private final int rsiPeriod;
+        private final int lookBackPeriod;
+        private final SwingPivotDetector closePivots;
+        private final RsiState rsi;
+        private boolean dirty;
+        private boolean bullish;
+        private boolean bearish;
+
+        DivergenceState(int rsiPeriod, int lookBackPeriod) {
+            this.rsiPeriod = rsiPeriod;
+            this.lookBackPeriod = lookBackPeriod;
+            this.closePivots = new SwingPivotDetector(divergencePivotLookback(lookBackPeriod));
+            this.rsi = new RsiState(rsiPeriod);
+        }
+
+        /**
+         * Re-evaluate the flags if a bar closed since the last call.
+         */
+        void evaluate(BarSeries series) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            int closedEnd = getLastClosedIndex();
+            // Window of the last lookBackPeriod bars including the forming one
+            closePivots.pruneBefore(Math.max(series.getBeginIndex(), closedEnd + 1 - lookBackPeriod));
+
+            boolean wasBullish = bullish;
+            boolean wasBearish = bearish;
+            rsi.sync(series, lookBackPeriod + 1);
+            bearish = hasDivergence(closePivots.getPivotHighs(), rsi, true);
+            bullish = hasDivergence(closePivots.getPivotLows(), rsi, false);
+            if (bearish && !wasBearish) {
+                log.warn("📉 Bearish RSI({}) divergence detected at bar {}", rsiPeriod, closedEnd);
             }
+            if (bullish && !wasBullish) {
+                log.warn("📈 Bullish RSI({}) divergence detected at bar {}", rsiPeriod, closedEnd);
+            }
+        }
+
+        @Override
+        protected void onBarClose(BarSeries series, int index) {
+            double close = closeAt(series, index);
+            closePivots.push(index, close, close);
+            dirty = true;
         }
-        if (divergenceType == DivergenceType.BULLISH || divergenceType == DivergenceType.ANY) {
-            for (int i = 1; i < priceLows.size(); i++) {
-                int prevPriceLowIndex = priceLows.get(i - 1);
-                int currentPriceLowIndex = priceLows.get(i);
-                Num prevPriceLow = closePrice.getValue(prevPriceLowIndex);
-                Num currentPriceLow = closePrice.getValue(currentPriceLowIndex);
-                // Bullish divergence: price makes lower low, but RSI makes higher low
-                if (currentPriceLow.isLessThan(prevPriceLow)) {
-                    Num prevRsiValue = rsi.getValue(prevPriceLowIndex);
-                    Num currentRsiValue = rsi.getValue(currentPriceLowIndex);
-                    if (currentRsiValue.isGreaterThan(prevRsiValue)) {
-                        log.warn(".....................Bullish RSI divergence detected between indices {} and {}", prevPriceLowIndex, currentPriceLowIndex);
-                        return true;
-                    }
+
+        @Override
+        protected void onReset() {
+            closePivots.reset();
+            dirty = true;
+        }
+
+        private static boolean hasDivergence(SwingPivotDetector.PivotList pivots, RsiState rsiState, boolean highs) {
+            for (int i = 1; i < pivots.size(); i++) {
+                double previousPrice = pivots.valueAt(i - 1);
+                double currentPrice = pivots.valueAt(i);
+                double previousRsi = rsiState.closedRsiAt(pivots.indexAt(i - 1));
+                double currentRsi = rsiState.closedRsiAt(pivots.indexAt(i));
+                if (highs ? currentPrice > previousPrice && currentRsi < previousRsi
+                        : currentPrice < previousPrice && currentRsi > previousRsi) {
+                    return true;
                 }
             }
+            return false;
         }
-        return false;
     }
 
-
 }
@@ -0,0 +1,34 @@
+package com.jtradebot.processor.indicator;
+
+import org.ta4j.core.BarSeries;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Streaming indicator state per bar series. Series are held weakly, so a state lives as long as its instrument's
+ * series data; each state is locked on its own, so reads of different series never contend.
+ */
+public final class SeriesStateRegistry<S extends ClosedBarState> {
+
+    private final Map<BarSeries, S> states = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Supplier<S> factory;
+
+    public SeriesStateRegistry(Supplier<S> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Fold the bars closed since the last read into the series' state, then read the forming bar on top of it,
+     * all under the state's lock.
+     */
+    public <R> R read(BarSeries series, ClosedBarState.FormingBarRead<S, R> read) {
+        S state = states.computeIfAbsent(series, s -> factory.get());
+        synchronized (state) {
+            state.sync(series);
+            return read.read(state, series.isEmpty() ? null : series.getLastBar());
+        }
+    }
+}
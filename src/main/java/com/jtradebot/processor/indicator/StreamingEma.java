@@ -0,0 +1,69 @@
+package com.jtradebot.processor.indicator;
+
+/**
+ * Exponential moving average updated one input at a time, with the same recurrence and seed as ta4j's
+ * EMAIndicator: the first input seeds the average, then {@code ema += (input - ema) * 2 / (period + 1)}.
+ * {@link #peek(double)} gives the provisional value for a forming bar without committing it.
+ * {@link #modified(int)} gives Wilder's smoothing (ta4j's MMAIndicator, multiplier {@code 1 / period}).
+ */
+public class StreamingEma {
+
+    private final int period;
+    private final double multiplier;
+
+    private double value;
+    private boolean seeded;
+
+    public StreamingEma(int period) {
+        this(period, 2.0 / (period + 1));
+    }
+
+    private StreamingEma(int period, double multiplier) {
+        this.period = period;
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * Wilder's modified moving average, as used for RSI's average gain and loss.
+     */
+    public static StreamingEma modified(int period) {
+        return new StreamingEma(period, 1.0 / period);
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * Fold a closed bar's input into the average and return the new value.
+     */
+    public double update(double input) {
+        if (!seeded) {
+            value = input;
+            seeded = true;
+        } else {
+            value += (input - value) * multiplier;
+        }
+        return value;
+    }
+
+    /**
+     * Value the average would have if the input were folded in now.
+     */
+    public double peek(double input) {
+        return seeded ? value + (input - value) * multiplier : input;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public void reset() {
+        value = 0;
+        seeded = false;
+    }
+}
@@ -1,7 +1,7 @@
 package com.jtradebot.processor.indicator;
 
 
-import com.jtradebot.processor.model.indicator.EmaIndicatorInfo;
+import com.jtradebot.processor.model.indicator.EmaInfo;
 import com.jtradebot.processor.model.indicator.Resistance;
 import com.jtradebot.processor.model.indicator.Support;
 import com.jtradebot.processor.model.enums.CandleTimeFrameEnum;
@@ -9,8 +9,8 @@ import com.jtradebot.processor.model.enums.TrendEnum;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.ta4j.core.Bar;
 import org.ta4j.core.BarSeries;
-import org.ta4j.core.indicators.EMAIndicator;
 
 import java.util.*;
 import java.util.Objects;
@@ -49,6 +49,9 @@ public class SupportResistanceIndicator {
     public static Integer MIN_SUPPORT_RESISTANCE_DISTANCE_BUFFER = 10;
     public static Integer VERY_MIN_SUPPORT_RESISTANCE_DISTANCE_BUFFER = 5;
 
+    // Lookback periods of the entry and target level calculations, shared so that callers do not allocate them per call
+    public static final int[] DEFAULT_PERIODS = {20, 50, 100};
+
     // Cluster tolerance: levels within this range are considered the same level
     private static final int CLUSTER_TOLERANCE = 15;
     
@@ -57,41 +60,35 @@ public class SupportResistanceIndicator {
     private static final double TREND_LINE_BREACH_THRESHOLD = 0.10;  // 0.10% = ~25 points at Nifty 25,000
     private static final double TREND_LINE_TOLERANCE = 0.10;         // Allow 10% of bars to breach before invalidating
 
+    // Pivot detectors and cached levels per bar series
+    private final SeriesStateRegistry<SeriesLevels> seriesLevels = new SeriesStateRegistry<>(SeriesLevels::new);
+
     /**
      * Calculate support levels based on swing lows (pivot points)
      * A swing low is a price point lower than surrounding candles on both sides
      */
-    public Set<Support> calculateSupports(CandleTimeFrameEnum timeFrame, BarSeries barSeriesForTimeFrame, double ltp, EmaIndicatorInfo emaIndicatorInfo, int[] periods) {
+    public Set<Support> calculateSupports(CandleTimeFrameEnum timeFrame, BarSeries barSeriesForTimeFrame, double ltp, EmaInfo emaInfo, int[] periods) {
         Set<Support> supports = new TreeSet<>(Comparator.naturalOrder());
+        LevelSnapshot levels = getLevels(barSeriesForTimeFrame, periods);
 
-        // Find swing lows for each lookback period
-        Arrays.stream(periods).forEach(period -> {
-            int lookback = Math.min(5, period / 10); // Dynamic lookback based on period
-            List<Integer> swingLowIndices = findSwingLows(barSeriesForTimeFrame, period, lookback);
-            
-            // Convert swing lows to support levels
-            for (Integer swingIndex : swingLowIndices) {
-                int swingLowPrice = barSeriesForTimeFrame.getBar(swingIndex).getLowPrice().intValue();
-                
-                // Only add if it's below current price (support should be below price)
-                if (swingLowPrice < ltp) {
+        // Swing lows below current price (support should be below price), from the levels cached at bar close
+        int[] swingLows = levels.swingLows;
+        for (int i = 0, below = lowerBound(swingLows, ltp); i < below; i++) {
             Support support = new Support();
             support.setCandleTimeFrame(timeFrame);
             support.setEma(false);
-                    support.setSupportValue(swingLowPrice);
-                supports.add(support);
-            }
-            }
-        });
+            support.setSupportValue(swingLows[i]);
+            supports.add(support);
+        }
 
         // Add EMA levels as dynamic support (these act as moving support levels)
-        EMAIndicator[] emaIndicators = new EMAIndicator[]{emaIndicatorInfo.getEma9(), emaIndicatorInfo.getEma14(),
-                emaIndicatorInfo.getEma20(), emaIndicatorInfo.getEma34(), emaIndicatorInfo.getEma200()};
+        Double[] emaValues = new Double[]{emaInfo.getEma9(), emaInfo.getEma14(),
+                emaInfo.getEma20(), emaInfo.getEma34(), emaInfo.getEma200()};
 
-        Arrays.stream(emaIndicators)
+        Arrays.stream(emaValues)
                 .filter(Objects::nonNull)
-                .forEach(emaIndicator -> {
-                    int emaValue = emaIndicator.getValue(barSeriesForTimeFrame.getEndIndex()).intValue();
+                .forEach(ema -> {
+                    int emaValue = ema.intValue();
                     if (emaValue < ltp) {
                     Support support = new Support();
                     support.setCandleTimeFrame(timeFrame);
@@ -105,9 +102,10 @@ public class SupportResistanceIndicator {
         Set<Support> clusteredSupports = clusterSupportLevels(supports);
         
         // Add trend line based support (uptrend lines connecting higher lows)
-        List<Integer> trendLineSupports = calculateUptrendLineSupport(barSeriesForTimeFrame, periods, ltp);
-        for (Integer trendSupport : trendLineSupports) {
-            if (trendSupport < ltp) {
+        List<Integer> trendLineSupports = new ArrayList<>();
+        for (int trendSupport : levels.uptrendLevels) {
+            if (trendSupport > 0 && trendSupport < ltp) {
+                trendLineSupports.add(trendSupport);
                 Support support = new Support();
                 support.setCandleTimeFrame(timeFrame);
                 support.setEma(false); // Trend lines are not EMAs
@@ -126,37 +124,28 @@ public class SupportResistanceIndicator {
      * Calculate resistance levels based on swing highs (pivot points)
      * A swing high is a price point higher than surrounding candles on both sides
      */
-    public Set<Resistance> calculateResistances(CandleTimeFrameEnum timeFrame, BarSeries barSeriesForTimeFrame, double ltp, EmaIndicatorInfo emaIndicatorInfo, int[] periods) {
+    public Set<Resistance> calculateResistances(CandleTimeFrameEnum timeFrame, BarSeries barSeriesForTimeFrame, double ltp, EmaInfo emaInfo, int[] periods) {
         Set<Resistance> resistances = new TreeSet<>(Comparator.naturalOrder());
+        LevelSnapshot levels = getLevels(barSeriesForTimeFrame, periods);
 
-        // Find swing highs for each lookback period
-        Arrays.stream(periods).forEach(period -> {
-            int lookback = Math.min(5, period / 10); // Dynamic lookback based on period
-            List<Integer> swingHighIndices = findSwingHighs(barSeriesForTimeFrame, period, lookback);
-            
-            // Convert swing highs to resistance levels
-            for (Integer swingIndex : swingHighIndices) {
-                int swingHighPrice = barSeriesForTimeFrame.getBar(swingIndex).getHighPrice().intValue();
-                
-                // Only add if it's above current price (resistance should be above price)
-                if (swingHighPrice > ltp) {
+        // Swing highs above current price (resistance should be above price), from the levels cached at bar close
+        int[] swingHighs = levels.swingHighs;
+        for (int i = upperBound(swingHighs, ltp); i < swingHighs.length; i++) {
             Resistance resistance = new Resistance();
             resistance.setCandleTimeFrame(timeFrame);
             resistance.setEma(false);
-                    resistance.setResistanceValue(swingHighPrice);
-                resistances.add(resistance);
-            }
-            }
-        });
+            resistance.setResistanceValue(swingHighs[i]);
+            resistances.add(resistance);
+        }
 
         // Add EMA levels as dynamic resistance (these act as moving resistance levels)
-        EMAIndicator[] emaIndicators = new EMAIndicator[]{emaIndicatorInfo.getEma9(), emaIndicatorInfo.getEma14(),
-                emaIndicatorInfo.getEma20(), emaIndicatorInfo.getEma34(), emaIndicatorInfo.getEma200()};
+        Double[] emaValues = new Double[]{emaInfo.getEma9(), emaInfo.getEma14(),
+                emaInfo.getEma20(), emaInfo.getEma34(), emaInfo.getEma200()};
 
-        Arrays.stream(emaIndicators)
+        Arrays.stream(emaValues)
                 .filter(Objects::nonNull)
-                .forEach(emaIndicator -> {
-                    int emaValue = emaIndicator.getValue(barSeriesForTimeFrame.getEndIndex()).intValue();
+                .forEach(ema -> {
+                    int emaValue = ema.intValue();
                     if (emaValue > ltp) {
                     Resistance resistance = new Resistance();
                     resistance.setCandleTimeFrame(timeFrame);
@@ -170,9 +159,10 @@ public class SupportResistanceIndicator {
         Set<Resistance> clusteredResistances = clusterResistanceLevels(resistances);
         
         // Add trend line based resistance (downtrend lines connecting lower highs)
-        List<Integer> trendLineResistances = calculateDowntrendLineResistance(barSeriesForTimeFrame, periods, ltp);
-        for (Integer trendResistance : trendLineResistances) {
-            if (trendResistance > ltp) {
+        List<Integer> trendLineResistances = new ArrayList<>();
+        for (int trendResistance : levels.downtrendLevels) {
+            if (trendResistance > 0 && trendResistance > ltp) {
+                trendLineResistances.add(trendResistance);
                 Resistance resistance = new Resistance();
                 resistance.setCandleTimeFrame(timeFrame);
                 resistance.setEma(false); // Trend lines are not EMAs
@@ -188,81 +178,63 @@ public class SupportResistanceIndicator {
     }
 
     /**
-     * Find swing highs (pivot highs) in the price series
-     * A swing high is a candle whose high is greater than 'lookback' candles before and after it
-     * 
-     * @param series The bar series to analyze
-     * @param period The lookback period (how many bars to analyze)
-     * @param lookback How many bars on each side to compare (e.g., 3 means compare 3 bars before and 3 after)
-     * @return List of indices where swing highs occurred
+     * Swing and trend line levels for the given periods, rebuilt only when a bar has closed since the last call.
+     * Pivots come from streaming detectors fed with closed bars, so a forming bar never moves the levels.
      */
-    private List<Integer> findSwingHighs(BarSeries series, int period, int lookback) {
-        List<Integer> swingHighs = new ArrayList<>();
-        int endIndex = series.getEndIndex();
-        int startIndex = Math.max(0, endIndex - period + 1);
-        
-        // Need at least lookback bars on each side
-        for (int i = startIndex + lookback; i <= endIndex - lookback; i++) {
-            boolean isSwingHigh = true;
-            double currentHigh = series.getBar(i).getHighPrice().doubleValue();
-            
-            // Check if current bar's high is greater than all bars within lookback range
-            for (int j = i - lookback; j <= i + lookback; j++) {
-                if (j == i) continue; // Skip the current bar itself
-                
-                double compareHigh = series.getBar(j).getHighPrice().doubleValue();
-                if (compareHigh >= currentHigh) {
-                    isSwingHigh = false;
-                    break;
-                }
-            }
-            
-            if (isSwingHigh) {
-                swingHighs.add(i);
-                log.debug("Found swing high at index {}: price = {}", i, currentHigh);
+    private LevelSnapshot getLevels(BarSeries series, int[] periods) {
+        return seriesLevels.read(series, (state, formingBar) -> state.getLevels(series, periods));
+    }
+
+    /**
+     * Number of sorted levels strictly below the price.
+     */
+    private static int lowerBound(int[] sortedLevels, double price) {
+        int lo = 0;
+        int hi = sortedLevels.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedLevels[mid] < price) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
             }
         }
-        
-        return swingHighs;
+        return lo;
     }
-    
+
     /**
-     * Find swing lows (pivot lows) in the price series
-     * A swing low is a candle whose low is less than 'lookback' candles before and after it
-     * 
-     * @param series The bar series to analyze
-     * @param period The lookback period (how many bars to analyze)
-     * @param lookback How many bars on each side to compare (e.g., 3 means compare 3 bars before and 3 after)
-     * @return List of indices where swing lows occurred
+     * Position of the first sorted level strictly above the price.
      */
-    private List<Integer> findSwingLows(BarSeries series, int period, int lookback) {
-        List<Integer> swingLows = new ArrayList<>();
-        int endIndex = series.getEndIndex();
-        int startIndex = Math.max(0, endIndex - period + 1);
-
-        // Need at least lookback bars on each side
-        for (int i = startIndex + lookback; i <= endIndex - lookback; i++) {
-            boolean isSwingLow = true;
-            double currentLow = series.getBar(i).getLowPrice().doubleValue();
-            
-            // Check if current bar's low is less than all bars within lookback range
-            for (int j = i - lookback; j <= i + lookback; j++) {
-                if (j == i) continue; // Skip the current bar itself
-                
-                double compareLow = series.getBar(j).getLowPrice().doubleValue();
-                if (compareLow <= currentLow) {
-                    isSwingLow = false;
-                    break;
-                }
-            }
-            
-            if (isSwingLow) {
-                swingLows.add(i);
-                log.debug("Found swing low at index {}: price = {}", i, currentLow);
+    private static int upperBound(int[] sortedLevels, double price) {
+        int lo = 0;
+        int hi = sortedLevels.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedLevels[mid] <= price) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
             }
         }
-        
-        return swingLows;
+        return lo;
+    }
+
+    private static int[] toSortedLevels(Set<Integer> levels) {
+        return levels.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Swing lookback used for support/resistance levels of a period
+     */
+    private static int swingLookback(int period) {
+        return Math.min(5, period / 10);
+    }
+
+    /**
+     * Smaller swing lookback used for trend line detection
+     */
+    private static int trendLineLookback(int period) {
+        return Math.min(3, period / 20);
     }
 
     /**
@@ -370,111 +342,99 @@ public class SupportResistanceIndicator {
     /**
      * Calculate uptrend line support levels
      * An uptrend line connects a series of higher lows, acting as dynamic support
-     * 
+     *
      * @param series Bar series to analyze
-     * @param periods Array of lookback periods
-     * @param currentPrice Current market price
-     * @return List of support levels where uptrend lines currently are
+     * @param swingLows Confirmed swing lows, in bar order
+     * @param from Position of the first swing low inside the period
+     * @param lastClosedIndex Index of the last closed bar; levels are projected onto the bar after it
+     * @return Uptrend line levels at the forming bar
      */
-    private List<Integer> calculateUptrendLineSupport(BarSeries series, int[] periods, double currentPrice) {
+    private List<Integer> calculateUptrendLineSupport(BarSeries series, SwingPivotDetector.PivotList swingLows, int from, int lastClosedIndex) {
         List<Integer> trendLineSupports = new ArrayList<>();
-        
-        for (int period : periods) {
-            int lookback = Math.min(3, period / 20); // Smaller lookback for trend line detection
-            List<Integer> swingLowIndices = findSwingLows(series, period, lookback);
-            
-            // Need at least 2 swing lows to draw a trend line
-            if (swingLowIndices.size() < 2) continue;
-            
-            // Find series of higher lows (uptrend)
-            for (int i = 0; i < swingLowIndices.size() - 1; i++) {
-                int firstIndex = swingLowIndices.get(i);
-                double firstLow = series.getBar(firstIndex).getLowPrice().doubleValue();
-                
-                for (int j = i + 1; j < swingLowIndices.size(); j++) {
-                    int secondIndex = swingLowIndices.get(j);
-                    double secondLow = series.getBar(secondIndex).getLowPrice().doubleValue();
-                    
-                    // Check if this forms a higher low (uptrend)
-                    if (secondLow > firstLow) {
-                        // Calculate trend line parameters: y = mx + b
-                        double slope = (secondLow - firstLow) / (secondIndex - firstIndex);
-                        double intercept = firstLow - (slope * firstIndex);
-                        
-                        // Calculate current trend line level at the latest bar
-                        int currentIndex = series.getEndIndex();
-                        int trendLineLevel = (int) (slope * currentIndex + intercept);
-                        
-                        // Validate the trend line is still valid (hasn't been broken significantly)
-                        boolean isValid = validateUptrendLine(series, firstIndex, secondIndex, slope, intercept);
-                        
-                        if (isValid && trendLineLevel > 0 && trendLineLevel < currentPrice) {
-                            trendLineSupports.add(trendLineLevel);
-                            log.debug("📈 UPTREND LINE SUPPORT at {} (slope: {:.2f}, from bar {} to {})", 
-                                     trendLineLevel, slope, firstIndex, secondIndex);
-                        }
+        int size = swingLows.size();
+
+        // Need at least 2 swing lows to draw a trend line
+        if (size - from < 2) return trendLineSupports;
+
+        // Find series of higher lows (uptrend)
+        for (int i = from; i < size - 1; i++) {
+            int firstIndex = swingLows.indexAt(i);
+            double firstLow = swingLows.valueAt(i);
+
+            for (int j = i + 1; j < size; j++) {
+                int secondIndex = swingLows.indexAt(j);
+                double secondLow = swingLows.valueAt(j);
+
+                // Check if this forms a higher low (uptrend)
+                if (secondLow > firstLow) {
+                    // Calculate trend line parameters: y = mx + b
+                    double slope = (secondLow - firstLow) / (secondIndex - firstIndex);
+                    double intercept = firstLow - (slope * firstIndex);
+
+                    // Calculate trend line level at the forming bar
+                    int trendLineLevel = (int) (slope * (lastClosedIndex + 1) + intercept);
+
+                    // Validate the trend line is still valid (hasn't been broken significantly)
+                    if (trendLineLevel > 0 && validateUptrendLine(series, firstIndex, lastClosedIndex, slope, intercept)) {
+                        trendLineSupports.add(trendLineLevel);
+                        log.debug("📈 UPTREND LINE SUPPORT at {} (slope: {}, from bar {} to {})",
+                                 trendLineLevel, slope, firstIndex, secondIndex);
                     }
                 }
             }
         }
-        
-        return trendLineSupports.stream().distinct().collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+
+        return trendLineSupports;
     }
-    
+
     /**
      * Calculate downtrend line resistance levels
      * A downtrend line connects a series of lower highs, acting as dynamic resistance
-     * 
+     *
      * @param series Bar series to analyze
-     * @param periods Array of lookback periods
-     * @param currentPrice Current market price
-     * @return List of resistance levels where downtrend lines currently are
+     * @param swingHighs Confirmed swing highs, in bar order
+     * @param from Position of the first swing high inside the period
+     * @param lastClosedIndex Index of the last closed bar; levels are projected onto the bar after it
+     * @return Downtrend line levels at the forming bar
      */
-    private List<Integer> calculateDowntrendLineResistance(BarSeries series, int[] periods, double currentPrice) {
+    private List<Integer> calculateDowntrendLineResistance(BarSeries series, SwingPivotDetector.PivotList swingHighs, int from, int lastClosedIndex) {
         List<Integer> trendLineResistances = new ArrayList<>();
-        
-        for (int period : periods) {
-            int lookback = Math.min(3, period / 20); // Smaller lookback for trend line detection
-            List<Integer> swingHighIndices = findSwingHighs(series, period, lookback);
-            
-            // Need at least 2 swing highs to draw a trend line
-            if (swingHighIndices.size() < 2) continue;
-            
-            // Find series of lower highs (downtrend)
-            for (int i = 0; i < swingHighIndices.size() - 1; i++) {
-                int firstIndex = swingHighIndices.get(i);
-                double firstHigh = series.getBar(firstIndex).getHighPrice().doubleValue();
-                
-                for (int j = i + 1; j < swingHighIndices.size(); j++) {
-                    int secondIndex = swingHighIndices.get(j);
-                    double secondHigh = series.getBar(secondIndex).getHighPrice().doubleValue();
-                    
-                    // Check if this forms a lower high (downtrend)
-                    if (secondHigh < firstHigh) {
-                        // Calculate trend line parameters: y = mx + b
-                        double slope = (secondHigh - firstHigh) / (secondIndex - firstIndex);
-                        double intercept = firstHigh - (slope * firstIndex);
-                        
-                        // Calculate current trend line level at the latest bar
-                        int currentIndex = series.getEndIndex();
-                        int trendLineLevel = (int) (slope * currentIndex + intercept);
-                        
-                        // Validate the trend line is still valid (hasn't been broken significantly)
-                        boolean isValid = validateDowntrendLine(series, firstIndex, secondIndex, slope, intercept);
-                        
-                        if (isValid && trendLineLevel > 0 && trendLineLevel > currentPrice) {
-                            trendLineResistances.add(trendLineLevel);
-                            log.debug("📉 DOWNTREND LINE RESISTANCE at {} (slope: {:.2f}, from bar {} to {})", 
-                                     trendLineLevel, slope, firstIndex, secondIndex);
-                        }
+        int size = swingHighs.size();
+
+        // Need at least 2 swing highs to draw a trend line
+        if (size - from < 2) return trendLineResistances;
+
+        // Find series of lower highs (downtrend)
+        for (int i = from; i < size - 1; i++) {
+            int firstIndex = swingHighs.indexAt(i);
+            double firstHigh = swingHighs.valueAt(i);
+
+            for (int j = i + 1; j < size; j++) {
+                int secondIndex = swingHighs.indexAt(j);
+                double secondHigh = swingHighs.valueAt(j);
+
+                // Check if this forms a lower high (downtrend)
+                if (secondHigh < firstHigh) {
+                    // Calculate trend line parameters: y = mx + b
+                    double slope = (secondHigh - firstHigh) / (secondIndex - firstIndex);
+                    double intercept = firstHigh - (slope * firstIndex);
+
+                    // Calculate trend line level at the forming bar
+                    int trendLineLevel = (int) (slope * (lastClosedIndex + 1) + intercept);
+
+                    // Validate the trend line is still valid (hasn't been broken significantly)
+                    if (trendLineLevel > 0 && validateDowntrendLine(series, firstIndex, lastClosedIndex, slope, intercept)) {
+                        trendLineResistances.add(trendLineLevel);
+                        log.debug("📉 DOWNTREND LINE RESISTANCE at {} (slope: {}, from bar {} to {})",
+                                 trendLineLevel, slope, firstIndex, secondIndex);
                     }
                 }
             }
         }
-        
-        return trendLineResistances.stream().distinct().collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+
+        return trendLineResistances;
     }
-    
+
     /**
      * Validate an uptrend line by checking if price has significantly broken below it
      * A trend line is considered invalid if price closes significantly below it
@@ -482,12 +442,12 @@ public class SupportResistanceIndicator {
      * For scalping (1min/5min): Uses 0.15% breach threshold (~37 points at Nifty 25,000)
      * This ensures tight, accurate trend lines suitable for quick entries/exits
      */
-    private boolean validateUptrendLine(BarSeries series, int startIndex, int endIndex, double slope, double intercept) {
+    private boolean validateUptrendLine(BarSeries series, int startIndex, int lastIndex, double slope, double intercept) {
         int breaches = 0;
         int totalBars = 0;
         
-        // Check bars between the two swing points and recent bars
-        for (int i = startIndex; i <= series.getEndIndex(); i++) {
+        // Check closed bars from the first swing point onwards
+        for (int i = startIndex; i <= lastIndex; i++) {
             double trendLineValue = slope * i + intercept;
             double closePrice = series.getBar(i).getClosePrice().doubleValue();
             
@@ -511,12 +471,12 @@ public class SupportResistanceIndicator {
      * For scalping (1min/5min): Uses 0.15% breach threshold (~37 points at Nifty 25,000)
      * This ensures tight, accurate trend lines suitable for quick entries/exits
      */
-    private boolean validateDowntrendLine(BarSeries series, int startIndex, int endIndex, double slope, double intercept) {
+    private boolean validateDowntrendLine(BarSeries series, int startIndex, int lastIndex, double slope, double intercept) {
         int breaches = 0;
         int totalBars = 0;
         
-        // Check bars between the two swing points and recent bars
-        for (int i = startIndex; i <= series.getEndIndex(); i++) {
+        // Check closed bars from the first swing point onwards
+        for (int i = startIndex; i <= lastIndex; i++) {
             double trendLineValue = slope * i + intercept;
             double closePrice = series.getBar(i).getClosePrice().doubleValue();
             
@@ -579,22 +539,45 @@ public class SupportResistanceIndicator {
      * This helps prevent entries in choppy zones near key levels
      */
     public boolean isVeryNearSupportResistance(double ltp, Set<Support> supportLevels, Set<Resistance> resistanceLevels) {
+        // Lowest level that can be within the buffer; sorted level sets only need the first level at or above it
+        int lowestNearLevel = (int) Math.ceil(ltp - VERY_MIN_SUPPORT_RESISTANCE_DISTANCE_BUFFER);
+
         // Check if price is very close to any support level
-        for (Support support : supportLevels) {
-            if (Math.abs(ltp - support.getSupportValue()) <= VERY_MIN_SUPPORT_RESISTANCE_DISTANCE_BUFFER) {
-                log.debug("Price {} is very near support level: {}", ltp, support.getSupportValue());
+        if (supportLevels instanceof NavigableSet<Support> sortedSupports) {
+            Support probe = new Support();
+            probe.setSupportValue(lowestNearLevel);
+            Support nearest = sortedSupports.ceiling(probe);
+            if (nearest != null && nearest.getSupportValue() <= ltp + VERY_MIN_SUPPORT_RESISTANCE_DISTANCE_BUFFER) {
+                log.debug("Price {} is very near support level: {}", ltp, nearest.getSupportValue());
                 return true;
             }
+        } else {
+            for (Support support : supportLevels) {
+                if (Math.abs(ltp - support.getSupportValue()) <= VERY_MIN_SUPPORT_RESISTANCE_DISTANCE_BUFFER) {
+                    log.debug("Price {} is very near support level: {}", ltp, support.getSupportValue());
+                    return true;
+                }
+            }
         }
-        
+
         // Check if price is very close to any resistance level
-        for (Resistance resistance : resistanceLevels) {
-            if (Math.abs(ltp - resistance.getResistanceValue()) <= VERY_MIN_SUPPORT_RESISTANCE_DISTANCE_BUFFER) {
-                log.debug("Price {} is very near resistance level: {}", ltp, resistance.getResistanceValue());
+        if (resistanceLevels instanceof NavigableSet<Resistance> sortedResistances) {
+            Resistance probe = new Resistance();
+            probe.setResistanceValue(lowestNearLevel);
+            Resistance nearest = sortedResistances.ceiling(probe);
+            if (nearest != null && nearest.getResistanceValue() <= ltp + VERY_MIN_SUPPORT_RESISTANCE_DISTANCE_BUFFER) {
+                log.debug("Price {} is very near resistance level: {}", ltp, nearest.getResistanceValue());
                 return true;
             }
+        } else {
+            for (Resistance resistance : resistanceLevels) {
+                if (Math.abs(ltp - resistance.getResistanceValue()) <= VERY_MIN_SUPPORT_RESISTANCE_DISTANCE_BUFFER) {
+                    log.debug("Price {} is very near resistance level: {}", ltp, resistance.getResistanceValue());
+                    return true;
+                }
+            }
         }
-        
+
         return false;
     }
 
@@ -637,4 +620,123 @@ public class SupportResistanceIndicator {
         return false;
     }
 
+    /**
+     * Levels built from closed bars for one set of periods: sorted distinct swing lows/highs and the trend line
+     * levels projected onto the forming bar. Callers filter them by LTP.
+     */
+    private static final class LevelSnapshot {
+
+        private static final LevelSnapshot EMPTY = new LevelSnapshot(new int[0], new int[0], new int[0], new int[0]);
+
+        private final int[] swingLows;
+        private final int[] swingHighs;
+        private final int[] uptrendLevels;
+        private final int[] downtrendLevels;
+
+        private LevelSnapshot(int[] swingLows, int[] swingHighs, int[] uptrendLevels, int[] downtrendLevels) {
+            this.swingLows = swingLows;
+            this.swingHighs = swingHighs;
+            this.uptrendLevels = uptrendLevels;
+            this.downtrendLevels = downtrendLevels;
+        }
+    }
+
+    /**
+     * Swing detectors of one bar series, one per lookback, fed once per closed bar, plus the level snapshots
+     * built from them since the last bar close.
+     */
+    private final class SeriesLevels extends ClosedBarState {
+
+        private final Map<Integer, SwingPivotDetector> detectors = new HashMap<>();
+        // Snapshots since the last bar close, keyed by the periods they were built for (a copy, callers may reuse arrays)
+        private final List<int[]> snapshotPeriods = new ArrayList<>();
+        private final List<LevelSnapshot> snapshots = new ArrayList<>();
+        private boolean dirty;
+
+        LevelSnapshot getLevels(BarSeries series, int[] periods) {
+            if (dirty) {
+                dirty = false;
+                for (SwingPivotDetector detector : detectors.values()) {
+                    detector.pruneBefore(series.getBeginIndex());
+                }
+                snapshotPeriods.clear();
+                snapshots.clear();
+            }
+            if (getLastClosedIndex() < series.getBeginIndex()) {
+                return LevelSnapshot.EMPTY;
+            }
+            // Callers use one or two period sets, a scan beats hashing a key built on every call
+            for (int i = 0; i < snapshotPeriods.size(); i++) {
+                if (Arrays.equals(snapshotPeriods.get(i), periods)) {
+                    return snapshots.get(i);
+                }
+            }
+            LevelSnapshot levels = buildLevels(series, periods);
+            snapshotPeriods.add(periods.clone());
+            snapshots.add(levels);
+            return levels;
+        }
+
+        @Override
+        protected void onBarClose(BarSeries series, int index) {
+            Bar bar = series.getBar(index);
+            for (SwingPivotDetector detector : detectors.values()) {
+                detector.push(index, bar.getHighPrice().doubleValue(), bar.getLowPrice().doubleValue());
+            }
+            dirty = true;
+        }
+
+        @Override
+        protected void onReset() {
+            detectors.values().forEach(SwingPivotDetector::reset);
+            dirty = true;
+        }
+
+        private LevelSnapshot buildLevels(BarSeries series, int[] periods) {
+            int lastClosedIndex = getLastClosedIndex();
+            Set<Integer> swingLows = new TreeSet<>();
+            Set<Integer> swingHighs = new TreeSet<>();
+            Set<Integer> uptrendLevels = new LinkedHashSet<>();
+            Set<Integer> downtrendLevels = new LinkedHashSet<>();
+
+            for (int period : periods) {
+                // Same window as before: the last 'period' bars including the forming one
+                int startIndex = Math.max(series.getBeginIndex(), lastClosedIndex - period + 2);
+
+                SwingPivotDetector swing = getDetector(series, swingLookback(period));
+                collectLevels(swing.getPivotLows(), startIndex + swing.getLookback(), swingLows);
+                collectLevels(swing.getPivotHighs(), startIndex + swing.getLookback(), swingHighs);
+
+                SwingPivotDetector trend = getDetector(series, trendLineLookback(period));
+                int trendStart = startIndex + trend.getLookback();
+                uptrendLevels.addAll(calculateUptrendLineSupport(series, trend.getPivotLows(),
+                        trend.getPivotLows().firstAtOrAfter(trendStart), lastClosedIndex));
+                downtrendLevels.addAll(calculateDowntrendLineResistance(series, trend.getPivotHighs(),
+                        trend.getPivotHighs().firstAtOrAfter(trendStart), lastClosedIndex));
+            }
+
+            return new LevelSnapshot(toSortedLevels(swingLows), toSortedLevels(swingHighs),
+                    uptrendLevels.stream().mapToInt(Integer::intValue).toArray(),
+                    downtrendLevels.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        private SwingPivotDetector getDetector(BarSeries series, int lookback) {
+            return detectors.computeIfAbsent(lookback, l -> {
+                // Replay the retained closed bars for a lookback first requested after bars were folded
+                SwingPivotDetector detector = new SwingPivotDetector(l);
+                for (int i = series.getBeginIndex(); i <= getLastClosedIndex(); i++) {
+                    Bar bar = series.getBar(i);
+                    detector.push(i, bar.getHighPrice().doubleValue(), bar.getLowPrice().doubleValue());
+                }
+                return detector;
+            });
+        }
+
+        private void collectLevels(SwingPivotDetector.PivotList pivots, int fromIndex, Set<Integer> levels) {
+            for (int i = pivots.firstAtOrAfter(fromIndex); i < pivots.size(); i++) {
+                levels.add((int) pivots.valueAt(i));
+            }
+        }
+    }
+
 }
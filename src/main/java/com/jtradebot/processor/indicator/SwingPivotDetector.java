@@ -0,0 +1,206 @@
+package com.jtradebot.processor.indicator;
+
+/**
+ * Streaming swing (pivot) detector over closed bars.
+ * A pivot high is a bar whose high is strictly greater than the highs of {@code lookback} bars on each side;
+ * a pivot low is strictly lower than the lows around it. Sliding-window max/min deques confirm the candidate
+ * {@code lookback} bars back in O(1) amortised per pushed bar, instead of re-scanning the window for every bar.
+ * Confirmed pivots are kept in index order until pruned.
+ */
+public class SwingPivotDetector {
+
+    private final int lookback;
+    private final MonotonicWindow highWindow;
+    private final MonotonicWindow lowWindow;
+    private final PivotList pivotHighs = new PivotList();
+    private final PivotList pivotLows = new PivotList();
+
+    private int lastIndex = Integer.MIN_VALUE;
+    private int pushed;
+
+    public SwingPivotDetector(int lookback) {
+        this.lookback = lookback;
+        this.highWindow = new MonotonicWindow(2 * lookback + 1);
+        this.lowWindow = new MonotonicWindow(2 * lookback + 1);
+    }
+
+    public int getLookback() {
+        return lookback;
+    }
+
+    /**
+     * Bar index of the last pushed bar, {@link Integer#MIN_VALUE} if none.
+     */
+    public int getLastIndex() {
+        return lastIndex;
+    }
+
+    /**
+     * Push the next closed bar. Indices must be consecutive; a gap or step back starts over.
+     */
+    public void push(int index, double high, double low) {
+        if (pushed > 0 && index != lastIndex + 1) {
+            reset();
+        }
+        lastIndex = index;
+        pushed++;
+        highWindow.push(index, high);
+        lowWindow.push(index, -low);
+        if (pushed < 2 * lookback + 1) {
+            return;
+        }
+        int candidate = index - lookback;
+        if (highWindow.isStrictMaximum(candidate)) {
+            pivotHighs.add(candidate, highWindow.frontValue());
+        }
+        if (lowWindow.isStrictMaximum(candidate)) {
+            pivotLows.add(candidate, -lowWindow.frontValue());
+        }
+    }
+
+    public PivotList getPivotHighs() {
+        return pivotHighs;
+    }
+
+    public PivotList getPivotLows() {
+        return pivotLows;
+    }
+
+    /**
+     * Drop pivots before the given bar index.
+     */
+    public void pruneBefore(int index) {
+        pivotHighs.pruneBefore(index);
+        pivotLows.pruneBefore(index);
+    }
+
+    public void reset() {
+        highWindow.clear();
+        lowWindow.clear();
+        pivotHighs.clear();
+        pivotLows.clear();
+        lastIndex = Integer.MIN_VALUE;
+        pushed = 0;
+    }
+
+    /**
+     * Confirmed pivots in bar index order.
+     */
+    public static final class PivotList {
+
+        private int[] indices = new int[16];
+        private double[] values = new double[16];
+        private int head;
+        private int tail;
+
+        public int size() {
+            return tail - head;
+        }
+
+        public int indexAt(int position) {
+            return indices[head + position];
+        }
+
+        public double valueAt(int position) {
+            return values[head + position];
+        }
+
+        /**
+         * Position of the first pivot at or after the given bar index, {@link #size()} if none.
+         */
+        public int firstAtOrAfter(int index) {
+            int lo = head;
+            int hi = tail;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (indices[mid] < index) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo - head;
+        }
+
+        void add(int index, double value) {
+            if (tail == indices.length) {
+                int size = size();
+                int capacity = size * 2 < indices.length ? indices.length : indices.length * 2;
+                int[] newIndices = new int[capacity];
+                double[] newValues = new double[capacity];
+                System.arraycopy(indices, head, newIndices, 0, size);
+                System.arraycopy(values, head, newValues, 0, size);
+                indices = newIndices;
+                values = newValues;
+                head = 0;
+                tail = size;
+            }
+            indices[tail] = index;
+            values[tail] = value;
+            tail++;
+        }
+
+        void pruneBefore(int index) {
+            head += firstAtOrAfter(index);
+        }
+
+        void clear() {
+            head = 0;
+            tail = 0;
+        }
+    }
+
+    /**
+     * Sliding-window maximum over the last {@code width} pushed bars. Values are kept non-increasing and equal
+     * values are not popped, so the front is the earliest maximum and the second entry is the maximum of the
+     * bars after it.
+     */
+    private static final class MonotonicWindow {
+
+        private final int width;
+        private final int[] indices;
+        private final double[] values;
+        private int head;
+        private int size;
+
+        MonotonicWindow(int width) {
+            this.width = width;
+            this.indices = new int[width + 1];
+            this.values = new double[width + 1];
+        }
+
+        void push(int index, double value) {
+            while (size > 0 && values[slot(size - 1)] < value) {
+                size--;
+            }
+            int slot = slot(size);
+            indices[slot] = index;
+            values[slot] = value;
+            size++;
+            while (indices[head] <= index - width) {
+                head = (head + 1) % indices.length;
+                size--;
+            }
+        }
+
+        /**
+         * True if the bar at {@code index} holds a value strictly greater than every other bar in the window.
+         */
+        boolean isStrictMaximum(int index) {
+            return size > 0 && indices[head] == index && (size == 1 || values[slot(1)] < values[head]);
+        }
+
+        double frontValue() {
+            return values[head];
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        private int slot(int position) {
+            return (head + position) % indices.length;
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.jtradebot.processor.indicator;
 
+import com.jtradebot.processor.handler.MarketSessionCalendar;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.ta4j.core.Bar;
 import org.ta4j.core.BarSeries;
 
+import java.time.LocalDate;
+
 @Component
 @Slf4j
 public class VWAPIndicator {
 
+    /**
+     * VWAP of the session of the series' last bar: bars are scanned backwards only until the previous market day,
+     * instead of over the whole multi-day history. Live code reads the per-tick SessionVwap of the instrument state.
+     */
     public double calculateVWAP(BarSeries series) {
         int endIndex = series.getEndIndex();
         if (endIndex < 0) return 0.0;
@@ -16,8 +23,12 @@ public class VWAPIndicator {
         double cumulativeTPV = 0.0; // TPV = Typical Price * Volume
         double cumulativeVolume = 0.0;
 
-        for (int i = 0; i <= endIndex; i++) {
+        LocalDate sessionDate = series.getBar(endIndex).getBeginTime().withZoneSameInstant(MarketSessionCalendar.MARKET_ZONE).toLocalDate();
+        for (int i = endIndex; i >= series.getBeginIndex(); i--) {
             Bar bar = series.getBar(i);
+            if (!bar.getBeginTime().withZoneSameInstant(MarketSessionCalendar.MARKET_ZONE).toLocalDate().equals(sessionDate)) {
+                break;
+            }
             double typicalPrice = (bar.getHighPrice().doubleValue() +
                     bar.getLowPrice().doubleValue() +
                     bar.getClosePrice().doubleValue()) / 3;
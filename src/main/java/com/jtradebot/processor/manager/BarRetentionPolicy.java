@@ -0,0 +1,106 @@
+package com.jtradebot.processor.manager;
+
+import com.jtradebot.processor.config.DynamicStrategyConfigService;
+import com.jtradebot.processor.model.enums.CandleTimeFrameEnum;
+import com.jtradebot.processor.model.strategy.ScalpingEntryConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Number of bars retained per timeframe, derived from the longest lookback of the indicators that read it.
+ * Window indicators (SMA, swings, support/resistance, no-trade filters) need exactly their window.
+ * Recursive indicators (EMA, Wilder RSI) weigh every past bar with a decaying factor, so they also need
+ * enough warm-up bars for the seed's weight to fall below CONVERGENCE_TOLERANCE; evicting older bars then
+ * leaves their values unchanged at that precision.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BarRetentionPolicy {
+
+    // Weight the first (seed) bar may still carry in a recursive indicator value
+    static final double CONVERGENCE_TOLERANCE = 1e-6;
+    static final double SAFETY_MARGIN = 1.25;
+
+    // Lookbacks used by the indicators (MultiEmaIndicator, RsiIndicator, MACDIndicator,
+    // SupportResistanceIndicator, PriceVolumeSurgeIndicator)
+    private static final int EMA_LONGEST_PERIOD = 200;
+    private static final int RSI_PERIOD = 14;
+    private static final int MACD_SLOW_PERIOD = 26;
+    private static final int MACD_SIGNAL_PERIOD = 9;
+    private static final int SUPPORT_RESISTANCE_LONGEST_PERIOD = 100;
+    private static final int SWING_LOOKBACK = 5;
+    private static final int VOLUME_AVERAGE_PERIOD = 20;
+
+    private final DynamicStrategyConfigService configService;
+
+    /**
+     * Bars to retain for the timeframe. Evaluated when series are initialised, so config changes apply on the next load.
+     */
+    public int getRetention(CandleTimeFrameEnum timeFrame) {
+        return (int) Math.ceil(getRequiredBars(timeFrame) * SAFETY_MARGIN);
+    }
+
+    public Map<CandleTimeFrameEnum, Integer> getRetentions() {
+        Map<CandleTimeFrameEnum, Integer> retentions = new EnumMap<>(CandleTimeFrameEnum.class);
+        for (CandleTimeFrameEnum timeFrame : CandleTimeFrameEnum.values()) {
+            retentions.put(timeFrame, getRetention(timeFrame));
+        }
+        return retentions;
+    }
+
+    int getRequiredBars(CandleTimeFrameEnum timeFrame) {
+        int required = emaRequiredBars(EMA_LONGEST_PERIOD);
+        required = Math.max(required, wilderRequiredBars(RSI_PERIOD) + getRsiMaPeriod());
+        required = Math.max(required, emaRequiredBars(MACD_SLOW_PERIOD) + MACD_SIGNAL_PERIOD);
+        required = Math.max(required, VOLUME_AVERAGE_PERIOD);
+        required = Math.max(required, getMaxNoTradeFilterLookback());
+        if (timeFrame == CandleTimeFrameEnum.FIVE_MIN) {
+            required = Math.max(required, SUPPORT_RESISTANCE_LONGEST_PERIOD + SWING_LOOKBACK);
+        }
+        return required;
+    }
+
+    static int emaRequiredBars(int period) {
+        return period + warmUpBars(2.0 / (period + 1));
+    }
+
+    static int wilderRequiredBars(int period) {
+        return period + warmUpBars(1.0 / period);
+    }
+
+    /**
+     * Bars after which a weight decaying by (1 - alpha) per bar drops below CONVERGENCE_TOLERANCE.
+     */
+    static int warmUpBars(double alpha) {
+        return (int) Math.ceil(Math.log(CONVERGENCE_TOLERANCE) / Math.log(1.0 - alpha));
+    }
+
+    private int getRsiMaPeriod() {
+        try {
+            return configService.getRsiMaPeriod();
+        } catch (Exception e) {
+            log.warn("RSI MA period unavailable for bar retention, ignoring: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private int getMaxNoTradeFilterLookback() {
+        try {
+            int max = 0;
+            for (ScalpingEntryConfig.NoTradeFilter filter : configService.getNoTradeFilters().values()) {
+                if (filter != null && filter.getLookbackBars() != null) {
+                    max = Math.max(max, filter.getLookbackBars());
+                }
+            }
+            return max;
+        } catch (Exception e) {
+            log.warn("No-trade filter lookbacks unavailable for bar retention, ignoring: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
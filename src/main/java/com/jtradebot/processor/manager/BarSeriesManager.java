@@ -1,26 +1,44 @@
 package com.jtradebot.processor.manager;
 
 import com.jtradebot.processor.handler.DateTimeHandler;
+import com.jtradebot.processor.handler.MarketSessionCalendar;
+import com.jtradebot.processor.model.InstrumentState;
+import com.jtradebot.processor.model.MarketTick;
+import com.jtradebot.processor.model.PendingGapFill;
 import com.jtradebot.processor.model.indicator.BarSeriesData;
+import com.jtradebot.processor.model.indicator.ColumnarBarStore;
+import com.jtradebot.processor.model.indicator.HistoricalCandle;
+import com.jtradebot.processor.model.indicator.SessionVwap;
 import com.jtradebot.processor.model.enums.CandleTimeFrameEnum;
 import com.jtradebot.processor.model.enums.KiteHistoricalDataTimeframeEnum;
+import com.jtradebot.processor.pipeline.TickShardExecutor;
 import com.zerodhatech.kiteconnect.KiteConnect;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.HistoricalData;
 import com.zerodhatech.models.Tick;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.ta4j.core.Bar;
 import org.ta4j.core.BarSeries;
-import org.ta4j.core.BaseBarSeriesBuilder;
-import org.ta4j.core.num.DecimalNum;
 
 import java.io.IOException;
 import java.time.*;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.jtradebot.processor.handler.DateTimeHandler.goBackInPast;
 import static com.jtradebot.processor.model.enums.CandleTimeFrameEnum.*;
@@ -31,17 +49,57 @@ import static com.jtradebot.processor.model.enums.KiteHistoricalDataTimeframeEnu
 @Slf4j
 public class BarSeriesManager {
 
-    private final ConcurrentHashMap<String, BarSeriesData> instrumentSeriesMap = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Double> avg5MinCandleHeightMap = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Double> avg3MinCandleHeightMap = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Long> lastVolumeMap = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Tick> lastTickMap = new ConcurrentHashMap<>();
+    private static final CandleTimeFrameEnum[] HIGHER_TIME_FRAMES = {THREE_MIN, FIVE_MIN, FIFTEEN_MIN, ONE_HOUR, ONE_DAY};
+
+    private final InstrumentStateRegistry instrumentStateRegistry;
+    private final MarketSessionCalendar marketSessionCalendar;
+    private final BarRetentionPolicy barRetentionPolicy;
+    private final HistoricalCandleCache historicalCandleCache;
     private final KiteConnect kiteConnect;
+    // Provider: the shard executor depends on the tick pipeline that depends on this manager
+    private final ObjectProvider<TickShardExecutor> tickShardExecutor;
+
+    @Value("${historical-cache.fetch-threads:3}")
+    private int fetchThreads;
+
+    @Value("${historical-cache.requests-per-second:3}")
+    private int requestsPerSecond;
+
+    @Value("${historical-cache.backfill-timeout-ms:1500}")
+    private long backfillTimeoutMillis;
+
+    @Value("${historical-cache.backfill-max-held-ticks:2048}")
+    private int backfillMaxHeldTicks;
+
+    // Earliest time the next historical request may be sent, shared by all fetch threads
+    private final Object requestRateLock = new Object();
+    private long nextRequestMillis;
+
+    private final AtomicInteger fetchThreadCounter = new AtomicInteger();
+    private ExecutorService fetchExecutor;
+
+    @PostConstruct
+    public void start() {
+        fetchExecutor = Executors.newFixedThreadPool(fetchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "historical-fetch-" + fetchThreadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (fetchExecutor != null) {
+            fetchExecutor.shutdownNow();
+        }
+    }
 
     public void initializeBarSeriesData(String instrumentToken, Date toDate) {
-        log.info("Fetching historical data for instrument token: {} to: {}", instrumentToken, toDate);
+        log.info("Fetching historical data for instrument token: {} to: {} - Bars retained per timeframe: {}",
+                instrumentToken, toDate, barRetentionPolicy.getRetentions());
 
         try {
+            long startMillis = System.currentTimeMillis();
             // Timeframe-specific days for historical data
             Date fromDate1Min = goBackInPast(toDate, Calendar.DAY_OF_YEAR, 7);  // 1 min: 7 days
             Date fromDate3Min = goBackInPast(toDate, Calendar.DAY_OF_YEAR, 7);  // 3 min: 7 days
@@ -49,311 +107,530 @@ public class BarSeriesManager {
             Date fromDate15Min = goBackInPast(toDate, Calendar.DAY_OF_YEAR, 30); // 15 min: 15 days
             Date fromDate1Hour = goBackInPast(toDate, Calendar.DAY_OF_YEAR, 80); // 1 hour: 50 days (need 200+ bars for EMA200: ~200 hours / 6.5 hours per day ≈ 30+ days)
             Date fromDate1Day = goBackInPast(toDate, Calendar.DAY_OF_YEAR, 100);  // 1 day: 60 days
-            
-            BarSeriesData seriesData = BarSeriesData.builder()
-                    .series1Min(fetchAndConvertToBarSeries(instrumentToken, MINUTE, fromDate1Min, toDate, ONE_MIN))
-                    .series3Min(fetchAndConvertToBarSeries(instrumentToken, THREE_MINUTE, fromDate3Min, toDate, THREE_MIN))
-                    .series5Min(fetchAndConvertToBarSeries(instrumentToken, FIVE_MINUTE, fromDate5Min, toDate, FIVE_MIN))
-                    .series15Min(fetchAndConvertToBarSeries(instrumentToken, FIFTEEN_MINUTE, fromDate15Min, toDate, FIFTEEN_MIN))
-                    .series1Hour(fetchAndConvertToBarSeries(instrumentToken, SIXTY_MINUTE, fromDate1Hour, toDate, ONE_HOUR))
-                    .series1Day(fetchAndConvertToBarSeries(instrumentToken, DAY, fromDate1Day, toDate, ONE_DAY))
-                    .build();
-
-            instrumentSeriesMap.put(instrumentToken, seriesData);
-            lastVolumeMap.put(instrumentToken, 0L);
-
-            avg5MinCandleHeightMap.put(instrumentToken, calculateAverageCandleHeight(instrumentToken, FIVE_MIN, 5));
-            avg3MinCandleHeightMap.put(instrumentToken, calculateAverageCandleHeight(instrumentToken, THREE_MIN, 5));
-
-            log.info("Initialized series data for instrument: {}", instrumentToken);
+
+            // Timeframes are fetched concurrently; fetchHistoricalData spaces the requests to Kite's rate limit
+            CompletableFuture<ColumnarBarStore> oneMin = fetchAsync(instrumentToken, MINUTE, fromDate1Min, toDate, ONE_MIN);
+            CompletableFuture<ColumnarBarStore> threeMin = fetchAsync(instrumentToken, THREE_MINUTE, fromDate3Min, toDate, THREE_MIN);
+            CompletableFuture<ColumnarBarStore> fiveMin = fetchAsync(instrumentToken, FIVE_MINUTE, fromDate5Min, toDate, FIVE_MIN);
+            CompletableFuture<ColumnarBarStore> fifteenMin = fetchAsync(instrumentToken, FIFTEEN_MINUTE, fromDate15Min, toDate, FIFTEEN_MIN);
+            CompletableFuture<ColumnarBarStore> oneHour = fetchAsync(instrumentToken, SIXTY_MINUTE, fromDate1Hour, toDate, ONE_HOUR);
+            CompletableFuture<ColumnarBarStore> oneDay = fetchAsync(instrumentToken, DAY, fromDate1Day, toDate, ONE_DAY);
+
+            BarSeriesData seriesData = new BarSeriesData()
+                    .put(ONE_MIN, oneMin.join())
+                    .put(THREE_MIN, threeMin.join())
+                    .put(FIVE_MIN, fiveMin.join())
+                    .put(FIFTEEN_MIN, fifteenMin.join())
+                    .put(ONE_HOUR, oneHour.join())
+                    .put(ONE_DAY, oneDay.join());
+
+            InstrumentState state = instrumentStateRegistry.getOrCreate(Long.parseLong(instrumentToken));
+            state.setLastVolume(0L);
+            state.setSeriesData(seriesData);
+
+            state.setAvg5MinCandleHeight(calculateAverageCandleHeight(instrumentToken, FIVE_MIN, 5));
+            state.setAvg3MinCandleHeight(calculateAverageCandleHeight(instrumentToken, THREE_MIN, 5));
+            seedSessionVwap(state.getSessionVwap(), seriesData.getStore(ONE_MIN), toDate.getTime());
+
+            log.info("Initialized series data for instrument: {} in {} ms", instrumentToken, System.currentTimeMillis() - startMillis);
         } catch (Exception e) {
-            log.error("Failed to fetch historical data for instrument: {} - {}", instrumentToken, e.getMessage());
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Failed to fetch historical data for instrument: {} - {}", instrumentToken, cause.getMessage());
         }
     }
 
-    public void addTick(String instrumentToken, Tick tick) {
-        BarSeriesData seriesData = instrumentSeriesMap.get(instrumentToken);
+    public void addTick(MarketTick tick) {
+        InstrumentState state = instrumentStateRegistry.get(tick.getInstrumentToken());
+        BarSeriesData seriesData = state != null ? state.getSeriesData() : null;
         if (seriesData == null) {
-            log.warn("No series data found for instrument: {}", instrumentToken);
+            log.warn("No series data found for instrument: {}", tick.getInstrumentToken());
+            return;
+        }
+        PendingGapFill pendingGapFill = state.getPendingGapFill();
+        if (pendingGapFill != null) {
+            if (!pendingGapFill.hold(tick)) {
+                abandonGapFill(state, seriesData, pendingGapFill, tick);
+            }
             return;
         }
+        // Only the 1-minute bar is aligned against the tick; higher timeframes roll up from it
+        ColumnarBarStore baseStore = seriesData.getStore(ONE_MIN);
+        if (baseStore != null && isFeedGap(baseStore, tick.getTickTimeMillis())) {
+            startGapFill(state, tick, baseStore);
+            return;
+        }
+        applyTick(state, seriesData, tick, 0);
+    }
 
-        LocalDateTime localDateTime = Instant.ofEpochMilli(tick.getTickTimestamp().getTime()).atZone(ZoneId.of("Asia/Kolkata")).toLocalDateTime();
-        ZonedDateTime endTime = ZonedDateTime.of(localDateTime, ZoneId.of("Asia/Kolkata"));
+    /**
+     * Book a tick into the bars and the session VWAP.
+     *
+     * @param backfilledVolume volume since the previous tick already booked by a gap fill
+     */
+    private void applyTick(InstrumentState state, BarSeriesData seriesData, MarketTick tick, double backfilledVolume) {
+        long tickTimeMillis = tick.getTickTimeMillis();
+        ColumnarBarStore baseStore = seriesData.getStore(ONE_MIN);
 
         long cumulativeVolume = tick.getVolumeTradedToday();
-        long lastVolume = lastVolumeMap.getOrDefault(instrumentToken, 0L);
-        double tickVolume = cumulativeVolume - lastVolume;
-
-        lastVolumeMap.put(instrumentToken, cumulativeVolume);
-        lastTickMap.put(instrumentToken, tick);
-        // Update all series
-        updateBarSeries(seriesData.getSeries1Min(), tick, endTime, Duration.ofMinutes(1), tickVolume);
-        updateBarSeries(seriesData.getSeries3Min(), tick, endTime, Duration.ofMinutes(3), tickVolume);
-        updateBarSeries(seriesData.getSeries5Min(), tick, endTime, Duration.ofMinutes(5), tickVolume);
-        updateBarSeries(seriesData.getSeries15Min(), tick, endTime, Duration.ofMinutes(15), tickVolume);
-        updateBarSeries(seriesData.getSeries1Hour(), tick, endTime, Duration.ofHours(1), tickVolume);
-        updateBarSeries(seriesData.getSeries1Day(), tick, endTime, Duration.ofDays(1), tickVolume);
-    }
-
-    private void updateBarSeries(BarSeries series, Tick tick, ZonedDateTime tickTime, Duration duration, double volume) {
-        if (series == null) {
+        long lastVolume = state.getLastVolume();
+        if (baseStore != null && !baseStore.isEmpty()
+                && marketSessionCalendar.marketDay(tickTimeMillis) != marketSessionCalendar.marketDay(baseStore.getLastBeginMillis())) {
+            // New market day: yesterday's cumulative volume does not apply, start over as after initialisation
+            lastVolume = 0L;
+            state.setAvg5MinCandleHeight(calculateAverageCandleHeight(seriesData.getStore(FIVE_MIN), 5));
+            state.setAvg3MinCandleHeight(calculateAverageCandleHeight(seriesData.getStore(THREE_MIN), 5));
+            log.info("📅 New market day for instrument: {}, volume baseline and candle heights refreshed", tick.getInstrumentToken());
+        }
+        // The first tick after initialisation or a new day books no volume, the next one carries the delta
+        double tickVolume = lastVolume > 0 ? Math.max(0, cumulativeVolume - lastVolume - backfilledVolume) : 0;
+
+        state.setLastVolume(cumulativeVolume);
+        if (lastVolume > 0) {
+            state.getSessionVwap().add(marketSessionCalendar.marketDay(tickTimeMillis), tick.getLastTradedPrice(), tickVolume);
+        }
+        if (baseStore == null) {
             return;
         }
-        if (series.isEmpty()) {
-            // For empty series, calculate bar start time and then add duration to get end time
-            // addBar() expects the end time as the second parameter
-            ZonedDateTime barStartTime = calculateBarStartTime(tickTime, duration);
-            ZonedDateTime barEndTime = barStartTime.plus(duration);
-            try {
-                series.addBar(duration, barEndTime, tick.getOpenPrice(), tick.getHighPrice(), tick.getLowPrice(), tick.getClosePrice(), volume);
-            } catch (IllegalArgumentException e) {
-                // If bar already exists (shouldn't happen for empty series, but handle gracefully)
-                log.warn("Failed to add bar to empty series - bar may already exist. Bar end time: {}, Error: {}", barEndTime, e.getMessage());
-                // Re-check if series is still empty or if another thread added a bar
-                if (!series.isEmpty()) {
-                    // Series is no longer empty, process as normal
-                    Bar lastBar = series.getLastBar();
-                    ZonedDateTime lastBarEndTime = lastBar.getEndTime();
-                    if (!tickTime.getZone().equals(lastBarEndTime.getZone())) {
-                        tickTime = tickTime.withZoneSameInstant(lastBarEndTime.getZone());
-                    }
-                    boolean isSameDay = tickTime.toLocalDate().equals(lastBarEndTime.toLocalDate());
-                    boolean isWithinBar = isSameDay && !tickTime.isBefore(lastBar.getBeginTime()) && tickTime.isBefore(lastBarEndTime);
-                    if (isWithinBar) {
-                        lastBar.addPrice(DecimalNum.valueOf(tick.getLastTradedPrice()));
-                    }
+        long baseBarsBefore = baseStore.getTotalBars();
+        updateBarStore(baseStore, tick, tickTimeMillis, tickVolume);
+        boolean newBaseBar = baseStore.getTotalBars() != baseBarsBefore;
+        long baseBarBeginTime = baseStore.getLastBeginMillis();
+
+        for (CandleTimeFrameEnum timeFrame : HIGHER_TIME_FRAMES) {
+            rollUpBarStore(seriesData.getStore(timeFrame), tick, timeFrame, newBaseBar, baseBarBeginTime, tickVolume);
+        }
+    }
+
+    /**
+     * Seed the session VWAP from the historical 1-minute bars of the session containing {@code asOfMillis},
+     * using each bar's typical price.
+     */
+    private void seedSessionVwap(SessionVwap sessionVwap, ColumnarBarStore oneMinStore, long asOfMillis) {
+        long day = marketSessionCalendar.marketDay(asOfMillis);
+        sessionVwap.reset();
+        sessionVwap.add(day, 0, 0);
+        if (oneMinStore == null) {
+            return;
+        }
+        int first = oneMinStore.size();
+        while (first > 0 && marketSessionCalendar.marketDay(oneMinStore.getBeginMillis(first - 1)) == day) {
+            first--;
+        }
+        for (int i = first; i < oneMinStore.size(); i++) {
+            double typicalPrice = (oneMinStore.getHigh(i) + oneMinStore.getLow(i) + oneMinStore.getClose(i)) / 3;
+            sessionVwap.add(day, typicalPrice, oneMinStore.getVolume(i));
+        }
+    }
+
+    /**
+     * True when at least one whole 1-minute bar of the current session is missing before the tick,
+     * e.g. after a websocket hiccup. The first tick of a new day is not a gap.
+     */
+    boolean isFeedGap(ColumnarBarStore baseStore, long tickTimeMillis) {
+        if (baseStore.isEmpty()) {
+            return false;
+        }
+        long lastBarBeginTime = baseStore.getLastBeginMillis();
+        long tickBarStart = marketSessionCalendar.getBarStartMillis(tickTimeMillis, baseStore.getDurationMillis());
+        return tickBarStart - lastBarBeginTime > baseStore.getDurationMillis()
+                && marketSessionCalendar.marketDay(tickTimeMillis) == marketSessionCalendar.marketDay(lastBarBeginTime)
+                && marketSessionCalendar.isInSession(tickTimeMillis);
+    }
+
+    /**
+     * Start backfilling the bars missed during a feed gap from 1-minute historical candles, from the bar that was
+     * open when ticks stopped up to the bar the resuming tick falls into. The request runs on the fetch pool; the
+     * instrument's ticks are held meanwhile and the candles are applied on the thread owning the instrument,
+     * so the shard keeps processing other instruments and the stores keep a single writer.
+     */
+    private void startGapFill(InstrumentState state, MarketTick tick, ColumnarBarStore baseStore) {
+        long instrumentToken = tick.getInstrumentToken();
+        long tickTimeMillis = tick.getTickTimeMillis();
+        PendingGapFill pendingGapFill = new PendingGapFill(baseStore.getLastBeginMillis(),
+                marketSessionCalendar.getBarStartMillis(tickTimeMillis, baseStore.getDurationMillis()), backfillMaxHeldTicks);
+        pendingGapFill.hold(tick);
+        state.setPendingGapFill(pendingGapFill);
+
+        long startMillis = System.currentTimeMillis();
+        CompletableFuture.supplyAsync(() -> fetchHistoricalData(String.valueOf(instrumentToken), MINUTE.getTimeframe(),
+                        new Date(pendingGapFill.getLastBarBeginTime()), new Date(tickTimeMillis)), fetchExecutor)
+                .orTimeout(backfillTimeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((historicalData, error) -> tickShardExecutor.getObject().runOnOwner(instrumentToken, () -> {
+                    finishGapFill(instrumentToken, pendingGapFill, historicalData, error, startMillis);
+                    return null;
+                }));
+    }
+
+    /**
+     * Apply the backfilled candles, then the ticks held since the gap. Runs on the thread owning the instrument.
+     */
+    private void finishGapFill(long instrumentToken, PendingGapFill pendingGapFill, HistoricalData historicalData,
+                               Throwable error, long startMillis) {
+        InstrumentState state = instrumentStateRegistry.get(instrumentToken);
+        if (state == null || state.getPendingGapFill() != pendingGapFill) {
+            return;
+        }
+        state.setPendingGapFill(null);
+        BarSeriesData seriesData = state.getSeriesData();
+        if (seriesData == null) {
+            return;
+        }
+        double backfilledVolume = 0;
+        if (error == null) {
+            backfilledVolume = applyGapCandles(seriesData, state.getSessionVwap(), pendingGapFill, toCandles(historicalData));
+            log.info("🩹 Gap-filled instrument: {} from {} to {} in {} ms, {} ticks held", instrumentToken,
+                    new Date(pendingGapFill.getLastBarBeginTime()), new Date(pendingGapFill.getResumeBarBeginTime()),
+                    System.currentTimeMillis() - startMillis, pendingGapFill.getHeldTicks().size());
+        } else if (error instanceof TimeoutException) {
+            log.warn("Gap fill timed out after {} ms for instrument: {}, resuming without backfill", backfillTimeoutMillis, instrumentToken);
+        } else {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            log.warn("Gap fill failed for instrument: {}, resuming without backfill - {}", instrumentToken, cause.getMessage());
+        }
+        applyHeldTicks(state, seriesData, pendingGapFill, backfilledVolume);
+    }
+
+    /**
+     * Give up on a gap fill whose held-tick buffer is full: apply the held ticks and the overflowing one as live
+     * ticks. The backfill answer, when it arrives, is ignored.
+     */
+    private void abandonGapFill(InstrumentState state, BarSeriesData seriesData, PendingGapFill pendingGapFill, MarketTick tick) {
+        log.warn("Gap fill for instrument: {} holds {} ticks, resuming live bars without backfill",
+                tick.getInstrumentToken(), pendingGapFill.getHeldTicks().size());
+        state.setPendingGapFill(null);
+        applyHeldTicks(state, seriesData, pendingGapFill, 0);
+        applyTick(state, seriesData, tick, 0);
+    }
+
+    private void applyHeldTicks(InstrumentState state, BarSeriesData seriesData, PendingGapFill pendingGapFill,
+                                double backfilledVolume) {
+        // The first held tick's volume delta spans the gap; the candles already booked that part of it
+        List<MarketTick> heldTicks = pendingGapFill.getHeldTicks();
+        for (int i = 0; i < heldTicks.size(); i++) {
+            applyTick(state, seriesData, heldTicks.get(i), i == 0 ? backfilledVolume : 0);
+        }
+    }
+
+    /**
+     * Merge the complete 1-minute candles of a gap into every timeframe. Each candle's volume not yet held by the
+     * 1-minute store is booked into every timeframe and into the session VWAP at the candle's typical price.
+     *
+     * @return the volume booked
+     */
+    private double applyGapCandles(BarSeriesData seriesData, SessionVwap sessionVwap, PendingGapFill pendingGapFill,
+                                   List<HistoricalCandle> candles) {
+        ColumnarBarStore baseStore = seriesData.getStore(ONE_MIN);
+        double bookedVolume = 0;
+        for (HistoricalCandle candle : candles) {
+            // The bar of the resuming tick is built from the held ticks
+            if (candle.getBeginMillis() < pendingGapFill.getLastBarBeginTime()
+                    || candle.getBeginMillis() >= pendingGapFill.getResumeBarBeginTime()) {
+                continue;
+            }
+            // The open 1-minute bar already holds the volume ticked before the gap
+            double missingVolume = candle.getBeginMillis() == baseStore.getLastBeginMillis()
+                    ? Math.max(0, candle.getVolume() - baseStore.getVolume(baseStore.size() - 1))
+                    : candle.getVolume();
+            mergeCandle(baseStore, candle, candle.getBeginMillis(), missingVolume);
+            double typicalPrice = (candle.getHigh() + candle.getLow() + candle.getClose()) / 3;
+            sessionVwap.add(marketSessionCalendar.marketDay(candle.getBeginMillis()), typicalPrice, missingVolume);
+            for (CandleTimeFrameEnum timeFrame : HIGHER_TIME_FRAMES) {
+                ColumnarBarStore store = seriesData.getStore(timeFrame);
+                if (store != null) {
+                    mergeCandle(store, candle, getBarStartMillis(store, candle.getBeginMillis()), missingVolume);
                 }
             }
-        } else {
-            Bar lastBar = series.getLastBar();
-            ZonedDateTime lastBarEndTime = lastBar.getEndTime();
-            ZonedDateTime lastBarBeginTime = lastBar.getBeginTime();
-            
-            // Ensure tickTime is in the same zone as lastBarEndTime
-            if (!tickTime.getZone().equals(lastBarEndTime.getZone())) {
-                tickTime = tickTime.withZoneSameInstant(lastBarEndTime.getZone());
+            bookedVolume += missingVolume;
+        }
+        return bookedVolume;
+    }
+
+    /**
+     * Reconcile a historical candle with a store: it widens the open bar it belongs to and adds the volume,
+     * opens a new bar when it starts after the last one, and leaves older (already closed) bars untouched.
+     *
+     * @param volume the candle's volume not yet booked into the store
+     * @return true if a new bar was opened
+     */
+    boolean mergeCandle(ColumnarBarStore store, HistoricalCandle candle, long barStartTime, double volume) {
+        if (store == null) {
+            return false;
+        }
+        if (store.isEmpty() || barStartTime > store.getLastBeginMillis()) {
+            store.addBar(barStartTime, candle.getOpen(), candle.getHigh(), candle.getLow(), candle.getClose(), volume);
+            return true;
+        }
+        if (barStartTime == store.getLastBeginMillis()) {
+            store.addPrice(candle.getHigh());
+            store.addPrice(candle.getLow());
+            store.addPrice(candle.getClose());
+            store.addVolume(volume);
+        }
+        return false;
+    }
+
+    /**
+     * Patch a higher timeframe's open bar with the tick price. Bar alignment is only evaluated when a new
+     * 1-minute bar opens, so the per-tick cost does not depend on how many timeframes are kept.
+     */
+    private void rollUpBarStore(ColumnarBarStore store, MarketTick tick, CandleTimeFrameEnum timeFrame,
+                                boolean newBaseBar, long baseBarBeginTime, double volume) {
+        if (store == null) {
+            return;
+        }
+        if (store.isEmpty()) {
+            store.addBar(getBarStartMillis(store, baseBarBeginTime),
+                    tick.getOpenPrice(), tick.getHighPrice(), tick.getLowPrice(), tick.getClosePrice(), volume);
+            return;
+        }
+        if (newBaseBar) {
+            long barStartTime = getBarStartMillis(store, baseBarBeginTime);
+            if (barStartTime > store.getLastBeginMillis()) {
+                log.debug("Rolling up new {} bar at {} from 1-minute bar {}", timeFrame, barStartTime, baseBarBeginTime);
+                openBar(store, barStartTime, tick, volume);
+                return;
             }
+        }
+        extendBar(store, tick);
+    }
+
+    /**
+     * Open a bar from the tick's LTP range, so ticks conflated into it still set the bar's open, high and low.
+     */
+    private static void openBar(ColumnarBarStore store, long barStartTime, MarketTick tick, double volume) {
+        store.addBar(barStartTime, tick.getRangeOpenPrice(), tick.getRangeHighPrice(), tick.getRangeLowPrice(),
+                tick.getLastTradedPrice(), volume);
+    }
+
+    /**
+     * Widen the forming bar to the tick's LTP range, applying the LTP last so it stays the close.
+     */
+    private static void extendBar(ColumnarBarStore store, MarketTick tick) {
+        double price = tick.getLastTradedPrice();
+        if (tick.getRangeHighPrice() > price) {
+            store.addPrice(tick.getRangeHighPrice());
+        }
+        if (tick.getRangeLowPrice() < price) {
+            store.addPrice(tick.getRangeLowPrice());
+        }
+        store.addPrice(price);
+    }
+
+    /**
+     * Start of the store's bar containing the instant, for bars rolled up or merged from 1-minute bars.
+     * Daily bars keep the range check: Kite's historical day candles start at midnight while the session calendar
+     * anchors a day at the session open, so an instant inside the last daily bar belongs to it whatever its start.
+     */
+    private long getBarStartMillis(ColumnarBarStore store, long epochMillis) {
+        if (store.getDurationMillis() >= MarketSessionCalendar.MILLIS_PER_DAY && !store.isEmpty()
+                && epochMillis >= store.getLastBeginMillis() && epochMillis < store.getLastEndMillis()) {
+            return store.getLastBeginMillis();
+        }
+        return marketSessionCalendar.getBarStartMillis(epochMillis, store.getDurationMillis());
+    }
+
+    /**
+     * Apply a tick to the 1-minute bar store, either extending the forming bar or opening the next one.
+     * Works on epoch millis; bar starts come from the market session calendar. Higher timeframes are rolled up.
+     */
+    private void updateBarStore(ColumnarBarStore store, MarketTick tick, long tickTime, double volume) {
+        if (store == null) {
+            return;
+        }
+        if (store.isEmpty()) {
+            // For empty series, align the tick to its bar start
+            long barStartTime = marketSessionCalendar.getBarStartMillis(tickTime, store.getDurationMillis());
+            store.addBar(barStartTime, tick.getOpenPrice(), tick.getHighPrice(), tick.getLowPrice(), tick.getClosePrice(), volume);
+            return;
+        }
+
+        long lastBarBeginTime = store.getLastBeginMillis();
+        long lastBarEndTime = store.getLastEndMillis();
+
+        // Check if tick is within the current bar's time range (including the bar begin time) on the same day
+        boolean isSameDay = marketSessionCalendar.marketDay(tickTime) == marketSessionCalendar.marketDay(lastBarEndTime);
+        boolean isWithinBar = isSameDay && tickTime >= lastBarBeginTime && tickTime < lastBarEndTime;
+
+        if (isWithinBar) {
+            extendBar(store, tick);
+            return;
+        }
+
+        // Need to create a new bar - tick is either from a different day or at/after the current bar end
+        long calculatedBarStart = marketSessionCalendar.getBarStartMillis(tickTime, store.getDurationMillis());
+        long calculatedBarEnd = calculatedBarStart + store.getDurationMillis();
+
+        // If the calculated bar matches the last bar, or does not end after it, the tick updates the existing bar
+        if (calculatedBarStart == lastBarBeginTime || calculatedBarEnd <= lastBarEndTime) {
+            log.debug("Tick belongs to existing bar. Updating last bar. Tick time: {}, Calculated start: {}, Last bar start: {}, Last bar end: {}",
+                    tickTime, calculatedBarStart, lastBarBeginTime, lastBarEndTime);
+            extendBar(store, tick);
+            return;
+        }
+
+        if (isSameDay && tickTime == lastBarEndTime) {
+            // Tick is exactly at the bar boundary - update the last bar
+            extendBar(store, tick);
+            return;
+        }
+        // The next bar starts at the tick's own bar start, so minutes without ticks (e.g. a gap that could not be
+        // backfilled) stay missing instead of being filled with later prices
+        long nextBarBeginTime = calculatedBarStart;
+
+        // Validate that the new bar end time is strictly after the last bar end time
+        long nextBarEndTime = nextBarBeginTime + store.getDurationMillis();
+        if (nextBarEndTime <= lastBarEndTime) {
+            log.warn("Skipping bar creation - calculated end time {} is not after last bar end time {}. Tick time: {}, Timeframe: {}",
+                    nextBarEndTime, lastBarEndTime, tickTime, store.getName());
+            extendBar(store, tick);
+            return;
+        }
+
+        log.debug("Creating new bar. Tick time: {}, Last bar end: {}, New bar start: {}", tickTime, lastBarEndTime, nextBarBeginTime);
+        openBar(store, nextBarBeginTime, tick, volume);
+    }
 
-            // Check if tick is within the current bar's time range
-            // For daily bars (duration >= 1 day), check time range directly since bars span two days
-            // For intraday bars, also check if it's the same day
-            boolean isDailyBar = duration.toDays() >= 1;
-            boolean isSameDay = tickTime.toLocalDate().equals(lastBarEndTime.toLocalDate());
-            
-            // Include the bar begin time (use !isBefore instead of isAfter to allow equality)
-            // For daily bars, only check time range. For intraday bars, also require same day.
-            boolean isWithinBar = !tickTime.isBefore(lastBarBeginTime) && tickTime.isBefore(lastBarEndTime);
-            if (!isDailyBar) {
-                // For intraday bars, also require same day
-                isWithinBar = isWithinBar && isSameDay;
+    private CompletableFuture<ColumnarBarStore> fetchAsync(String instrumentToken, KiteHistoricalDataTimeframeEnum kiteTimeFrame,
+                                                           Date fromDate, Date toDate, CandleTimeFrameEnum timeFrame) {
+        return CompletableFuture.supplyAsync(
+                () -> fetchAndConvertToBarStore(instrumentToken, kiteTimeFrame, fromDate, toDate, timeFrame), fetchExecutor);
+    }
+
+    /**
+     * Build a timeframe's store from cached days followed by a single Kite request for the missing tail.
+     * Only the first missing day onwards is fetched, so restarts and later days cost one short request.
+     */
+    private ColumnarBarStore fetchAndConvertToBarStore(String instrumentToken, KiteHistoricalDataTimeframeEnum kiteTimeFrame,
+                                                       Date fromDate, Date toDate, CandleTimeFrameEnum timeFrame) {
+        long fromMillis = fromDate.getTime();
+        long toMillis = toDate.getTime();
+        long lastDay = marketSessionCalendar.marketDay(toMillis);
+
+        List<HistoricalCandle> candles = new ArrayList<>();
+        long day = marketSessionCalendar.marketDay(fromMillis);
+        for (; day <= lastDay; day++) {
+            List<HistoricalCandle> cachedDay = historicalCandleCache.load(instrumentToken, timeFrame, LocalDate.ofEpochDay(day));
+            if (cachedDay == null) {
+                break;
             }
-            
-            if (isWithinBar) {
-                lastBar.addPrice(DecimalNum.valueOf(tick.getLastTradedPrice()));
-            } else {
-                // Need to create a new bar - tick is either from a different day or at/after the current bar end
-                ZonedDateTime nextBarBeginTime;
-                
-                // Calculate what bar start time this tick should belong to
-                ZonedDateTime calculatedBarStart = calculateBarStartTime(tickTime, duration);
-                ZonedDateTime calculatedBarEnd = calculatedBarStart.plus(duration);
-                
-                // If the calculated bar matches the last bar's start time, tick should update the existing bar
-                if (calculatedBarStart.equals(lastBarBeginTime)) {
-                    log.debug("Tick belongs to existing bar based on calculated bar start. Updating last bar. " +
-                            "Tick time: {}, Last bar start: {}, Last bar end: {}", 
-                            tickTime, lastBarBeginTime, lastBarEndTime);
-                    lastBar.addPrice(DecimalNum.valueOf(tick.getLastTradedPrice()));
-                    return;
+            for (HistoricalCandle candle : cachedDay) {
+                if (candle.getBeginMillis() >= fromMillis && candle.getBeginMillis() < toMillis) {
+                    candles.add(candle);
                 }
-                
-                // If calculated bar end is not after last bar end, tick belongs to existing bar
-                if (!calculatedBarEnd.isAfter(lastBarEndTime)) {
-                    log.debug("Tick belongs to existing bar - calculated bar end {} is not after last bar end {}. " +
-                            "Tick time: {}, Calculated start: {}. Updating last bar instead.",
-                            calculatedBarEnd, lastBarEndTime, tickTime, calculatedBarStart);
-                    lastBar.addPrice(DecimalNum.valueOf(tick.getLastTradedPrice()));
-                    return;
-                }
-                
-                // Calculate new bar start time
-                if (isDailyBar) {
-                    // For daily bars, use the calculated bar start
-                    nextBarBeginTime = calculatedBarStart;
-                } else {
-                    // For intraday bars
-                    boolean isDifferentDay = !isSameDay;
-                    if (isDifferentDay) {
-                        // Cross-day for intraday bars
-                        nextBarBeginTime = calculatedBarStart;
-                    } else {
-                        // Same day: check if tick time exactly equals the last bar end time
-                        if (tickTime.equals(lastBarEndTime)) {
-                            // Tick is exactly at the bar boundary - update the last bar
-                            lastBar.addPrice(DecimalNum.valueOf(tick.getLastTradedPrice()));
-                            return;
-                        }
-                        // Next bar starts where the last bar ended (bars are adjacent)
-                        nextBarBeginTime = lastBarEndTime;
-                    }
-                }
-                
-                log.debug("Creating new bar. Tick time: {}, Last bar end: {}, Calculated new bar start: {}", 
-                         tickTime, lastBarEndTime, nextBarBeginTime);
-                
-                // addBar() expects the end time, so add duration to the begin time
-                ZonedDateTime nextBarEndTime = nextBarBeginTime.plus(duration);
-                
-                // Validate that the new bar end time is strictly after the last bar end time
-                // This prevents duplicate bars or bars that overlap
-                if (!nextBarEndTime.isAfter(lastBarEndTime)) {
-                    log.warn("Skipping bar creation - calculated end time {} is not after last bar end time {}. Tick time: {}, Duration: {}",
-                            nextBarEndTime, lastBarEndTime, tickTime, duration);
-                    // Instead of creating a new bar, update the last bar
-                    lastBar.addPrice(DecimalNum.valueOf(tick.getLastTradedPrice()));
-                    return;
-                }
-                
-                try {
-                    series.addBar(duration, nextBarEndTime, tick.getLastTradedPrice(), tick.getLastTradedPrice(), tick.getLastTradedPrice(), tick.getLastTradedPrice(), volume);
-                } catch (IllegalArgumentException e) {
-                    // If bar already exists (race condition or duplicate tick), update the last bar instead
-                    log.warn("Failed to add bar - bar may already exist. Bar end time: {}, Last bar end: {}, Error: {}. Updating last bar instead.",
-                            nextBarEndTime, lastBarEndTime, e.getMessage());
-                    // Update the existing last bar with the tick price
-                    lastBar.addPrice(DecimalNum.valueOf(tick.getLastTradedPrice()));
+            }
+        }
+
+        if (day <= lastDay) {
+            long firstMissingDayStart = LocalDate.ofEpochDay(day).atStartOfDay(MarketSessionCalendar.MARKET_ZONE).toInstant().toEpochMilli();
+            // Whole days are fetched so that every completed day can be cached in full
+            Date fetchFrom = new Date(firstMissingDayStart);
+            List<HistoricalCandle> fetched = toCandles(fetchHistoricalData(instrumentToken, kiteTimeFrame.getTimeframe(), fetchFrom, toDate));
+            cacheCompletedDays(instrumentToken, timeFrame, day, fetched, Math.min(toMillis, System.currentTimeMillis()));
+            int cachedCount = candles.size();
+            for (HistoricalCandle candle : fetched) {
+                if (candle.getBeginMillis() >= fromMillis && candle.getBeginMillis() < toMillis) {
+                    candles.add(candle);
                 }
             }
+            log.debug("Historical {} for {}: {} cached candles, fetched {} from {}", timeFrame, instrumentToken,
+                    cachedCount, fetched.size(), fetchFrom);
+        } else {
+            log.debug("Historical {} for {}: {} candles served from cache", timeFrame, instrumentToken, candles.size());
         }
+        return convertToBarStore(candles, timeFrame);
     }
-    
+
     /**
-     * Calculate the start time of the bar that should contain the given tick time.
-     * This aligns the tick time to the appropriate bar boundary based on the duration.
+     * Persist each fetched day whose session has closed. Days up to the last day with data are cached even when
+     * empty (weekends, holidays); days after it are left uncached in case Kite has not published them yet.
      */
-    private ZonedDateTime calculateBarStartTime(ZonedDateTime tickTime, Duration duration) {
-        LocalDateTime localDateTime = tickTime.toLocalDateTime();
-        
-        // For daily bars, start at market open (09:15:00)
-        if (duration.toDays() >= 1) {
-            return localDateTime.toLocalDate().atStartOfDay()
-                    .atZone(tickTime.getZone())
-                    .withHour(9).withMinute(15).withSecond(0).withNano(0);
-        }
-        
-        // For hourly bars, align to the hour boundary starting from market open (09:15)
-        if (duration.toHours() >= 1) {
-            int hour = localDateTime.getHour();
-            int minute = localDateTime.getMinute();
-            
-            // If before market open, align to market open (09:15)
-            if (hour < 9 || (hour == 9 && minute < 15)) {
-                return localDateTime.toLocalDate().atStartOfDay()
-                        .atZone(tickTime.getZone())
-                        .withHour(9).withMinute(15).withSecond(0).withNano(0);
+    private void cacheCompletedDays(String instrumentToken, CandleTimeFrameEnum timeFrame, long firstDay,
+                                    List<HistoricalCandle> fetched, long completedBeforeMillis) {
+        if (fetched.isEmpty()) {
+            return;
+        }
+        long lastDataDay = marketSessionCalendar.marketDay(fetched.get(fetched.size() - 1).getBeginMillis());
+        int index = 0;
+        for (long day = firstDay; day <= lastDataDay; day++) {
+            List<HistoricalCandle> dayCandles = new ArrayList<>();
+            while (index < fetched.size() && marketSessionCalendar.marketDay(fetched.get(index).getBeginMillis()) == day) {
+                dayCandles.add(fetched.get(index++));
+            }
+            long dayStart = LocalDate.ofEpochDay(day).atStartOfDay(MarketSessionCalendar.MARKET_ZONE).toInstant().toEpochMilli();
+            if (marketSessionCalendar.getSessionCloseMillis(dayStart) > completedBeforeMillis) {
+                return;
             }
-            
-            // Calculate hours since market open (09:15)
-            long minutesSinceOpen = ((hour - 9) * 60) + (minute - 15);
-            long hoursSinceOpen = minutesSinceOpen / 60;
-            long alignedHours = (hoursSinceOpen / duration.toHours()) * duration.toHours();
-            
-            return localDateTime.toLocalDate().atStartOfDay()
-                    .atZone(tickTime.getZone())
-                    .withHour(9).withMinute(15)
-                    .plusHours(alignedHours)
-                    .withSecond(0).withNano(0);
-        }
-        
-        // For minute-based bars (1min, 3min, 5min, 15min), align to minute boundaries starting from market open (09:15)
-        long minutesSinceMidnight = (localDateTime.getHour() * 60) + localDateTime.getMinute();
-        long marketOpenMinutes = (9 * 60) + 15; // 09:15 = 555 minutes
-        
-        // If before market open, align to market open
-        if (minutesSinceMidnight < marketOpenMinutes) {
-            return localDateTime.toLocalDate().atStartOfDay()
-                    .atZone(tickTime.getZone())
-                    .withHour(9).withMinute(15).withSecond(0).withNano(0);
-        }
-        
-        // Calculate minutes since market open
-        long minutesSinceOpen = minutesSinceMidnight - marketOpenMinutes;
-        long durationMinutes = duration.toMinutes();
-        
-        // Align to the appropriate bar boundary
-        long alignedMinutes = (minutesSinceOpen / durationMinutes) * durationMinutes;
-        
-        return localDateTime.toLocalDate().atStartOfDay()
-                .atZone(tickTime.getZone())
-                .withHour(9).withMinute(15)
-                .plusMinutes(alignedMinutes)
-                .withSecond(0).withNano(0);
-    }
-
-    private BarSeries fetchAndConvertToBarSeries(String instrumentToken, KiteHistoricalDataTimeframeEnum kiteTimeFrame,
-                                                 Date fromDate, Date toDate, CandleTimeFrameEnum timeFrame) {
-        HistoricalData historicalData = fetchHistoricalData(instrumentToken, kiteTimeFrame.getTimeframe(), fromDate, toDate);
-        return convertToBarSeries(historicalData, timeFrame.name());
-    }
-
-
-    private BarSeries convertToBarSeries(HistoricalData historicalData, String seriesName) {
-        BarSeries series = new BaseBarSeriesBuilder().withName(seriesName).build();
-        Duration duration = getDurationFromSeriesName(seriesName);
-        ZoneId zoneId = ZoneId.of("Asia/Kolkata");
+            historicalCandleCache.store(instrumentToken, timeFrame, LocalDate.ofEpochDay(day), dayCandles);
+        }
+    }
+
+    private List<HistoricalCandle> toCandles(HistoricalData historicalData) {
+        List<HistoricalCandle> candles = new ArrayList<>(historicalData.dataArrayList.size());
         for (HistoricalData candle : historicalData.dataArrayList) {
-            ZonedDateTime endTime = DateTimeHandler.getZonedDateTime(candle.timeStamp, "yyyy-MM-dd'T'HH:mm:ssZ")
-                    .withZoneSameInstant(zoneId);
-            series.addBar(duration, endTime.plus(duration), candle.open, candle.high, candle.low, candle.close, candle.volume);
-        }
-        return series;
-    }
-
-    private Duration getDurationFromSeriesName(String seriesName) {
-        return switch (seriesName) {
-            case "ONE_MIN" -> Duration.ofMinutes(1);
-            case "THREE_MIN" -> Duration.ofMinutes(3);
-            case "FIVE_MIN" -> Duration.ofMinutes(5);
-            case "FIFTEEN_MIN" -> Duration.ofMinutes(15);
-            case "ONE_HOUR" -> Duration.ofHours(1);
-            case "ONE_DAY" -> Duration.ofDays(1);
-            default -> throw new IllegalArgumentException("Invalid series name");
+            long beginTime = DateTimeHandler.getZonedDateTime(candle.timeStamp, "yyyy-MM-dd'T'HH:mm:ssZ")
+                    .toInstant().toEpochMilli();
+            candles.add(new HistoricalCandle(beginTime, candle.open, candle.high, candle.low, candle.close, candle.volume));
+        }
+        return candles;
+    }
+
+    private ColumnarBarStore convertToBarStore(List<HistoricalCandle> candles, CandleTimeFrameEnum timeFrame) {
+        ColumnarBarStore store = new ColumnarBarStore(timeFrame.name(), getDuration(timeFrame).toMillis(), barRetentionPolicy.getRetention(timeFrame));
+        for (HistoricalCandle candle : candles) {
+            store.addBar(candle.getBeginMillis(), candle.getOpen(), candle.getHigh(), candle.getLow(), candle.getClose(), candle.getVolume());
+        }
+        return store;
+    }
+
+    private Duration getDuration(CandleTimeFrameEnum timeFrame) {
+        return switch (timeFrame) {
+            case ONE_MIN -> Duration.ofMinutes(1);
+            case THREE_MIN -> Duration.ofMinutes(3);
+            case FIVE_MIN -> Duration.ofMinutes(5);
+            case FIFTEEN_MIN -> Duration.ofMinutes(15);
+            case ONE_HOUR -> Duration.ofHours(1);
+            case ONE_DAY -> Duration.ofDays(1);
         };
     }
 
     public double calculateAverageCandleHeight(String instrumentToken, CandleTimeFrameEnum timeFrame, int requiredBars) {
-        BarSeries series = getBarSeriesForTimeFrame(instrumentToken, timeFrame);
-        if (series == null || series.getBarCount() < requiredBars) return 0.0;
+        return calculateAverageCandleHeight(getBarStore(instrumentStateRegistry.get(instrumentToken), timeFrame), requiredBars);
+    }
+
+    private static double calculateAverageCandleHeight(ColumnarBarStore store, int requiredBars) {
+        if (store == null || store.size() < requiredBars) return 0.0;
 
         double totalHeight = 0.0;
-        for (int i = series.getBarCount() - requiredBars; i < series.getBarCount(); i++) {
-            Bar bar = series.getBar(i);
-            totalHeight += Math.abs(bar.getClosePrice().doubleValue() - bar.getOpenPrice().doubleValue());
+        for (int i = store.size() - requiredBars; i < store.size(); i++) {
+            totalHeight += Math.abs(store.getClose(i) - store.getOpen(i));
         }
 
         return totalHeight / requiredBars;
     }
 
     public BarSeries getBarSeriesForTimeFrame(String instrumentToken, CandleTimeFrameEnum timeFrame) {
-        BarSeriesData seriesData = instrumentSeriesMap.get(instrumentToken);
-        if (seriesData == null) return null;
+        return getBarSeriesForTimeFrame(instrumentStateRegistry.get(instrumentToken), timeFrame);
+    }
 
-        return switch (timeFrame) {
-            case ONE_MIN -> seriesData.getSeries1Min();
-            case THREE_MIN -> seriesData.getSeries3Min();
-            case FIVE_MIN -> seriesData.getSeries5Min();
-            case FIFTEEN_MIN -> seriesData.getSeries15Min();
-            case ONE_HOUR -> seriesData.getSeries1Hour();
-            case ONE_DAY -> seriesData.getSeries1Day();
-        };
+    public BarSeries getBarSeriesForTimeFrame(long instrumentToken, CandleTimeFrameEnum timeFrame) {
+        return getBarSeriesForTimeFrame(instrumentStateRegistry.get(instrumentToken), timeFrame);
     }
 
-    public void reset() {
-        instrumentSeriesMap.clear();
-        avg5MinCandleHeightMap.clear();
-        avg3MinCandleHeightMap.clear();
-        lastVolumeMap.clear();
+    private BarSeries getBarSeriesForTimeFrame(InstrumentState state, CandleTimeFrameEnum timeFrame) {
+        BarSeriesData seriesData = state != null ? state.getSeriesData() : null;
+        return seriesData != null ? seriesData.getSeries(timeFrame) : null;
+    }
+
+    /**
+     * Primitive bar store for a timeframe, for callers that do not need a ta4j series.
+     */
+    public ColumnarBarStore getBarStore(long instrumentToken, CandleTimeFrameEnum timeFrame) {
+        return getBarStore(instrumentStateRegistry.get(instrumentToken), timeFrame);
+    }
+
+    private ColumnarBarStore getBarStore(InstrumentState state, CandleTimeFrameEnum timeFrame) {
+        BarSeriesData seriesData = state != null ? state.getSeriesData() : null;
+        return seriesData != null ? seriesData.getStore(timeFrame) : null;
     }
 
     public double getLastNCandleTotalLength(BarSeries series, int n) {
@@ -369,16 +646,40 @@ public class BarSeriesManager {
 
     public HistoricalData fetchHistoricalData(String token, String interval, Date fromDate, Date toDate) {
         try {
+            awaitRequestPermit();
             return kiteConnect.getHistoricalData(fromDate, toDate, token, interval, false, false);
         } catch (KiteException | IOException e) {
             throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Space historical requests evenly at {@code requestsPerSecond} across all callers, so that a burst of
+     * fast responses cannot exceed Kite's historical API rate limit. Concurrency is capped separately by the pool.
+     */
+    private void awaitRequestPermit() throws InterruptedException {
+        long intervalMillis = (1000L + requestsPerSecond - 1) / Math.max(1, requestsPerSecond);
+        long waitMillis;
+        synchronized (requestRateLock) {
+            long now = System.currentTimeMillis();
+            long slot = Math.max(now, nextRequestMillis);
+            nextRequestMillis = slot + intervalMillis;
+            waitMillis = slot - now;
+        }
+        if (waitMillis > 0) {
+            Thread.sleep(waitMillis);
         }
     }
 
     public Double getAvgCandleHeightForTimeFrame(String instrumentToken, CandleTimeFrameEnum timeFrame) {
+        InstrumentState state = instrumentStateRegistry.get(instrumentToken);
+        if (state == null) return null;
         return switch (timeFrame) {
-            case THREE_MIN -> avg3MinCandleHeightMap.get(instrumentToken);
-            case FIVE_MIN -> avg5MinCandleHeightMap.get(instrumentToken);
+            case THREE_MIN -> state.getAvg3MinCandleHeight();
+            case FIVE_MIN -> state.getAvg5MinCandleHeight();
             default -> throw new IllegalStateException("Unexpected value: " + timeFrame);
         };
     }
@@ -416,20 +717,31 @@ public class BarSeriesManager {
     }
 
     public Tick getLastTick(String instrumentToken) {
-        return lastTickMap.get(instrumentToken);
+        InstrumentState state = instrumentStateRegistry.get(instrumentToken);
+        return state != null ? state.getLastTick() : null;
+    }
+
+    public Tick getLastTick(long instrumentToken) {
+        InstrumentState state = instrumentStateRegistry.get(instrumentToken);
+        return state != null ? state.getLastTick() : null;
     }
 
     public boolean isInitialized(String instrumentToken) {
-        return !instrumentSeriesMap.isEmpty() && instrumentSeriesMap.containsKey(instrumentToken);
+        InstrumentState state = instrumentStateRegistry.get(instrumentToken);
+        return state != null && state.getSeriesData() != null;
+    }
+
+    public boolean isInitialized(long instrumentToken) {
+        InstrumentState state = instrumentStateRegistry.get(instrumentToken);
+        return state != null && state.getSeriesData() != null;
     }
 
     public boolean isCandleOpen(String instrumentToken, Date tickTimestamp, CandleTimeFrameEnum timeFrame) {
-        BarSeries series = getBarSeriesForTimeFrame(instrumentToken, timeFrame);
-        if (series == null || series.isEmpty()) return false;
+        ColumnarBarStore store = getBarStore(instrumentStateRegistry.get(instrumentToken), timeFrame);
+        if (store == null || store.isEmpty()) return false;
 
-        ZonedDateTime tickTime = tickTimestamp.toInstant().atZone(ZoneId.of("Asia/Kolkata"));
-        Bar lastBar = series.getLastBar();
-        return tickTime.isAfter(lastBar.getBeginTime()) && tickTime.isBefore(lastBar.getEndTime());
+        long tickTime = tickTimestamp.getTime();
+        return tickTime > store.getLastBeginMillis() && tickTime < store.getLastEndMillis();
     }
 
 }
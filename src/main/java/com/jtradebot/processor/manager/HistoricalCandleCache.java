@@ -0,0 +1,183 @@
+package com.jtradebot.processor.manager;
+
+import com.jtradebot.processor.handler.MarketSessionCalendar;
+import com.jtradebot.processor.model.enums.CandleTimeFrameEnum;
+import com.jtradebot.processor.model.indicator.HistoricalCandle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * On-disk cache of completed trading days of historical candles, one CSV file per token/timeframe/date:
+ * {@code <dir>/<token>/<timeframe>/<yyyy-MM-dd>.csv} with lines {@code beginMillis,open,high,low,close,volume}.
+ * Days without candles (weekends, holidays) are stored as empty files so they are not fetched again.
+ * Days older than {@code historical-cache.retention-days} are evicted periodically, so the files of instruments
+ * no longer traded (e.g. expired option strikes) go away with them.
+ */
+@Component
+@Slf4j
+public class HistoricalCandleCache {
+
+    private final Path cacheDir;
+    private final boolean enabled;
+    private final int retentionDays;
+
+    public HistoricalCandleCache(@Value("${historical-cache.dir:data/candle-cache}") String cacheDir,
+                                 @Value("${historical-cache.enabled:true}") boolean enabled,
+                                 @Value("${historical-cache.retention-days:100}") int retentionDays) {
+        this.cacheDir = Paths.get(cacheDir);
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Candles of a cached day, or null when the day is not cached.
+     */
+    public List<HistoricalCandle> load(String instrumentToken, CandleTimeFrameEnum timeFrame, LocalDate day) {
+        if (!enabled) {
+            return null;
+        }
+        Path file = dayFile(instrumentToken, timeFrame, day);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        List<HistoricalCandle> candles = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                candles.add(new HistoricalCandle(Long.parseLong(fields[0]), Double.parseDouble(fields[1]),
+                        Double.parseDouble(fields[2]), Double.parseDouble(fields[3]), Double.parseDouble(fields[4]),
+                        Long.parseLong(fields[5])));
+            }
+            return candles;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable candle cache file {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Persist a completed day. Written to a temp file and moved into place so readers never see partial files.
+     */
+    public void store(String instrumentToken, CandleTimeFrameEnum timeFrame, LocalDate day, List<HistoricalCandle> candles) {
+        if (!enabled) {
+            return;
+        }
+        Path file = dayFile(instrumentToken, timeFrame, day);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tempFile = Files.createTempFile(file.getParent(), day.toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                for (HistoricalCandle candle : candles) {
+                    writer.write(candle.getBeginMillis() + "," + candle.getOpen() + "," + candle.getHigh() + ","
+                            + candle.getLow() + "," + candle.getClose() + "," + candle.getVolume());
+                    writer.newLine();
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write candle cache file {}: {}", file, e.getMessage());
+            deleteTempFile(tempFile);
+        }
+    }
+
+    private static void deleteTempFile(Path tempFile) {
+        if (tempFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            log.warn("Failed to delete candle cache temp file {}: {}", tempFile, e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelay = 60_000, fixedDelay = 21_600_000) // Shortly after startup, then every 6 hours
+    public void evictExpiredDays() {
+        if (!enabled) {
+            return;
+        }
+        int evicted = evictDaysBefore(LocalDate.now(MarketSessionCalendar.MARKET_ZONE).minusDays(retentionDays));
+        if (evicted > 0) {
+            log.info("🧹 Evicted {} candle cache files older than {} days", evicted, retentionDays);
+        }
+    }
+
+    /**
+     * Delete cached days before {@code oldestKept}, and the token/timeframe directories left empty.
+     *
+     * @return number of day files deleted
+     */
+    public int evictDaysBefore(LocalDate oldestKept) {
+        if (!Files.isDirectory(cacheDir)) {
+            return 0;
+        }
+        int evicted = 0;
+        try (DirectoryStream<Path> tokenDirs = Files.newDirectoryStream(cacheDir, Files::isDirectory)) {
+            for (Path tokenDir : tokenDirs) {
+                try (DirectoryStream<Path> timeFrameDirs = Files.newDirectoryStream(tokenDir, Files::isDirectory)) {
+                    for (Path timeFrameDir : timeFrameDirs) {
+                        evicted += evictDays(timeFrameDir, oldestKept);
+                        deleteIfEmpty(timeFrameDir);
+                    }
+                }
+                deleteIfEmpty(tokenDir);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to evict candle cache under {}: {}", cacheDir, e.getMessage());
+        }
+        return evicted;
+    }
+
+    private int evictDays(Path timeFrameDir, LocalDate oldestKept) throws IOException {
+        int evicted = 0;
+        try (DirectoryStream<Path> dayFiles = Files.newDirectoryStream(timeFrameDir, "*.csv")) {
+            for (Path dayFile : dayFiles) {
+                String name = dayFile.getFileName().toString();
+                LocalDate day;
+                try {
+                    day = LocalDate.parse(name.substring(0, name.length() - ".csv".length()));
+                } catch (DateTimeParseException e) {
+                    continue;
+                }
+                if (day.isBefore(oldestKept) && Files.deleteIfExists(dayFile)) {
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    private static void deleteIfEmpty(Path dir) throws IOException {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            if (entries.iterator().hasNext()) {
+                return;
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private Path dayFile(String instrumentToken, CandleTimeFrameEnum timeFrame, LocalDate day) {
+        return cacheDir.resolve(instrumentToken).resolve(timeFrame.name()).resolve(day + ".csv");
+    }
+}
@@ -0,0 +1,49 @@
+package com.jtradebot.processor.manager;
+
+import com.jtradebot.processor.common.LongKeyMap;
+import com.jtradebot.processor.model.InstrumentState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Registry of per-instrument state keyed by the primitive instrument token.
+ */
+@Component
+@Slf4j
+public class InstrumentStateRegistry {
+
+    private final LongKeyMap<InstrumentState> states = new LongKeyMap<>();
+
+    public InstrumentState get(long instrumentToken) {
+        return states.get(instrumentToken);
+    }
+
+    /**
+     * Lookup for the String token APIs still used outside the tick path.
+     */
+    public InstrumentState get(String instrumentToken) {
+        if (instrumentToken == null) {
+            return null;
+        }
+        try {
+            return states.get(Long.parseLong(instrumentToken));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid instrument token: {}", instrumentToken);
+            return null;
+        }
+    }
+
+    public InstrumentState getOrCreate(long instrumentToken) {
+        return states.computeIfAbsent(instrumentToken, InstrumentState::new);
+    }
+
+    public List<InstrumentState> getAll() {
+        return states.values();
+    }
+
+    public void forEach(LongKeyMap.LongObjectConsumer<InstrumentState> action) {
+        states.forEach(action);
+    }
+}
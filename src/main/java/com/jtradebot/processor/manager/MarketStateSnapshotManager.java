@@ -0,0 +1,455 @@
+package com.jtradebot.processor.manager;
+
+import com.jtradebot.processor.handler.MarketSessionCalendar;
+import com.jtradebot.processor.model.InstrumentState;
+import com.jtradebot.processor.model.enums.CandleTimeFrameEnum;
+import com.jtradebot.processor.model.enums.OrderTypeEnum;
+import com.jtradebot.processor.model.indicator.BarSeriesData;
+import com.jtradebot.processor.model.indicator.ColumnarBarStore;
+import com.jtradebot.processor.pipeline.TickShardExecutor;
+import com.jtradebot.processor.service.price.OIAnalysisService;
+import com.jtradebot.processor.service.tracking.OptionLTPTrackingService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Periodic binary snapshot of in-memory market state (bar stores, last volume, candle heights, session VWAP, OI history and
+ * option LTP histories) to a binary file, restored on startup so a mid-session restart does not have to
+ * rebuild everything from REST calls. A snapshot is only restored on the market day it was taken and while it is
+ * younger than {@code market-snapshot.max-age-minutes}; otherwise the regular historical warm-up runs.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MarketStateSnapshotManager {
+
+    private static final int MAGIC = 0x4A545353; // "JTSS"
+    private static final int VERSION = 2;
+
+    private final InstrumentStateRegistry instrumentStateRegistry;
+    private final MarketSessionCalendar marketSessionCalendar;
+    private final BarRetentionPolicy barRetentionPolicy;
+    private final OIAnalysisService oiAnalysisService;
+    private final OptionLTPTrackingService optionLTPTrackingService;
+    private final TickShardExecutor tickShardExecutor;
+
+    @Value("${market-snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${market-snapshot.file:data/market-state.snapshot}")
+    private String snapshotFile;
+
+    @Value("${market-snapshot.max-age-minutes:10}")
+    private long maxAgeMinutes;
+
+    @Value("${market-snapshot.capture-timeout-ms:2000}")
+    private long captureTimeoutMillis;
+
+    // Reused between snapshots, only touched by the scheduler thread and shutdown
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+
+    @PostConstruct
+    public void restore() {
+        if (!enabled) {
+            return;
+        }
+        Path path = Paths.get(snapshotFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                log.warn("Ignoring market state snapshot {} - unknown format", path);
+                return;
+            }
+            long snapshotMillis = in.getLong();
+            long nowMillis = System.currentTimeMillis();
+            if (marketSessionCalendar.marketDay(snapshotMillis) != marketSessionCalendar.marketDay(nowMillis)
+                    || nowMillis - snapshotMillis > maxAgeMinutes * 60_000L) {
+                log.info("Market state snapshot from {} is stale, falling back to historical warm-up", new Date(snapshotMillis));
+                return;
+            }
+            // Parse everything before touching live state, so a truncated or corrupt file restores nothing
+            List<RestoredInstrument> instruments = readInstruments(in);
+            Map<String, List<OIAnalysisService.OIDataPoint>> oiHistory = readOIHistory(in);
+            Map<String, OptionLTPTrackingService.LTPHistory> ltpHistories = readLTPHistories(in);
+            if (in.hasRemaining()) {
+                log.warn("Ignoring market state snapshot {} - {} trailing bytes", path, in.remaining());
+                return;
+            }
+            for (RestoredInstrument instrument : instruments) {
+                instrument.apply(instrumentStateRegistry.getOrCreate(instrument.instrumentToken));
+            }
+            oiAnalysisService.restoreOIDataHistory(oiHistory);
+            optionLTPTrackingService.restoreLTPHistories(ltpHistories);
+            log.info("♻️ Restored market state snapshot from {} in {} ms - Instruments: {}, OI symbols: {}, LTP histories: {}",
+                    new Date(snapshotMillis), (System.nanoTime() - startNanos) / 1_000_000, instruments.size(), oiHistory.size(), ltpHistories.size());
+        } catch (Exception e) {
+            log.warn("Failed to restore market state snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${market-snapshot.interval-ms:30000}")
+    public void scheduledSnapshot() {
+        if (enabled && marketSessionCalendar.isInSession(System.currentTimeMillis())) {
+            snapshot();
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        if (enabled) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Write the snapshot to a temp file straight from the serialisation buffer and move it into place atomically.
+     */
+    public synchronized void snapshot() {
+        long startNanos = System.nanoTime();
+        Path path = Paths.get(snapshotFile);
+        Path tempFile = null;
+        try {
+            buffer.reset();
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            int instruments = writeInstruments(out);
+            writeOIHistory(out);
+            writeLTPHistories(out);
+            out.flush();
+            if (instruments == 0) {
+                return;
+            }
+
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            tempFile = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                buffer.writeTo(Channels.newOutputStream(channel));
+                channel.force(true);
+            }
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Market state snapshot written - {} bytes, {} instruments in {} µs",
+                    buffer.size(), instruments, (System.nanoTime() - startNanos) / 1_000);
+        } catch (IOException e) {
+            log.warn("Failed to write market state snapshot {}: {}", path, e.getMessage());
+            deleteTempFile(tempFile);
+        } catch (TimeoutException e) {
+            log.warn("Skipping market state snapshot - shards did not capture instrument state within {} ms", captureTimeoutMillis);
+        } catch (ExecutionException e) {
+            log.warn("Skipping market state snapshot - failed to capture instrument state: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void deleteTempFile(Path tempFile) {
+        if (tempFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            log.warn("Failed to delete market state snapshot temp file {}: {}", tempFile, e.getMessage());
+        }
+    }
+
+    // Instruments: token, last volume, candle heights, session VWAP, then one bar store per timeframe
+
+    private int writeInstruments(DataOutputStream out) throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        List<CompletableFuture<InstrumentSnapshot>> captures = new ArrayList<>();
+        for (InstrumentState state : instrumentStateRegistry.getAll()) {
+            if (state.getSeriesData() != null) {
+                captures.add(tickShardExecutor.runOnOwner(state.getInstrumentToken(), () -> InstrumentSnapshot.capture(state)));
+            }
+        }
+        // Abandon the whole snapshot rather than write a partial one if a shard is too busy to answer
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(captureTimeoutMillis);
+        List<InstrumentSnapshot> snapshots = new ArrayList<>(captures.size());
+        for (CompletableFuture<InstrumentSnapshot> capture : captures) {
+            snapshots.add(capture.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS));
+        }
+
+        out.writeInt(snapshots.size());
+        for (InstrumentSnapshot snapshot : snapshots) {
+            snapshot.write(out);
+        }
+        return snapshots.size();
+    }
+
+    /**
+     * Copy of one instrument's state, taken on its owning shard thread so bars, forming bar, last volume and
+     * session VWAP all belong to the same tick.
+     */
+    private static final class InstrumentSnapshot {
+
+        private final long instrumentToken;
+        private final long lastVolume;
+        private final double avg5MinCandleHeight;
+        private final double avg3MinCandleHeight;
+        private final long vwapMarketDay;
+        private final double[] vwapState;
+        private final List<CandleTimeFrameEnum> timeFrames = new ArrayList<>();
+        private final List<BarStoreSnapshot> stores = new ArrayList<>();
+
+        private InstrumentSnapshot(InstrumentState state) {
+            instrumentToken = state.getInstrumentToken();
+            lastVolume = state.getLastVolume();
+            avg5MinCandleHeight = state.getAvg5MinCandleHeight() != null ? state.getAvg5MinCandleHeight() : Double.NaN;
+            avg3MinCandleHeight = state.getAvg3MinCandleHeight() != null ? state.getAvg3MinCandleHeight() : Double.NaN;
+            vwapMarketDay = state.getSessionVwap().getMarketDay();
+            vwapState = state.getSessionVwap().getState();
+        }
+
+        private static InstrumentSnapshot capture(InstrumentState state) {
+            InstrumentSnapshot snapshot = new InstrumentSnapshot(state);
+            BarSeriesData seriesData = state.getSeriesData();
+            for (CandleTimeFrameEnum timeFrame : CandleTimeFrameEnum.values()) {
+                ColumnarBarStore store = seriesData != null ? seriesData.getStore(timeFrame) : null;
+                if (store != null) {
+                    snapshot.timeFrames.add(timeFrame);
+                    snapshot.stores.add(new BarStoreSnapshot(store));
+                }
+            }
+            return snapshot;
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeLong(instrumentToken);
+            out.writeLong(lastVolume);
+            out.writeDouble(avg5MinCandleHeight);
+            out.writeDouble(avg3MinCandleHeight);
+            out.writeLong(vwapMarketDay);
+            for (double value : vwapState) {
+                out.writeDouble(value);
+            }
+            out.writeInt(stores.size());
+            for (int s = 0; s < stores.size(); s++) {
+                out.writeInt(timeFrames.get(s).ordinal());
+                stores.get(s).write(out);
+            }
+        }
+    }
+
+    private static final class BarStoreSnapshot {
+
+        private final long durationMillis;
+        private final long[] begin;
+        private final double[][] columns;
+
+        private BarStoreSnapshot(ColumnarBarStore store) {
+            durationMillis = store.getDurationMillis();
+            int size = store.size();
+            begin = new long[size];
+            columns = new double[5][size];
+            for (int i = 0; i < size; i++) {
+                begin[i] = store.getBeginMillis(i);
+                columns[0][i] = store.getOpen(i);
+                columns[1][i] = store.getHigh(i);
+                columns[2][i] = store.getLow(i);
+                columns[3][i] = store.getClose(i);
+                columns[4][i] = store.getVolume(i);
+            }
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeLong(durationMillis);
+            out.writeInt(begin.length);
+            for (int i = 0; i < begin.length; i++) {
+                out.writeLong(begin[i]);
+                for (double[] column : columns) {
+                    out.writeDouble(column[i]);
+                }
+            }
+        }
+    }
+
+    private List<RestoredInstrument> readInstruments(ByteBuffer in) {
+        int count = in.getInt();
+        List<RestoredInstrument> instruments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            RestoredInstrument instrument = new RestoredInstrument(in.getLong(), in.getLong(), in.getDouble(), in.getDouble(),
+                    in.getLong(), in.getDouble(), in.getDouble(), in.getDouble());
+            int storeCount = in.getInt();
+            for (int s = 0; s < storeCount; s++) {
+                CandleTimeFrameEnum timeFrame = CandleTimeFrameEnum.values()[in.getInt()];
+                instrument.seriesData.put(timeFrame, readBarStore(in, timeFrame));
+            }
+            instruments.add(instrument);
+        }
+        return instruments;
+    }
+
+    /**
+     * One instrument's state parsed from a snapshot, applied once the whole file has been read.
+     */
+    private static final class RestoredInstrument {
+
+        private final long instrumentToken;
+        private final long lastVolume;
+        private final double avg5MinCandleHeight;
+        private final double avg3MinCandleHeight;
+        private final long vwapMarketDay;
+        private final double vwapVolume;
+        private final double vwapPriceVolume;
+        private final double vwapPriceSquaredVolume;
+        private final BarSeriesData seriesData = new BarSeriesData();
+
+        private RestoredInstrument(long instrumentToken, long lastVolume, double avg5MinCandleHeight, double avg3MinCandleHeight,
+                                   long vwapMarketDay, double vwapVolume, double vwapPriceVolume, double vwapPriceSquaredVolume) {
+            this.instrumentToken = instrumentToken;
+            this.lastVolume = lastVolume;
+            this.avg5MinCandleHeight = avg5MinCandleHeight;
+            this.avg3MinCandleHeight = avg3MinCandleHeight;
+            this.vwapMarketDay = vwapMarketDay;
+            this.vwapVolume = vwapVolume;
+            this.vwapPriceVolume = vwapPriceVolume;
+            this.vwapPriceSquaredVolume = vwapPriceSquaredVolume;
+        }
+
+        private void apply(InstrumentState state) {
+            state.setLastVolume(lastVolume);
+            state.setAvg5MinCandleHeight(Double.isNaN(avg5MinCandleHeight) ? null : avg5MinCandleHeight);
+            state.setAvg3MinCandleHeight(Double.isNaN(avg3MinCandleHeight) ? null : avg3MinCandleHeight);
+            state.getSessionVwap().restore(vwapMarketDay, vwapVolume, vwapPriceVolume, vwapPriceSquaredVolume);
+            state.setSeriesData(seriesData);
+        }
+    }
+
+    private ColumnarBarStore readBarStore(ByteBuffer in, CandleTimeFrameEnum timeFrame) {
+        long durationMillis = in.getLong();
+        int size = in.getInt();
+        ColumnarBarStore store = new ColumnarBarStore(timeFrame.name(), durationMillis, barRetentionPolicy.getRetention(timeFrame));
+        for (int i = 0; i < size; i++) {
+            store.addBar(in.getLong(), in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble());
+        }
+        return store;
+    }
+
+    // OI history: symbol -> (oi, price, timestamp, fetch time) points
+
+    private void writeOIHistory(DataOutputStream out) throws IOException {
+        Map<String, List<OIAnalysisService.OIDataPoint>> history = oiAnalysisService.getOIDataHistorySnapshot();
+        out.writeInt(history.size());
+        for (Map.Entry<String, List<OIAnalysisService.OIDataPoint>> entry : history.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (OIAnalysisService.OIDataPoint point : entry.getValue()) {
+                out.writeDouble(point.getOi());
+                out.writeDouble(point.getPrice());
+                writeString(out, point.getTimestamp());
+                out.writeLong(point.getFetchTime());
+            }
+        }
+    }
+
+    private Map<String, List<OIAnalysisService.OIDataPoint>> readOIHistory(ByteBuffer in) {
+        int count = in.getInt();
+        Map<String, List<OIAnalysisService.OIDataPoint>> history = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String tradingSymbol = readString(in);
+            int points = in.getInt();
+            List<OIAnalysisService.OIDataPoint> dataPoints = new ArrayList<>(points);
+            for (int p = 0; p < points; p++) {
+                dataPoints.add(OIAnalysisService.OIDataPoint.builder()
+                        .oi(in.getDouble())
+                        .price(in.getDouble())
+                        .timestamp(readString(in))
+                        .fetchTime(in.getLong())
+                        .build());
+            }
+            history.put(tradingSymbol, dataPoints);
+        }
+        return history;
+    }
+
+    // Option LTP histories of active orders
+
+    private void writeLTPHistories(DataOutputStream out) throws IOException {
+        Map<String, OptionLTPTrackingService.LTPHistory> histories = optionLTPTrackingService.getAllLTPHistories();
+        out.writeInt(histories.size());
+        for (OptionLTPTrackingService.LTPHistory history : histories.values()) {
+            // Copied under the history's lock, exit checks keep adding entries meanwhile
+            List<OptionLTPTrackingService.LTPEntry> entries = history.copyLtpEntries();
+            writeString(out, history.getOrderId());
+            writeString(out, history.getOrderType() != null ? history.getOrderType().name() : null);
+            out.writeInt(history.getConsecutiveNeutralCount());
+            out.writeInt(entries.size());
+            for (OptionLTPTrackingService.LTPEntry entry : entries) {
+                out.writeDouble(entry.getOptionPrice());
+                out.writeLong(entry.getTimestamp() != null ? entry.getTimestamp().getTime() : 0L);
+                out.writeDouble(entry.getIndexPrice());
+            }
+        }
+    }
+
+    private Map<String, OptionLTPTrackingService.LTPHistory> readLTPHistories(ByteBuffer in) {
+        int count = in.getInt();
+        Map<String, OptionLTPTrackingService.LTPHistory> histories = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String orderId = readString(in);
+            String orderType = readString(in);
+            OptionLTPTrackingService.LTPHistory history = new OptionLTPTrackingService.LTPHistory(
+                    orderId, orderType != null ? OrderTypeEnum.valueOf(orderType) : null);
+            history.setConsecutiveNeutralCount(in.getInt());
+            int entryCount = in.getInt();
+            for (int e = 0; e < entryCount; e++) {
+                history.addLTPEntry(new OptionLTPTrackingService.LTPEntry(in.getDouble(), new Date(in.getLong()), in.getDouble()));
+            }
+            histories.put(orderId, history);
+        }
+        return histories;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,6 +1,7 @@
 package com.jtradebot.processor.manager;
 
-import com.jtradebot.processor.model.IndexData;
+import com.jtradebot.processor.model.InstrumentState;
+import com.jtradebot.processor.model.MarketTick;
 import com.jtradebot.processor.model.enums.CandleTimeFrameEnum;
 import com.zerodhatech.models.Tick;
 import lombok.Getter;
@@ -11,8 +12,6 @@ import org.springframework.stereotype.Service;
 import org.ta4j.core.BarSeries;
 
 import java.util.Date;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @RequiredArgsConstructor
@@ -20,10 +19,7 @@ import java.util.concurrent.locks.ReentrantLock;
 public class TickDataManager {
 
     private final BarSeriesManager barSeriesManager;
-
-    private final ConcurrentHashMap<CandleTimeFrameEnum, IndexData> indexDataMap = new ConcurrentHashMap<>();
-
-    private final ReentrantLock lock = new ReentrantLock();
+    private final InstrumentStateRegistry instrumentStateRegistry;
 
     @Setter
     @Getter
@@ -37,29 +33,57 @@ public class TickDataManager {
         return !barSeriesManager.isInitialized(instrumentToken);
     }
 
-    public void add(String instrumentToken, Tick tick) {
-        lock.lock();
+    public boolean isNotInitialized(long instrumentToken) {
+        return !barSeriesManager.isInitialized(instrumentToken);
+    }
+
+    /**
+     * Lock-free: each instrument is only ever updated by the shard thread owning it (see TickShardExecutor).
+     */
+    public void add(MarketTick tick) {
         try {
-            barSeriesManager.addTick(instrumentToken, tick);
+            barSeriesManager.addTick(tick);
         } catch (Exception e) {
             log.error("Error adding tick to Nifty50 - {}", e.getMessage());
-        } finally {
-            lock.unlock();
         }
     }
 
+    /**
+     * Copy the Zerodha tick into the instrument's reusable MarketTick. The Zerodha tick the feed delivered is
+     * published as the last tick for shared readers, so nothing is built per tick for them.
+     */
+    public MarketTick toMarketTick(Tick tick) {
+        InstrumentState state = instrumentStateRegistry.getOrCreate(tick.getInstrumentToken());
+        state.setLastTick(tick);
+        return state.getMarketTick().copyFrom(tick);
+    }
+
     public BarSeries getBarSeriesForTimeFrame(String instrumentToken, CandleTimeFrameEnum timeFrame) {
         return barSeriesManager.getBarSeriesForTimeFrame(instrumentToken, timeFrame);
     }
 
+    public BarSeries getBarSeriesForTimeFrame(long instrumentToken, CandleTimeFrameEnum timeFrame) {
+        return barSeriesManager.getBarSeriesForTimeFrame(instrumentToken, timeFrame);
+    }
+
 
     public Tick getLastTick(String instrumentToken) {
         return barSeriesManager.getLastTick(instrumentToken);
     }
 
+    public Tick getLastTick(long instrumentToken) {
+        return barSeriesManager.getLastTick(instrumentToken);
+    }
 
-    public void reset() {
-        barSeriesManager.reset();
-        indexDataMap.clear();
+    /**
+     * State of an instrument, null if it has none yet. Read paths use this so that they never create entries.
+     */
+    public InstrumentState getInstrumentState(long instrumentToken) {
+        return instrumentStateRegistry.get(instrumentToken);
     }
+
+    public InstrumentState getOrCreateInstrumentState(long instrumentToken) {
+        return instrumentStateRegistry.getOrCreate(instrumentToken);
+    }
+
 }
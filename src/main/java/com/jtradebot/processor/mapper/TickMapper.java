@@ -1,11 +1,13 @@
 package com.jtradebot.processor.mapper;
 
 import com.jtradebot.tickstore.repository.CalculatedTick;
+import com.jtradebot.processor.model.MarketTick;
 import com.jtradebot.processor.repository.document.TickDocument;
 import com.jtradebot.tickstore.repository.TickModel;
 import com.zerodhatech.models.Tick;
 
 import java.util.Collections;
+import java.util.Date;
 import java.util.Optional;
 
 
@@ -63,6 +65,20 @@ public class TickMapper {
         return tickModel;
     }
 
+    public static Tick toZerodhaTick(MarketTick marketTick) {
+        Tick zerodhaTick = new Tick();
+        zerodhaTick.setInstrumentToken(marketTick.getInstrumentToken());
+        zerodhaTick.setLastTradedPrice(marketTick.getLastTradedPrice());
+        zerodhaTick.setHighPrice(marketTick.getHighPrice());
+        zerodhaTick.setLowPrice(marketTick.getLowPrice());
+        zerodhaTick.setOpenPrice(marketTick.getOpenPrice());
+        zerodhaTick.setClosePrice(marketTick.getClosePrice());
+        zerodhaTick.setVolumeTradedToday(marketTick.getVolumeTradedToday());
+        zerodhaTick.setOi(marketTick.getOi());
+        zerodhaTick.setTickTimestamp(new Date(marketTick.getTickTimeMillis()));
+        return zerodhaTick;
+    }
+
     public static CalculatedTick toCalculatedTick(Tick tick) {
         CalculatedTick calculatedTick = new CalculatedTick();
         calculatedTick.setTick(convertToTickModel(tick));
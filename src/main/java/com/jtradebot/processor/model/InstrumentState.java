@@ -0,0 +1,51 @@
+package com.jtradebot.processor.model;
+
+import com.jtradebot.processor.model.indicator.BarSeriesData;
+import com.jtradebot.processor.model.indicator.FlattenedIndicators;
+import com.jtradebot.processor.model.indicator.SessionVwap;
+import com.zerodhatech.models.Tick;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * All per-instrument market state in one place, looked up once per tick by the primitive token.
+ * Written by the thread owning the instrument; fields read by other threads are volatile.
+ */
+@Getter
+@Setter
+public class InstrumentState {
+
+    private final long instrumentToken;
+    private final MarketTick marketTick;
+
+    // Bar series and derived candle statistics
+    private volatile BarSeriesData seriesData;
+    private volatile Double avg5MinCandleHeight;
+    private volatile Double avg3MinCandleHeight;
+    private long lastVolume;
+
+    // Feed-gap backfill in flight, holding the ticks that arrived since
+    private PendingGapFill pendingGapFill;
+
+    // Running VWAP of the current session, fed per tick
+    private final SessionVwap sessionVwap = new SessionVwap();
+
+    // Last tick as seen by shared readers, and when it was processed
+    private volatile Tick lastTick;
+    private volatile long lastTickEventTime;
+    // Set once a feed silence has been reported, cleared by the next tick
+    private volatile boolean feedSilenceReported;
+
+    // Short-lived flattened indicator cache
+    private volatile FlattenedIndicators cachedIndicators;
+    private volatile long indicatorsCacheTime;
+
+    public InstrumentState(long instrumentToken) {
+        this.instrumentToken = instrumentToken;
+        this.marketTick = new MarketTick(instrumentToken);
+    }
+
+    public String getInstrumentKey() {
+        return marketTick.getInstrumentKey();
+    }
+}
@@ -0,0 +1,130 @@
+package com.jtradebot.processor.model;
+
+import com.jtradebot.processor.mapper.TickMapper;
+import com.zerodhatech.models.Tick;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Reusable primitive tick used on the hot path (ingestion -> bar series -> indicators -> exits).
+ * One instance is kept per instrument and refilled by the thread owning that instrument, so the
+ * token key string and the instance itself are allocated once per session.
+ * The Zerodha Tick is only materialised at the edges (Kafka, persistence, order services) via toTick().
+ */
+@Getter
+public class MarketTick {
+
+    private final long instrumentToken;
+    private final String instrumentKey;
+
+    private long tickTimeMillis;
+    private double lastTradedPrice;
+    private double openPrice;
+    private double highPrice;
+    private double lowPrice;
+    private double closePrice;
+    private long volumeTradedToday;
+    private double oi;
+
+    // LTP range since the previous tick applied to the bars: the first, highest and lowest LTP,
+    // wider than the LTP alone when a mailbox conflated several ticks into this one
+    private double rangeOpenPrice;
+    private double rangeHighPrice;
+    private double rangeLowPrice;
+
+    private Tick source;
+    // Reused while the tick time does not change, so timestamp readers do not allocate per call
+    @Getter(AccessLevel.NONE)
+    private Date tickTimestamp;
+
+    public MarketTick(long instrumentToken) {
+        this.instrumentToken = instrumentToken;
+        this.instrumentKey = String.valueOf(instrumentToken);
+    }
+
+    public MarketTick copyFrom(Tick tick) {
+        this.tickTimeMillis = tick.getTickTimestamp() != null ? tick.getTickTimestamp().getTime() : 0L;
+        this.lastTradedPrice = tick.getLastTradedPrice();
+        this.openPrice = tick.getOpenPrice();
+        this.highPrice = tick.getHighPrice();
+        this.lowPrice = tick.getLowPrice();
+        this.closePrice = tick.getClosePrice();
+        this.volumeTradedToday = tick.getVolumeTradedToday();
+        this.oi = tick.getOi();
+        resetPriceRange();
+        this.source = tick;
+        return this;
+    }
+
+    /**
+     * Refill from already decoded primitive fields (e.g. straight from a websocket frame).
+     */
+    public MarketTick update(long tickTimeMillis, double lastTradedPrice, double openPrice, double highPrice,
+                             double lowPrice, double closePrice, long volumeTradedToday, double oi) {
+        this.tickTimeMillis = tickTimeMillis;
+        this.lastTradedPrice = lastTradedPrice;
+        this.openPrice = openPrice;
+        this.highPrice = highPrice;
+        this.lowPrice = lowPrice;
+        this.closePrice = closePrice;
+        this.volumeTradedToday = volumeTradedToday;
+        this.oi = oi;
+        resetPriceRange();
+        this.source = null;
+        return this;
+    }
+
+    /**
+     * Refill from an LTP-only packet. Cumulative volume, OHLC and OI carry over from the previous packet,
+     * so consumers computing volume deltas do not see the day's volume drop to zero.
+     */
+    public MarketTick updateLastTradedPrice(long tickTimeMillis, double lastTradedPrice) {
+        this.tickTimeMillis = tickTimeMillis;
+        this.lastTradedPrice = lastTradedPrice;
+        resetPriceRange();
+        this.source = null;
+        return this;
+    }
+
+    /**
+     * Widen the LTP range to the ticks conflated into this one. The range always contains the LTP.
+     */
+    public MarketTick withPriceRange(double openPrice, double highPrice, double lowPrice) {
+        this.rangeOpenPrice = openPrice;
+        this.rangeHighPrice = Math.max(highPrice, lastTradedPrice);
+        this.rangeLowPrice = Math.min(lowPrice, lastTradedPrice);
+        return this;
+    }
+
+    private void resetPriceRange() {
+        this.rangeOpenPrice = lastTradedPrice;
+        this.rangeHighPrice = lastTradedPrice;
+        this.rangeLowPrice = lastTradedPrice;
+    }
+
+    public static MarketTick of(Tick tick) {
+        return new MarketTick(tick.getInstrumentToken()).copyFrom(tick);
+    }
+
+    /**
+     * Edge conversion. Returns the originating Zerodha tick when there is one, otherwise builds it once.
+     */
+    public Tick toTick() {
+        if (source == null) {
+            source = TickMapper.toZerodhaTick(this);
+        }
+        return source;
+    }
+
+    public Date getTickTimestamp() {
+        if (source != null && source.getTickTimestamp() != null) {
+            return source.getTickTimestamp();
+        }
+        if (tickTimestamp == null || tickTimestamp.getTime() != tickTimeMillis) {
+            tickTimestamp = new Date(tickTimeMillis);
+        }
+        return tickTimestamp;
+    }
+}
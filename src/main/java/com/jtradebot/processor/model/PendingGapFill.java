@@ -0,0 +1,43 @@
+package com.jtradebot.processor.model;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feed-gap backfill in flight for one instrument. Ticks arriving meanwhile are held here and applied to the bars
+ * once the missing candles are in, so bars stay in time order. At most {@code maxHeldTicks} are held.
+ * Only touched by the thread owning the instrument.
+ */
+@Getter
+public class PendingGapFill {
+
+    // Start of the bar open when ticks stopped, and of the bar the first tick after the gap falls into
+    private final long lastBarBeginTime;
+    private final long resumeBarBeginTime;
+    private final int maxHeldTicks;
+    private final List<MarketTick> heldTicks = new ArrayList<>();
+
+    public PendingGapFill(long lastBarBeginTime, long resumeBarBeginTime, int maxHeldTicks) {
+        this.lastBarBeginTime = lastBarBeginTime;
+        this.resumeBarBeginTime = resumeBarBeginTime;
+        this.maxHeldTicks = maxHeldTicks;
+    }
+
+    /**
+     * Hold a copy of the tick; the instrument's MarketTick is refilled by the next tick.
+     *
+     * @return false, without holding the tick, when the buffer is full
+     */
+    public boolean hold(MarketTick tick) {
+        if (heldTicks.size() >= maxHeldTicks) {
+            return false;
+        }
+        heldTicks.add(new MarketTick(tick.getInstrumentToken()).update(tick.getTickTimeMillis(), tick.getLastTradedPrice(),
+                tick.getOpenPrice(), tick.getHighPrice(), tick.getLowPrice(), tick.getClosePrice(),
+                tick.getVolumeTradedToday(), tick.getOi())
+                .withPriceRange(tick.getRangeOpenPrice(), tick.getRangeHighPrice(), tick.getRangeLowPrice()));
+        return true;
+    }
+}
@@ -1,16 +1,29 @@
 package com.jtradebot.processor.model.indicator;
 
-import lombok.Builder;
-import lombok.Data;
+import com.jtradebot.processor.model.enums.CandleTimeFrameEnum;
 import org.ta4j.core.BarSeries;
 
-@Data
-@Builder
+/**
+ * Bars of one instrument for every timeframe: a columnar ring store per timeframe (written per tick)
+ * and a lazily synchronised ta4j view of it for indicator code.
+ */
 public class BarSeriesData {
-    private BarSeries series1Min;
-    private BarSeries series3Min;
-    private BarSeries series5Min;
-    private BarSeries series15Min;
-    private BarSeries series1Hour;
-    private BarSeries series1Day;
+
+    private final ColumnarBarStore[] stores = new ColumnarBarStore[CandleTimeFrameEnum.values().length];
+    private final Ta4jBarSeriesAdapter[] adapters = new Ta4jBarSeriesAdapter[CandleTimeFrameEnum.values().length];
+
+    public BarSeriesData put(CandleTimeFrameEnum timeFrame, ColumnarBarStore store) {
+        stores[timeFrame.ordinal()] = store;
+        adapters[timeFrame.ordinal()] = new Ta4jBarSeriesAdapter(store);
+        return this;
+    }
+
+    public ColumnarBarStore getStore(CandleTimeFrameEnum timeFrame) {
+        return stores[timeFrame.ordinal()];
+    }
+
+    public BarSeries getSeries(CandleTimeFrameEnum timeFrame) {
+        Ta4jBarSeriesAdapter adapter = adapters[timeFrame.ordinal()];
+        return adapter != null ? adapter.sync() : null;
+    }
 }
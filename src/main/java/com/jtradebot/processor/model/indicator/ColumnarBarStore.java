@@ -0,0 +1,172 @@
+package com.jtradebot.processor.model.indicator;
+
+import lombok.Getter;
+
+/**
+ * Fixed-capacity ring of OHLCV bars for one instrument and timeframe, stored as parallel primitive columns.
+ * Index 0 is the oldest retained bar and {@code size() - 1} the current (forming) bar; once the ring is full
+ * adding a bar evicts the oldest one. Single writer (the thread owning the instrument); readers on other threads
+ * see a consistent bar count because the column writes happen before the volatile counters are bumped.
+ */
+public class ColumnarBarStore {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final long durationMillis;
+    @Getter
+    private final int capacity;
+    private final int mask;
+
+    private final long[] beginMillis;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final double[] volume;
+
+    // Bars ever added (not capped by capacity) and a counter bumped on every mutation
+    private volatile long totalBars;
+    private volatile long modCount;
+
+    public ColumnarBarStore(String name, long durationMillis, int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        this.name = name;
+        this.durationMillis = durationMillis;
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.beginMillis = new long[this.capacity];
+        this.open = new double[this.capacity];
+        this.high = new double[this.capacity];
+        this.low = new double[this.capacity];
+        this.close = new double[this.capacity];
+        this.volume = new double[this.capacity];
+    }
+
+    public void addBar(long barBeginMillis, double openPrice, double highPrice, double lowPrice, double closePrice, double barVolume) {
+        long total = totalBars;
+        int slot = (int) (total & mask);
+        beginMillis[slot] = barBeginMillis;
+        open[slot] = openPrice;
+        high[slot] = highPrice;
+        low[slot] = lowPrice;
+        close[slot] = closePrice;
+        volume[slot] = barVolume;
+        totalBars = total + 1;
+        modCount++;
+    }
+
+    /**
+     * Apply a trade price to the forming bar (close, and high/low when exceeded).
+     */
+    public void addPrice(double price) {
+        int slot = lastSlot();
+        close[slot] = price;
+        if (price > high[slot]) {
+            high[slot] = price;
+        }
+        if (price < low[slot]) {
+            low[slot] = price;
+        }
+        modCount++;
+    }
+
+    /**
+     * Add traded volume to the forming bar.
+     */
+    public void addVolume(double barVolume) {
+        volume[lastSlot()] += barVolume;
+        modCount++;
+    }
+
+    public int size() {
+        long total = totalBars;
+        return total < capacity ? (int) total : capacity;
+    }
+
+    public boolean isEmpty() {
+        return totalBars == 0;
+    }
+
+    public long getTotalBars() {
+        return totalBars;
+    }
+
+    public long getModCount() {
+        return modCount;
+    }
+
+    public long getBeginMillis(int index) {
+        return beginMillis[slot(index)];
+    }
+
+    public long getEndMillis(int index) {
+        return beginMillis[slot(index)] + durationMillis;
+    }
+
+    public double getOpen(int index) {
+        return open[slot(index)];
+    }
+
+    public double getHigh(int index) {
+        return high[slot(index)];
+    }
+
+    public double getLow(int index) {
+        return low[slot(index)];
+    }
+
+    public double getClose(int index) {
+        return close[slot(index)];
+    }
+
+    public double getVolume(int index) {
+        return volume[slot(index)];
+    }
+
+    public long getLastBeginMillis() {
+        return beginMillis[lastSlot()];
+    }
+
+    public long getLastEndMillis() {
+        return beginMillis[lastSlot()] + durationMillis;
+    }
+
+    // Accessors by absolute bar number (0 = first bar ever added), stable while the writer appends bars
+
+    long beginMillisAt(long bar) {
+        return beginMillis[(int) (bar & mask)];
+    }
+
+    double openAt(long bar) {
+        return open[(int) (bar & mask)];
+    }
+
+    double highAt(long bar) {
+        return high[(int) (bar & mask)];
+    }
+
+    double lowAt(long bar) {
+        return low[(int) (bar & mask)];
+    }
+
+    double closeAt(long bar) {
+        return close[(int) (bar & mask)];
+    }
+
+    double volumeAt(long bar) {
+        return volume[(int) (bar & mask)];
+    }
+
+    private int lastSlot() {
+        return (int) ((totalBars - 1) & mask);
+    }
+
+    private int slot(int index) {
+        long total = totalBars;
+        long first = total < capacity ? 0 : total - capacity;
+        return (int) ((first + index) & mask);
+    }
+}
@@ -0,0 +1,18 @@
+package com.jtradebot.processor.model.indicator;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One historical OHLCV candle keyed by its begin time, as fetched from Kite or read from the candle cache.
+ */
+@Getter
+@AllArgsConstructor
+public class HistoricalCandle {
+    private final long beginMillis;
+    private final double open;
+    private final double high;
+    private final double low;
+    private final double close;
+    private final long volume;
+}
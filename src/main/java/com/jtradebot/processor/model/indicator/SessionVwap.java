@@ -0,0 +1,80 @@
+package com.jtradebot.processor.model.indicator;
+
+/**
+ * Running volume-weighted average price of one instrument's current market session.
+ * Fed with (price, volume) increments from the tick stream; moving to another market day starts a new session.
+ * Also tracks the volume-weighted variance, so standard-deviation bands cost nothing extra.
+ * Written by the thread owning the instrument and read from strategy threads, hence synchronized.
+ */
+public class SessionVwap {
+
+    private long marketDay = Long.MIN_VALUE;
+    private double cumulativeVolume;
+    private double cumulativePriceVolume;
+    private double cumulativePriceSquaredVolume;
+
+    public synchronized void add(long day, double price, double volume) {
+        if (day != marketDay) {
+            reset();
+            marketDay = day;
+        }
+        if (volume <= 0) {
+            return;
+        }
+        cumulativeVolume += volume;
+        cumulativePriceVolume += price * volume;
+        cumulativePriceSquaredVolume += price * price * volume;
+    }
+
+    public synchronized double getVwap() {
+        return cumulativeVolume == 0 ? 0 : cumulativePriceVolume / cumulativeVolume;
+    }
+
+    /**
+     * Volume-weighted standard deviation of traded prices around the VWAP.
+     */
+    public synchronized double getStandardDeviation() {
+        if (cumulativeVolume == 0) {
+            return 0;
+        }
+        double vwap = cumulativePriceVolume / cumulativeVolume;
+        return Math.sqrt(Math.max(0, cumulativePriceSquaredVolume / cumulativeVolume - vwap * vwap));
+    }
+
+    public synchronized double getUpperBand(double deviations) {
+        return getVwap() + deviations * getStandardDeviation();
+    }
+
+    public synchronized double getLowerBand(double deviations) {
+        return getVwap() - deviations * getStandardDeviation();
+    }
+
+    public synchronized boolean isEmpty() {
+        return cumulativeVolume == 0;
+    }
+
+    public synchronized long getMarketDay() {
+        return marketDay;
+    }
+
+    public synchronized double[] getState() {
+        return new double[]{cumulativeVolume, cumulativePriceVolume, cumulativePriceSquaredVolume};
+    }
+
+    /**
+     * Restore accumulated state, e.g. from a market state snapshot.
+     */
+    public synchronized void restore(long day, double volume, double priceVolume, double priceSquaredVolume) {
+        marketDay = day;
+        cumulativeVolume = volume;
+        cumulativePriceVolume = priceVolume;
+        cumulativePriceSquaredVolume = priceSquaredVolume;
+    }
+
+    public synchronized void reset() {
+        marketDay = Long.MIN_VALUE;
+        cumulativeVolume = 0;
+        cumulativePriceVolume = 0;
+        cumulativePriceSquaredVolume = 0;
+    }
+}
@@ -0,0 +1,88 @@
+package com.jtradebot.processor.model.indicator;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeriesBuilder;
+import org.ta4j.core.num.DoubleNum;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * ta4j view of a ColumnarBarStore for indicator code that still needs a BarSeries.
+ * The view is bounded to the store capacity and synchronised lazily on read: bars added since the last sync
+ * are appended and the forming bar's high/low/close and volume are refreshed, so ticks themselves never touch ta4j Nums.
+ * Syncing mutates the returned series, so it must only be read on the shard thread owning the instrument;
+ * other threads go through TickShardExecutor.runOnOwner.
+ */
+public class Ta4jBarSeriesAdapter {
+
+    private static final ZoneId MARKET_ZONE = ZoneId.of("Asia/Kolkata");
+
+    private final ColumnarBarStore store;
+    private final BarSeries series;
+    private final Duration duration;
+
+    private long syncedTotalBars;
+    private long syncedModCount = -1;
+
+    public Ta4jBarSeriesAdapter(ColumnarBarStore store) {
+        this.store = store;
+        this.duration = Duration.ofMillis(store.getDurationMillis());
+        // The store holds doubles; DoubleNum keeps each sync from allocating BigDecimal-backed values
+        this.series = new BaseBarSeriesBuilder().withName(store.getName()).withNumTypeOf(DoubleNum.class).build();
+        this.series.setMaximumBarCount(store.getCapacity());
+    }
+
+    /**
+     * Bring the ta4j series up to date with the store and return it. The returned instance never changes.
+     */
+    public synchronized BarSeries sync() {
+        long modCount = store.getModCount();
+        if (modCount == syncedModCount) {
+            return series;
+        }
+        long total = store.getTotalBars();
+        long firstRetained = Math.max(0, total - store.getCapacity());
+
+        // Refresh the bar that was forming at the previous sync if the store still holds it
+        long previousLast = syncedTotalBars - 1;
+        if (previousLast >= firstRetained && !series.isEmpty()) {
+            refreshLastBar(previousLast);
+        }
+
+        for (long bar = Math.max(syncedTotalBars, firstRetained); bar < total; bar++) {
+            ZonedDateTime endTime = Instant.ofEpochMilli(store.beginMillisAt(bar) + store.getDurationMillis()).atZone(MARKET_ZONE);
+            series.addBar(duration, endTime, store.openAt(bar), store.highAt(bar), store.lowAt(bar),
+                    store.closeAt(bar), store.volumeAt(bar));
+        }
+
+        syncedTotalBars = total;
+        syncedModCount = modCount;
+        return series;
+    }
+
+    private void refreshLastBar(long storeBar) {
+        Bar bar = series.getLastBar();
+        double high = store.highAt(storeBar);
+        double low = store.lowAt(storeBar);
+        double close = store.closeAt(storeBar);
+        // addPrice only widens high/low, which matches how the store's forming bar evolves
+        if (bar.getHighPrice().doubleValue() != high) {
+            bar.addPrice(series.numOf(high));
+        }
+        if (bar.getLowPrice().doubleValue() != low) {
+            bar.addPrice(series.numOf(low));
+        }
+        if (bar.getClosePrice().doubleValue() != close) {
+            bar.addPrice(series.numOf(close));
+        }
+        // Volume booked into the forming bar after it was materialised, e.g. by a gap fill
+        double volume = store.volumeAt(storeBar);
+        if (bar.getVolume().doubleValue() != volume) {
+            bar.addTrade(series.numOf(volume - bar.getVolume().doubleValue()), bar.getClosePrice());
+        }
+    }
+}
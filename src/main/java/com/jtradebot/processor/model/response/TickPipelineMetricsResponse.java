@@ -0,0 +1,32 @@
+package com.jtradebot.processor.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response model for tick ingestion pipeline metrics
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TickPipelineMetricsResponse {
+
+    // Ring buffer state
+    private Integer capacity;
+    private Integer queueDepth;
+    private Long publishedTicks;
+    private Long droppedTicks;
+    private Long consumedTicks;
+
+    // Latest-value-wins conflation in the per-instrument mailboxes
+    private Long conflatedTicks;
+    private Long conflatedPerSecond;
+
+    // Publish-to-consume latency (microseconds)
+    private Double lastLatencyMicros;
+    private Double avgLatencyMicros;
+    private Double maxLatencyMicros;
+}
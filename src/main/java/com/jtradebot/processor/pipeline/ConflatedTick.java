@@ -0,0 +1,38 @@
+package com.jtradebot.processor.pipeline;
+
+import com.zerodhatech.models.Tick;
+import lombok.Getter;
+
+/**
+ * Latest tick of a mailbox bucket together with the LTP range of the same-minute ticks it replaced,
+ * so bars still see the highs and lows traded between two drains.
+ */
+@Getter
+public final class ConflatedTick {
+
+    private final Tick tick;
+    // LTP of the first tick merged into this one, and the highest and lowest LTP since
+    private final double firstPrice;
+    private final double highPrice;
+    private final double lowPrice;
+
+    private ConflatedTick(Tick tick, double firstPrice, double highPrice, double lowPrice) {
+        this.tick = tick;
+        this.firstPrice = firstPrice;
+        this.highPrice = highPrice;
+        this.lowPrice = lowPrice;
+    }
+
+    public static ConflatedTick of(Tick tick) {
+        double price = tick.getLastTradedPrice();
+        return new ConflatedTick(tick, price, price, price);
+    }
+
+    /**
+     * The newer tick replacing this one, carrying the range of both.
+     */
+    ConflatedTick merge(Tick newer) {
+        double price = newer.getLastTradedPrice();
+        return new ConflatedTick(newer, firstPrice, Math.max(highPrice, price), Math.min(lowPrice, price));
+    }
+}
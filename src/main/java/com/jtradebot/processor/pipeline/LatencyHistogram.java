@@ -0,0 +1,129 @@
+package com.jtradebot.processor.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size log-linear histogram of nanosecond latencies (HdrHistogram layout, 2 significant digits).
+ * Values below 128ns are exact; above that each power-of-two range is split into 64 sub-buckets,
+ * so the relative error stays under ~1.6% up to the ~18 minute cap. Recording is lock-free and allocation-free
+ * and may be called from several threads.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_VALUE_BITS - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = nanos < 0 ? 0 : Math.min(nanos, MAX_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalNanos.addAndGet(value);
+        long max;
+        while (value > (max = maxNanos.get())) {
+            if (maxNanos.compareAndSet(max, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Copy the current counts. Concurrent recordings may land on either side of the copy.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, totalNanos.get(), maxNanos.get());
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (int) ((value >>> shift) - SUB_BUCKET_HALF);
+    }
+
+    /**
+     * Highest value that maps to the same bucket as the given index.
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long subBucket = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sumNanos;
+        private final long maxNanos;
+
+        Snapshot(long[] counts, long count, long sumNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.sumNanos = sumNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public double getMeanNanos() {
+            return count > 0 ? (double) sumNanos / count : 0.0;
+        }
+
+        /**
+         * Value at the given percentile (0-100), reported as the upper bound of its bucket and capped at the recorded max.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(highestEquivalentValue(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+    }
+}
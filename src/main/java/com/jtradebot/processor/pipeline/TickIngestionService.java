@@ -0,0 +1,132 @@
+package com.jtradebot.processor.pipeline;
+
+import com.jtradebot.processor.model.response.TickPipelineMetricsResponse;
+import com.jtradebot.processor.service.TickOrchestrationService;
+import com.zerodhatech.models.Tick;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ingestion stage between the websocket reader thread and the strategy pipeline.
+ * The socket thread only publishes ticks into a preallocated ring buffer; a dedicated
+ * consumer thread drains it in batches and hands each tick to the shard owning its instrument.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TickIngestionService {
+
+    private final TickOrchestrationService tickOrchestrationService;
+    private final TickShardExecutor tickShardExecutor;
+
+    @Value("${tick-pipeline.ring-buffer.capacity:8192}")
+    private int ringBufferCapacity;
+
+    @Value("${tick-pipeline.consumer.batch-size:256}")
+    private int batchSize;
+
+    @Value("${tick-pipeline.consumer.idle-park-micros:500}")
+    private long idleParkMicros;
+
+    private TickRingBuffer<Tick> ringBuffer;
+    private Thread consumerThread;
+    private volatile boolean running;
+
+    private final AtomicLong consumedCount = new AtomicLong();
+    private final AtomicLong latencySumNanos = new AtomicLong();
+    private final AtomicLong lastLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        ringBuffer = new TickRingBuffer<>(ringBufferCapacity);
+        running = true;
+        consumerThread = new Thread(this::consumeLoop, "tick-ingestion-consumer");
+        consumerThread.setDaemon(true);
+        consumerThread.start();
+        log.info("🚀 Tick ingestion ring buffer started - Capacity: {}, Batch size: {}", ringBuffer.getCapacity(), batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (consumerThread != null) {
+            LockSupport.unpark(consumerThread);
+        }
+    }
+
+    /**
+     * Called from the websocket reader thread. Never blocks; ticks are dropped and counted when the ring is full.
+     */
+    public void publish(List<Tick> ticks) {
+        int dropped = 0;
+        for (Tick tick : ticks) {
+            if (!ringBuffer.publish(tick)) {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            log.warn("⚠️ Tick ring buffer full - Dropped {} ticks (total dropped: {})", dropped, ringBuffer.getDroppedCount());
+        }
+        LockSupport.unpark(consumerThread);
+    }
+
+    private void consumeLoop() {
+        List<Tick> batch = new ArrayList<>(batchSize);
+        while (running) {
+            batch.clear();
+            int drained = ringBuffer.drainTo(batch, batchSize, this::recordLatency);
+            if (drained == 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(idleParkMicros));
+                continue;
+            }
+            consumedCount.addAndGet(drained);
+            try {
+                if (!tickOrchestrationService.acceptTicks(batch, false)) { // market hours check is needed for live processing
+                    continue;
+                }
+                // Per-instrument mailboxes conflate to the latest tick, keeping minute-boundary ticks
+                for (Tick tick : batch) {
+                    tickShardExecutor.dispatch(tick);
+                }
+            } catch (Exception e) {
+                log.error("Error dispatching live ticks: {}", e.getMessage());
+            }
+        }
+        log.info("Tick ingestion consumer stopped");
+    }
+
+    private void recordLatency(long latencyNanos) {
+        lastLatencyNanos.set(latencyNanos);
+        latencySumNanos.addAndGet(latencyNanos);
+        if (latencyNanos > maxLatencyNanos.get()) {
+            maxLatencyNanos.set(latencyNanos);
+        }
+    }
+
+    public TickPipelineMetricsResponse getMetrics() {
+        long consumed = consumedCount.get();
+        return TickPipelineMetricsResponse.builder()
+                .capacity(ringBuffer.getCapacity())
+                .queueDepth(ringBuffer.getDepth())
+                .publishedTicks(ringBuffer.getPublishedCount())
+                .droppedTicks(ringBuffer.getDroppedCount())
+                .conflatedTicks(tickShardExecutor.getConflatedCount())
+                .conflatedPerSecond(tickShardExecutor.getConflatedPerSecond())
+                .consumedTicks(consumed)
+                .lastLatencyMicros(lastLatencyNanos.get() / 1000.0)
+                .avgLatencyMicros(consumed > 0 ? latencySumNanos.get() / 1000.0 / consumed : 0.0)
+                .maxLatencyMicros(maxLatencyNanos.get() / 1000.0)
+                .build();
+    }
+}
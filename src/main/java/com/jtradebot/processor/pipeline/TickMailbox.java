@@ -0,0 +1,94 @@
+package com.jtradebot.processor.pipeline;
+
+import com.zerodhatech.models.Tick;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Latest-value-wins mailbox for a single instrument.
+ * A newer tick replaces a pending one from the same minute bucket and inherits its LTP range, so the
+ * bar still sees the high and low traded in between. The last pending tick of an older minute is kept,
+ * so every bar still sees its closing price and the cumulative volume delta computed in
+ * BarSeriesManager.addTick is attributed to the right bar.
+ */
+public class TickMailbox {
+
+    private static final long BUCKET_MILLIS = 60_000L;
+
+    private final long instrumentToken;
+    private final AtomicReference<Pending> pending = new AtomicReference<>();
+    private final AtomicLong conflatedCount = new AtomicLong();
+
+    public TickMailbox(long instrumentToken) {
+        this.instrumentToken = instrumentToken;
+    }
+
+    /**
+     * Offer a tick. Single producer; never blocks.
+     */
+    public void offer(Tick tick) {
+        long bucket = bucketOf(tick);
+        while (true) {
+            Pending current = pending.get();
+            Pending next;
+            if (current == null) {
+                next = new Pending(null, ConflatedTick.of(tick), bucket);
+            } else if (current.bucket == bucket) {
+                next = new Pending(current.previousBucket, current.tick.merge(tick), bucket);
+            } else {
+                next = new Pending(current, ConflatedTick.of(tick), bucket);
+            }
+            if (pending.compareAndSet(current, next)) {
+                if (current != null && current.bucket == bucket) {
+                    conflatedCount.incrementAndGet();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Move all pending ticks into the target list, oldest first. Single consumer.
+     *
+     * @return number of drained ticks
+     */
+    public int drainTo(List<ConflatedTick> target) {
+        Pending head = pending.getAndSet(null);
+        if (head == null) {
+            return 0;
+        }
+        return addOldestFirst(head, target);
+    }
+
+    private int addOldestFirst(Pending node, List<ConflatedTick> target) {
+        int count = node.previousBucket != null ? addOldestFirst(node.previousBucket, target) : 0;
+        target.add(node.tick);
+        return count + 1;
+    }
+
+    private static long bucketOf(Tick tick) {
+        return tick.getTickTimestamp() != null ? tick.getTickTimestamp().getTime() / BUCKET_MILLIS : 0L;
+    }
+
+    public long getInstrumentToken() {
+        return instrumentToken;
+    }
+
+    public long getConflatedCount() {
+        return conflatedCount.get();
+    }
+
+    private static final class Pending {
+        private final Pending previousBucket;
+        private final ConflatedTick tick;
+        private final long bucket;
+
+        private Pending(Pending previousBucket, ConflatedTick tick, long bucket) {
+            this.previousBucket = previousBucket;
+            this.tick = tick;
+            this.bucket = bucket;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.jtradebot.processor.pipeline;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preallocated single-producer / single-consumer ring buffer used as the ingestion stage
+ * between the websocket reader thread and the strategy pipeline.
+ * The producer never blocks: when the ring is full the element is dropped and counted.
+ */
+public class TickRingBuffer<T> {
+
+    private final Object[] slots;
+    private final long[] publishNanos;
+    private final int mask;
+
+    // Next sequence to be written by the producer / read by the consumer
+    private final AtomicLong producerSequence = new AtomicLong();
+    private final AtomicLong consumerSequence = new AtomicLong();
+
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public TickRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("Ring buffer capacity must be at least 2");
+        }
+        int capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.slots = new Object[capacity];
+        this.publishNanos = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Publish a single element. Must only be called from the producer thread.
+     *
+     * @return false when the ring was full and the element was dropped
+     */
+    public boolean publish(T element) {
+        long sequence = producerSequence.get();
+        if (sequence - consumerSequence.get() >= slots.length) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        int index = (int) (sequence & mask);
+        slots[index] = element;
+        publishNanos[index] = System.nanoTime();
+        // Ordered write makes the slot contents visible before the new sequence
+        producerSequence.lazySet(sequence + 1);
+        publishedCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Drain up to maxElements into the target list. Must only be called from the consumer thread.
+     *
+     * @param listener optional callback receiving the publish-to-consume latency of each element
+     * @return number of drained elements
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(List<T> target, int maxElements, LatencyListener listener) {
+        long sequence = consumerSequence.get();
+        long available = producerSequence.get() - sequence;
+        if (available <= 0) {
+            return 0;
+        }
+        int count = (int) Math.min(available, maxElements);
+        long now = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            int index = (int) ((sequence + i) & mask);
+            target.add((T) slots[index]);
+            slots[index] = null;
+            if (listener != null) {
+                listener.onConsumed(now - publishNanos[index]);
+            }
+        }
+        consumerSequence.lazySet(sequence + count);
+        return count;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public int getDepth() {
+        return (int) (producerSequence.get() - consumerSequence.get());
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @FunctionalInterface
+    public interface LatencyListener {
+        void onConsumed(long latencyNanos);
+    }
+}
@@ -0,0 +1,206 @@
+package com.jtradebot.processor.pipeline;
+
+import com.jtradebot.processor.handler.KiteInstrumentHandler;
+import com.jtradebot.processor.service.TickOrchestrationService;
+import com.zerodhatech.models.Tick;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer execution model for per-instrument state.
+ * Every instrument token is owned by exactly one shard thread, which is the only thread
+ * that updates that instrument's bar series. Ticks for different instruments never contend.
+ * Each instrument has a conflating mailbox, so a slow shard always picks up the newest tick.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TickShardExecutor {
+
+    private final TickOrchestrationService tickOrchestrationService;
+    private final KiteInstrumentHandler kiteInstrumentHandler;
+
+    @Value("${tick-pipeline.shards.count:2}")
+    private int shardCount;
+
+    @Value("${tick-pipeline.consumer.idle-park-micros:500}")
+    private long idleParkMicros;
+
+    private final Map<Long, Integer> tokenShardMap = new ConcurrentHashMap<>();
+    private final Map<Long, TickMailbox> mailboxMap = new ConcurrentHashMap<>();
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    private Shard[] shards;
+    private volatile boolean running;
+
+    // Conflation rate, rolled once per second
+    private final AtomicLong lastConflatedTotal = new AtomicLong();
+    private volatile long conflatedPerSecond;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+            shards[i].thread.start();
+        }
+        log.info("🚀 Tick shard executor started - Shards: {}", shardCount);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (shards != null) {
+            for (Shard shard : shards) {
+                LockSupport.unpark(shard.thread);
+            }
+        }
+    }
+
+    /**
+     * Hand a tick to the mailbox of its instrument and wake the owning shard.
+     * Must only be called from the ingestion consumer thread.
+     */
+    public void dispatch(Tick tick) {
+        Shard shard = shards[getShardIndex(tick.getInstrumentToken())];
+        TickMailbox mailbox = mailboxMap.get(tick.getInstrumentToken());
+        if (mailbox == null) {
+            mailbox = new TickMailbox(tick.getInstrumentToken());
+            mailboxMap.put(tick.getInstrumentToken(), mailbox);
+            shard.mailboxes.add(mailbox);
+        }
+        mailbox.offer(tick);
+        LockSupport.unpark(shard.thread);
+    }
+
+    /**
+     * Run a task on the shard thread owning the instrument, between two ticks, so it reads that instrument's state
+     * consistently. Runs on the caller when no shard owns the instrument yet (nothing updates it) or the shards are stopped.
+     */
+    public <T> CompletableFuture<T> runOnOwner(long instrumentToken, Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Integer shardIndex = tokenShardMap.get(instrumentToken);
+        if (!running || shards == null || shardIndex == null) {
+            complete(result, task);
+            return result;
+        }
+        Shard shard = shards[shardIndex];
+        shard.tasks.add(() -> complete(result, task));
+        LockSupport.unpark(shard.thread);
+        return result;
+    }
+
+    private static <T> void complete(CompletableFuture<T> result, Supplier<T> task) {
+        try {
+            result.complete(task.get());
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Tokens are assigned round-robin on first sight and keep their shard for the rest of the session.
+     * The Nifty future is co-located with the Nifty index, because the index strategy reads the future's
+     * bar series and must never observe it mid-update.
+     */
+    public int getShardIndex(long instrumentToken) {
+        Integer shardIndex = tokenShardMap.get(instrumentToken);
+        if (shardIndex != null) {
+            return shardIndex;
+        }
+        long niftyToken = kiteInstrumentHandler.getNifty50Token();
+        boolean isNiftyFuture = kiteInstrumentHandler.getDynamicNifty50FutureToken()
+                .map(futureToken -> futureToken == instrumentToken)
+                .orElse(false);
+        if (instrumentToken == niftyToken || isNiftyFuture) {
+            shardIndex = tokenShardMap.computeIfAbsent(niftyToken, token -> assignNextShard());
+            tokenShardMap.put(instrumentToken, shardIndex);
+            return shardIndex;
+        }
+        return tokenShardMap.computeIfAbsent(instrumentToken, token -> assignNextShard());
+    }
+
+    private int assignNextShard() {
+        return Math.floorMod(nextShard.getAndIncrement(), shardCount);
+    }
+
+    public long getConflatedCount() {
+        long conflated = 0;
+        for (TickMailbox mailbox : mailboxMap.values()) {
+            conflated += mailbox.getConflatedCount();
+        }
+        return conflated;
+    }
+
+    public long getConflatedPerSecond() {
+        return conflatedPerSecond;
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void rollConflationRate() {
+        long total = getConflatedCount();
+        conflatedPerSecond = total - lastConflatedTotal.getAndSet(total);
+        if (conflatedPerSecond > 0) {
+            log.debug("Conflated {} ticks in the last second", conflatedPerSecond);
+        }
+    }
+
+    private void runShard(Shard shard) {
+        List<ConflatedTick> batch = new ArrayList<>();
+        while (running) {
+            Runnable task;
+            while ((task = shard.tasks.poll()) != null) {
+                task.run();
+            }
+            batch.clear();
+            for (TickMailbox mailbox : shard.mailboxes) {
+                mailbox.drainTo(batch);
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(idleParkMicros));
+                continue;
+            }
+            for (ConflatedTick tick : batch) {
+                try {
+                    tickOrchestrationService.processTick(tick);
+                } catch (Exception e) {
+                    log.error("Error processing tick on shard {} for instrument {}: {}", shard.index, tick.getTick().getInstrumentToken(), e.getMessage());
+                }
+            }
+        }
+        log.info("Tick shard {} stopped", shard.index);
+    }
+
+    private class Shard {
+        private final int index;
+        private final List<TickMailbox> mailboxes = new CopyOnWriteArrayList<>();
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final Thread thread;
+
+        private Shard(int index) {
+            this.index = index;
+            this.thread = new Thread(() -> runShard(this), "tick-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.jtradebot.processor.pipeline;
+
+/**
+ * Stages of TickOrchestrationService.processTick that are timed individually.
+ */
+public enum TickStage {
+    BAR_UPDATE,
+    INDICATORS,
+    FILTERING,
+    SCORING,
+    SCENARIO_EVALUATION,
+    ENTRY,
+    EXIT
+}
@@ -0,0 +1,31 @@
+package com.jtradebot.processor.pipeline;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint (/actuator/tickstages) with per-stage tick processing latency percentiles.
+ * DELETE resets the histograms, e.g. right before the market open.
+ */
+@Component
+@Endpoint(id = "tickstages")
+@RequiredArgsConstructor
+public class TickStageLatencyEndpoint {
+
+    private final TickStageLatencyRecorder tickStageLatencyRecorder;
+
+    @ReadOperation
+    public Map<String, Object> stageLatencies() {
+        return tickStageLatencyRecorder.getStageLatencies();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        tickStageLatencyRecorder.reset();
+    }
+}
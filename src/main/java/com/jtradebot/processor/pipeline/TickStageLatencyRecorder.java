@@ -0,0 +1,91 @@
+package com.jtradebot.processor.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Nanosecond latency histograms per processTick stage.
+ * Each stage keeps a cumulative histogram (since start or last reset) and a rolling window
+ * whose previous interval is published every minute, so a volatile open shows up on its own.
+ */
+@Component
+@Slf4j
+public class TickStageLatencyRecorder {
+
+    private static final TickStage[] STAGES = TickStage.values();
+
+    private final LatencyHistogram[] cumulative = new LatencyHistogram[STAGES.length];
+    private final LatencyHistogram[] window = new LatencyHistogram[STAGES.length];
+    private volatile LatencyHistogram.Snapshot[] lastWindow = new LatencyHistogram.Snapshot[STAGES.length];
+
+    public TickStageLatencyRecorder() {
+        for (int i = 0; i < STAGES.length; i++) {
+            cumulative[i] = new LatencyHistogram();
+            window[i] = new LatencyHistogram();
+            lastWindow[i] = window[i].snapshot();
+        }
+    }
+
+    /**
+     * Record the time spent in a stage that started at {@code startNanos} (System.nanoTime()).
+     */
+    public void record(TickStage stage, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        cumulative[stage.ordinal()].record(elapsed);
+        window[stage.ordinal()].record(elapsed);
+    }
+
+    @Scheduled(fixedRateString = "${tick-pipeline.latency.window-ms:60000}")
+    public void rollWindow() {
+        LatencyHistogram.Snapshot[] rolled = new LatencyHistogram.Snapshot[STAGES.length];
+        for (int i = 0; i < STAGES.length; i++) {
+            rolled[i] = window[i].snapshot();
+            window[i].reset();
+        }
+        lastWindow = rolled;
+    }
+
+    public void reset() {
+        for (int i = 0; i < STAGES.length; i++) {
+            cumulative[i].reset();
+            window[i].reset();
+        }
+        rollWindow();
+        log.info("🔄 Tick stage latency histograms reset");
+    }
+
+    /**
+     * Percentiles in microseconds per stage, for the cumulative histogram and the last completed window.
+     */
+    public Map<String, Object> getStageLatencies() {
+        LatencyHistogram.Snapshot[] windowSnapshots = lastWindow;
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (int i = 0; i < STAGES.length; i++) {
+            Map<String, Object> stage = new LinkedHashMap<>();
+            stage.put("cumulative", summarize(cumulative[i].snapshot()));
+            stage.put("lastWindow", summarize(windowSnapshots[i]));
+            stages.put(STAGES[i].name(), stage);
+        }
+        return stages;
+    }
+
+    private static Map<String, Object> summarize(LatencyHistogram.Snapshot snapshot) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", snapshot.getCount());
+        summary.put("meanMicros", toMicros(snapshot.getMeanNanos()));
+        summary.put("p50Micros", toMicros(snapshot.getValueAtPercentile(50)));
+        summary.put("p90Micros", toMicros(snapshot.getValueAtPercentile(90)));
+        summary.put("p99Micros", toMicros(snapshot.getValueAtPercentile(99)));
+        summary.put("p999Micros", toMicros(snapshot.getValueAtPercentile(99.9)));
+        summary.put("maxMicros", toMicros(snapshot.getMaxNanos()));
+        return summary;
+    }
+
+    private static double toMicros(double nanos) {
+        return Math.round(nanos / 100.0) / 10.0;
+    }
+}
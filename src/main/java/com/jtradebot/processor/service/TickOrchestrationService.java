@@ -7,12 +7,16 @@ import com.jtradebot.processor.handler.DateTimeHandler;
 import com.jtradebot.processor.handler.KiteInstrumentHandler;
 import com.jtradebot.processor.kafka.KafkaTickProducer;
 import com.jtradebot.processor.manager.TickDataManager;
+import com.jtradebot.processor.model.MarketTick;
 import com.jtradebot.processor.model.enums.CandleTimeFrameEnum;
 import com.jtradebot.processor.model.enums.ExitReasonEnum;
 import com.jtradebot.processor.model.indicator.FlattenedIndicators;
 import com.jtradebot.processor.model.strategy.DetailedCategoryScore;
 import com.jtradebot.processor.model.strategy.ScalpingEntryDecision;
 import com.jtradebot.processor.model.strategy.ScalpingEntryConfig;
+import com.jtradebot.processor.pipeline.ConflatedTick;
+import com.jtradebot.processor.pipeline.TickStage;
+import com.jtradebot.processor.pipeline.TickStageLatencyRecorder;
 import com.jtradebot.processor.repository.document.JtradeOrder;
 import com.jtradebot.processor.service.analysis.MarketDirectionService;
 import com.jtradebot.processor.service.entry.DynamicRuleEvaluatorService;
@@ -21,6 +25,7 @@ import com.jtradebot.processor.service.order.ActiveOrderTrackingService;
 import com.jtradebot.processor.service.order.OrderManagementService;
 import com.jtradebot.processor.service.scheduler.TickEventTracker;
 import com.jtradebot.processor.service.scheduler.DailyLimitsSchedulerService;
+import com.jtradebot.processor.service.tracking.DecisionLogService;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.Tick;
 import lombok.RequiredArgsConstructor;
@@ -33,7 +38,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -55,8 +61,23 @@ public class TickOrchestrationService {
     private final KafkaTickProducer kafkaTickProducer;
     private final Environment environment;
     private final DailyLimitsSchedulerService dailyLimitsSchedulerService;
+    private final DecisionLogService decisionLogService;
+    private final TickStageLatencyRecorder stageLatencyRecorder;
+
+    // Tokens whose historical initialisation is in progress
+    private final Set<Long> initializingTokens = ConcurrentHashMap.newKeySet();
 
     public void processLiveTicks(List<Tick> ticks, boolean skipMarketHoursCheck) {
+        if (acceptTicks(ticks, skipMarketHoursCheck)) {
+            processLiveTicks(ticks);
+        }
+    }
+
+    /**
+     * Batch level gate (daily limit warning, last tick time, market hours).
+     * Returns true when the ticks should be handed to processTick.
+     */
+    public boolean acceptTicks(List<Tick> ticks, boolean skipMarketHoursCheck) {
 
         if (dailyLimitsSchedulerService.isDailyLimitReached()) {
             log.warn(" 🚫🚫🚫 DAILY LIMITS HIT - Only new Orders are blocked. But Tick processing and tick storing will continue. 🚫🚫🚫");
@@ -70,7 +91,7 @@ public class TickOrchestrationService {
 
         if (ticks.isEmpty()) {
             log.warn("No ticks to process");
-            return;
+            return false;
         }
         Date lastTickTimestamp = ticks.get(0).getTickTimestamp();
         tickDataManager.setLastTickTime(lastTickTimestamp);
@@ -78,125 +99,156 @@ public class TickOrchestrationService {
         if (!skipMarketHoursCheck
                 & !DateTimeHandler.isMarketOpen(tickDataManager.getLastTickTime(), startHour, startMinute, endHour, endMinute)) {
             log.info("Market is closed. Skipping tick processing. Current time: {}", lastTickTimestamp);
-            return;
+            return false;
         }
-        processLiveTicks(ticks);
+        return true;
     }
 
     private void processLiveTicks(List<Tick> ticks) {
 
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
         Map<Long, Tick> latestTicks = new HashMap<>();
         for (Tick tick : ticks) {
             latestTicks.put(tick.getInstrumentToken(), tick);
         }
 
-        // Get Nifty token identifiers
-        String niftyToken = kiteInstrumentHandler.getNifty50Token().toString();
-
         for (Tick tick : latestTicks.values()) {
-            String instrumentToken = String.valueOf(tick.getInstrumentToken());
+            processTick(tick);
+        }
 
-            // Initialize on first tick for both instruments
-            initializeOnFirstTick(tick);
+        log.debug("Tick processing time: {} µs for {} ticks", (System.nanoTime() - startTime) / 1_000, ticks.size());
+    }
 
-            // Add tick to data manager for both instruments
-            tickEventTracker.setLastTickEventTimestamp(instrumentToken, System.currentTimeMillis());
-            tickDataManager.add(instrumentToken, tick);
+    /**
+     * Process a single tick. Must be called from the thread that owns the tick's instrument,
+     * so bar series updates for an instrument are single-writer.
+     */
+    public void processTick(Tick tick) {
+        // Primitive, reusable view of the tick for the hot path
+        processTick(tick, tickDataManager.toMarketTick(tick));
+    }
 
-            // Process strategy for index ticks only - future data will be fetched from map when needed
-            if (instrumentToken.equals(niftyToken)) {
-                try {
-                    // Step 1: Get market data and calculate indicators
-                    FlattenedIndicators indicators = dynamicRuleEvaluatorService.getFlattenedIndicators(tick);
-
-                    // Step 2: Analyze no trade zones filter checks
-                    UnstableMarketConditionAnalysisService.FlexibleFilteringResult result = unstableMarketConditionAnalysisService.checkFlexibleFilteringConditions(tick, indicators);
-                    boolean inTradingZone = result.isConditionsMet();
-                    if (inTradingZone) {
-                        log.debug("✅ IN TRADING ZONE - All no-trade zone conditions clear");
-                    }
+    /**
+     * Process the tick a mailbox kept for several same-minute ticks; their LTP range still reaches the bars.
+     */
+    public void processTick(ConflatedTick conflatedTick) {
+        Tick tick = conflatedTick.getTick();
+        MarketTick marketTick = tickDataManager.toMarketTick(tick)
+                .withPriceRange(conflatedTick.getFirstPrice(), conflatedTick.getHighPrice(), conflatedTick.getLowPrice());
+        processTick(tick, marketTick);
+    }
 
-                    // Step 3: Calculate Detailed Category Scores and Quality Score
-                    Map<String, DetailedCategoryScore> detailedCallScores = marketDirectionService.getDetailedCategoryScores(indicators, "CALL");
-                    Map<String, DetailedCategoryScore> detailedPutScores = marketDirectionService.getDetailedCategoryScores(indicators, "PUT");
+    private void processTick(Tick tick, MarketTick marketTick) {
+        // Initialize on first tick for both instruments
+        initializeOnFirstTick(tick);
+
+        // Add tick to data manager for both instruments
+        tickEventTracker.setLastTickEventTimestamp(marketTick.getInstrumentToken(), System.currentTimeMillis());
+        long stageStart = System.nanoTime();
+        tickDataManager.add(marketTick);
+        stageLatencyRecorder.record(TickStage.BAR_UPDATE, stageStart);
+
+        // Process strategy for index ticks only - future data will be fetched from map when needed
+        if (marketTick.getInstrumentToken() == kiteInstrumentHandler.getNifty50Token()) {
+            try {
+                // Step 1: Get market data and calculate indicators
+                stageStart = System.nanoTime();
+                FlattenedIndicators indicators = dynamicRuleEvaluatorService.getFlattenedIndicators(marketTick);
+                stageLatencyRecorder.record(TickStage.INDICATORS, stageStart);
+
+                // Step 2: Analyze no trade zones filter checks
+                stageStart = System.nanoTime();
+                UnstableMarketConditionAnalysisService.FlexibleFilteringResult result = unstableMarketConditionAnalysisService.checkFlexibleFilteringConditions(tick, indicators);
+                stageLatencyRecorder.record(TickStage.FILTERING, stageStart);
+                boolean inTradingZone = result.isConditionsMet();
+                if (inTradingZone) {
+                    log.debug("✅ IN TRADING ZONE - All no-trade zone conditions clear");
+                }
 
-                    double callTotal = detailedCallScores.values().stream().mapToDouble(DetailedCategoryScore::getTotalScore).sum();
-                    double putTotal = detailedPutScores.values().stream().mapToDouble(DetailedCategoryScore::getTotalScore).sum();
-                    double qualityScore = calculateQualityScore(callTotal, putTotal);
-                    // Show quality-based evaluation using calculated quality score
-                    String dominantTrend = callTotal > putTotal ? "CALL" : "PUT";
+                // Step 3: Calculate Detailed Category Scores and Quality Score
+                stageStart = System.nanoTime();
+                Map<String, DetailedCategoryScore> detailedCallScores = marketDirectionService.getDetailedCategoryScores(indicators, "CALL");
+                Map<String, DetailedCategoryScore> detailedPutScores = marketDirectionService.getDetailedCategoryScores(indicators, "PUT");
+
+                double callTotal = detailedCallScores.values().stream().mapToDouble(DetailedCategoryScore::getTotalScore).sum();
+                double putTotal = detailedPutScores.values().stream().mapToDouble(DetailedCategoryScore::getTotalScore).sum();
+                double qualityScore = calculateQualityScore(callTotal, putTotal);
+                // Show quality-based evaluation using calculated quality score
+                String dominantTrend = callTotal > putTotal ? "CALL" : "PUT";
+                stageLatencyRecorder.record(TickStage.SCORING, stageStart);
+
+                // step 4: Log comprehensive indicator analysis
+                logComprehensiveIndicatorAnalysis(marketTick, qualityScore, inTradingZone, detailedCallScores, detailedPutScores, dominantTrend);
+
+                // Step 5: Block entries after recent stop-loss hits (1-min candle)
+                CandleTimeFrameEnum stopLossTimeframe = CandleTimeFrameEnum.ONE_MIN;
+                if (activeOrderTrackingService.shouldBlockEntryAfterStopLoss(tick.getInstrumentToken(), stopLossTimeframe, ExitReasonEnum.STOPLOSS_HIT)) {
+                    log.warn("🚫 ORDER CREATION BLOCKED - Recent stoploss exit in same {} candle", stopLossTimeframe);
+                    return;
+                }
 
-                    // step 4: Log comprehensive indicator analysis
-                    logComprehensiveIndicatorAnalysis(tick, qualityScore, detailedCallScores, detailedPutScores, dominantTrend);
+                // Step 6: Block entries after manual exit via API (5-min candle)
+                CandleTimeFrameEnum manualExitTimeframe = CandleTimeFrameEnum.FIVE_MIN;
+                if (activeOrderTrackingService.shouldBlockEntryAfterStopLoss(tick.getInstrumentToken(), manualExitTimeframe, ExitReasonEnum.FORCE_EXIT)) {
+                    log.warn("🚫 ORDER CREATION BLOCKED - Manual exit (FORCE_EXIT) in same {} candle", manualExitTimeframe);
+                    return;
+                }
 
-                    // Step 5: Block entries after recent stop-loss hits (1-min candle)
-                    CandleTimeFrameEnum stopLossTimeframe = CandleTimeFrameEnum.ONE_MIN;
-                    if (activeOrderTrackingService.shouldBlockEntryAfterStopLoss(tick.getInstrumentToken(), stopLossTimeframe, ExitReasonEnum.STOPLOSS_HIT)) {
-                        log.warn("🚫 ORDER CREATION BLOCKED - Recent stoploss exit in same {} candle", stopLossTimeframe);
-                        return;
-                    }
+                boolean filtersPassed = isEligibleForEntryCheck(qualityScore, inTradingZone);
 
-                    // Step 6: Block entries after manual exit via API (5-min candle)
-                    CandleTimeFrameEnum manualExitTimeframe = CandleTimeFrameEnum.FIVE_MIN;
-                    if (activeOrderTrackingService.shouldBlockEntryAfterStopLoss(tick.getInstrumentToken(), manualExitTimeframe, ExitReasonEnum.FORCE_EXIT)) {
-                        log.warn("🚫 ORDER CREATION BLOCKED - Manual exit (FORCE_EXIT) in same {} candle", manualExitTimeframe);
+                // Step 7: Execute orders if signals are generated
+                if (filtersPassed) {
+                    // Get entry decision directly from DynamicRuleEvaluatorService
+                    ScalpingEntryDecision scenarioDecision;
+                    stageStart = System.nanoTime();
+                    try {
+                        scenarioDecision = dynamicRuleEvaluatorService.getEntryDecision(tick, indicators, result, qualityScore, dominantTrend, detailedCallScores, detailedPutScores);
+                        stageLatencyRecorder.record(TickStage.SCENARIO_EVALUATION, stageStart);
+                    } catch (Exception e) {
+                        log.error("Error getting entry decision for order execution: {}", e.getMessage());
                         return;
                     }
 
-                    boolean filtersPassed = isEligibleForEntryCheck(qualityScore, inTradingZone);
-
-                    // Step 7: Execute orders if signals are generated
-                    if (filtersPassed) {
-                        // Get entry decision directly from DynamicRuleEvaluatorService
-                        ScalpingEntryDecision scenarioDecision;
-                        try {
-                            scenarioDecision = dynamicRuleEvaluatorService.getEntryDecision(tick, indicators, result, qualityScore, dominantTrend, detailedCallScores, detailedPutScores);
-                        } catch (Exception e) {
-                            log.error("Error getting entry decision for order execution: {}", e.getMessage());
+                    if (scenarioDecision != null && scenarioDecision.isShouldEntry()) {
+                        // Check daily P&L limits first - if limits are hit, stop processing
+                        if (dailyLimitsSchedulerService.isDailyLimitReached()) {
+                            log.warn("🚫 DAILY LIMITS HIT - Stopping tick processing for the day");
                             return;
                         }
-
-                        if (scenarioDecision != null && scenarioDecision.isShouldEntry()) {
-                            // Check daily P&L limits first - if limits are hit, stop processing
-                            if (dailyLimitsSchedulerService.isDailyLimitReached()) {
-                                log.warn("🚫 DAILY LIMITS HIT - Stopping tick processing for the day");
-                                return;
-                            }
-                            orderManagementService.entryOrder(tick, scenarioDecision, result.isConditionsMet(), dominantTrend, qualityScore, detailedCallScores, detailedPutScores, result);
-                        }
+                        stageStart = System.nanoTime();
+                        orderManagementService.entryOrder(tick, scenarioDecision, result.isConditionsMet(), dominantTrend, qualityScore, detailedCallScores, detailedPutScores, result);
+                        stageLatencyRecorder.record(TickStage.ENTRY, stageStart);
                     }
+                }
 
-                    // Step 7: Handle  active orders - exits, trailing SL, P&L updates
-                    try {
-                        if (activeOrderTrackingService.hasActiveOrder()) {
-                            activeOrderTrackingService.updateLivePnL(tick);
-                            List<JtradeOrder> ordersToExit = activeOrderTrackingService.getOrdersForExit(tick, qualityScore, dominantTrend);
-
-                            Double currentIndexPrice = tick.getLastTradedPrice(); // Use current tick price as index price
-                            // Process exits
-                            for (JtradeOrder order : ordersToExit) {
-                                orderManagementService.exitOrder(tick, order, currentIndexPrice);
-                            }
+                // Step 7: Handle  active orders - exits, trailing SL, P&L updates
+                try {
+                    if (activeOrderTrackingService.hasActiveOrder()) {
+                        stageStart = System.nanoTime();
+                        activeOrderTrackingService.updateLivePnL(marketTick);
+                        List<JtradeOrder> ordersToExit = activeOrderTrackingService.getOrdersForExit(marketTick, qualityScore, dominantTrend);
+
+                        Double currentIndexPrice = marketTick.getLastTradedPrice(); // Use current tick price as index price
+                        // Process exits
+                        for (JtradeOrder order : ordersToExit) {
+                            orderManagementService.exitOrder(tick, order, currentIndexPrice);
                         }
-                    } catch (KiteException e) {
-                        log.error("Error updating live P&L for tick: {}", tick.getInstrumentToken(), e);
+                        stageLatencyRecorder.record(TickStage.EXIT, stageStart);
                     }
-
-                } catch (Exception e) {
-                    log.error("Error processing tick for instrument {}: {}", tick.getInstrumentToken(), e.getMessage());
+                } catch (KiteException e) {
+                    log.error("Error updating live P&L for tick: {}", tick.getInstrumentToken(), e);
                 }
-            }
-            
-            // Only send ticks to Kafka for live profile
-            if (ProfileUtil.isProfileActive(environment, "live")) {
-                kafkaTickProducer.sendTickDetails(tick);
+
+            } catch (Exception e) {
+                log.error("Error processing tick for instrument {}: {}", tick.getInstrumentToken(), e.getMessage());
             }
         }
-
-        long endTime = System.currentTimeMillis();
-        log.debug("Tick processing time: {} ms for {} ticks", (endTime - startTime), ticks.size());
+        
+        // Only send ticks to Kafka for live profile
+        if (ProfileUtil.isProfileActive(environment, "live")) {
+            kafkaTickProducer.sendTickDetails(tick);
+        }
     }
 
     private boolean isEligibleForEntryCheck(double qualityScore, boolean inTradingZone) {
@@ -219,24 +271,35 @@ public class TickOrchestrationService {
     }
 
 
+    /**
+     * Ticks of different instruments run on different shard threads, so only the first caller for a token
+     * initialises it; a concurrent caller skips its tick's initialisation instead of fetching history twice.
+     */
     private void initializeOnFirstTick(Tick tick) {
-        if (tickDataManager.isNotInitialized(String.valueOf(tick.getInstrumentToken()))) {
-            log.info("Initializing tickDataManager for instrument: {}", tick.getInstrumentToken());
-            tickSetupService.connect();
-            tickDataManager.initialize(String.valueOf(tick.getInstrumentToken()), tradingHoursConfig.getLastMarketTime(tick.getTickTimestamp()));
+        long instrumentToken = tick.getInstrumentToken();
+        if (!tickDataManager.isNotInitialized(instrumentToken) || !initializingTokens.add(instrumentToken)) {
+            return;
+        }
+        try {
+            if (tickDataManager.isNotInitialized(instrumentToken)) {
+                log.info("Initializing tickDataManager for instrument: {}", instrumentToken);
+                tickSetupService.connect();
+                tickDataManager.initialize(String.valueOf(instrumentToken), tradingHoursConfig.getLastMarketTime(tick.getTickTimestamp()));
+            }
+        } finally {
+            initializingTokens.remove(instrumentToken);
         }
     }
 
-    private void logComprehensiveIndicatorAnalysis(Tick tick, double qualityScore, Map<String, DetailedCategoryScore> detailedCallScores, Map<String, DetailedCategoryScore> detailedPutScores, String dominantTrend) {
+    private void logComprehensiveIndicatorAnalysis(MarketTick tick, double qualityScore, boolean inTradingZone, Map<String, DetailedCategoryScore> detailedCallScores, Map<String, DetailedCategoryScore> detailedPutScores, String dominantTrend) {
         try {
-            // Generate trend info using calculated quality score
-            String trendInfo = generateTrendInfo(detailedCallScores, detailedPutScores, dominantTrend, qualityScore);
+            // Requirements are shown against the least restrictive scenario (cached by the config service)
+            Optional<ScalpingEntryConfig.Scenario> leastRestrictive = configService.getLeastRestrictiveScenario();
+            ScalpingEntryConfig.ScenarioRequirements requirements = leastRestrictive.isPresent() ? leastRestrictive.get().getRequirements() : null;
+            double qualityThreshold = requirements != null ? requirements.getMinQualityScore() : 0.0;
 
-            // Log the comprehensive analysis
-            log.info("📊 {} | 💰 {} | {}",
-                    tick.getTickTimestamp(),
-                    tick.getLastTradedPrice(),
-                    trendInfo);
+            decisionLogService.record(tick.getTickTimeMillis(), tick.getLastTradedPrice(), qualityScore, dominantTrend, inTradingZone,
+                    qualityThreshold, detailedCallScores, detailedPutScores, requirements);
 
         } catch (Exception e) {
             log.error("Error in comprehensive indicator logging: {}", e.getMessage(), e);
@@ -252,71 +315,4 @@ public class TickOrchestrationService {
         return totalPossibleScore > 0 ? (double) winningScore / totalPossibleScore * 10.0 : 0.0;
     }
 
-    /**
-     * Generate trend info for logging (moved from UnifiedIndicatorService)
-     */
-    private String generateTrendInfo(Map<String, DetailedCategoryScore> detailedCallScores, Map<String, DetailedCategoryScore> detailedPutScores, String dominantTrend, double qualityScore) {
-        try {
-
-            // Get category breakdown with requirements
-            String categoryBreakdown = getCategoryBreakdownWithRequirements(detailedCallScores, detailedPutScores);
-
-            return String.format("🎯 %s (%.1f/10) | %s", dominantTrend, qualityScore, categoryBreakdown);
-
-        } catch (Exception e) {
-            return "🎯 ERROR";
-        }
-    }
-
-    /**
-     * Get category breakdown with requirements (moved from UnifiedIndicatorService)
-     */
-    private String getCategoryBreakdownWithRequirements(Map<String, DetailedCategoryScore> detailedCallScores, Map<String, DetailedCategoryScore> detailedPutScores) {
-        try {
-            // Get requirements from the least restrictive scenario for display purposes
-            List<ScalpingEntryConfig.Scenario> scenarios = configService.getScenarios();
-            if (scenarios.isEmpty()) {
-                return "";
-            }
-
-            // Find the least restrictive scenario (lowest quality score requirement)
-            Optional<ScalpingEntryConfig.Scenario> leastRestrictive = scenarios.stream()
-                    .filter(scenario -> scenario.getRequirements() != null && scenario.getRequirements().getMinQualityScore() != null)
-                    .min(Comparator.comparing(scenario -> scenario.getRequirements().getMinQualityScore()));
-
-            if (!leastRestrictive.isPresent()) {
-                return "";
-            }
-
-            ScalpingEntryConfig.Scenario scenario = leastRestrictive.get();
-
-            ScalpingEntryConfig.ScenarioRequirements requirements = scenario.getRequirements();
-
-            // Get percentage requirements
-            double emaPerRequired = requirements.getMin_ema_per() != null ? requirements.getMin_ema_per() : 0.0;
-            double fvPerRequired = requirements.getMin_future_signal_per() != null ? requirements.getMin_future_signal_per() : 0.0;
-            double csPerRequired = requirements.getMin_candlestick_per() != null ? requirements.getMin_candlestick_per() : 0.0;
-            double mPerRequired = requirements.getMin_momentum_per() != null ? requirements.getMin_momentum_per() : 0.0;
-
-            // Format percentage breakdown only (min scores removed)
-            String callEmaPer = String.format("%.1f", detailedCallScores.getOrDefault("ema", new DetailedCategoryScore()).getScorePercentage() != null ? detailedCallScores.get("ema").getScorePercentage() : 0.0) + "%/" + emaPerRequired + "%";
-            String callFvPer = String.format("%.1f", detailedCallScores.getOrDefault("futureAndVolume", new DetailedCategoryScore()).getScorePercentage() != null ? detailedCallScores.get("futureAndVolume").getScorePercentage() : 0.0) + "%/" + fvPerRequired + "%";
-            String callCsPer = String.format("%.1f", detailedCallScores.getOrDefault("candlestick", new DetailedCategoryScore()).getScorePercentage() != null ? detailedCallScores.get("candlestick").getScorePercentage() : 0.0) + "%/" + csPerRequired + "%";
-            String callMPer = String.format("%.1f", detailedCallScores.getOrDefault("momentum", new DetailedCategoryScore()).getScorePercentage() != null ? detailedCallScores.get("momentum").getScorePercentage() : 0.0) + "%/" + mPerRequired + "%";
-
-            String putEmaPer = String.format("%.1f", detailedPutScores.getOrDefault("ema", new DetailedCategoryScore()).getScorePercentage() != null ? detailedPutScores.get("ema").getScorePercentage() : 0.0) + "%/" + emaPerRequired + "%";
-            String putFvPer = String.format("%.1f", detailedPutScores.getOrDefault("futureAndVolume", new DetailedCategoryScore()).getScorePercentage() != null ? detailedPutScores.get("futureAndVolume").getScorePercentage() : 0.0) + "%/" + fvPerRequired + "%";
-            String putCsPer = String.format("%.1f", detailedPutScores.getOrDefault("candlestick", new DetailedCategoryScore()).getScorePercentage() != null ? detailedPutScores.get("candlestick").getScorePercentage() : 0.0) + "%/" + csPerRequired + "%";
-            String putMPer = String.format("%.1f", detailedPutScores.getOrDefault("momentum", new DetailedCategoryScore()).getScorePercentage() != null ? detailedPutScores.get("momentum").getScorePercentage() : 0.0) + "%/" + mPerRequired + "%";
-
-            return String.format("Call: EMA=%s, FV=%s, CS=%s, M=%s | Put: EMA=%s, FV=%s, CS=%s, M=%s",
-                    callEmaPer, callFvPer, callCsPer, callMPer,
-                    putEmaPer, putFvPer, putCsPer, putMPer);
-
-        } catch (Exception e) {
-            log.error("Error getting category breakdown with requirements: {}", e.getMessage());
-            return "Error getting requirements";
-        }
-    }
-
 }
@@ -36,6 +36,9 @@ public class TickSetupService {
     // Cache for TradeConfig to avoid repeated database calls
     private final Map<String, TradeConfig> tradeConfigCache = new ConcurrentHashMap<>();
     private volatile String currentCachedDate = null;
+
+    // Access token last set on the KiteConnect client by connect(), guarded by this
+    private String connectedAccessToken;
     
     /**
      * Get current IST timestamp as string
@@ -44,13 +47,21 @@ public class TickSetupService {
         return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
     }
 
-    public void connect() {
+    /**
+     * Set today's access token on the shared KiteConnect client. Idempotent: shard threads initialising their
+     * instruments at the same time set it once, and only again when the token changes.
+     */
+    public synchronized void connect() {
         TradeConfig tradeConfig = getTradeConfig();
         String accessToken = tradeConfig.getAccessToken();
         if (accessToken == null) {
             throw new RuntimeException("Access token not found in TradeConfig");
         }
+        if (accessToken.equals(connectedAccessToken)) {
+            return;
+        }
         kiteConnect.setAccessToken(accessToken);
+        connectedAccessToken = accessToken;
     }
 
     public void saveDefaultTradeConfig(User user) {
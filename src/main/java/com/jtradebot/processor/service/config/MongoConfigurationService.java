@@ -165,7 +165,7 @@ public class MongoConfigurationService {
                 .build();
         
         TradingConfigurationService.RsiDivergenceExit rsiDivergenceExit = TradingConfigurationService.RsiDivergenceExit.builder()
-                .enabled(setting.getRsiDivergenceExitEnabled() != null ? setting.getRsiDivergenceExitEnabled() : true)
+                .enabled(setting.getRsiDivergenceExitEnabled() != null ? setting.getRsiDivergenceExitEnabled() : false)
                 .description("RSI divergence exit configuration")
                 .build();
         
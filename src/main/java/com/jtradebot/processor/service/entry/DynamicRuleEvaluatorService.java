@@ -5,10 +5,12 @@ import com.jtradebot.processor.config.ScoringConfigurationService;
 import com.jtradebot.processor.config.TradingConfigurationService;
 import com.jtradebot.processor.manager.TickDataManager;
 import com.jtradebot.processor.handler.KiteInstrumentHandler;
+import com.jtradebot.processor.model.InstrumentState;
+import com.jtradebot.processor.model.MarketTick;
 import com.jtradebot.processor.model.indicator.FlattenedIndicators;
+import com.jtradebot.processor.model.indicator.SessionVwap;
 import com.jtradebot.processor.model.strategy.DetailedCategoryScore;
 import com.jtradebot.processor.model.strategy.ScalpingEntryDecision;
-import com.jtradebot.processor.indicator.VWAPIndicator;
 
 import com.zerodhatech.models.Tick;
 import lombok.RequiredArgsConstructor;
@@ -21,7 +23,6 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static com.jtradebot.processor.model.enums.CandleTimeFrameEnum.*;
 
@@ -38,12 +39,9 @@ public class DynamicRuleEvaluatorService {
     private final ScoringConfigurationService scoringConfigService;
     private final RuleHelper ruleHelper;
     private final TradingConfigurationService tradingConfigurationService;
-    private final VWAPIndicator vwapIndicator;
 
 
     // Cache for flattened indicators to prevent multiple calculations
-    private final Map<String, FlattenedIndicators> indicatorsCache = new ConcurrentHashMap<>();
-    private final Map<String, Long> cacheTimestamps = new ConcurrentHashMap<>();
     private static final long CACHE_DURATION_MS = 700; // 700ms cache
 
 
@@ -144,17 +142,20 @@ public class DynamicRuleEvaluatorService {
 
 
     public FlattenedIndicators getFlattenedIndicators(Tick indexTick) {
+        return getFlattenedIndicators(MarketTick.of(indexTick));
+    }
+
+    public FlattenedIndicators getFlattenedIndicators(MarketTick indexTick) {
         log.debug("_________Calculating flattened indicators for index tick: {}", indexTick.getInstrumentToken());
         try {
-            String instrumentToken = String.valueOf(indexTick.getInstrumentToken());
+            String instrumentToken = indexTick.getInstrumentKey();
             long currentTime = System.currentTimeMillis();
 
             // Check cache first
-            FlattenedIndicators cachedIndicators = indicatorsCache.get(instrumentToken);
-            Long cacheTimestamp = cacheTimestamps.get(instrumentToken);
+            InstrumentState state = tickDataManager.getInstrumentState(indexTick.getInstrumentToken());
+            FlattenedIndicators cachedIndicators = state != null ? state.getCachedIndicators() : null;
 
-            if (cachedIndicators != null && cacheTimestamp != null &&
-                    (currentTime - cacheTimestamp) < CACHE_DURATION_MS) {
+            if (cachedIndicators != null && (currentTime - state.getIndicatorsCacheTime()) < CACHE_DURATION_MS) {
                 log.debug("📋 Using cached indicators for instrument: {}", instrumentToken);
                 return cachedIndicators;
             }
@@ -172,8 +173,10 @@ public class DynamicRuleEvaluatorService {
             indicators.setFuturesignals(ruleHelper.calculateFuturesignals(indicators));
 
             // Cache the result
-            indicatorsCache.put(instrumentToken, indicators);
-            cacheTimestamps.put(instrumentToken, currentTime);
+            if (state != null) {
+                state.setIndicatorsCacheTime(currentTime);
+                state.setCachedIndicators(indicators);
+            }
 
             return indicators;
 
@@ -187,25 +190,25 @@ public class DynamicRuleEvaluatorService {
      * Calculate index-based indicators using index BarSeries data
      * Includes: EMA, RSI, MACD, candlestick patterns, price action, support/resistance
      */
-    private void calculateIndexBasedIndicators(FlattenedIndicators indicators, Tick indexTick) {
+    private void calculateIndexBasedIndicators(FlattenedIndicators indicators, MarketTick indexTick) {
         try {
-            String instrumentToken = String.valueOf(indexTick.getInstrumentToken());
+            String instrumentToken = indexTick.getInstrumentKey();
 
             // Check if we have sufficient BarSeries data for indicator calculations
             ensureSufficientBarSeriesData(instrumentToken);
 
             // Get BarSeries for different timeframes (INDEX DATA)
-            BarSeries oneMinSeries = tickDataManager.getBarSeriesForTimeFrame(instrumentToken, ONE_MIN);
-            BarSeries fiveMinSeries = tickDataManager.getBarSeriesForTimeFrame(instrumentToken, FIVE_MIN);
-            BarSeries fifteenMinSeries = tickDataManager.getBarSeriesForTimeFrame(instrumentToken, FIFTEEN_MIN);
-            BarSeries oneHourSeries = tickDataManager.getBarSeriesForTimeFrame(instrumentToken, ONE_HOUR);
+            BarSeries oneMinSeries = tickDataManager.getBarSeriesForTimeFrame(indexTick.getInstrumentToken(), ONE_MIN);
+            BarSeries fiveMinSeries = tickDataManager.getBarSeriesForTimeFrame(indexTick.getInstrumentToken(), FIVE_MIN);
+            BarSeries fifteenMinSeries = tickDataManager.getBarSeriesForTimeFrame(indexTick.getInstrumentToken(), FIFTEEN_MIN);
+            BarSeries oneHourSeries = tickDataManager.getBarSeriesForTimeFrame(indexTick.getInstrumentToken(), ONE_HOUR);
 
 
             // Use RuleHelper to flatten indicators using INDEX data
             ruleHelper.flattenEmaIndicators(indicators, oneMinSeries, fiveMinSeries, fifteenMinSeries, oneHourSeries);
             ruleHelper.flattenRsiIndicators(indicators, oneMinSeries, fiveMinSeries, fifteenMinSeries, oneHourSeries,
                     configService.getRsiMaPeriod(), configService.isEnableRsiMaComparison());
-            ruleHelper.flattenPriceActionIndicators(indicators, oneMinSeries, fiveMinSeries, fifteenMinSeries, oneHourSeries, indexTick);
+            ruleHelper.flattenPriceActionIndicators(indicators, oneMinSeries, fiveMinSeries, fifteenMinSeries, oneHourSeries, indexTick.getLastTradedPrice());
             ruleHelper.flattenCandlestickPatternIndicators(indicators, oneMinSeries, fiveMinSeries, fifteenMinSeries, oneHourSeries);
 
             log.debug("✅ Index-based indicators calculated successfully for instrument: {}", instrumentToken);
@@ -219,10 +222,10 @@ public class DynamicRuleEvaluatorService {
      * Calculate future-based indicators using future tick data
      * Includes: Volume surge, OI signals, price-volume directional indicators, VWAP
      */
-    private void calculateFutureBasedIndicators(FlattenedIndicators indicators, Tick indexTick) {
+    private void calculateFutureBasedIndicators(FlattenedIndicators indicators, MarketTick indexTick) {
         try {
             // Get future tick from map for volume and OI calculations
-            String niftyFutureToken = kiteInstrumentHandler.getNifty50FutureToken().toString();
+            long niftyFutureToken = kiteInstrumentHandler.getNifty50FutureToken();
             Tick futureTick = tickDataManager.getLastTick(niftyFutureToken);
 
             if (futureTick != null) {
@@ -254,47 +257,47 @@ public class DynamicRuleEvaluatorService {
     }
 
     /**
-     * Calculate VWAP indicators using future BarSeries data
-     * VWAP should be calculated using future data since that's where actual trading volume happens
+     * Calculate VWAP indicators using future data
+     * VWAP should be calculated using future data since that's where actual trading volume happens.
+     * The session VWAP is maintained per tick, so every timeframe compares against the same running value;
+     * the bar count checks keep the previous warm-up requirements per timeframe.
      */
-    private void calculateVWAPIndicators(FlattenedIndicators indicators, Tick futureTick, String futureToken) {
+    private void calculateVWAPIndicators(FlattenedIndicators indicators, Tick futureTick, long futureToken) {
         try {
             // Get future BarSeries for different timeframes
             BarSeries oneMinSeries = tickDataManager.getBarSeriesForTimeFrame(futureToken, ONE_MIN);
             BarSeries fiveMinSeries = tickDataManager.getBarSeriesForTimeFrame(futureToken, FIVE_MIN);
             BarSeries fifteenMinSeries = tickDataManager.getBarSeriesForTimeFrame(futureToken, FIFTEEN_MIN);
 
+            InstrumentState futureState = tickDataManager.getInstrumentState(futureToken);
+            SessionVwap sessionVwap = futureState != null ? futureState.getSessionVwap() : null;
+            if (sessionVwap == null || sessionVwap.isEmpty()) {
+                setDefaultVWAPIndicators(indicators);
+                return;
+            }
+            double vwap = sessionVwap.getVwap();
             double currentPrice = futureTick.getLastTradedPrice();
 
-            // Calculate VWAP for 5min timeframe
+            // VWAP for 5min timeframe
             if (fiveMinSeries != null && fiveMinSeries.getBarCount() >= 20) {
-                Double vwap5min = vwapIndicator.calculateVWAP(fiveMinSeries);
-                if (vwap5min != null) {
-                    indicators.setPrice_gt_vwap_5min(currentPrice > vwap5min);
-                    indicators.setPrice_lt_vwap_5min(currentPrice < vwap5min);
-                }
+                indicators.setPrice_gt_vwap_5min(currentPrice > vwap);
+                indicators.setPrice_lt_vwap_5min(currentPrice < vwap);
             }
 
-            // Calculate VWAP for 1min timeframe
+            // VWAP for 1min timeframe
             if (oneMinSeries != null && oneMinSeries.getBarCount() >= 20) {
-                Double vwap1min = vwapIndicator.calculateVWAP(oneMinSeries);
-                if (vwap1min != null) {
-                    indicators.setPrice_gt_vwap_1min(currentPrice > vwap1min);
-                    indicators.setPrice_lt_vwap_1min(currentPrice < vwap1min);
-                }
+                indicators.setPrice_gt_vwap_1min(currentPrice > vwap);
+                indicators.setPrice_lt_vwap_1min(currentPrice < vwap);
             }
 
-            // Calculate VWAP for 15min timeframe
+            // VWAP for 15min timeframe
             if (fifteenMinSeries != null && fifteenMinSeries.getBarCount() >= 20) {
-                Double vwap15min = vwapIndicator.calculateVWAP(fifteenMinSeries);
-                if (vwap15min != null) {
-                    indicators.setPrice_gt_vwap_15min(currentPrice > vwap15min);
-                    indicators.setPrice_lt_vwap_15min(currentPrice < vwap15min);
-                }
+                indicators.setPrice_gt_vwap_15min(currentPrice > vwap);
+                indicators.setPrice_lt_vwap_15min(currentPrice < vwap);
             }
 
-            log.debug("✅ VWAP indicators calculated using future data - Future Token: {}, Current Price: {}",
-                    futureToken, currentPrice);
+            log.debug("✅ VWAP indicators calculated using future data - Future Token: {}, Current Price: {}, VWAP: {}, Std Dev: {}",
+                    futureToken, currentPrice, vwap, sessionVwap.getStandardDeviation());
 
         } catch (Exception e) {
             log.error("Error calculating VWAP indicators using future data", e);
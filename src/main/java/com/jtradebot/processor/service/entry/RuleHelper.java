@@ -1,6 +1,6 @@
 package com.jtradebot.processor.service.entry;
 
-import com.jtradebot.processor.candleStick.CandlestickPattern;
+import com.jtradebot.processor.candleStick.CandlestickPatternEngine;
 import com.jtradebot.processor.config.ScoringConfigurationService;
 import com.jtradebot.processor.indicator.*;
 import com.jtradebot.processor.manager.TickDataManager;
@@ -15,6 +15,7 @@ import org.ta4j.core.BarSeries;
 
 import java.util.Set;
 
+import static com.jtradebot.processor.candleStick.CandlestickPatternType.*;
 import static com.jtradebot.processor.model.enums.CandleTimeFrameEnum.*;
 
 @Service
@@ -28,6 +29,7 @@ public class RuleHelper {
     private final SupportResistanceIndicator supportResistanceIndicator;
     private final PriceVolumeSurgeIndicator priceVolumeSurgeIndicator;
     private final MACDIndicator macdIndicator;
+    private final CandlestickPatternEngine candlestickPatternEngine;
     private final ScoringConfigurationService scoringConfigService;
     private final OIIndicator oiIndicator;
     private final com.jtradebot.processor.service.price.OIAnalysisService oiAnalysisService;
@@ -595,39 +597,39 @@ public class RuleHelper {
     /**
      * Flatten price action indicators
      */
-    public void flattenPriceActionIndicators(FlattenedIndicators indicators, BarSeries oneMinSeries, BarSeries fiveMinSeries, BarSeries fifteenMinSeries, BarSeries oneHourSeries, Tick tick) {
+    public void flattenPriceActionIndicators(FlattenedIndicators indicators, BarSeries oneMinSeries, BarSeries fiveMinSeries, BarSeries fifteenMinSeries, BarSeries oneHourSeries, double lastTradedPrice) {
         try {
             // Support/Resistance indicators
             if (fiveMinSeries != null && fiveMinSeries.getBarCount() >= 20) {
                 try {
-                    // Create EMA indicator info for support/resistance calculation
-                    var emaInfo = multiEmaIndicator.createEmaInfoForTimeframes(fiveMinSeries, FIVE_MIN);
+                    // Streaming EMA values act as dynamic support/resistance
+                    EmaInfo emaInfo = multiEmaIndicator.calculateEmaValues(fiveMinSeries, FIVE_MIN);
 
                     // Calculate support and resistance levels
-                    Set<Resistance> resistances = supportResistanceIndicator.calculateResistances(FIVE_MIN, fiveMinSeries, tick.getLastTradedPrice(), emaInfo, new int[]{20, 50, 100});
-                    Set<Support> supports = supportResistanceIndicator.calculateSupports(FIVE_MIN, fiveMinSeries, tick.getLastTradedPrice(), emaInfo, new int[]{20, 50, 100});
+                    Set<Resistance> resistances = supportResistanceIndicator.calculateResistances(FIVE_MIN, fiveMinSeries, lastTradedPrice, emaInfo, SupportResistanceIndicator.DEFAULT_PERIODS);
+                    Set<Support> supports = supportResistanceIndicator.calculateSupports(FIVE_MIN, fiveMinSeries, lastTradedPrice, emaInfo, SupportResistanceIndicator.DEFAULT_PERIODS);
 
                     // Get nearest resistance and support levels
-                    double nearestResistance = resistances.isEmpty() ? tick.getLastTradedPrice() * 1.02 : resistances.iterator().next().getResistanceValue();
-                    double nearestSupport = supports.isEmpty() ? tick.getLastTradedPrice() * 0.98 : supports.iterator().next().getSupportValue();
+                    double nearestResistance = resistances.isEmpty() ? lastTradedPrice * 1.02 : resistances.iterator().next().getResistanceValue();
+                    double nearestSupport = supports.isEmpty() ? lastTradedPrice * 0.98 : supports.iterator().next().getSupportValue();
 
                     // Check if price is above resistance (breakout)
-                    indicators.setPrice_above_resistance(tick.getLastTradedPrice() > nearestResistance);
+                    indicators.setPrice_above_resistance(lastTradedPrice > nearestResistance);
 
                     // Check if price is below support (breakdown)
-                    indicators.setPrice_below_support(tick.getLastTradedPrice() < nearestSupport);
+                    indicators.setPrice_below_support(lastTradedPrice < nearestSupport);
 
                     // Add breakout strength calculation
                     if (indicators.getPrice_above_resistance()) {
-                        indicators.setBreakoutStrength((tick.getLastTradedPrice() - nearestResistance) / nearestResistance * 100);
+                        indicators.setBreakoutStrength((lastTradedPrice - nearestResistance) / nearestResistance * 100);
                     } else if (indicators.getPrice_below_support()) {
-                        indicators.setBreakdownStrength((nearestSupport - tick.getLastTradedPrice()) / nearestSupport * 100);
+                        indicators.setBreakdownStrength((nearestSupport - lastTradedPrice) / nearestSupport * 100);
                     }
 
                     // Calculate near support/resistance indicators
-                    indicators.setNear_support_resistance_zone(supportResistanceIndicator.isVeryNearSupportResistance(tick.getLastTradedPrice(), supports, resistances));
-                    indicators.setNear_round_figure_level(supportResistanceIndicator.isNearRoundFigureLevel(tick.getLastTradedPrice()));
-                    indicators.setNear_support_resistance_or_round_figure(supportResistanceIndicator.isNearSupportResistanceOrRoundFigure(tick.getLastTradedPrice(), supports, resistances));
+                    indicators.setNear_support_resistance_zone(supportResistanceIndicator.isVeryNearSupportResistance(lastTradedPrice, supports, resistances));
+                    indicators.setNear_round_figure_level(supportResistanceIndicator.isNearRoundFigureLevel(lastTradedPrice));
+                    indicators.setNear_support_resistance_or_round_figure(supportResistanceIndicator.isNearSupportResistanceOrRoundFigure(lastTradedPrice, supports, resistances));
 
                 } catch (Exception e) {
                     log.warn("Error calculating support/resistance levels", e);
@@ -675,353 +677,118 @@ public class RuleHelper {
     }
 
     /**
-     * Process candlestick patterns for a specific timeframe
+     * Process candlestick patterns for a specific timeframe.
+     * All patterns are evaluated in one pass into a bitmask; closed-bar parts are cached by the engine.
      */
     private void processCandlestickPatterns(FlattenedIndicators indicators, BarSeries barSeries, String timeframe) {
-        int currentIndex = barSeries.getBarCount() - 1;
-
-        // Single candle patterns
-        if (currentIndex >= 0) {
-            Bar currentBar = barSeries.getBar(currentIndex);
-
-            // Bullish patterns
-            setPatternIndicator(indicators, "hammer", timeframe, CandlestickPattern.isHammer(currentBar));
-            setPatternIndicator(indicators, "inverted_hammer", timeframe, CandlestickPattern.isInvertedHammer(currentBar));
-            setPatternIndicator(indicators, "bullish_marubozu", timeframe, CandlestickPattern.isBullishMarubozu(currentBar));
-            setPatternIndicator(indicators, "long_lower_shadow", timeframe, CandlestickPattern.isLongLowerShadow(currentBar));
-
-            // Bearish patterns
-            setPatternIndicator(indicators, "shooting_star", timeframe, CandlestickPattern.isShootingStar(currentBar));
-            setPatternIndicator(indicators, "hanging_man", timeframe, CandlestickPattern.isHangingMan(currentBar));
-            setPatternIndicator(indicators, "bearish_marubozu", timeframe, CandlestickPattern.isBearishMarubozu(currentBar));
-            setPatternIndicator(indicators, "long_upper_shadow", timeframe, CandlestickPattern.isLongUpperShadow(currentBar));
-
-            // Neutral patterns
-            setPatternIndicator(indicators, "doji", timeframe, CandlestickPattern.isDoji(currentBar));
-            setPatternIndicator(indicators, "spinning_top", timeframe, CandlestickPattern.isSpinningTop(currentBar));
-            setPatternIndicator(indicators, "marubozu", timeframe, CandlestickPattern.isMarubozu(currentBar));
-            setPatternIndicator(indicators, "long_body", timeframe, CandlestickPattern.isLongBody(currentBar));
-            setPatternIndicator(indicators, "short_body", timeframe, CandlestickPattern.isShortBody(currentBar));
-            
-            // Directional long body patterns
-            setPatternIndicator(indicators, "bullish_long_body", timeframe, CandlestickPattern.isBullishLongBody(currentBar));
-            setPatternIndicator(indicators, "bearish_long_body", timeframe, CandlestickPattern.isBearishLongBody(currentBar));
-
-            // Additional patterns
-            setPatternIndicator(indicators, "wick_rejection_filter_bullish", timeframe, CandlestickPattern.isBullishWickRejectionFilter(currentBar));
-            setPatternIndicator(indicators, "wick_rejection_filter_bearish", timeframe, CandlestickPattern.isWickRejectionFilter(currentBar));
-
-            // Candle color patterns (for directional confirmation)
-            setPatternIndicator(indicators, "green_candle", timeframe, CandlestickPattern.isGreenCandle(currentBar));
-            setPatternIndicator(indicators, "red_candle", timeframe, CandlestickPattern.isRedCandle(currentBar));
-        }
-
-        // Two candle patterns
-        if (currentIndex >= 1) {
-            Bar currentBar = barSeries.getBar(currentIndex);
-            Bar previousBar = barSeries.getBar(currentIndex - 1);
-
-            // Bullish patterns
-            setPatternIndicator(indicators, "bullish_engulfing", timeframe, CandlestickPattern.isBullishEngulfing(previousBar, currentBar));
-            setPatternIndicator(indicators, "bullish_harami", timeframe, CandlestickPattern.isBullishHarami(previousBar, currentBar));
-
-
-            // Bearish patterns
-            setPatternIndicator(indicators, "bearish_engulfing", timeframe, CandlestickPattern.isBearishEngulfing(previousBar, currentBar));
-            setPatternIndicator(indicators, "bearish_harami", timeframe, CandlestickPattern.isBearishHarami(previousBar, currentBar));
-
-
-            // Additional patterns
-            setPatternIndicator(indicators, "inside_bar_breakout", timeframe, CandlestickPattern.isInsideBarBreakout(previousBar, currentBar));
-            setPatternIndicator(indicators, "inside_bar_breakdown", timeframe, CandlestickPattern.isInsideBarBreakdown(previousBar, currentBar));
-            
-            // Current candle crossed previous high/low patterns (only for 5min timeframe)
-            if ("5min".equals(timeframe)) {
-                setPatternIndicator(indicators, "current_candle_crossed_above_prev_high", timeframe, CandlestickPattern.isCurrentCandleCrossedAbovePrevHigh(previousBar, currentBar));
-                setPatternIndicator(indicators, "current_candle_crossed_below_prev_low", timeframe, CandlestickPattern.isCurrentCandleCrossedBelowPrevLow(previousBar, currentBar));
-            }
-        }
-
-        // Three candle patterns
-        if (currentIndex >= 2) {
-            Bar firstBar = barSeries.getBar(currentIndex - 2);
-            Bar secondBar = barSeries.getBar(currentIndex - 1);
-            Bar thirdBar = barSeries.getBar(currentIndex);
-
-            // Bullish patterns
-            setPatternIndicator(indicators, "bullish_morning_star", timeframe, CandlestickPattern.isBullishMorningStar(firstBar, secondBar, thirdBar));
-
-            // Bearish patterns
-            setPatternIndicator(indicators, "bearish_evening_star", timeframe, CandlestickPattern.isBearishEveningStar(firstBar, secondBar, thirdBar));
-        }
-    }
+        long patterns = candlestickPatternEngine.evaluate(barSeries);
 
-    /**
-     * Set pattern indicator for a specific timeframe
-     */
-    private void setPatternIndicator(FlattenedIndicators indicators, String patternName, String timeframe, boolean value) {
-        String fieldName = patternName + "_" + timeframe;
-
-        switch (fieldName) {
-            // Bullish patterns
-            case "bullish_engulfing_1min":
-                indicators.setBullish_engulfing_1min(value);
-                break;
-            case "bullish_engulfing_3min":
-                indicators.setBullish_engulfing_3min(value);
-                break;
-            case "bullish_engulfing_5min":
-                indicators.setBullish_engulfing_5min(value);
-                break;
-            case "bullish_harami_1min":
-                indicators.setBullish_harami_1min(value);
-                break;
-            case "bullish_harami_3min":
-                indicators.setBullish_harami_3min(value);
-                break;
-            case "bullish_harami_5min":
-                indicators.setBullish_harami_5min(value);
-                break;
-            case "bullish_morning_star_1min":
-                indicators.setBullish_morning_star_1min(value);
-                break;
-            case "bullish_morning_star_3min":
-                indicators.setBullish_morning_star_3min(value);
-                break;
-            case "bullish_morning_star_5min":
-                indicators.setBullish_morning_star_5min(value);
-                break;
-            case "hammer_1min":
-                indicators.setHammer_1min(value);
-                break;
-            case "hammer_3min":
-                indicators.setHammer_3min(value);
-                break;
-            case "hammer_5min":
-                indicators.setHammer_5min(value);
-                break;
-            case "inverted_hammer_1min":
-                indicators.setInverted_hammer_1min(value);
-                break;
-            case "inverted_hammer_3min":
-                indicators.setInverted_hammer_3min(value);
-                break;
-            case "inverted_hammer_5min":
-                indicators.setInverted_hammer_5min(value);
-                break;
-            case "bullish_marubozu_1min":
-                indicators.setBullish_marubozu_1min(value);
-                break;
-            case "bullish_marubozu_3min":
-                indicators.setBullish_marubozu_3min(value);
-                break;
-            case "bullish_marubozu_5min":
-                indicators.setBullish_marubozu_5min(value);
-                break;
-            case "long_lower_shadow_1min":
-                indicators.setLong_lower_shadow_1min(value);
-                break;
-            case "long_lower_shadow_3min":
-                indicators.setLong_lower_shadow_3min(value);
-                break;
-            case "long_lower_shadow_5min":
-                indicators.setLong_lower_shadow_5min(value);
-                break;
-
-            // Bearish patterns
-            case "bearish_engulfing_1min":
-                indicators.setBearish_engulfing_1min(value);
-                break;
-            case "bearish_engulfing_3min":
-                indicators.setBearish_engulfing_3min(value);
-                break;
-            case "bearish_engulfing_5min":
-                indicators.setBearish_engulfing_5min(value);
-                break;
-            case "bearish_harami_1min":
-                indicators.setBearish_harami_1min(value);
-                break;
-            case "bearish_harami_3min":
-                indicators.setBearish_harami_3min(value);
-                break;
-            case "bearish_harami_5min":
-                indicators.setBearish_harami_5min(value);
-                break;
-            case "bearish_evening_star_1min":
-                indicators.setBearish_evening_star_1min(value);
-                break;
-            case "bearish_evening_star_3min":
-                indicators.setBearish_evening_star_3min(value);
-                break;
-            case "bearish_evening_star_5min":
-                indicators.setBearish_evening_star_5min(value);
-                break;
-            case "shooting_star_1min":
-                indicators.setShooting_star_1min(value);
-                break;
-            case "shooting_star_3min":
-                indicators.setShooting_star_3min(value);
-                break;
-            case "shooting_star_5min":
-                indicators.setShooting_star_5min(value);
-                break;
-            case "hanging_man_1min":
-                indicators.setHanging_man_1min(value);
-                break;
-            case "hanging_man_3min":
-                indicators.setHanging_man_3min(value);
-                break;
-            case "hanging_man_5min":
-                indicators.setHanging_man_5min(value);
-                break;
-            case "bearish_marubozu_1min":
-                indicators.setBearish_marubozu_1min(value);
-                break;
-            case "bearish_marubozu_3min":
-                indicators.setBearish_marubozu_3min(value);
-                break;
-            case "bearish_marubozu_5min":
-                indicators.setBearish_marubozu_5min(value);
+        switch (timeframe) {
+            case "1min":
+                setOneMinPatternIndicators(indicators, patterns);
                 break;
-            case "long_upper_shadow_1min":
-                indicators.setLong_upper_shadow_1min(value);
+            case "3min":
+                setThreeMinPatternIndicators(indicators, patterns);
                 break;
-            case "long_upper_shadow_3min":
-                indicators.setLong_upper_shadow_3min(value);
+            case "5min":
+                setFiveMinPatternIndicators(indicators, patterns);
                 break;
-            case "long_upper_shadow_5min":
-                indicators.setLong_upper_shadow_5min(value);
+            default:
+                // No flattened pattern fields for other timeframes
                 break;
+        }
+    }
 
-            // Neutral patterns
-            case "doji_1min":
-                indicators.setDoji_1min(value);
-                break;
-            case "doji_3min":
-                indicators.setDoji_3min(value);
-                break;
-            case "doji_5min":
-                indicators.setDoji_5min(value);
-                break;
-            case "spinning_top_1min":
-                indicators.setSpinning_top_1min(value);
-                break;
-            case "spinning_top_3min":
-                indicators.setSpinning_top_3min(value);
-                break;
-            case "spinning_top_5min":
-                indicators.setSpinning_top_5min(value);
-                break;
-            case "marubozu_1min":
-                indicators.setMarubozu_1min(value);
-                break;
-            case "marubozu_3min":
-                indicators.setMarubozu_3min(value);
-                break;
-            case "marubozu_5min":
-                indicators.setMarubozu_5min(value);
-                break;
-            case "long_body_1min":
-                indicators.setLong_body_1min(value);
-                break;
-            case "long_body_3min":
-                indicators.setLong_body_3min(value);
-                break;
-            case "long_body_5min":
-                indicators.setLong_body_5min(value);
-                break;
-            case "bullish_long_body_1min":
-                indicators.setBullish_long_body_1min(value);
-                break;
-            case "bullish_long_body_3min":
-                indicators.setBullish_long_body_3min(value);
-                break;
-            case "bullish_long_body_5min":
-                indicators.setBullish_long_body_5min(value);
-                break;
-            case "bearish_long_body_1min":
-                indicators.setBearish_long_body_1min(value);
-                break;
-            case "bearish_long_body_3min":
-                indicators.setBearish_long_body_3min(value);
-                break;
-            case "bearish_long_body_5min":
-                indicators.setBearish_long_body_5min(value);
-                break;
-            case "short_body_1min":
-                indicators.setShort_body_1min(value);
-                break;
-            case "short_body_3min":
-                indicators.setShort_body_3min(value);
-                break;
-            case "short_body_5min":
-                indicators.setShort_body_5min(value);
-                break;
+    private void setOneMinPatternIndicators(FlattenedIndicators indicators, long patterns) {
+        indicators.setHammer_1min(HAMMER.isSet(patterns));
+        indicators.setInverted_hammer_1min(INVERTED_HAMMER.isSet(patterns));
+        indicators.setBullish_marubozu_1min(BULLISH_MARUBOZU.isSet(patterns));
+        indicators.setLong_lower_shadow_1min(LONG_LOWER_SHADOW.isSet(patterns));
+        indicators.setShooting_star_1min(SHOOTING_STAR.isSet(patterns));
+        indicators.setHanging_man_1min(HANGING_MAN.isSet(patterns));
+        indicators.setBearish_marubozu_1min(BEARISH_MARUBOZU.isSet(patterns));
+        indicators.setLong_upper_shadow_1min(LONG_UPPER_SHADOW.isSet(patterns));
+        indicators.setDoji_1min(DOJI.isSet(patterns));
+        indicators.setSpinning_top_1min(SPINNING_TOP.isSet(patterns));
+        indicators.setMarubozu_1min(MARUBOZU.isSet(patterns));
+        indicators.setLong_body_1min(LONG_BODY.isSet(patterns));
+        indicators.setShort_body_1min(SHORT_BODY.isSet(patterns));
+        indicators.setBullish_long_body_1min(BULLISH_LONG_BODY.isSet(patterns));
+        indicators.setBearish_long_body_1min(BEARISH_LONG_BODY.isSet(patterns));
+        indicators.setWick_rejection_filter_bullish_1min(WICK_REJECTION_FILTER_BULLISH.isSet(patterns));
+        indicators.setWick_rejection_filter_bearish_1min(WICK_REJECTION_FILTER_BEARISH.isSet(patterns));
+        indicators.setGreen_candle_1min(GREEN_CANDLE.isSet(patterns));
+        indicators.setRed_candle_1min(RED_CANDLE.isSet(patterns));
+        indicators.setBullish_engulfing_1min(BULLISH_ENGULFING.isSet(patterns));
+        indicators.setBullish_harami_1min(BULLISH_HARAMI.isSet(patterns));
+        indicators.setBearish_engulfing_1min(BEARISH_ENGULFING.isSet(patterns));
+        indicators.setBearish_harami_1min(BEARISH_HARAMI.isSet(patterns));
+        indicators.setInside_bar_breakout_1min(INSIDE_BAR_BREAKOUT.isSet(patterns));
+        indicators.setInside_bar_breakdown_1min(INSIDE_BAR_BREAKDOWN.isSet(patterns));
+        indicators.setBullish_morning_star_1min(BULLISH_MORNING_STAR.isSet(patterns));
+        indicators.setBearish_evening_star_1min(BEARISH_EVENING_STAR.isSet(patterns));
+    }
 
-            // Candle color patterns
-            case "green_candle_1min":
-                indicators.setGreen_candle_1min(value);
-                break;
-            case "green_candle_3min":
-                indicators.setGreen_candle_3min(value);
-                break;
-            case "green_candle_5min":
-                indicators.setGreen_candle_5min(value);
-                break;
-            case "red_candle_1min":
-                indicators.setRed_candle_1min(value);
-                break;
-            case "red_candle_3min":
-                indicators.setRed_candle_3min(value);
-                break;
-            case "red_candle_5min":
-                indicators.setRed_candle_5min(value);
-                break;
+    private void setThreeMinPatternIndicators(FlattenedIndicators indicators, long patterns) {
+        indicators.setHammer_3min(HAMMER.isSet(patterns));
+        indicators.setInverted_hammer_3min(INVERTED_HAMMER.isSet(patterns));
+        indicators.setBullish_marubozu_3min(BULLISH_MARUBOZU.isSet(patterns));
+        indicators.setLong_lower_shadow_3min(LONG_LOWER_SHADOW.isSet(patterns));
+        indicators.setShooting_star_3min(SHOOTING_STAR.isSet(patterns));
+        indicators.setHanging_man_3min(HANGING_MAN.isSet(patterns));
+        indicators.setBearish_marubozu_3min(BEARISH_MARUBOZU.isSet(patterns));
+        indicators.setLong_upper_shadow_3min(LONG_UPPER_SHADOW.isSet(patterns));
+        indicators.setDoji_3min(DOJI.isSet(patterns));
+        indicators.setSpinning_top_3min(SPINNING_TOP.isSet(patterns));
+        indicators.setMarubozu_3min(MARUBOZU.isSet(patterns));
+        indicators.setLong_body_3min(LONG_BODY.isSet(patterns));
+        indicators.setShort_body_3min(SHORT_BODY.isSet(patterns));
+        indicators.setBullish_long_body_3min(BULLISH_LONG_BODY.isSet(patterns));
+        indicators.setBearish_long_body_3min(BEARISH_LONG_BODY.isSet(patterns));
+        indicators.setWick_rejection_filter_bullish_3min(WICK_REJECTION_FILTER_BULLISH.isSet(patterns));
+        indicators.setWick_rejection_filter_bearish_3min(WICK_REJECTION_FILTER_BEARISH.isSet(patterns));
+        indicators.setGreen_candle_3min(GREEN_CANDLE.isSet(patterns));
+        indicators.setRed_candle_3min(RED_CANDLE.isSet(patterns));
+        indicators.setBullish_engulfing_3min(BULLISH_ENGULFING.isSet(patterns));
+        indicators.setBullish_harami_3min(BULLISH_HARAMI.isSet(patterns));
+        indicators.setBearish_engulfing_3min(BEARISH_ENGULFING.isSet(patterns));
+        indicators.setBearish_harami_3min(BEARISH_HARAMI.isSet(patterns));
+        indicators.setInside_bar_breakout_3min(INSIDE_BAR_BREAKOUT.isSet(patterns));
+        indicators.setInside_bar_breakdown_3min(INSIDE_BAR_BREAKDOWN.isSet(patterns));
+        indicators.setBullish_morning_star_3min(BULLISH_MORNING_STAR.isSet(patterns));
+        indicators.setBearish_evening_star_3min(BEARISH_EVENING_STAR.isSet(patterns));
+    }
 
-            // Additional patterns
-            case "inside_bar_breakout_1min":
-                indicators.setInside_bar_breakout_1min(value);
-                break;
-            case "inside_bar_breakout_3min":
-                indicators.setInside_bar_breakout_3min(value);
-                break;
-            case "inside_bar_breakout_5min":
-                indicators.setInside_bar_breakout_5min(value);
-                break;
-            case "inside_bar_breakdown_1min":
-                indicators.setInside_bar_breakdown_1min(value);
-                break;
-            case "inside_bar_breakdown_3min":
-                indicators.setInside_bar_breakdown_3min(value);
-                break;
-            case "inside_bar_breakdown_5min":
-                indicators.setInside_bar_breakdown_5min(value);
-                break;
-            case "wick_rejection_filter_bearish_1min":
-                indicators.setWick_rejection_filter_bearish_1min(value);
-                break;
-            case "wick_rejection_filter_bearish_3min":
-                indicators.setWick_rejection_filter_bearish_3min(value);
-                break;
-            case "wick_rejection_filter_bearish_5min":
-                indicators.setWick_rejection_filter_bearish_5min(value);
-                break;
-            case "wick_rejection_filter_bullish_1min":
-                indicators.setWick_rejection_filter_bullish_1min(value);
-                break;
-            case "wick_rejection_filter_bullish_3min":
-                indicators.setWick_rejection_filter_bullish_3min(value);
-                break;
-            case "wick_rejection_filter_bullish_5min":
-                indicators.setWick_rejection_filter_bullish_5min(value);
-                break;
-            case "current_candle_crossed_above_prev_high_5min":
-                indicators.setCurrent_candle_crossed_above_prev_high_5min(value);
-                break;
-            case "current_candle_crossed_below_prev_low_5min":
-                indicators.setCurrent_candle_crossed_below_prev_low_5min(value);
-                break;
-        }
+    private void setFiveMinPatternIndicators(FlattenedIndicators indicators, long patterns) {
+        indicators.setHammer_5min(HAMMER.isSet(patterns));
+        indicators.setInverted_hammer_5min(INVERTED_HAMMER.isSet(patterns));
+        indicators.setBullish_marubozu_5min(BULLISH_MARUBOZU.isSet(patterns));
+        indicators.setLong_lower_shadow_5min(LONG_LOWER_SHADOW.isSet(patterns));
+        indicators.setShooting_star_5min(SHOOTING_STAR.isSet(patterns));
+        indicators.setHanging_man_5min(HANGING_MAN.isSet(patterns));
+        indicators.setBearish_marubozu_5min(BEARISH_MARUBOZU.isSet(patterns));
+        indicators.setLong_upper_shadow_5min(LONG_UPPER_SHADOW.isSet(patterns));
+        indicators.setDoji_5min(DOJI.isSet(patterns));
+        indicators.setSpinning_top_5min(SPINNING_TOP.isSet(patterns));
+        indicators.setMarubozu_5min(MARUBOZU.isSet(patterns));
+        indicators.setLong_body_5min(LONG_BODY.isSet(patterns));
+        indicators.setShort_body_5min(SHORT_BODY.isSet(patterns));
+        indicators.setBullish_long_body_5min(BULLISH_LONG_BODY.isSet(patterns));
+        indicators.setBearish_long_body_5min(BEARISH_LONG_BODY.isSet(patterns));
+        indicators.setWick_rejection_filter_bullish_5min(WICK_REJECTION_FILTER_BULLISH.isSet(patterns));
+        indicators.setWick_rejection_filter_bearish_5min(WICK_REJECTION_FILTER_BEARISH.isSet(patterns));
+        indicators.setGreen_candle_5min(GREEN_CANDLE.isSet(patterns));
+        indicators.setRed_candle_5min(RED_CANDLE.isSet(patterns));
+        indicators.setBullish_engulfing_5min(BULLISH_ENGULFING.isSet(patterns));
+        indicators.setBullish_harami_5min(BULLISH_HARAMI.isSet(patterns));
+        indicators.setBearish_engulfing_5min(BEARISH_ENGULFING.isSet(patterns));
+        indicators.setBearish_harami_5min(BEARISH_HARAMI.isSet(patterns));
+        indicators.setInside_bar_breakout_5min(INSIDE_BAR_BREAKOUT.isSet(patterns));
+        indicators.setInside_bar_breakdown_5min(INSIDE_BAR_BREAKDOWN.isSet(patterns));
+        indicators.setCurrent_candle_crossed_above_prev_high_5min(CURRENT_CANDLE_CROSSED_ABOVE_PREV_HIGH.isSet(patterns));
+        indicators.setCurrent_candle_crossed_below_prev_low_5min(CURRENT_CANDLE_CROSSED_BELOW_PREV_LOW.isSet(patterns));
+        indicators.setBullish_morning_star_5min(BULLISH_MORNING_STAR.isSet(patterns));
+        indicators.setBearish_evening_star_5min(BEARISH_EVENING_STAR.isSet(patterns));
     }
 
     /**
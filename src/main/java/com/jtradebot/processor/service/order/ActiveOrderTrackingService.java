@@ -2,6 +2,7 @@ package com.jtradebot.processor.service.order;
 
 import com.jtradebot.processor.config.TradingConfigurationService;
 import com.jtradebot.processor.manager.BarSeriesManager;
+import com.jtradebot.processor.model.MarketTick;
 import com.jtradebot.processor.model.MilestoneSystem;
 import com.jtradebot.processor.model.MilestoneSystem.Milestone;
 import com.jtradebot.processor.model.enums.CandleTimeFrameEnum;
@@ -440,7 +441,7 @@ public class ActiveOrderTrackingService {
     }
 
 
-    public List<JtradeOrder> getOrdersForExit(Tick tick, double qualityScore, String dominantTrend) {
+    public List<JtradeOrder> getOrdersForExit(MarketTick tick, double qualityScore, String dominantTrend) {
 
         // Get current index price
         Double currentIndexPrice = tick.getLastTradedPrice(); // As tick is for index itself
@@ -461,7 +462,7 @@ public class ActiveOrderTrackingService {
             }
 
             // Check all exit conditions including time-based, strategy-based, and market-based
-            ExitReasonEnum exitReason = determineEnhancedExitReason(order, currentLTP, tick, qualityScore, dominantTrend);
+            ExitReasonEnum exitReason = determineEnhancedExitReason(order, currentLTP, tick.toTick(), qualityScore, dominantTrend);
             if (exitReason != null) {
                 order.setExitReason(exitReason);
                 ordersToExit.add(order);
@@ -582,7 +583,7 @@ public class ActiveOrderTrackingService {
         }
     }
 
-    public void updateLivePnL(Tick indexTick) throws KiteException {
+    public void updateLivePnL(MarketTick indexTick) throws KiteException {
         try {
             // Get active order from ExitStrategyService (global check)
             List<JtradeOrder> activeOrders = getActiveOrders();
@@ -22,10 +22,11 @@ import com.jtradebot.processor.service.price.OIAnalysisService;
 import com.jtradebot.processor.service.quantity.DynamicQuantityService;
 import com.jtradebot.processor.service.tracking.OptionLTPTrackingService;
 import com.jtradebot.processor.model.indicator.FlattenedIndicators;
+import com.jtradebot.processor.indicator.MultiEmaIndicator;
 import com.jtradebot.processor.indicator.SupportResistanceIndicator;
 import com.jtradebot.processor.model.indicator.Support;
 import com.jtradebot.processor.model.indicator.Resistance;
-import com.jtradebot.processor.model.indicator.EmaIndicatorInfo;
+import com.jtradebot.processor.model.indicator.EmaInfo;
 import com.jtradebot.processor.model.NtpDetails;
 import com.jtradebot.processor.manager.BarSeriesManager;
 import com.jtradebot.processor.model.enums.CandleTimeFrameEnum;
@@ -66,6 +67,7 @@ public class OrderManagementService {
     private final DynamicRuleEvaluatorService dynamicRuleEvaluatorService;
     private final UnstableMarketConditionAnalysisService unstableMarketConditionAnalysisService;
     private final SupportResistanceIndicator supportResistanceIndicator;
+    private final MultiEmaIndicator multiEmaIndicator;
     private final BarSeriesManager barSeriesManager;
     private final DynamicQuantityService dynamicQuantityService;
     private final OptionLTPTrackingService optionLTPTrackingService;
@@ -640,17 +642,12 @@ public class OrderManagementService {
                 return new SupportResistanceData(fallbackTarget, new HashSet<>(), new HashSet<>(), null, null);
             }
 
-            // Create EMA indicator info for support/resistance calculation
-            EmaIndicatorInfo emaInfo = new EmaIndicatorInfo();
-            emaInfo.setEma9(new org.ta4j.core.indicators.EMAIndicator(new org.ta4j.core.indicators.helpers.ClosePriceIndicator(fiveMinSeries), 9));
-            emaInfo.setEma14(new org.ta4j.core.indicators.EMAIndicator(new org.ta4j.core.indicators.helpers.ClosePriceIndicator(fiveMinSeries), 14));
-            emaInfo.setEma20(new org.ta4j.core.indicators.EMAIndicator(new org.ta4j.core.indicators.helpers.ClosePriceIndicator(fiveMinSeries), 20));
-            emaInfo.setEma34(new org.ta4j.core.indicators.EMAIndicator(new org.ta4j.core.indicators.helpers.ClosePriceIndicator(fiveMinSeries), 34));
-            emaInfo.setEma200(new org.ta4j.core.indicators.EMAIndicator(new org.ta4j.core.indicators.helpers.ClosePriceIndicator(fiveMinSeries), 200));
+            // Streaming EMA values act as dynamic support/resistance
+            EmaInfo emaInfo = multiEmaIndicator.calculateEmaValues(fiveMinSeries, CandleTimeFrameEnum.FIVE_MIN);
 
             // Calculate support and resistance levels
-            Set<Resistance> resistances = supportResistanceIndicator.calculateResistances(CandleTimeFrameEnum.FIVE_MIN, fiveMinSeries, currentIndexPrice, emaInfo, new int[]{20, 50, 100});
-            Set<Support> supports = supportResistanceIndicator.calculateSupports(CandleTimeFrameEnum.FIVE_MIN, fiveMinSeries, currentIndexPrice, emaInfo, new int[]{20, 50, 100});
+            Set<Resistance> resistances = supportResistanceIndicator.calculateResistances(CandleTimeFrameEnum.FIVE_MIN, fiveMinSeries, currentIndexPrice, emaInfo, SupportResistanceIndicator.DEFAULT_PERIODS);
+            Set<Support> supports = supportResistanceIndicator.calculateSupports(CandleTimeFrameEnum.FIVE_MIN, fiveMinSeries, currentIndexPrice, emaInfo, SupportResistanceIndicator.DEFAULT_PERIODS);
 
             // Get nearest resistance and support levels
             double nearestResistance = resistances.isEmpty() ? currentIndexPrice * 1.02 : resistances.iterator().next().getResistanceValue();
@@ -3,6 +3,7 @@ package com.jtradebot.processor.service.price;
 import com.jtradebot.processor.handler.KiteInstrumentHandler;
 import com.jtradebot.processor.manager.TickDataManager;
 import com.jtradebot.processor.model.enums.CandleTimeFrameEnum;
+import com.jtradebot.processor.pipeline.TickShardExecutor;
 import com.jtradebot.processor.repository.InstrumentRepository;
 import com.zerodhatech.kiteconnect.KiteConnect;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
@@ -13,6 +14,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.ta4j.core.Bar;
@@ -22,6 +24,8 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -41,6 +45,8 @@ public class OIAnalysisService {
     private final TickDataManager tickDataManager;
     private final KiteInstrumentHandler kiteInstrumentHandler;
     private final com.jtradebot.processor.service.config.ConfigCategoryScoringService configCategoryScoringService;
+    // Provider: the shard executor depends on the tick pipeline that reads the OI signals
+    private final ObjectProvider<TickShardExecutor> tickShardExecutor;
 
     // Cache for OI data per strike
     private final Map<String, List<OIDataPoint>> oiDataHistory = new ConcurrentHashMap<>();
@@ -53,6 +59,7 @@ public class OIAnalysisService {
     private volatile boolean isCacheInitialized = false;
     private volatile long lastCacheRefreshTime = 0L;
     private static final long REFRESH_INTERVAL = 5000L; // 5 seconds
+    private static final long CANDLE_READ_TIMEOUT_MS = 1000L;
     
     // Cache for best strike prices
     private volatile BestStrikeCache bestStrikeCache = BestStrikeCache.builder().build();
@@ -193,6 +200,32 @@ public class OIAnalysisService {
         }
     }
 
+    /**
+     * Copy of the OI history for market state snapshots
+     */
+    public Map<String, List<OIDataPoint>> getOIDataHistorySnapshot() {
+        cacheLock.readLock().lock();
+        try {
+            Map<String, List<OIDataPoint>> snapshot = new HashMap<>();
+            oiDataHistory.forEach((tradingSymbol, history) -> snapshot.put(tradingSymbol, new ArrayList<>(history)));
+            return snapshot;
+        } finally {
+            cacheLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Seed the OI history from a market state snapshot; symbols already fetched since startup are kept
+     */
+    public void restoreOIDataHistory(Map<String, List<OIDataPoint>> history) {
+        cacheLock.writeLock().lock();
+        try {
+            history.forEach((tradingSymbol, points) -> oiDataHistory.putIfAbsent(tradingSymbol, new ArrayList<>(points)));
+        } finally {
+            cacheLock.writeLock().unlock();
+        }
+    }
+
     /**
      * Calculate OI signals for different timeframes based on accumulated data
      */
@@ -205,16 +238,18 @@ public class OIAnalysisService {
                 return;
             }
 
-            // Get BarSeries for different timeframes
-            String futureToken = String.valueOf(niftyFutureTick.getInstrumentToken());
-            BarSeries oneMinSeries = tickDataManager.getBarSeriesForTimeFrame(futureToken, CandleTimeFrameEnum.ONE_MIN);
-            BarSeries fiveMinSeries = tickDataManager.getBarSeriesForTimeFrame(futureToken, CandleTimeFrameEnum.FIVE_MIN);
-            BarSeries fifteenMinSeries = tickDataManager.getBarSeriesForTimeFrame(futureToken, CandleTimeFrameEnum.FIFTEEN_MIN);
+            // The bar series are read on the shard owning the future, between two of its ticks, never from this thread
+            long futureToken = niftyFutureTick.getInstrumentToken();
+            Integer[] candleDirections = tickShardExecutor.getObject().runOnOwner(futureToken, () -> new Integer[]{
+                    getCandleDirection(tickDataManager.getBarSeriesForTimeFrame(futureToken, CandleTimeFrameEnum.ONE_MIN)),
+                    getCandleDirection(tickDataManager.getBarSeriesForTimeFrame(futureToken, CandleTimeFrameEnum.FIVE_MIN)),
+                    getCandleDirection(tickDataManager.getBarSeriesForTimeFrame(futureToken, CandleTimeFrameEnum.FIFTEEN_MIN))
+            }).get(CANDLE_READ_TIMEOUT_MS, TimeUnit.MILLISECONDS);
 
             // Calculate aggregate OI change for all strikes
-            OISignalResult signal1min = calculateAggregateOISignal(oneMinSeries, "1min");
-            OISignalResult signal5min = calculateAggregateOISignal(fiveMinSeries, "5min");
-            OISignalResult signal15min = calculateAggregateOISignal(fifteenMinSeries, "15min");
+            OISignalResult signal1min = calculateAggregateOISignal(candleDirections[0], "1min");
+            OISignalResult signal5min = calculateAggregateOISignal(candleDirections[1], "5min");
+            OISignalResult signal15min = calculateAggregateOISignal(candleDirections[2], "15min");
 
             // Update cache
             oiSignalsCache = OISignalsCache.builder()
@@ -234,23 +269,38 @@ public class OIAnalysisService {
                     signal5min.isBullish(), signal5min.isBearish(),
                     signal15min.isBullish(), signal15min.isBearish());
 
+        } catch (TimeoutException e) {
+            log.warn("⚠️ Skipping OI signal calculation - future bars not read within {} ms", CANDLE_READ_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             log.error("Error calculating OI signals", e);
         }
     }
 
     /**
-     * Calculate aggregate OI signal for a timeframe
+     * Direction of the last bar: positive when it closed above its open, negative below, zero when flat.
+     * Null when the series has fewer than two bars. Must run on the thread owning the series.
      */
-    private OISignalResult calculateAggregateOISignal(BarSeries series, String timeframe) {
+    private Integer getCandleDirection(BarSeries series) {
         if (series == null || series.getBarCount() < 2) {
+            return null;
+        }
+        Bar currentBar = series.getLastBar();
+        return currentBar.getClosePrice().compareTo(currentBar.getOpenPrice());
+    }
+
+    /**
+     * Calculate aggregate OI signal for a timeframe
+     */
+    private OISignalResult calculateAggregateOISignal(Integer candleDirection, String timeframe) {
+        if (candleDirection == null) {
             return OISignalResult.builder().bullish(false).bearish(false).build();
         }
 
         try {
-            Bar currentBar = series.getLastBar();
-            boolean isBullishCandle = currentBar.getClosePrice().isGreaterThan(currentBar.getOpenPrice());
-            boolean isBearishCandle = currentBar.getClosePrice().isLessThan(currentBar.getOpenPrice());
+            boolean isBullishCandle = candleDirection > 0;
+            boolean isBearishCandle = candleDirection < 0;
 
             // Calculate aggregate OI change across all strikes
             long timeWindow = getTimeWindowForTimeframe(timeframe);
@@ -0,0 +1,159 @@
+package com.jtradebot.processor.service.tracking;
+
+import com.jtradebot.processor.model.strategy.DetailedCategoryScore;
+import com.jtradebot.processor.model.strategy.ScalpingEntryConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-tick decision records kept in a preallocated ring of primitive columns.
+ * Recording copies a fixed set of numbers and never formats; a record is only rendered to text
+ * when it is sampled for the log (every N ticks or when the decision state changes) or read through the API.
+ * Single writer: the shard thread that owns the index instrument.
+ */
+@Service
+@Slf4j
+public class DecisionLogService {
+
+    private static final String[] CATEGORIES = {"ema", "futureAndVolume", "candlestick", "momentum"};
+    private static final int CATEGORY_COUNT = CATEGORIES.length;
+    // Per record: call percentages, put percentages, required percentages
+    private static final int SCORE_STRIDE = CATEGORY_COUNT * 3;
+
+    private static final byte TREND_CALL = 0;
+    private static final byte TREND_PUT = 1;
+
+    @Value("${decision-log.capacity:4096}")
+    private int requestedCapacity;
+
+    @Value("${decision-log.sample-every-n:50}")
+    private int sampleEveryN;
+
+    @Value("${decision-log.log-on-change:true}")
+    private boolean logOnChange;
+
+    private int mask;
+    private long[] tickTimes;
+    private double[] lastTradedPrices;
+    private double[] qualityScores;
+    private byte[] trends;
+    private boolean[] inTradingZones;
+    private double[] scores;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private long sinceLastSample;
+    private byte lastTrend = -1;
+    private boolean lastInTradingZone;
+    private boolean lastAboveThreshold;
+
+    @PostConstruct
+    public void init() {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        mask = capacity - 1;
+        tickTimes = new long[capacity];
+        lastTradedPrices = new double[capacity];
+        qualityScores = new double[capacity];
+        trends = new byte[capacity];
+        inTradingZones = new boolean[capacity];
+        scores = new double[capacity * SCORE_STRIDE];
+        log.info("📝 Decision log ring initialized - Capacity: {}, Sample every: {} ticks, Log on change: {}",
+                capacity, sampleEveryN, logOnChange);
+    }
+
+    /**
+     * Record the analysis of one index tick and log it when sampled.
+     *
+     * @param qualityThreshold minimum quality of the least restrictive scenario, used to detect state changes
+     */
+    public void record(long tickTimeMillis, double lastTradedPrice, double qualityScore, String dominantTrend, boolean inTradingZone,
+                       double qualityThreshold, Map<String, DetailedCategoryScore> detailedCallScores,
+                       Map<String, DetailedCategoryScore> detailedPutScores, ScalpingEntryConfig.ScenarioRequirements requirements) {
+        long seq = sequence.get();
+        int slot = (int) (seq & mask);
+        byte trend = "CALL".equals(dominantTrend) ? TREND_CALL : TREND_PUT;
+
+        tickTimes[slot] = tickTimeMillis;
+        lastTradedPrices[slot] = lastTradedPrice;
+        qualityScores[slot] = qualityScore;
+        trends[slot] = trend;
+        inTradingZones[slot] = inTradingZone;
+
+        int base = slot * SCORE_STRIDE;
+        for (int i = 0; i < CATEGORY_COUNT; i++) {
+            scores[base + i] = scorePercentage(detailedCallScores, CATEGORIES[i]);
+            scores[base + CATEGORY_COUNT + i] = scorePercentage(detailedPutScores, CATEGORIES[i]);
+        }
+        scores[base + 2 * CATEGORY_COUNT] = required(requirements == null ? null : requirements.getMin_ema_per());
+        scores[base + 2 * CATEGORY_COUNT + 1] = required(requirements == null ? null : requirements.getMin_future_signal_per());
+        scores[base + 2 * CATEGORY_COUNT + 2] = required(requirements == null ? null : requirements.getMin_candlestick_per());
+        scores[base + 2 * CATEGORY_COUNT + 3] = required(requirements == null ? null : requirements.getMin_momentum_per());
+
+        sequence.lazySet(seq + 1);
+
+        boolean aboveThreshold = qualityScore >= qualityThreshold;
+        boolean changed = trend != lastTrend || inTradingZone != lastInTradingZone || aboveThreshold != lastAboveThreshold;
+        lastTrend = trend;
+        lastInTradingZone = inTradingZone;
+        lastAboveThreshold = aboveThreshold;
+
+        sinceLastSample++;
+        if ((logOnChange && changed) || (sampleEveryN > 0 && sinceLastSample >= sampleEveryN)) {
+            sinceLastSample = 0;
+            if (log.isInfoEnabled()) {
+                log.info("📊 {}", render(slot));
+            }
+        }
+    }
+
+    /**
+     * Render up to {@code limit} of the most recent records, newest first.
+     * Records overwritten by the writer while being read are skipped.
+     */
+    public List<String> getRecentRecords(int limit) {
+        long end = sequence.get();
+        long start = Math.max(0, end - Math.min(Math.max(limit, 0), mask + 1));
+        List<String> records = new ArrayList<>((int) (end - start));
+        for (long seq = end - 1; seq >= start; seq--) {
+            String rendered = render((int) (seq & mask));
+            if (sequence.get() - seq > mask) {
+                break; // slot reused while rendering
+            }
+            records.add(rendered);
+        }
+        return records;
+    }
+
+    public long getRecordedCount() {
+        return sequence.get();
+    }
+
+    private String render(int slot) {
+        int base = slot * SCORE_STRIDE;
+        int req = base + 2 * CATEGORY_COUNT;
+        return String.format("%s | 💰 %s | 🎯 %s (%.1f/10)%s | Call: EMA=%.1f%%/%s%%, FV=%.1f%%/%s%%, CS=%.1f%%/%s%%, M=%.1f%%/%s%% | Put: EMA=%.1f%%/%s%%, FV=%.1f%%/%s%%, CS=%.1f%%/%s%%, M=%.1f%%/%s%%",
+                new Date(tickTimes[slot]), lastTradedPrices[slot],
+                trends[slot] == TREND_CALL ? "CALL" : "PUT", qualityScores[slot],
+                inTradingZones[slot] ? "" : " 🚫",
+                scores[base], scores[req], scores[base + 1], scores[req + 1],
+                scores[base + 2], scores[req + 2], scores[base + 3], scores[req + 3],
+                scores[base + 4], scores[req], scores[base + 5], scores[req + 1],
+                scores[base + 6], scores[req + 2], scores[base + 7], scores[req + 3]);
+    }
+
+    private static double scorePercentage(Map<String, DetailedCategoryScore> categoryScores, String category) {
+        DetailedCategoryScore score = categoryScores.get(category);
+        return score != null && score.getScorePercentage() != null ? score.getScorePercentage() : 0.0;
+    }
+
+    private static double required(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
@@ -185,6 +185,13 @@ public class OptionLTPTrackingService {
         return new HashMap<>(orderLTPHistoryMap);
     }
 
+    /**
+     * Seed LTP histories from a market state snapshot; orders already tracked since startup are kept
+     */
+    public void restoreLTPHistories(Map<String, LTPHistory> histories) {
+        histories.forEach(orderLTPHistoryMap::putIfAbsent);
+    }
+
     /**
      * Check if order should exit based on moving average price movement analysis
      * Returns detailed exit reason information
@@ -245,13 +252,20 @@ public class OptionLTPTrackingService {
             this.consecutiveNeutralCount = 0;
         }
 
-        public void addLTPEntry(LTPEntry entry) {
+        public synchronized void addLTPEntry(LTPEntry entry) {
             ltpEntries.add(entry);
             // Keep only the last LTP_HISTORY_SIZE entries
             if (ltpEntries.size() > LTP_HISTORY_SIZE) {
                 ltpEntries.remove(0);
             }
         }
+
+        /**
+         * Copy of the entries for readers on other threads (e.g. the market state snapshot)
+         */
+        public synchronized List<LTPEntry> copyLtpEntries() {
+            return new ArrayList<>(ltpEntries);
+        }
     }
 
     @Data
@@ -0,0 +1,111 @@
+package com.jtradebot.processor.candleStick;
+
+import org.junit.jupiter.api.Test;
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeries;
+
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+import static com.jtradebot.processor.candleStick.CandlestickPatternType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandlestickPatternEngineTest {
+
+    private final CandlestickPatternEngine engine = new CandlestickPatternEngine();
+
+    @Test
+    void testEvaluate_ShouldMatchCandlestickPatternRules() {
+        // Given - random candles on a 0.05 tick grid, including flat bodies and missing shadows
+        Random random = new Random(11);
+        ZonedDateTime time = ZonedDateTime.now();
+
+        for (int i = 0; i < 5000; i++) {
+            BarSeries series = new BaseBarSeries();
+            for (int j = 0; j < 3; j++) {
+                addRandomBar(series, time.plusMinutes(j), random);
+            }
+
+            // When
+            long patterns = engine.evaluate(series);
+
+            // Then
+            Bar first = series.getBar(0);
+            Bar previous = series.getBar(1);
+            Bar current = series.getBar(2);
+            assertEquals(CandlestickPattern.isHammer(current), HAMMER.isSet(patterns));
+            assertEquals(CandlestickPattern.isInvertedHammer(current), INVERTED_HAMMER.isSet(patterns));
+            assertEquals(CandlestickPattern.isBullishMarubozu(current), BULLISH_MARUBOZU.isSet(patterns));
+            assertEquals(CandlestickPattern.isLongLowerShadow(current), LONG_LOWER_SHADOW.isSet(patterns));
+            assertEquals(CandlestickPattern.isShootingStar(current), SHOOTING_STAR.isSet(patterns));
+            assertEquals(CandlestickPattern.isHangingMan(current), HANGING_MAN.isSet(patterns));
+            assertEquals(CandlestickPattern.isBearishMarubozu(current), BEARISH_MARUBOZU.isSet(patterns));
+            assertEquals(CandlestickPattern.isLongUpperShadow(current), LONG_UPPER_SHADOW.isSet(patterns));
+            assertEquals(CandlestickPattern.isDoji(current), DOJI.isSet(patterns));
+            assertEquals(CandlestickPattern.isSpinningTop(current), SPINNING_TOP.isSet(patterns));
+            assertEquals(CandlestickPattern.isMarubozu(current), MARUBOZU.isSet(patterns));
+            assertEquals(CandlestickPattern.isLongBody(current), LONG_BODY.isSet(patterns));
+            assertEquals(CandlestickPattern.isShortBody(current), SHORT_BODY.isSet(patterns));
+            assertEquals(CandlestickPattern.isBullishLongBody(current), BULLISH_LONG_BODY.isSet(patterns));
+            assertEquals(CandlestickPattern.isBearishLongBody(current), BEARISH_LONG_BODY.isSet(patterns));
+            assertEquals(CandlestickPattern.isBullishWickRejectionFilter(current), WICK_REJECTION_FILTER_BULLISH.isSet(patterns));
+            assertEquals(CandlestickPattern.isWickRejectionFilter(current), WICK_REJECTION_FILTER_BEARISH.isSet(patterns));
+            assertEquals(CandlestickPattern.isGreenCandle(current), GREEN_CANDLE.isSet(patterns));
+            assertEquals(CandlestickPattern.isRedCandle(current), RED_CANDLE.isSet(patterns));
+            assertEquals(CandlestickPattern.isBullishEngulfing(previous, current), BULLISH_ENGULFING.isSet(patterns));
+            assertEquals(CandlestickPattern.isBullishHarami(previous, current), BULLISH_HARAMI.isSet(patterns));
+            assertEquals(CandlestickPattern.isBearishEngulfing(previous, current), BEARISH_ENGULFING.isSet(patterns));
+            assertEquals(CandlestickPattern.isBearishHarami(previous, current), BEARISH_HARAMI.isSet(patterns));
+            assertEquals(CandlestickPattern.isInsideBarBreakout(previous, current), INSIDE_BAR_BREAKOUT.isSet(patterns));
+            assertEquals(CandlestickPattern.isInsideBarBreakdown(previous, current), INSIDE_BAR_BREAKDOWN.isSet(patterns));
+            assertEquals(CandlestickPattern.isCurrentCandleCrossedAbovePrevHigh(previous, current), CURRENT_CANDLE_CROSSED_ABOVE_PREV_HIGH.isSet(patterns));
+            assertEquals(CandlestickPattern.isCurrentCandleCrossedBelowPrevLow(previous, current), CURRENT_CANDLE_CROSSED_BELOW_PREV_LOW.isSet(patterns));
+            assertEquals(CandlestickPattern.isBullishMorningStar(first, previous, current), BULLISH_MORNING_STAR.isSet(patterns));
+            assertEquals(CandlestickPattern.isBearishEveningStar(first, previous, current), BEARISH_EVENING_STAR.isSet(patterns));
+        }
+    }
+
+    @Test
+    void testEvaluate_ShouldFollowFormingBarWithCachedPreviousBars() {
+        // Given - a bearish candle followed by a forming candle
+        BarSeries series = new BaseBarSeries();
+        ZonedDateTime time = ZonedDateTime.now();
+        series.addBar(time, 24100, 24105, 24000, 24010, 1000);
+        series.addBar(time.plusMinutes(1), 24005, 24020, 24000, 24015, 1000);
+        assertFalse(BULLISH_ENGULFING.isSet(engine.evaluate(series)));
+
+        // When - the forming candle closes above the previous open
+        series.getLastBar().addPrice(series.numOf(24110));
+        long patterns = engine.evaluate(series);
+
+        // Then
+        assertTrue(BULLISH_ENGULFING.isSet(patterns));
+        assertTrue(GREEN_CANDLE.isSet(patterns));
+        assertFalse(RED_CANDLE.isSet(patterns));
+    }
+
+    @Test
+    void testEvaluate_EmptySeries_ShouldReturnNoPatterns() {
+        // Given
+        BarSeries series = new BaseBarSeries();
+
+        // When / Then
+        assertEquals(0L, engine.evaluate(series));
+
+        // When - the first bar forms after the empty read
+        series.addBar(ZonedDateTime.now(), 24000, 24050, 24000, 24050, 1000);
+
+        // Then
+        assertTrue(GREEN_CANDLE.isSet(engine.evaluate(series)));
+    }
+
+    private static void addRandomBar(BarSeries series, ZonedDateTime endTime, Random random) {
+        int base = 480000 + random.nextInt(200);
+        int open = base + random.nextInt(400) - 200;
+        int close = random.nextInt(5) == 0 ? open : base + random.nextInt(400) - 200;
+        int high = Math.max(open, close) + (random.nextInt(3) == 0 ? 0 : random.nextInt(300));
+        int low = Math.min(open, close) - (random.nextInt(3) == 0 ? 0 : random.nextInt(300));
+        series.addBar(endTime, open / 20.0, high / 20.0, low / 20.0, close / 20.0, 1000);
+    }
+}
@@ -0,0 +1,52 @@
+package com.jtradebot.processor.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongKeyMapTest {
+
+    @Test
+    void testPutAndGet_ShouldReturnValueForPrimitiveKey() {
+        LongKeyMap<String> map = new LongKeyMap<>();
+        map.put(256265L, "NIFTY");
+        map.put(13568258L, "NIFTY_FUT");
+
+        assertEquals("NIFTY", map.get(256265L));
+        assertEquals("NIFTY_FUT", map.get(13568258L));
+        assertNull(map.get(1L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void testComputeIfAbsent_ShouldCreateOnlyOnce() {
+        LongKeyMap<StringBuilder> map = new LongKeyMap<>();
+        StringBuilder first = map.computeIfAbsent(256265L, key -> new StringBuilder());
+        StringBuilder second = map.computeIfAbsent(256265L, key -> new StringBuilder());
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void testRandomOperations_ShouldMatchHashMap() {
+        // Given
+        LongKeyMap<Integer> map = new LongKeyMap<>();
+        Map<Long, Integer> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        // When / Then - keys collide heavily on purpose to exercise probing, growth and removal
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextInt(300) * 1024L;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(reference.put(key, i), map.put(key, i));
+                case 1 -> assertEquals(reference.remove(key), map.remove(key));
+                default -> assertEquals(reference.get(key), map.get(key));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.jtradebot.processor.config;
+
+import com.jtradebot.processor.model.strategy.ScalpingEntryConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DynamicStrategyConfigServiceTest {
+
+    @Test
+    void testGetLeastRestrictiveScenario_ShouldRecomputeAfterReloadInPlace() {
+        // Given
+        List<ScalpingEntryConfig.Scenario> scenarios = new ArrayList<>(List.of(scenario("SAFE", 8.0), scenario("FAST", 6.0)));
+        ScalpingEntryConfig config = ScalpingEntryConfig.builder().scenarios(scenarios).build();
+        TradingConfigurationService tradingConfigurationService = mock(TradingConfigurationService.class);
+        when(tradingConfigurationService.getScalpingEntryConfig()).thenReturn(config);
+        when(tradingConfigurationService.getScenariosVersion()).thenReturn(1L);
+        DynamicStrategyConfigService configService = new DynamicStrategyConfigService(tradingConfigurationService,
+                mock(ScoringConfigurationService.class));
+        configService.loadConfiguration();
+        assertEquals("FAST", configService.getLeastRestrictiveScenario().orElseThrow().getName());
+
+        // When - the same list is reloaded with a less restrictive scenario
+        scenarios.add(scenario("LOOSE", 4.0));
+        when(tradingConfigurationService.getScenariosVersion()).thenReturn(2L);
+
+        // Then
+        assertEquals("LOOSE", configService.getLeastRestrictiveScenario().orElseThrow().getName());
+        assertEquals(4.0, configService.getMinQualityThresholdFromLeastRestrictiveScenario(), 1e-9);
+    }
+
+    private static ScalpingEntryConfig.Scenario scenario(String name, double minQualityScore) {
+        return ScalpingEntryConfig.Scenario.builder()
+                .name(name)
+                .requirements(ScalpingEntryConfig.ScenarioRequirements.builder().minQualityScore(minQualityScore).build())
+                .build();
+    }
+}
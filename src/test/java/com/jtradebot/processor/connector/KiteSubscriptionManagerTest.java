@@ -0,0 +1,133 @@
+package com.jtradebot.processor.connector;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KiteSubscriptionManagerTest {
+
+    private static final long FUTURE_TOKEN = 12345678L;
+    private static final long CALL_TOKEN = 11111L;
+    private static final long PUT_TOKEN = 22222L;
+
+    private KiteSubscriptionManager subscriptionManager;
+
+    @BeforeEach
+    void setUp() {
+        subscriptionManager = new KiteSubscriptionManager();
+        subscriptionManager.pin(FUTURE_TOKEN);
+        subscriptionManager.drainPendingChanges();
+    }
+
+    @Test
+    void testAcquireRelease_SameToken_ShouldUnsubscribeOnLastRelease() {
+        // Given - two callers hold the same strike
+        subscriptionManager.acquire(CALL_TOKEN);
+        subscriptionManager.acquire(CALL_TOKEN);
+        assertEquals(List.of(CALL_TOKEN), subscriptionManager.drainPendingChanges().getSubscribe());
+
+        // When - the first caller releases it
+        subscriptionManager.release(CALL_TOKEN);
+
+        // Then - still subscribed, nothing to send
+        assertTrue(subscriptionManager.isSubscribed(CALL_TOKEN));
+        assertFalse(subscriptionManager.hasPendingChanges());
+
+        // When - the last caller releases it
+        subscriptionManager.release(CALL_TOKEN);
+
+        // Then
+        assertFalse(subscriptionManager.isSubscribed(CALL_TOKEN));
+        KiteSubscriptionManager.SubscriptionChanges changes = subscriptionManager.drainPendingChanges();
+        assertTrue(changes.getSubscribe().isEmpty());
+        assertEquals(List.of(CALL_TOKEN), changes.getUnsubscribe());
+    }
+
+    @Test
+    void testAcquireRelease_BeforeFlush_ShouldCancelOut() {
+        // Given
+        subscriptionManager.acquire(CALL_TOKEN);
+
+        // When - released before the batch was flushed
+        subscriptionManager.release(CALL_TOKEN);
+
+        // Then - only the unsubscribe remains, the subscribe is dropped from the batch
+        KiteSubscriptionManager.SubscriptionChanges changes = subscriptionManager.drainPendingChanges();
+        assertTrue(changes.getSubscribe().isEmpty());
+        assertEquals(List.of(CALL_TOKEN), changes.getUnsubscribe());
+    }
+
+    @Test
+    void testRelease_PinnedToken_ShouldStaySubscribed() {
+        // Given - the future is pinned and also referenced
+        subscriptionManager.acquire(FUTURE_TOKEN);
+        assertFalse(subscriptionManager.hasPendingChanges());
+
+        // When
+        subscriptionManager.release(FUTURE_TOKEN);
+        subscriptionManager.release(FUTURE_TOKEN);
+
+        // Then
+        assertTrue(subscriptionManager.isSubscribed(FUTURE_TOKEN));
+        assertFalse(subscriptionManager.hasPendingChanges());
+        assertEquals(List.of(FUTURE_TOKEN), subscriptionManager.getActiveTokens());
+    }
+
+    @Test
+    void testRelease_MoreThanAcquired_ShouldNotUnderflow() {
+        // Given
+        subscriptionManager.acquire(CALL_TOKEN);
+        subscriptionManager.drainPendingChanges();
+        subscriptionManager.release(CALL_TOKEN);
+        subscriptionManager.drainPendingChanges();
+
+        // When - released again, and never-acquired tokens released
+        subscriptionManager.release(CALL_TOKEN);
+        subscriptionManager.release(PUT_TOKEN);
+
+        // Then - no change, and a later acquire needs exactly one release
+        assertFalse(subscriptionManager.hasPendingChanges());
+        subscriptionManager.acquire(CALL_TOKEN);
+        assertEquals(List.of(CALL_TOKEN), subscriptionManager.drainPendingChanges().getSubscribe());
+        subscriptionManager.release(CALL_TOKEN);
+        assertFalse(subscriptionManager.isSubscribed(CALL_TOKEN));
+    }
+
+    @Test
+    void testRestore_AfterFailedFlush_ShouldRequeueChangesStillWanted() {
+        // Given - a batch is drained and the flush fails
+        subscriptionManager.acquire(CALL_TOKEN);
+        subscriptionManager.acquire(PUT_TOKEN);
+        KiteSubscriptionManager.SubscriptionChanges failed = subscriptionManager.drainPendingChanges();
+
+        // When - the put is released before the batch is restored
+        subscriptionManager.release(PUT_TOKEN);
+        subscriptionManager.restore(failed);
+
+        // Then - the call is retried, the put is only unsubscribed
+        KiteSubscriptionManager.SubscriptionChanges changes = subscriptionManager.drainPendingChanges();
+        assertEquals(List.of(CALL_TOKEN), changes.getSubscribe());
+        assertEquals(List.of(PUT_TOKEN), changes.getUnsubscribe());
+    }
+
+    @Test
+    void testRestore_FailedUnsubscribe_ShouldSkipReacquiredToken() {
+        // Given - an unsubscribe batch fails
+        subscriptionManager.acquire(CALL_TOKEN);
+        subscriptionManager.drainPendingChanges();
+        subscriptionManager.release(CALL_TOKEN);
+        KiteSubscriptionManager.SubscriptionChanges failed = subscriptionManager.drainPendingChanges();
+
+        // When - the token is acquired again before the batch is restored
+        subscriptionManager.acquire(CALL_TOKEN);
+        subscriptionManager.restore(failed);
+
+        // Then - the token is not unsubscribed
+        KiteSubscriptionManager.SubscriptionChanges changes = subscriptionManager.drainPendingChanges();
+        assertEquals(List.of(CALL_TOKEN), changes.getSubscribe());
+        assertTrue(changes.getUnsubscribe().isEmpty());
+    }
+}
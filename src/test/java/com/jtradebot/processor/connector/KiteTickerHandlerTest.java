@@ -0,0 +1,90 @@
+package com.jtradebot.processor.connector;
+
+import com.jtradebot.processor.pipeline.TickIngestionService;
+import com.zerodhatech.kiteconnect.KiteConnect;
+import com.zerodhatech.ticker.KiteTicker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class KiteTickerHandlerTest {
+
+    private static final long CALL_TOKEN = 11111L;
+    private static final long PUT_TOKEN = 22222L;
+
+    private KiteSubscriptionManager subscriptionManager;
+    private KiteTicker kiteTicker;
+    private KiteTickerHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        subscriptionManager = new KiteSubscriptionManager();
+        kiteTicker = mock(KiteTicker.class);
+        when(kiteTicker.isConnectionOpen()).thenReturn(true);
+        handler = new KiteTickerHandler(mock(KiteConnect.class), mock(TickIngestionService.class), subscriptionManager);
+        ReflectionTestUtils.setField(handler, "kiteTicker", kiteTicker);
+    }
+
+    @Test
+    void testSubscribeTick_ShouldBatchUntilFlush() {
+        // When
+        handler.subscribeTick(CALL_TOKEN);
+        handler.subscribeTick(PUT_TOKEN);
+
+        // Then - nothing is sent until the flush, which sends one batch
+        verify(kiteTicker, never()).subscribe(any());
+        handler.flushSubscriptions();
+        verify(kiteTicker).subscribe(new ArrayList<>(List.of(CALL_TOKEN, PUT_TOKEN)));
+        verify(kiteTicker).setMode(new ArrayList<>(List.of(CALL_TOKEN, PUT_TOKEN)), KiteTicker.modeFull);
+        verify(kiteTicker, never()).unsubscribe(any());
+    }
+
+    @Test
+    void testSubscribeAndUnsubscribe_BeforeFlush_ShouldOnlyUnsubscribe() {
+        // When
+        handler.subscribeTick(CALL_TOKEN);
+        handler.unsubscribeTick(CALL_TOKEN);
+        handler.flushSubscriptions();
+
+        // Then
+        verify(kiteTicker, never()).subscribe(any());
+        verify(kiteTicker).unsubscribe(new ArrayList<>(List.of(CALL_TOKEN)));
+    }
+
+    @Test
+    void testFlushSubscriptions_Failure_ShouldRetryOnNextFlush() {
+        // Given - the first subscribe call fails
+        doThrow(new RuntimeException("socket closed")).doNothing().when(kiteTicker).subscribe(any());
+        handler.subscribeTick(CALL_TOKEN);
+
+        // When
+        handler.flushSubscriptions();
+
+        // Then - the change is pending again and sent by the next flush
+        assertTrue(subscriptionManager.hasPendingChanges());
+        handler.flushSubscriptions();
+        verify(kiteTicker, times(2)).subscribe(new ArrayList<>(List.of(CALL_TOKEN)));
+        assertFalse(subscriptionManager.hasPendingChanges());
+    }
+
+    @Test
+    void testFlushSubscriptions_Disconnected_ShouldKeepBatchPending() {
+        // Given
+        when(kiteTicker.isConnectionOpen()).thenReturn(false);
+        handler.subscribeTick(CALL_TOKEN);
+
+        // When
+        handler.flushSubscriptions();
+
+        // Then
+        verify(kiteTicker, never()).subscribe(any());
+        assertTrue(subscriptionManager.hasPendingChanges());
+    }
+}
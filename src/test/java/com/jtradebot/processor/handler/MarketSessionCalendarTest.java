@@ -0,0 +1,55 @@
+package com.jtradebot.processor.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketSessionCalendarTest {
+
+    private static final long NOW = millis("2024-10-15T12:00:00");
+
+    private final MarketSessionCalendar calendar =
+            new MarketSessionCalendar("09:15", "15:30", "2024-10-18=13:00", "2024-11-01=18:00-19:00", NOW);
+
+    @Test
+    void testGetBarStartMillis_ShouldAlignToSessionOpen() {
+        assertEquals(millis("2024-10-15T09:15:00"), calendar.getBarStartMillis(millis("2024-10-15T09:16:59"), 3 * 60_000L));
+        assertEquals(millis("2024-10-15T09:18:00"), calendar.getBarStartMillis(millis("2024-10-15T09:18:00"), 3 * 60_000L));
+        assertEquals(millis("2024-10-15T10:15:00"), calendar.getBarStartMillis(millis("2024-10-15T11:14:59"), 3_600_000L));
+        assertEquals(millis("2024-10-15T15:15:00"), calendar.getBarStartMillis(millis("2024-10-15T15:29:30"), 15 * 60_000L));
+    }
+
+    @Test
+    void testGetBarStartMillis_ShouldMapPreOpenAndDailyBarsToOpen() {
+        assertEquals(millis("2024-10-15T09:15:00"), calendar.getBarStartMillis(millis("2024-10-15T09:07:00"), 60_000L));
+        assertEquals(millis("2024-10-15T09:15:00"), calendar.getBarStartMillis(millis("2024-10-15T14:00:00"), 86_400_000L));
+    }
+
+    @Test
+    void testSpecialSession_ShouldAnchorBarsAtSpecialOpen() {
+        assertEquals(millis("2024-11-01T18:00:00"), calendar.getSessionOpenMillis(millis("2024-11-01T18:30:00")));
+        assertEquals(millis("2024-11-01T18:30:00"), calendar.getBarStartMillis(millis("2024-11-01T18:34:00"), 5 * 60_000L));
+        assertTrue(calendar.isInSession(millis("2024-11-01T18:59:59")));
+        assertFalse(calendar.isInSession(millis("2024-11-01T10:00:00")));
+    }
+
+    @Test
+    void testHalfDay_ShouldCloseEarly() {
+        assertEquals(millis("2024-10-18T13:00:00"), calendar.getSessionCloseMillis(millis("2024-10-18T10:00:00")));
+        assertFalse(calendar.isInSession(millis("2024-10-18T13:30:00")));
+        assertTrue(calendar.isInSession(millis("2024-10-17T13:30:00")));
+    }
+
+    @Test
+    void testMarketDay_ShouldUseMarketZone() {
+        // 23:00 IST and 01:00 IST next day are different market days even though both are the same UTC day
+        assertNotEquals(calendar.marketDay(millis("2024-10-15T23:00:00")), calendar.marketDay(millis("2024-10-16T01:00:00")));
+        assertEquals(calendar.marketDay(millis("2024-10-15T00:00:00")), calendar.marketDay(millis("2024-10-15T23:59:59")));
+    }
+
+    private static long millis(String localDateTime) {
+        return LocalDateTime.parse(localDateTime).atZone(MarketSessionCalendar.MARKET_ZONE).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,119 @@
+package com.jtradebot.processor.indicator;
+
+import org.junit.jupiter.api.Test;
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeries;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClosedBarStateTest {
+
+    @Test
+    void testSync_ShouldFoldEachClosedBarOnceAndSkipFormingBar() {
+        // Given
+        BarSeries series = createSeries(5);
+        RecordingState state = new RecordingState();
+
+        // When
+        boolean first = state.sync(series);
+        boolean repeated = state.sync(series);
+        series.getLastBar().addPrice(series.numOf(24200));
+        boolean formingTick = state.sync(series);
+        series.addBar(series.getLastBar().getEndTime().plusMinutes(1), 24200, 24210, 24190, 24205, 1000);
+        boolean barClosed = state.sync(series);
+
+        // Then
+        assertTrue(first);
+        assertFalse(repeated);
+        assertFalse(formingTick);
+        assertTrue(barClosed);
+        assertEquals(List.of(0, 1, 2, 3, 4), state.folded);
+        assertEquals(0, state.resets);
+        assertEquals(4, state.getLastClosedIndex());
+    }
+
+    @Test
+    void testSync_ShouldStartOverWhenSeriesMovedPastFoldedBars() {
+        // Given - a series keeping 5 bars, folded up to bar 3
+        BarSeries series = createSeries(5);
+        series.setMaximumBarCount(5);
+        RecordingState state = new RecordingState();
+        state.sync(series);
+
+        // When - 6 more bars arrive while idle, evicting bars the state has not folded
+        for (int i = 0; i < 6; i++) {
+            series.addBar(series.getLastBar().getEndTime().plusMinutes(1), 24100, 24110, 24090, 24105, 1000);
+        }
+        state.folded.clear();
+        state.sync(series);
+
+        // Then
+        assertEquals(1, state.resets);
+        assertEquals(series.getBeginIndex(), state.getFirstClosedIndex());
+        assertEquals(List.of(6, 7, 8, 9), state.folded);
+    }
+
+    @Test
+    void testInvalidate_ShouldRefoldRetainedBars() {
+        // Given
+        BarSeries series = createSeries(4);
+        RecordingState state = new RecordingState();
+        state.sync(series);
+
+        // When
+        state.invalidate();
+        state.folded.clear();
+        state.sync(series);
+
+        // Then
+        assertEquals(1, state.resets);
+        assertEquals(List.of(0, 1, 2), state.folded);
+    }
+
+    @Test
+    void testSeriesStateRegistryRead_ShouldFoldClosedBarsAndPassFormingBar() {
+        // Given
+        BarSeries series = createSeries(4);
+        SeriesStateRegistry<RecordingState> registry = new SeriesStateRegistry<>(RecordingState::new);
+
+        // When
+        double formingClose = registry.read(series, (state, formingBar) -> formingBar.getClosePrice().doubleValue());
+        List<Integer> folded = registry.read(series, (state, formingBar) -> state.folded);
+        Bar emptyForming = registry.read(new BaseBarSeries(), (state, formingBar) -> formingBar);
+
+        // Then
+        assertEquals(24008, formingClose, 1e-9);
+        assertEquals(List.of(0, 1, 2), folded);
+        assertNull(emptyForming);
+    }
+
+    private static BarSeries createSeries(int bars) {
+        BarSeries series = new BaseBarSeries();
+        ZonedDateTime time = ZonedDateTime.now();
+        for (int i = 0; i < bars; i++) {
+            series.addBar(time.plusMinutes(i), 24000 + i, 24010 + i, 23990 + i, 24005 + i, 1000);
+        }
+        return series;
+    }
+
+    private static final class RecordingState extends ClosedBarState {
+
+        private final List<Integer> folded = new ArrayList<>();
+        private int resets;
+
+        @Override
+        protected void onBarClose(BarSeries series, int index) {
+            folded.add(index);
+        }
+
+        @Override
+        protected void onReset() {
+            resets++;
+        }
+    }
+}
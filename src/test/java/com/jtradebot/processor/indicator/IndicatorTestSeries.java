@@ -0,0 +1,38 @@
+package com.jtradebot.processor.indicator;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeries;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+/**
+ * Bar series fixture shared by the streaming indicator tests: a deterministic oscillating close on narrow bars.
+ */
+final class IndicatorTestSeries {
+
+    private IndicatorTestSeries() {
+    }
+
+    /**
+     * Close of bar {@code i}, oscillating around 24000 so EMAs, RSI and MACD keep crossing.
+     */
+    static double price(int i) {
+        return 24000 + 40 * Math.sin(i / 5.0) + 7 * Math.cos(i / 2.0);
+    }
+
+    static void addBar(BarSeries series, ZonedDateTime endTime, double close) {
+        series.addBar(endTime, close, close + 2, close - 2, close, 1000);
+    }
+
+    /**
+     * Series of {@code bars} bars closing at {@link #price(int)}, the first one ending at {@code start}.
+     */
+    static BarSeries createSeries(ZonedDateTime start, Duration barDuration, int bars) {
+        BarSeries series = new BaseBarSeries();
+        for (int i = 0; i < bars; i++) {
+            addBar(series, start.plus(barDuration.multipliedBy(i)), price(i));
+        }
+        return series;
+    }
+}
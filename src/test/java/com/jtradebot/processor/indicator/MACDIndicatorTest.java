@@ -0,0 +1,74 @@
+package com.jtradebot.processor.indicator;
+
+import org.junit.jupiter.api.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+import static com.jtradebot.processor.indicator.IndicatorTestSeries.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MACDIndicatorTest {
+
+    private static final double TOLERANCE = 1e-6;
+
+    private final MACDIndicator macdIndicator = new MACDIndicator();
+
+    @Test
+    void testCalculateMACD_ShouldMatchTa4jEmasAndSimpleSignalLine() {
+        // Given
+        ZonedDateTime time = ZonedDateTime.now();
+        BarSeries series = createSeries(time, Duration.ofMinutes(1), 60);
+
+        for (int i = 60; i < 80; i++) {
+            // When - a new bar opens and a tick moves its close
+            addBar(series, time.plusMinutes(i), price(i));
+            series.getLastBar().addPrice(series.numOf(price(i) + 5));
+            MACDIndicator.MACDResult result = macdIndicator.calculateMACD(series);
+
+            // Then
+            int endIndex = series.getEndIndex();
+            double macd = ta4jMacd(series, endIndex);
+            double signal = ta4jSignal(series, endIndex);
+            double previousMacd = ta4jMacd(series, endIndex - 1);
+            double previousSignal = ta4jSignal(series, endIndex - 1);
+            assertEquals(macd, result.getMacdLine(), TOLERANCE);
+            assertEquals(signal, result.getSignalLine(), TOLERANCE);
+            assertEquals(macd > signal && previousMacd <= previousSignal, result.isBullishCrossover());
+            assertEquals(macd < signal && previousMacd >= previousSignal, result.isBearishCrossover());
+            assertEquals(macd > 0, result.isAboveZero());
+        }
+    }
+
+    @Test
+    void testCalculateMACD_ShouldReturnNoSignalForShortSeries() {
+        // Given
+        ZonedDateTime time = ZonedDateTime.now();
+        BarSeries series = createSeries(time, Duration.ofMinutes(1), 10);
+
+        // When
+        MACDIndicator.MACDResult result = macdIndicator.calculateMACD(series);
+
+        // Then
+        assertEquals(0.0, result.getMacdLine());
+        assertFalse(result.isBullishCrossover());
+        assertFalse(result.isAboveZero());
+    }
+
+    private static double ta4jMacd(BarSeries series, int index) {
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        return new EMAIndicator(closePrice, 12).getValue(index).doubleValue()
+                - new EMAIndicator(closePrice, 26).getValue(index).doubleValue();
+    }
+
+    private static double ta4jSignal(BarSeries series, int index) {
+        double sum = 0;
+        for (int i = index - 8; i <= index; i++) {
+            sum += ta4jMacd(series, i);
+        }
+        return sum / 9;
+    }
+}
@@ -0,0 +1,89 @@
+package com.jtradebot.processor.indicator;
+
+import com.jtradebot.processor.model.indicator.EmaInfo;
+import org.junit.jupiter.api.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+import static com.jtradebot.processor.indicator.IndicatorTestSeries.*;
+import static com.jtradebot.processor.model.enums.CandleTimeFrameEnum.FIVE_MIN;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiEmaIndicatorTest {
+
+    private static final double TOLERANCE = 1e-6;
+
+    private final MultiEmaIndicator multiEmaIndicator = new MultiEmaIndicator();
+
+    @Test
+    void testCalculateEmaValues_ShouldMatchTa4jAsBarsFormAndClose() {
+        // Given
+        ZonedDateTime time = ZonedDateTime.now();
+        BarSeries series = createSeries(time, Duration.ofMinutes(5), 250);
+
+        for (int i = 250; i < 260; i++) {
+            // When - a new bar opens and ticks move its close
+            addBar(series, time.plusMinutes(5L * i), price(i));
+            EmaInfo opened = multiEmaIndicator.calculateEmaValues(series, FIVE_MIN);
+            series.getLastBar().addPrice(series.numOf(price(i) + 3));
+            EmaInfo ticked = multiEmaIndicator.calculateEmaValues(series, FIVE_MIN);
+
+            // Then
+            assertEquals(ta4jEma(series, 5, series.getEndIndex()), ticked.getEma5(), TOLERANCE);
+            assertEquals(ta4jEma(series, 34, series.getEndIndex()), ticked.getEma34(), TOLERANCE);
+            assertEquals(ta4jEma(series, 200, series.getEndIndex()), ticked.getEma200(), TOLERANCE);
+            assertNotEquals(opened.getEma5(), ticked.getEma5());
+        }
+    }
+
+    @Test
+    void testGetEmaValue_ShouldMatchTa4jForPreviousAndCurrentBar() {
+        // Given
+        ZonedDateTime time = ZonedDateTime.now();
+        BarSeries series = createSeries(time, Duration.ofMinutes(1), 120);
+        int endIndex = series.getEndIndex();
+
+        // When
+        double previousEma34 = multiEmaIndicator.getEmaValue(series, 34, endIndex - 1);
+        double currentEma21 = multiEmaIndicator.getEmaValue(series, 21, endIndex);
+        double olderEma5 = multiEmaIndicator.getEmaValue(series, 5, endIndex - 10);
+
+        // Then
+        assertEquals(ta4jEma(series, 34, endIndex - 1), previousEma34, TOLERANCE);
+        assertEquals(ta4jEma(series, 21, endIndex), currentEma21, TOLERANCE);
+        assertEquals(ta4jEma(series, 5, endIndex - 10), olderEma5, TOLERANCE);
+    }
+
+    @Test
+    void testCalculateEmaValues_EmptySeries_ShouldReturnNoValues() {
+        // Given
+        ZonedDateTime time = ZonedDateTime.now();
+        BarSeries series = createSeries(time, Duration.ofMinutes(5), 0);
+
+        // When
+        EmaInfo empty = multiEmaIndicator.calculateEmaValues(series, FIVE_MIN);
+
+        // Then
+        assertEquals(FIVE_MIN, empty.getTimeFrame());
+        assertNull(empty.getEma5());
+        assertNull(empty.getEma200());
+
+        // When - bars arrive after the empty read
+        for (int i = 0; i < 40; i++) {
+            addBar(series, time.plusMinutes(5L * i), price(i));
+        }
+        EmaInfo filled = multiEmaIndicator.calculateEmaValues(series, FIVE_MIN);
+
+        // Then
+        assertEquals(ta4jEma(series, 5, series.getEndIndex()), filled.getEma5(), TOLERANCE);
+        assertEquals(ta4jEma(series, 34, series.getEndIndex()), filled.getEma34(), TOLERANCE);
+    }
+
+    private static double ta4jEma(BarSeries series, int period, int index) {
+        return new EMAIndicator(new ClosePriceIndicator(series), period).getValue(index).doubleValue();
+    }
+}
@@ -112,6 +112,47 @@ class PriceVolumeSurgeIndicatorTest {
         assertEquals(1.0, result.getRecentVolumeMultiplier(), 0.01);
     }
 
+    @Test
+    void testVolumeSurge_ShouldTrackRollingWindowsAsBarsClose() {
+        // Given
+        BarSeries barSeries = new org.ta4j.core.BaseBarSeriesBuilder().withName("TEST").build();
+        ZonedDateTime now = ZonedDateTime.now();
+        for (int i = 0; i < 25; i++) {
+            barSeries.addBar(java.time.Duration.ofMinutes(5), now.plusMinutes(i * 5L),
+                    100.0, 101.0, 99.0, 100.5, volume(i));
+        }
+        when(tickDataManager.getBarSeriesForTimeFrame(anyString(), any(CandleTimeFrameEnum.class)))
+                .thenReturn(barSeries);
+        when(configService.getCallVolumeSurgeMultiplier()).thenReturn(15.0);
+
+        for (int i = 25; i < 40; i++) {
+            // When - a new bar opens
+            barSeries.addBar(java.time.Duration.ofMinutes(5), now.plusMinutes(i * 5L),
+                    100.0, 101.0, 99.0, 100.5, volume(i));
+            PriceVolumeSurgeIndicator.VolumeSurgeResult result = indicator.calculateVolumeSurge("256265", FIVE_MIN, 5000);
+
+            // Then - same values as walking the last bars
+            int end = barSeries.getEndIndex();
+            double recentAverage = averageVolume(barSeries, end - 4, end);
+            assertEquals(averageVolume(barSeries, end - 19, end), result.getAverageVolume(), 1e-9);
+            assertEquals(recentAverage, result.getRecentAverageVolume(), 1e-9);
+            assertEquals(recentAverage > averageVolume(barSeries, end - 9, end - 5) * 1.05, result.isVolumeTrendingUp());
+            assertEquals((volume(i) - volume(i - 1)) / volume(i - 1) * 100, result.getVolumeMomentum(), 1e-9);
+        }
+    }
+
+    private static double volume(int i) {
+        return 1000 + (i % 7) * 150 + (i % 3) * 40;
+    }
+
+    private static double averageVolume(BarSeries series, int from, int to) {
+        double sum = 0;
+        for (int i = from; i <= to; i++) {
+            sum += series.getBar(i).getVolume().doubleValue();
+        }
+        return sum / (to - from + 1);
+    }
+
     private BarSeries createBarSeriesWithLowVolume(double averageVolume) {
         BarSeries series = new org.ta4j.core.BaseBarSeriesBuilder().withName("TEST").build();
         ZonedDateTime now = ZonedDateTime.now();
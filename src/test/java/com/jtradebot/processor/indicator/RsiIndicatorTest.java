@@ -0,0 +1,155 @@
+package com.jtradebot.processor.indicator;
+
+import com.jtradebot.processor.model.enums.DivergenceType;
+import org.junit.jupiter.api.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeries;
+import org.ta4j.core.indicators.RSIIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.jtradebot.processor.indicator.IndicatorTestSeries.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RsiIndicatorTest {
+
+    private static final double TOLERANCE = 1e-6;
+
+    private final RsiIndicator rsiIndicator = new RsiIndicator();
+
+    @Test
+    void testGetRsiValue_ShouldMatchTa4jAsBarsFormAndClose() {
+        // Given
+        ZonedDateTime time = ZonedDateTime.now();
+        BarSeries series = createSeries(time, Duration.ofMinutes(1), 100);
+
+        for (int i = 100; i < 110; i++) {
+            // When - a new bar opens and a tick moves its close
+            addBar(series, time.plusMinutes(i), price(i));
+            double opened = rsiIndicator.getRsiValue(series, 14);
+            assertEquals(ta4jRsi(series, 14, series.getEndIndex()), opened, TOLERANCE);
+            series.getLastBar().addPrice(series.numOf(price(i) - 4));
+            double ticked = rsiIndicator.getRsiValue(series, 14);
+
+            // Then
+            assertEquals(ta4jRsi(series, 14, series.getEndIndex()), ticked, TOLERANCE);
+        }
+    }
+
+    @Test
+    void testGetRsiMaValue_ShouldMatchAverageOfTa4jRsiValues() {
+        // Given
+        ZonedDateTime time = ZonedDateTime.now();
+        BarSeries series = createSeries(time, Duration.ofMinutes(1), 80);
+        int maPeriod = 20;
+
+        // When
+        double rsiMa = rsiIndicator.getRsiMaValue(series, 14, maPeriod);
+
+        // Then
+        double sum = 0;
+        for (int i = series.getEndIndex() - maPeriod + 1; i <= series.getEndIndex(); i++) {
+            sum += ta4jRsi(series, 14, i);
+        }
+        assertEquals(sum / maPeriod, rsiMa, TOLERANCE);
+    }
+
+    @Test
+    void testGetRsiValue_ShouldBeZeroForSingleBar() {
+        // Given
+        BarSeries series = new BaseBarSeries();
+        addBar(series, ZonedDateTime.now(), 24000);
+
+        // When / Then
+        assertEquals(ta4jRsi(series, 14, 0), rsiIndicator.getRsiValue(series, 14), TOLERANCE);
+    }
+
+    @Test
+    void testIsRsiDivergence_ShouldStayFalseUnlessEnabled() {
+        // Given
+        BarSeries series = new BaseBarSeries();
+        ZonedDateTime time = ZonedDateTime.now();
+        Random random = new Random(7);
+        double close = 24000;
+
+        for (int i = 0; i < 300; i++) {
+            close += random.nextGaussian() * 15;
+            addBar(series, time.plusMinutes(i), close);
+
+            // When / Then
+            assertFalse(rsiIndicator.isRsiDivergence(series, 14, 20, DivergenceType.BULLISH));
+            assertFalse(rsiIndicator.isRsiDivergence(series, 14, 20, DivergenceType.BEARISH));
+            assertFalse(rsiIndicator.isRsiDivergence(series, 14, 20, DivergenceType.ANY));
+        }
+    }
+
+    @Test
+    void testIsRsiDivergence_ShouldMatchSwingScanOfClosedBars() {
+        // Given
+        RsiIndicator divergenceIndicator = new RsiIndicator(true);
+        BarSeries series = new BaseBarSeries();
+        ZonedDateTime time = ZonedDateTime.now();
+        Random random = new Random(7);
+        double close = 24000;
+        int bullishBars = 0;
+        int bearishBars = 0;
+
+        for (int i = 0; i < 300; i++) {
+            close += random.nextGaussian() * 15;
+            addBar(series, time.plusMinutes(i), close);
+
+            // When
+            boolean bullish = divergenceIndicator.isRsiDivergence(series, 14, 20, DivergenceType.BULLISH);
+            boolean bearish = divergenceIndicator.isRsiDivergence(series, 14, 20, DivergenceType.BEARISH);
+
+            // Then - same as scanning the last 20 bars' closed swings (2 bars each side) against ta4j RSI
+            assertEquals(scanDivergence(series, false), bullish);
+            assertEquals(scanDivergence(series, true), bearish);
+            bullishBars += bullish ? 1 : 0;
+            bearishBars += bearish ? 1 : 0;
+        }
+        assertTrue(bullishBars > 0);
+        assertTrue(bearishBars > 0);
+    }
+
+    private static boolean scanDivergence(BarSeries series, boolean bearish) {
+        int closedEnd = series.getEndIndex() - 1;
+        int lookback = 2;
+        List<Integer> swings = new ArrayList<>();
+        for (int i = Math.max(lookback, closedEnd + 1 - 20); i <= closedEnd - lookback; i++) {
+            boolean isSwing = true;
+            for (int j = i - lookback; j <= i + lookback && isSwing; j++) {
+                if (j != i) {
+                    isSwing = bearish ? close(series, j) < close(series, i) : close(series, j) > close(series, i);
+                }
+            }
+            if (isSwing) {
+                swings.add(i);
+            }
+        }
+        for (int k = 1; k < swings.size(); k++) {
+            int previous = swings.get(k - 1);
+            int current = swings.get(k);
+            double previousRsi = ta4jRsi(series, 14, previous);
+            double currentRsi = ta4jRsi(series, 14, current);
+            if (bearish ? close(series, current) > close(series, previous) && currentRsi < previousRsi
+                    : close(series, current) < close(series, previous) && currentRsi > previousRsi) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double close(BarSeries series, int index) {
+        return series.getBar(index).getClosePrice().doubleValue();
+    }
+
+    private static double ta4jRsi(BarSeries series, int period, int index) {
+        return new RSIIndicator(new ClosePriceIndicator(series), period).getValue(index).doubleValue();
+    }
+}
@@ -1,5 +1,6 @@
 package com.jtradebot.processor.indicator;
 
+import com.jtradebot.processor.model.indicator.EmaInfo;
 import com.jtradebot.processor.model.indicator.Resistance;
 import com.jtradebot.processor.model.indicator.Support;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,10 +8,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeries;
 
+import java.time.ZonedDateTime;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.TreeSet;
 
+import static com.jtradebot.processor.model.enums.CandleTimeFrameEnum.FIVE_MIN;
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -76,6 +82,82 @@ class SupportResistanceIndicatorTest {
         assertFalse(result, "Should return false when price is not near support/resistance levels");
     }
 
+    @Test
+    void testIsVeryNearSupportResistance_WithSortedLevels_ShouldFindNearestLevel() {
+        // Given
+        Set<Support> sortedSupports = new TreeSet<>();
+        Set<Resistance> sortedResistances = new TreeSet<>();
+        for (int level : new int[]{24300, 24420, 24494}) {
+            Support support = new Support();
+            support.setSupportValue(level);
+            sortedSupports.add(support);
+        }
+        for (int level : new int[]{24600, 24750}) {
+            Resistance resistance = new Resistance();
+            resistance.setResistanceValue(level);
+            sortedResistances.add(resistance);
+        }
+
+        // When / Then
+        assertTrue(supportResistanceIndicator.isVeryNearSupportResistance(24498.5, sortedSupports, sortedResistances));
+        assertTrue(supportResistanceIndicator.isVeryNearSupportResistance(24595, sortedSupports, sortedResistances));
+        assertFalse(supportResistanceIndicator.isVeryNearSupportResistance(24499.5, sortedSupports, sortedResistances));
+        assertFalse(supportResistanceIndicator.isVeryNearSupportResistance(24540, sortedSupports, sortedResistances));
+    }
+
+    @Test
+    void testCalculateSupportsAndResistances_ShouldAddEmaValuesAsDynamicLevels() {
+        // Given - a swing low at 24400 and a swing high at 24700, EMA20 below and EMA200 above the price
+        BarSeries series = new BaseBarSeries();
+        ZonedDateTime time = ZonedDateTime.now();
+        for (int i = 0; i < 40; i++) {
+            double low = i == 15 ? 24400 : 24500;
+            double high = i == 25 ? 24700 : 24600;
+            series.addBar(time.plusMinutes(i * 5L), 24550, high, low, 24550, 1000);
+        }
+        EmaInfo emaInfo = new EmaInfo();
+        emaInfo.setEma20(24250.6);
+        emaInfo.setEma200(24900.4);
+        int[] periods = {20, 50, 100};
+
+        // When
+        Set<Support> supports = supportResistanceIndicator.calculateSupports(FIVE_MIN, series, 24550, emaInfo, periods);
+        Set<Resistance> resistances = supportResistanceIndicator.calculateResistances(FIVE_MIN, series, 24550, emaInfo, periods);
+
+        // Then
+        assertEquals(2, supports.size());
+        assertTrue(supports.stream().anyMatch(support -> support.isEma() && support.getSupportValue() == 24250));
+        assertEquals(2, resistances.size());
+        assertTrue(resistances.stream().anyMatch(resistance -> resistance.isEma() && resistance.getResistanceValue() == 24900));
+    }
+
+    @Test
+    void testCalculateSupportsAndResistances_ShouldKeepClosedBarSwingLevelsWhileBarForms() {
+        // Given - a swing low at 24400 and a swing high at 24700 among flat bars
+        BarSeries series = new BaseBarSeries();
+        ZonedDateTime time = ZonedDateTime.now();
+        for (int i = 0; i < 40; i++) {
+            double low = i == 15 ? 24400 : 24500;
+            double high = i == 25 ? 24700 : 24600;
+            series.addBar(time.plusMinutes(i * 5L), 24550, high, low, 24550, 1000);
+        }
+        EmaInfo emaInfo = new EmaInfo();
+        int[] periods = {20, 50, 100};
+
+        for (double tick : new double[]{24550, 24300, 24800}) {
+            // When - the forming bar ticks beyond every closed low and high
+            series.getLastBar().addPrice(series.numOf(tick));
+            Set<Support> supports = supportResistanceIndicator.calculateSupports(FIVE_MIN, series, 24550, emaInfo, periods);
+            Set<Resistance> resistances = supportResistanceIndicator.calculateResistances(FIVE_MIN, series, 24550, emaInfo, periods);
+
+            // Then
+            assertEquals(1, supports.size());
+            assertEquals(24400, supports.iterator().next().getSupportValue());
+            assertEquals(1, resistances.size());
+            assertEquals(24700, resistances.iterator().next().getResistanceValue());
+        }
+    }
+
     @Test
     void testIsNearRoundFigureLevel_WhenNearRoundFigure_ShouldReturnTrue() {
         // Given
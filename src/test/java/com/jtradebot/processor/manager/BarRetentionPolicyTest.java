@@ -0,0 +1,60 @@
+package com.jtradebot.processor.manager;
+
+import com.jtradebot.processor.config.DynamicStrategyConfigService;
+import com.jtradebot.processor.model.enums.CandleTimeFrameEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BarRetentionPolicyTest {
+
+    @Test
+    void testRetention_ShouldCoverLongestLookbackWithMargin() {
+        // Given
+        DynamicStrategyConfigService configService = mock(DynamicStrategyConfigService.class);
+        when(configService.getRsiMaPeriod()).thenReturn(14);
+        BarRetentionPolicy policy = new BarRetentionPolicy(configService);
+
+        // When
+        int required = policy.getRequiredBars(CandleTimeFrameEnum.ONE_MIN);
+        int retention = policy.getRetention(CandleTimeFrameEnum.ONE_MIN);
+
+        // Then
+        assertEquals(BarRetentionPolicy.emaRequiredBars(200), required);
+        assertTrue(retention >= required * BarRetentionPolicy.SAFETY_MARGIN - 1);
+        assertTrue(policy.getRequiredBars(CandleTimeFrameEnum.FIVE_MIN) >= 105);
+    }
+
+    @Test
+    void testTrimmedEma_ShouldMatchFullHistoryEma() {
+        // Given a random walk longer than the retention
+        int period = 200;
+        int retained = BarRetentionPolicy.emaRequiredBars(period);
+        double[] closes = new double[retained * 3];
+        Random random = new Random(42);
+        closes[0] = 25_000;
+        for (int i = 1; i < closes.length; i++) {
+            closes[i] = closes[i - 1] + random.nextGaussian() * 10;
+        }
+
+        // When
+        double fullEma = ema(closes, 0, period);
+        double trimmedEma = ema(closes, closes.length - retained, period);
+
+        // Then the evicted bars no longer affect the value beyond the convergence tolerance
+        assertEquals(fullEma, trimmedEma, 25_000 * BarRetentionPolicy.CONVERGENCE_TOLERANCE * 10);
+    }
+
+    private static double ema(double[] closes, int from, int period) {
+        double alpha = 2.0 / (period + 1);
+        double value = closes[from];
+        for (int i = from + 1; i < closes.length; i++) {
+            value += alpha * (closes[i] - value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,399 @@
+package com.jtradebot.processor.manager;
+
+import com.jtradebot.processor.handler.MarketSessionCalendar;
+import com.jtradebot.processor.model.InstrumentState;
+import com.jtradebot.processor.model.MarketTick;
+import com.jtradebot.processor.model.indicator.BarSeriesData;
+import com.jtradebot.processor.model.indicator.ColumnarBarStore;
+import com.jtradebot.processor.model.indicator.HistoricalCandle;
+import com.jtradebot.processor.pipeline.TickShardExecutor;
+import com.zerodhatech.kiteconnect.KiteConnect;
+import com.zerodhatech.models.HistoricalData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.ta4j.core.BarSeries;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.jtradebot.processor.model.enums.CandleTimeFrameEnum.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BarSeriesManagerTest {
+
+    private static final long TOKEN = 256265L;
+    private static final long ONE_MINUTE = 60_000L;
+
+    private final MarketSessionCalendar calendar = new MarketSessionCalendar("09:15", "15:30", "", "");
+    private InstrumentStateRegistry registry;
+    private KiteConnect kiteConnect;
+    private BarSeriesManager barSeriesManager;
+    // Released by the tests to let a backfill request answer, counted down once the gap fill has been applied
+    private final CountDownLatch backfillRelease = new CountDownLatch(1);
+    private final CountDownLatch gapFillApplied = new CountDownLatch(1);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        registry = new InstrumentStateRegistry();
+        kiteConnect = mock(KiteConnect.class);
+        // Not running, so the shard executor would apply the gap fill on the calling thread
+        TickShardExecutor tickShardExecutor = mock(TickShardExecutor.class);
+        when(tickShardExecutor.runOnOwner(anyLong(), any())).thenAnswer(invocation -> {
+            Object result = invocation.<Supplier<?>>getArgument(1).get();
+            gapFillApplied.countDown();
+            return CompletableFuture.completedFuture(result);
+        });
+        ObjectProvider<TickShardExecutor> tickShardExecutorProvider = mock(ObjectProvider.class);
+        when(tickShardExecutorProvider.getObject()).thenReturn(tickShardExecutor);
+
+        barSeriesManager = new BarSeriesManager(registry, calendar, mock(BarRetentionPolicy.class),
+                mock(HistoricalCandleCache.class), kiteConnect, tickShardExecutorProvider);
+        ReflectionTestUtils.setField(barSeriesManager, "fetchThreads", 1);
+        ReflectionTestUtils.setField(barSeriesManager, "requestsPerSecond", 100);
+        ReflectionTestUtils.setField(barSeriesManager, "backfillTimeoutMillis", 1500L);
+        ReflectionTestUtils.setField(barSeriesManager, "backfillMaxHeldTicks", 2048);
+        barSeriesManager.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        backfillRelease.countDown();
+        barSeriesManager.stop();
+    }
+
+    @Test
+    void testAddTick_ShouldRollUpIntoKiteDailyBarStartingAtMidnight() {
+        // Given - today's daily bar as Kite returns it (00:00 IST) and the 10:00 one-minute bar
+        ColumnarBarStore oneMin = new ColumnarBarStore(ONE_MIN.name(), ONE_MINUTE, 64);
+        ColumnarBarStore oneDay = new ColumnarBarStore(ONE_DAY.name(), MarketSessionCalendar.MILLIS_PER_DAY, 8);
+        oneDay.addBar(millis("2025-01-06T00:00:00"), 24000, 24100, 23950, 24050, 1_000_000);
+        oneMin.addBar(millis("2025-01-06T10:00:00"), 24050, 24060, 24040, 24055, 1000);
+        seed(oneMin, oneDay);
+
+        // When - a tick opens the next one-minute bar at a new intraday high
+        barSeriesManager.addTick(tick(millis("2025-01-06T10:01:05"), 24150));
+
+        // Then - the existing daily bar is widened, no second bar is opened for the same day
+        assertEquals(2, oneMin.size());
+        assertEquals(1, oneDay.size());
+        assertEquals(millis("2025-01-06T00:00:00"), oneDay.getLastBeginMillis());
+        assertEquals(24150, oneDay.getHigh(0), 1e-9);
+        assertEquals(24150, oneDay.getClose(0), 1e-9);
+    }
+
+    @Test
+    void testAddTick_ShouldOpenDailyBarOnNextDay() {
+        // Given - yesterday's daily bar from Kite
+        ColumnarBarStore oneMin = new ColumnarBarStore(ONE_MIN.name(), ONE_MINUTE, 64);
+        ColumnarBarStore oneDay = new ColumnarBarStore(ONE_DAY.name(), MarketSessionCalendar.MILLIS_PER_DAY, 8);
+        oneDay.addBar(millis("2025-01-06T00:00:00"), 24000, 24100, 23950, 24050, 1_000_000);
+        oneMin.addBar(millis("2025-01-06T15:29:00"), 24050, 24060, 24040, 24055, 1000);
+        seed(oneMin, oneDay);
+
+        // When
+        barSeriesManager.addTick(tick(millis("2025-01-07T09:15:02"), 24120));
+
+        // Then
+        assertEquals(2, oneDay.size());
+        assertEquals(millis("2025-01-07T09:15:00"), oneDay.getLastBeginMillis());
+        assertEquals(24120, oneDay.getOpen(1), 1e-9);
+    }
+
+    @Test
+    void testAddTick_ShouldStartVolumeOverOnNextDay() {
+        // Given - yesterday's close with its cumulative volume still held by the instrument
+        ColumnarBarStore oneMin = new ColumnarBarStore(ONE_MIN.name(), ONE_MINUTE, 64);
+        ColumnarBarStore oneDay = new ColumnarBarStore(ONE_DAY.name(), MarketSessionCalendar.MILLIS_PER_DAY, 8);
+        oneDay.addBar(millis("2025-01-06T00:00:00"), 24000, 24100, 23950, 24050, 1_000_000);
+        oneMin.addBar(millis("2025-01-06T15:29:00"), 24050, 24060, 24040, 24055, 1000);
+        seed(oneMin, oneDay);
+        registry.get(TOKEN).setLastVolume(5_000_000L);
+
+        // When - today's ticks carry a far lower cumulative volume
+        barSeriesManager.addTick(tick(millis("2025-01-07T09:15:02"), 24120, 20_000L));
+        barSeriesManager.addTick(tick(millis("2025-01-07T09:16:05"), 24125, 20_500L));
+
+        // Then - the day's first tick books nothing, the next one the delta
+        assertEquals(3, oneMin.size());
+        assertEquals(0, oneMin.getVolume(1), 1e-9);
+        assertEquals(500, oneMin.getVolume(2), 1e-9);
+        assertEquals(0, oneDay.getVolume(1), 1e-9);
+        assertEquals(20_500L, registry.get(TOKEN).getLastVolume());
+    }
+
+    @Test
+    void testAddTick_ShouldKeepPriceRangeOfConflatedTicks() {
+        // Given
+        ColumnarBarStore oneMin = new ColumnarBarStore(ONE_MIN.name(), ONE_MINUTE, 64);
+        ColumnarBarStore oneDay = new ColumnarBarStore(ONE_DAY.name(), MarketSessionCalendar.MILLIS_PER_DAY, 8);
+        oneDay.addBar(millis("2025-01-06T00:00:00"), 24000, 24100, 23950, 24050, 1_000_000);
+        oneMin.addBar(millis("2025-01-06T10:00:00"), 24050, 24060, 24040, 24055, 1000);
+        seed(oneMin, oneDay);
+
+        // When - one tick stands for a spike to 24090 and a dip to 24030 merged within the 10:00 minute,
+        // the next one for the whole 10:01 minute, which opened at 24070 and dipped to 23900
+        barSeriesManager.addTick(tick(millis("2025-01-06T10:00:40"), 24058).withPriceRange(24056, 24090, 24030));
+        barSeriesManager.addTick(tick(millis("2025-01-06T10:01:50"), 24075).withPriceRange(24070, 24080, 23900));
+
+        // Then - the bars keep the merged highs and lows, the LTP stays the close
+        assertEquals(2, oneMin.size());
+        assertEquals(24090, oneMin.getHigh(0), 1e-9);
+        assertEquals(24030, oneMin.getLow(0), 1e-9);
+        assertEquals(24058, oneMin.getClose(0), 1e-9);
+        assertEquals(24070, oneMin.getOpen(1), 1e-9);
+        assertEquals(24080, oneMin.getHigh(1), 1e-9);
+        assertEquals(23900, oneMin.getLow(1), 1e-9);
+        assertEquals(24075, oneMin.getClose(1), 1e-9);
+        assertEquals(23900, oneDay.getLow(0), 1e-9);
+        assertEquals(24075, oneDay.getClose(0), 1e-9);
+    }
+
+    @Test
+    void testIsFeedGap_ShouldDetectMissingOneMinuteBar() {
+        // Given
+        ColumnarBarStore oneMin = new ColumnarBarStore(ONE_MIN.name(), ONE_MINUTE, 64);
+        oneMin.addBar(millis("2025-01-06T10:00:00"), 24050, 24060, 24040, 24055, 1000);
+
+        // When / Then - the next bar is no gap, skipping the 10:01 bar is
+        assertFalse(barSeriesManager.isFeedGap(oneMin, millis("2025-01-06T10:01:30")));
+        assertTrue(barSeriesManager.isFeedGap(oneMin, millis("2025-01-06T10:02:05")));
+    }
+
+    @Test
+    void testIsFeedGap_ShouldIgnoreNewDayAndOutOfSessionTicks() {
+        // Given
+        ColumnarBarStore oneMin = new ColumnarBarStore(ONE_MIN.name(), ONE_MINUTE, 64);
+        oneMin.addBar(millis("2025-01-06T15:25:00"), 24050, 24060, 24040, 24055, 1000);
+
+        // When / Then
+        assertFalse(barSeriesManager.isFeedGap(oneMin, millis("2025-01-07T09:15:02")));
+        assertFalse(barSeriesManager.isFeedGap(oneMin, millis("2025-01-06T15:45:00")));
+        assertFalse(barSeriesManager.isFeedGap(new ColumnarBarStore(ONE_MIN.name(), ONE_MINUTE, 64), millis("2025-01-06T10:02:05")));
+    }
+
+    @Test
+    void testMergeCandle_ShouldWidenOpenBarAndAppendMissingBars() {
+        // Given - ticks stopped during the 10:00 bar
+        ColumnarBarStore oneMin = new ColumnarBarStore(ONE_MIN.name(), ONE_MINUTE, 64);
+        oneMin.addBar(millis("2025-01-06T09:59:00"), 24000, 24010, 23990, 24005, 900);
+        oneMin.addBar(millis("2025-01-06T10:00:00"), 24050, 24060, 24040, 24055, 1000);
+        HistoricalCandle older = new HistoricalCandle(millis("2025-01-06T09:59:00"), 24000, 24500, 23500, 24005, 5000);
+        HistoricalCandle open = new HistoricalCandle(millis("2025-01-06T10:00:00"), 24050, 24080, 24030, 24070, 3000);
+        HistoricalCandle missing = new HistoricalCandle(millis("2025-01-06T10:01:00"), 24070, 24090, 24060, 24085, 2500);
+
+        // When
+        boolean olderAppended = barSeriesManager.mergeCandle(oneMin, older, older.getBeginMillis(), older.getVolume());
+        boolean openAppended = barSeriesManager.mergeCandle(oneMin, open, open.getBeginMillis(), open.getVolume() - 1000);
+        boolean missingAppended = barSeriesManager.mergeCandle(oneMin, missing, missing.getBeginMillis(), missing.getVolume());
+
+        // Then - closed bars stay untouched, the open bar is widened and completed, the missing bar appended
+        assertFalse(olderAppended);
+        assertFalse(openAppended);
+        assertTrue(missingAppended);
+        assertEquals(3, oneMin.size());
+        assertEquals(24010, oneMin.getHigh(0), 1e-9);
+        assertEquals(24080, oneMin.getHigh(1), 1e-9);
+        assertEquals(24030, oneMin.getLow(1), 1e-9);
+        assertEquals(24070, oneMin.getClose(1), 1e-9);
+        assertEquals(900, oneMin.getVolume(0), 1e-9);
+        assertEquals(3000, oneMin.getVolume(1), 1e-9);
+        assertEquals(millis("2025-01-06T10:01:00"), oneMin.getLastBeginMillis());
+        assertEquals(24070, oneMin.getOpen(2), 1e-9);
+        assertEquals(2500, oneMin.getVolume(2), 1e-9);
+    }
+
+    @Test
+    void testMergeCandle_ShouldAddGapVolumeToOpenHigherTimeframeBar() {
+        // Given - the 10:00 five-minute bar holds the volume ticked before the feed stopped
+        ColumnarBarStore fiveMin = new ColumnarBarStore(FIVE_MIN.name(), 5 * ONE_MINUTE, 64);
+        fiveMin.addBar(millis("2025-01-06T10:00:00"), 24050, 24060, 24040, 24055, 1000);
+        HistoricalCandle openMinute = new HistoricalCandle(millis("2025-01-06T10:00:00"), 24050, 24080, 24030, 24070, 3000);
+        HistoricalCandle gapMinute = new HistoricalCandle(millis("2025-01-06T10:01:00"), 24070, 24090, 24060, 24085, 2500);
+
+        // When - the rest of the open minute and a whole gap minute are merged
+        boolean openAppended = barSeriesManager.mergeCandle(fiveMin, openMinute, millis("2025-01-06T10:00:00"), 2000);
+        boolean gapAppended = barSeriesManager.mergeCandle(fiveMin, gapMinute, millis("2025-01-06T10:00:00"), gapMinute.getVolume());
+
+        // Then
+        assertFalse(openAppended);
+        assertFalse(gapAppended);
+        assertEquals(1, fiveMin.size());
+        assertEquals(5500, fiveMin.getVolume(0), 1e-9);
+        assertEquals(24090, fiveMin.getHigh(0), 1e-9);
+        assertEquals(24085, fiveMin.getClose(0), 1e-9);
+    }
+
+    @Test
+    void testMergeCandle_ShouldExposeGapVolumeThroughTa4jView() {
+        // Given - the open five-minute bar has already been read through the ta4j view
+        ColumnarBarStore fiveMin = new ColumnarBarStore(FIVE_MIN.name(), 5 * ONE_MINUTE, 64);
+        fiveMin.addBar(millis("2025-01-06T10:00:00"), 24050, 24060, 24040, 24055, 1000);
+        BarSeriesData seriesData = new BarSeriesData().put(FIVE_MIN, fiveMin);
+        assertEquals(1000, seriesData.getSeries(FIVE_MIN).getLastBar().getVolume().doubleValue(), 1e-9);
+        HistoricalCandle gapMinute = new HistoricalCandle(millis("2025-01-06T10:01:00"), 24070, 24090, 24060, 24085, 2500);
+
+        // When
+        barSeriesManager.mergeCandle(fiveMin, gapMinute, millis("2025-01-06T10:00:00"), gapMinute.getVolume());
+
+        // Then - the view's forming bar carries the merged volume and prices
+        BarSeries series = seriesData.getSeries(FIVE_MIN);
+        assertEquals(1, series.getBarCount());
+        assertEquals(3500, series.getLastBar().getVolume().doubleValue(), 1e-9);
+        assertEquals(24090, series.getLastBar().getHighPrice().doubleValue(), 1e-9);
+        assertEquals(24085, series.getLastBar().getClosePrice().doubleValue(), 1e-9);
+    }
+
+    @Test
+    void testAddTick_ShouldBackfillGapAndBookGapVolumeOnFirstHeldTickOnly() throws Exception {
+        // Given - the feed stopped during the 10:00 bar, Kite returns the rest of it and the two missed minutes
+        ColumnarBarStore oneMin = new ColumnarBarStore(ONE_MIN.name(), ONE_MINUTE, 64);
+        ColumnarBarStore oneDay = new ColumnarBarStore(ONE_DAY.name(), MarketSessionCalendar.MILLIS_PER_DAY, 8);
+        oneDay.addBar(millis("2025-01-06T00:00:00"), 24000, 24100, 23950, 24050, 1_000_000);
+        oneMin.addBar(millis("2025-01-06T10:00:00"), 24050, 24060, 24040, 24055, 1000);
+        seed(oneMin, oneDay);
+        registry.get(TOKEN).setLastVolume(10_000L);
+        answerBackfill(historicalData(
+                candle("2025-01-06T10:00:00", 24050, 24080, 24030, 24070, 3000),
+                candle("2025-01-06T10:01:00", 24070, 24090, 24060, 24085, 1000),
+                candle("2025-01-06T10:02:00", 24085, 24095, 24075, 24090, 500)));
+
+        // When - two ticks arrive while the backfill is in flight
+        barSeriesManager.addTick(tick(millis("2025-01-06T10:03:05"), 24100, 14_000L));
+        barSeriesManager.addTick(tick(millis("2025-01-06T10:04:10"), 24105, 14_300L));
+        assertNotNull(registry.get(TOKEN).getPendingGapFill());
+        assertEquals(1, oneMin.size());
+        backfillRelease.countDown();
+        assertTrue(gapFillApplied.await(5, TimeUnit.SECONDS));
+
+        // Then - the missed minutes are filled from Kite, the resumed bar only books volume the candles did not hold
+        assertNull(registry.get(TOKEN).getPendingGapFill());
+        assertEquals(5, oneMin.size());
+        assertEquals(3000, oneMin.getVolume(0), 1e-9);
+        assertEquals(millis("2025-01-06T10:01:00"), oneMin.getBeginMillis(1));
+        assertEquals(1000, oneMin.getVolume(1), 1e-9);
+        assertEquals(millis("2025-01-06T10:02:00"), oneMin.getBeginMillis(2));
+        assertEquals(500, oneMin.getVolume(2), 1e-9);
+        assertEquals(millis("2025-01-06T10:03:00"), oneMin.getBeginMillis(3));
+        assertEquals(500, oneMin.getVolume(3), 1e-9);
+        assertEquals(millis("2025-01-06T10:04:00"), oneMin.getLastBeginMillis());
+        assertEquals(300, oneMin.getVolume(4), 1e-9);
+        assertEquals(1_000_000 + 2000 + 1000 + 500, oneDay.getVolume(0), 1e-9);
+        assertEquals(14_300L, registry.get(TOKEN).getLastVolume());
+    }
+
+    @Test
+    void testAddTick_ShouldLeaveGapOpenWhenBackfillTimesOut() throws Exception {
+        // Given - Kite does not answer within the backfill timeout
+        ColumnarBarStore oneMin = new ColumnarBarStore(ONE_MIN.name(), ONE_MINUTE, 64);
+        ColumnarBarStore oneDay = new ColumnarBarStore(ONE_DAY.name(), MarketSessionCalendar.MILLIS_PER_DAY, 8);
+        oneDay.addBar(millis("2025-01-06T00:00:00"), 24000, 24100, 23950, 24050, 1_000_000);
+        oneMin.addBar(millis("2025-01-06T10:00:00"), 24050, 24060, 24040, 24055, 1000);
+        seed(oneMin, oneDay);
+        registry.get(TOKEN).setLastVolume(10_000L);
+        ReflectionTestUtils.setField(barSeriesManager, "backfillTimeoutMillis", 200L);
+        answerBackfill(historicalData());
+
+        // When
+        barSeriesManager.addTick(tick(millis("2025-01-06T10:03:05"), 24100, 14_000L));
+        barSeriesManager.addTick(tick(millis("2025-01-06T10:04:10"), 24110, 14_300L));
+        assertTrue(gapFillApplied.await(5, TimeUnit.SECONDS));
+
+        // Then - the held ticks open their own minutes, the missed 10:01 and 10:02 bars are not made up
+        assertNull(registry.get(TOKEN).getPendingGapFill());
+        assertEquals(3, oneMin.size());
+        assertEquals(millis("2025-01-06T10:03:00"), oneMin.getBeginMillis(1));
+        assertEquals(24100, oneMin.getOpen(1), 1e-9);
+        assertEquals(4000, oneMin.getVolume(1), 1e-9);
+        assertEquals(millis("2025-01-06T10:04:00"), oneMin.getBeginMillis(2));
+        assertEquals(300, oneMin.getVolume(2), 1e-9);
+    }
+
+    @Test
+    void testAddTick_ShouldDropGapFillWhenHeldTicksOverflow() throws Exception {
+        // Given - room for two held ticks, and Kite answers only after the buffer overflowed
+        ColumnarBarStore oneMin = new ColumnarBarStore(ONE_MIN.name(), ONE_MINUTE, 64);
+        ColumnarBarStore oneDay = new ColumnarBarStore(ONE_DAY.name(), MarketSessionCalendar.MILLIS_PER_DAY, 8);
+        oneDay.addBar(millis("2025-01-06T00:00:00"), 24000, 24100, 23950, 24050, 1_000_000);
+        oneMin.addBar(millis("2025-01-06T10:00:00"), 24050, 24060, 24040, 24055, 1000);
+        seed(oneMin, oneDay);
+        registry.get(TOKEN).setLastVolume(10_000L);
+        ReflectionTestUtils.setField(barSeriesManager, "backfillMaxHeldTicks", 2);
+        answerBackfill(historicalData(candle("2025-01-06T10:01:00", 24070, 24090, 24060, 24085, 1000)));
+
+        // When
+        barSeriesManager.addTick(tick(millis("2025-01-06T10:03:05"), 24100, 14_000L));
+        barSeriesManager.addTick(tick(millis("2025-01-06T10:03:40"), 24102, 14_100L));
+        barSeriesManager.addTick(tick(millis("2025-01-06T10:04:10"), 24110, 14_300L));
+
+        // Then - live bars resume at once, without the missed minutes
+        assertNull(registry.get(TOKEN).getPendingGapFill());
+        assertEquals(3, oneMin.size());
+        assertEquals(millis("2025-01-06T10:03:00"), oneMin.getBeginMillis(1));
+        assertEquals(4000, oneMin.getVolume(1), 1e-9);
+        assertEquals(millis("2025-01-06T10:04:00"), oneMin.getBeginMillis(2));
+        assertEquals(14_300L, registry.get(TOKEN).getLastVolume());
+
+        // When - the backfill answers late
+        backfillRelease.countDown();
+        assertTrue(gapFillApplied.await(5, TimeUnit.SECONDS));
+
+        // Then - it is ignored
+        assertEquals(3, oneMin.size());
+        assertEquals(millis("2025-01-06T10:04:00"), oneMin.getLastBeginMillis());
+    }
+
+    private void seed(ColumnarBarStore oneMin, ColumnarBarStore oneDay) {
+        InstrumentState state = registry.getOrCreate(TOKEN);
+        state.setSeriesData(new BarSeriesData().put(ONE_MIN, oneMin).put(ONE_DAY, oneDay));
+    }
+
+    private void answerBackfill(HistoricalData historicalData) throws Exception {
+        when(kiteConnect.getHistoricalData(any(), any(), anyString(), anyString(), anyBoolean(), anyBoolean()))
+                .thenAnswer(invocation -> {
+                    backfillRelease.await(5, TimeUnit.SECONDS);
+                    return historicalData;
+                });
+    }
+
+    private static HistoricalData historicalData(HistoricalData... candles) {
+        HistoricalData historicalData = new HistoricalData();
+        historicalData.dataArrayList.addAll(List.of(candles));
+        return historicalData;
+    }
+
+    private static HistoricalData candle(String localDateTime, double open, double high, double low, double close, long volume) {
+        HistoricalData candle = new HistoricalData();
+        candle.timeStamp = LocalDateTime.parse(localDateTime).atZone(MarketSessionCalendar.MARKET_ZONE)
+                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssZ"));
+        candle.open = open;
+        candle.high = high;
+        candle.low = low;
+        candle.close = close;
+        candle.volume = volume;
+        return candle;
+    }
+
+    private static MarketTick tick(long tickTimeMillis, double price) {
+        return tick(tickTimeMillis, price, 0L);
+    }
+
+    private static MarketTick tick(long tickTimeMillis, double price, long volumeTradedToday) {
+        return new MarketTick(TOKEN).update(tickTimeMillis, price, price, price, price, price, volumeTradedToday, 0);
+    }
+
+    private static long millis(String localDateTime) {
+        return LocalDateTime.parse(localDateTime).atZone(MarketSessionCalendar.MARKET_ZONE).toInstant().toEpochMilli();
+    }
+}
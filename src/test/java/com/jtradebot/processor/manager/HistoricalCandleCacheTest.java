@@ -0,0 +1,105 @@
+package com.jtradebot.processor.manager;
+
+import com.jtradebot.processor.model.enums.CandleTimeFrameEnum;
+import com.jtradebot.processor.model.indicator.HistoricalCandle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoricalCandleCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 6);
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void testStoreAndLoad_ShouldRoundTripCandles() {
+        // Given
+        HistoricalCandleCache cache = new HistoricalCandleCache(cacheDir.toString(), true, 100);
+        List<HistoricalCandle> candles = List.of(
+                new HistoricalCandle(1_000L, 100.5, 101.25, 99.75, 100.0, 1200),
+                new HistoricalCandle(61_000L, 100.0, 102.0, 100.0, 101.5, 800));
+
+        // When
+        cache.store("256265", CandleTimeFrameEnum.ONE_MIN, DAY, candles);
+        List<HistoricalCandle> loaded = cache.load("256265", CandleTimeFrameEnum.ONE_MIN, DAY);
+
+        // Then
+        assertNotNull(loaded);
+        assertEquals(2, loaded.size());
+        assertEquals(61_000L, loaded.get(1).getBeginMillis());
+        assertEquals(101.25, loaded.get(0).getHigh());
+        assertEquals(99.75, loaded.get(0).getLow());
+        assertEquals(101.5, loaded.get(1).getClose());
+        assertEquals(800, loaded.get(1).getVolume());
+    }
+
+    @Test
+    void testLoad_ShouldDistinguishMissingFromEmptyDays() {
+        // Given
+        HistoricalCandleCache cache = new HistoricalCandleCache(cacheDir.toString(), true, 100);
+
+        // When
+        cache.store("256265", CandleTimeFrameEnum.FIVE_MIN, DAY, List.of());
+
+        // Then
+        assertTrue(cache.load("256265", CandleTimeFrameEnum.FIVE_MIN, DAY).isEmpty());
+        assertNull(cache.load("256265", CandleTimeFrameEnum.FIVE_MIN, DAY.plusDays(1)));
+        assertNull(cache.load("256265", CandleTimeFrameEnum.ONE_MIN, DAY));
+    }
+
+    @Test
+    void testStore_FailedMove_ShouldDeleteTempFile() throws Exception {
+        // Given - a non-empty directory where the day file belongs, so the move into place fails
+        HistoricalCandleCache cache = new HistoricalCandleCache(cacheDir.toString(), true, 100);
+        Path timeFrameDir = cacheDir.resolve("256265").resolve(CandleTimeFrameEnum.ONE_MIN.name());
+        Files.createDirectories(timeFrameDir.resolve(DAY + ".csv").resolve("blocker"));
+
+        // When
+        cache.store("256265", CandleTimeFrameEnum.ONE_MIN, DAY, List.of(new HistoricalCandle(1_000L, 100.5, 101.25, 99.75, 100.0, 1200)));
+
+        // Then - only the blocking directory is left
+        try (Stream<Path> files = Files.list(timeFrameDir)) {
+            assertEquals(List.of(timeFrameDir.resolve(DAY + ".csv")), files.toList());
+        }
+    }
+
+    @Test
+    void testEvictDaysBefore_ShouldDropOldDaysAndEmptyDirectories() {
+        // Given - a recent and an old day for the index, only an old day for an expired option
+        HistoricalCandleCache cache = new HistoricalCandleCache(cacheDir.toString(), true, 100);
+        cache.store("256265", CandleTimeFrameEnum.ONE_MIN, DAY, List.of());
+        cache.store("256265", CandleTimeFrameEnum.ONE_MIN, DAY.minusDays(150), List.of());
+        cache.store("12345678", CandleTimeFrameEnum.FIVE_MIN, DAY.minusDays(120), List.of());
+
+        // When
+        int evicted = cache.evictDaysBefore(DAY.minusDays(100));
+
+        // Then
+        assertEquals(2, evicted);
+        assertNotNull(cache.load("256265", CandleTimeFrameEnum.ONE_MIN, DAY));
+        assertNull(cache.load("256265", CandleTimeFrameEnum.ONE_MIN, DAY.minusDays(150)));
+        assertFalse(Files.exists(cacheDir.resolve("12345678")));
+    }
+
+    @Test
+    void testDisabledCache_ShouldNeitherStoreNorLoad() {
+        // Given
+        HistoricalCandleCache cache = new HistoricalCandleCache(cacheDir.toString(), false, 100);
+
+        // When
+        cache.store("256265", CandleTimeFrameEnum.ONE_MIN, DAY, List.of(new HistoricalCandle(0L, 1, 1, 1, 1, 1)));
+
+        // Then
+        assertNull(cache.load("256265", CandleTimeFrameEnum.ONE_MIN, DAY));
+        assertNull(new HistoricalCandleCache(cacheDir.toString(), true, 100).load("256265", CandleTimeFrameEnum.ONE_MIN, DAY));
+    }
+}
@@ -0,0 +1,162 @@
+package com.jtradebot.processor.manager;
+
+import com.jtradebot.processor.handler.MarketSessionCalendar;
+import com.jtradebot.processor.model.InstrumentState;
+import com.jtradebot.processor.model.indicator.BarSeriesData;
+import com.jtradebot.processor.model.indicator.ColumnarBarStore;
+import com.jtradebot.processor.pipeline.TickShardExecutor;
+import com.jtradebot.processor.service.price.OIAnalysisService;
+import com.jtradebot.processor.service.tracking.OptionLTPTrackingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.jtradebot.processor.model.enums.CandleTimeFrameEnum.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MarketStateSnapshotManagerTest {
+
+    private static final long NIFTY_TOKEN = 256265L;
+    private static final long FUTURE_TOKEN = 12345678L;
+    private static final long ONE_MINUTE = 60_000L;
+
+    private final MarketSessionCalendar calendar = new MarketSessionCalendar("09:15", "15:30", "", "");
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshotFile;
+    private long barStart;
+
+    @BeforeEach
+    void setUp() {
+        snapshotFile = tempDir.resolve("market-state.snapshot");
+        barStart = calendar.getBarStartMillis(System.currentTimeMillis(), ONE_MINUTE);
+    }
+
+    @Test
+    void testSnapshot_ShouldRestoreWrittenState() {
+        // Given - two initialised instruments and an OI history
+        InstrumentStateRegistry source = new InstrumentStateRegistry();
+        seedInstrument(source, NIFTY_TOKEN, 24000);
+        seedInstrument(source, FUTURE_TOKEN, 24100);
+        OIAnalysisService sourceOI = oiAnalysisService(Map.of("NIFTY25JAN24000CE", List.of(
+                OIAnalysisService.OIDataPoint.builder().oi(1_500_000).price(120.5).timestamp("10:00:00").fetchTime(barStart).build())));
+
+        // When
+        manager(source, sourceOI).snapshot();
+        InstrumentStateRegistry target = new InstrumentStateRegistry();
+        OIAnalysisService targetOI = oiAnalysisService(Map.of());
+        manager(target, targetOI).restore();
+
+        // Then
+        InstrumentState restored = target.get(FUTURE_TOKEN);
+        assertNotNull(restored);
+        assertEquals(5_000L, restored.getLastVolume());
+        assertEquals(12.5, restored.getAvg5MinCandleHeight(), 1e-9);
+        assertNull(restored.getAvg3MinCandleHeight());
+        assertEquals(source.get(FUTURE_TOKEN).getSessionVwap().getVwap(), restored.getSessionVwap().getVwap(), 1e-9);
+        ColumnarBarStore oneMin = restored.getSeriesData().getStore(ONE_MIN);
+        assertEquals(2, oneMin.size());
+        assertEquals(barStart - ONE_MINUTE, oneMin.getBeginMillis(0));
+        assertEquals(24110, oneMin.getHigh(1), 1e-9);
+        assertEquals(700, oneMin.getVolume(1), 1e-9);
+        assertNull(restored.getSeriesData().getStore(FIVE_MIN));
+        assertNotNull(target.get(NIFTY_TOKEN).getSeriesData());
+        verify(targetOI).restoreOIDataHistory(argThat(history -> history.get("NIFTY25JAN24000CE").get(0).getOi() == 1_500_000));
+    }
+
+    @Test
+    void testRestore_TruncatedFile_ShouldLeaveStateUntouched() throws Exception {
+        // Given - a snapshot cut off inside the second instrument, and an instrument already warmed up
+        InstrumentStateRegistry source = new InstrumentStateRegistry();
+        seedInstrument(source, NIFTY_TOKEN, 24000);
+        seedInstrument(source, FUTURE_TOKEN, 24100);
+        manager(source, oiAnalysisService(Map.of())).snapshot();
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        Files.write(snapshotFile, Arrays.copyOf(bytes, bytes.length * 3 / 4));
+
+        InstrumentStateRegistry target = new InstrumentStateRegistry();
+        InstrumentState fresh = target.getOrCreate(NIFTY_TOKEN);
+        BarSeriesData freshSeries = new BarSeriesData().put(ONE_MIN, new ColumnarBarStore(ONE_MIN.name(), ONE_MINUTE, 64));
+        fresh.setSeriesData(freshSeries);
+        fresh.setLastVolume(42L);
+        OIAnalysisService targetOI = oiAnalysisService(Map.of());
+
+        // When
+        manager(target, targetOI).restore();
+
+        // Then - nothing from the snapshot is applied
+        assertSame(freshSeries, target.get(NIFTY_TOKEN).getSeriesData());
+        assertEquals(42L, target.get(NIFTY_TOKEN).getLastVolume());
+        assertNull(target.get(FUTURE_TOKEN));
+        verify(targetOI, never()).restoreOIDataHistory(any());
+    }
+
+    @Test
+    void testSnapshot_FailedMove_ShouldDeleteTempFile() throws Exception {
+        // Given - a non-empty directory where the snapshot belongs, so the move into place fails
+        InstrumentStateRegistry source = new InstrumentStateRegistry();
+        seedInstrument(source, NIFTY_TOKEN, 24000);
+        Files.createDirectories(snapshotFile.resolve("blocker"));
+
+        // When
+        manager(source, oiAnalysisService(Map.of())).snapshot();
+
+        // Then - only the blocking directory is left
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(snapshotFile), files.toList());
+        }
+    }
+
+    private void seedInstrument(InstrumentStateRegistry registry, long instrumentToken, double price) {
+        ColumnarBarStore oneMin = new ColumnarBarStore(ONE_MIN.name(), ONE_MINUTE, 64);
+        oneMin.addBar(barStart - ONE_MINUTE, price, price + 5, price - 5, price + 2, 900);
+        oneMin.addBar(barStart, price + 2, price + 10, price - 1, price + 8, 700);
+        InstrumentState state = registry.getOrCreate(instrumentToken);
+        state.setSeriesData(new BarSeriesData().put(ONE_MIN, oneMin));
+        state.setLastVolume(5_000L);
+        state.setAvg5MinCandleHeight(12.5);
+        long day = calendar.marketDay(barStart);
+        state.getSessionVwap().add(day, price, 900);
+        state.getSessionVwap().add(day, price + 8, 700);
+    }
+
+    private MarketStateSnapshotManager manager(InstrumentStateRegistry registry, OIAnalysisService oiAnalysisService) {
+        BarRetentionPolicy barRetentionPolicy = mock(BarRetentionPolicy.class);
+        when(barRetentionPolicy.getRetention(any())).thenReturn(64);
+        OptionLTPTrackingService optionLTPTrackingService = mock(OptionLTPTrackingService.class);
+        when(optionLTPTrackingService.getAllLTPHistories()).thenReturn(new HashMap<>());
+        // Captures run on the calling thread, as they do when no shard owns the instrument
+        TickShardExecutor tickShardExecutor = mock(TickShardExecutor.class);
+        when(tickShardExecutor.runOnOwner(anyLong(), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(1).get()));
+
+        MarketStateSnapshotManager manager = new MarketStateSnapshotManager(registry, calendar, barRetentionPolicy,
+                oiAnalysisService, optionLTPTrackingService, tickShardExecutor);
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        ReflectionTestUtils.setField(manager, "snapshotFile", snapshotFile.toString());
+        ReflectionTestUtils.setField(manager, "maxAgeMinutes", 10L);
+        ReflectionTestUtils.setField(manager, "captureTimeoutMillis", 1000L);
+        return manager;
+    }
+
+    private static OIAnalysisService oiAnalysisService(Map<String, List<OIAnalysisService.OIDataPoint>> history) {
+        OIAnalysisService oiAnalysisService = mock(OIAnalysisService.class);
+        when(oiAnalysisService.getOIDataHistorySnapshot()).thenReturn(new HashMap<>(history));
+        return oiAnalysisService;
+    }
+}
@@ -0,0 +1,66 @@
+package com.jtradebot.processor.model.indicator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarBarStoreTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void testAddPrice_ShouldUpdateFormingBar() {
+        // Given
+        ColumnarBarStore store = new ColumnarBarStore("ONE_MIN", MINUTE, 4);
+        store.addBar(0, 100, 100, 100, 100, 10);
+
+        // When
+        store.addPrice(105);
+        store.addPrice(98);
+        store.addPrice(101);
+
+        // Then
+        assertEquals(1, store.size());
+        assertEquals(100, store.getOpen(0));
+        assertEquals(105, store.getHigh(0));
+        assertEquals(98, store.getLow(0));
+        assertEquals(101, store.getClose(0));
+        assertEquals(10, store.getVolume(0));
+        assertEquals(MINUTE, store.getLastEndMillis());
+    }
+
+    @Test
+    void testAddBar_ShouldEvictOldestWhenFull() {
+        // Given
+        ColumnarBarStore store = new ColumnarBarStore("ONE_MIN", MINUTE, 4);
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            store.addBar(i * MINUTE, i, i, i, i, i);
+        }
+
+        // Then
+        assertEquals(4, store.getCapacity());
+        assertEquals(4, store.size());
+        assertEquals(6, store.getTotalBars());
+        assertEquals(2 * MINUTE, store.getBeginMillis(0));
+        assertEquals(5, store.getClose(store.size() - 1));
+        assertEquals(5 * MINUTE, store.getLastBeginMillis());
+    }
+
+    @Test
+    void testModCount_ShouldChangeOnEveryMutation() {
+        // Given
+        ColumnarBarStore store = new ColumnarBarStore("ONE_MIN", MINUTE, 5);
+        long initial = store.getModCount();
+
+        // When
+        store.addBar(0, 1, 1, 1, 1, 1);
+        store.addPrice(2);
+
+        // Then
+        assertEquals(8, store.getCapacity());
+        assertEquals(initial + 2, store.getModCount());
+        assertFalse(store.isEmpty());
+    }
+}
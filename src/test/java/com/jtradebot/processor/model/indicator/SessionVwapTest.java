@@ -0,0 +1,53 @@
+package com.jtradebot.processor.model.indicator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionVwapTest {
+
+    @Test
+    void testAdd_ShouldComputeVolumeWeightedPriceAndBands() {
+        // Given
+        SessionVwap sessionVwap = new SessionVwap();
+
+        // When
+        sessionVwap.add(1, 100, 10);
+        sessionVwap.add(1, 110, 30);
+        sessionVwap.add(1, 105, 0);
+
+        // Then - VWAP 107.5, variance (10*100^2 + 30*110^2)/40 - 107.5^2 = 18.75
+        assertEquals(107.5, sessionVwap.getVwap(), 1e-9);
+        assertEquals(Math.sqrt(18.75), sessionVwap.getStandardDeviation(), 1e-9);
+        assertEquals(107.5 + 2 * Math.sqrt(18.75), sessionVwap.getUpperBand(2), 1e-9);
+        assertEquals(107.5 - Math.sqrt(18.75), sessionVwap.getLowerBand(1), 1e-9);
+    }
+
+    @Test
+    void testAdd_ShouldStartNewSessionOnNextMarketDay() {
+        // Given
+        SessionVwap sessionVwap = new SessionVwap();
+        sessionVwap.add(1, 100, 10);
+
+        // When
+        sessionVwap.add(2, 200, 5);
+
+        // Then
+        assertEquals(2, sessionVwap.getMarketDay());
+        assertEquals(200, sessionVwap.getVwap(), 1e-9);
+        assertEquals(0, sessionVwap.getStandardDeviation(), 1e-9);
+    }
+
+    @Test
+    void testEmptySession_ShouldReturnZero() {
+        // Given
+        SessionVwap sessionVwap = new SessionVwap();
+
+        // When
+        sessionVwap.add(1, 100, 0);
+
+        // Then
+        assertTrue(sessionVwap.isEmpty());
+        assertEquals(0, sessionVwap.getVwap());
+    }
+}
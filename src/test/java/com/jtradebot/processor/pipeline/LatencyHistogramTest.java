@@ -0,0 +1,69 @@
+package com.jtradebot.processor.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testIndexOf_ShouldBeContinuousAndMonotonic() {
+        int previous = LatencyHistogram.indexOf(0);
+        for (long value = 1; value < 1_000_000; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index == previous || index == previous + 1, "Gap at value " + value);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) >= value);
+            previous = index;
+        }
+        assertTrue(LatencyHistogram.indexOf(Long.MAX_VALUE >>> 23) < LatencyHistogram.BUCKET_COUNT);
+    }
+
+    @Test
+    void testPercentiles_ShouldStayWithinBucketPrecision() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        // When
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // Then
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(10_000_000, snapshot.getMaxNanos());
+        assertEquals(5_000_000, snapshot.getValueAtPercentile(50), 5_000_000 * 0.02);
+        assertEquals(9_900_000, snapshot.getValueAtPercentile(99), 9_900_000 * 0.02);
+        assertEquals(10_000_000, snapshot.getValueAtPercentile(100));
+        assertEquals(5_000_500, snapshot.getMeanNanos(), 1.0);
+    }
+
+    @Test
+    void testRecord_ShouldClampOutOfRangeValues() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // When
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        // Then
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(50));
+    }
+
+    @Test
+    void testReset_ShouldClearCounts() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+
+        // When
+        histogram.reset();
+
+        // Then
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.snapshot().getValueAtPercentile(99));
+    }
+}
@@ -0,0 +1,108 @@
+package com.jtradebot.processor.pipeline;
+
+import com.zerodhatech.models.Tick;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickMailboxTest {
+
+    private static final long TOKEN = 256265L;
+    private static final long MINUTE_START = 1_700_000_040_000L; // aligned to a minute boundary
+
+    @Test
+    void testOffer_SameMinute_ShouldKeepOnlyLatestTick() {
+        // Given
+        TickMailbox mailbox = new TickMailbox(TOKEN);
+
+        // When
+        mailbox.offer(tick(MINUTE_START + 1_000, 100));
+        mailbox.offer(tick(MINUTE_START + 2_000, 101));
+        mailbox.offer(tick(MINUTE_START + 3_000, 102));
+
+        // Then
+        List<ConflatedTick> drained = new ArrayList<>();
+        assertEquals(1, mailbox.drainTo(drained));
+        assertEquals(102, drained.get(0).getTick().getLastTradedPrice());
+        assertEquals(2, mailbox.getConflatedCount());
+    }
+
+    @Test
+    void testOffer_AcrossMinuteBoundary_ShouldKeepLastTickOfPreviousMinute() {
+        // Given
+        TickMailbox mailbox = new TickMailbox(TOKEN);
+
+        // When
+        mailbox.offer(tick(MINUTE_START + 58_000, 100));
+        mailbox.offer(tick(MINUTE_START + 59_000, 101));
+        mailbox.offer(tick(MINUTE_START + 61_000, 102));
+        mailbox.offer(tick(MINUTE_START + 62_000, 103));
+
+        // Then
+        List<ConflatedTick> drained = new ArrayList<>();
+        assertEquals(2, mailbox.drainTo(drained));
+        assertEquals(101, drained.get(0).getTick().getLastTradedPrice(), "Closing tick of the previous minute must survive");
+        assertEquals(103, drained.get(1).getTick().getLastTradedPrice());
+        assertEquals(2, mailbox.getConflatedCount());
+    }
+
+    @Test
+    void testOffer_SameMinute_ShouldKeepRangeOfConflatedTicks() {
+        // Given
+        TickMailbox mailbox = new TickMailbox(TOKEN);
+
+        // When - an intra-minute spike and dip are replaced by a later tick
+        mailbox.offer(tick(MINUTE_START + 1_000, 100));
+        mailbox.offer(tick(MINUTE_START + 2_000, 110));
+        mailbox.offer(tick(MINUTE_START + 3_000, 95));
+        mailbox.offer(tick(MINUTE_START + 4_000, 101));
+
+        // Then
+        List<ConflatedTick> drained = new ArrayList<>();
+        assertEquals(1, mailbox.drainTo(drained));
+        assertEquals(101, drained.get(0).getTick().getLastTradedPrice());
+        assertEquals(100, drained.get(0).getFirstPrice());
+        assertEquals(110, drained.get(0).getHighPrice());
+        assertEquals(95, drained.get(0).getLowPrice());
+    }
+
+    @Test
+    void testOffer_AcrossMinuteBoundary_ShouldStartNewRange() {
+        // Given
+        TickMailbox mailbox = new TickMailbox(TOKEN);
+
+        // When
+        mailbox.offer(tick(MINUTE_START + 58_000, 100));
+        mailbox.offer(tick(MINUTE_START + 59_000, 120));
+        mailbox.offer(tick(MINUTE_START + 61_000, 102));
+
+        // Then - the previous minute's spike does not leak into the next minute
+        List<ConflatedTick> drained = new ArrayList<>();
+        assertEquals(2, mailbox.drainTo(drained));
+        assertEquals(120, drained.get(0).getHighPrice());
+        assertEquals(102, drained.get(1).getFirstPrice());
+        assertEquals(102, drained.get(1).getHighPrice());
+        assertEquals(102, drained.get(1).getLowPrice());
+    }
+
+    @Test
+    void testDrainTo_WhenEmpty_ShouldReturnZero() {
+        TickMailbox mailbox = new TickMailbox(TOKEN);
+        mailbox.offer(tick(MINUTE_START, 100));
+        mailbox.drainTo(new ArrayList<>());
+
+        assertEquals(0, mailbox.drainTo(new ArrayList<>()));
+    }
+
+    private Tick tick(long epochMillis, double ltp) {
+        Tick tick = new Tick();
+        tick.setInstrumentToken(TOKEN);
+        tick.setTickTimestamp(new Date(epochMillis));
+        tick.setLastTradedPrice(ltp);
+        return tick;
+    }
+}
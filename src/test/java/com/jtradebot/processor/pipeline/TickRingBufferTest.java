@@ -0,0 +1,71 @@
+package com.jtradebot.processor.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickRingBufferTest {
+
+    @Test
+    void testCapacity_ShouldRoundUpToPowerOfTwo() {
+        assertEquals(8, new TickRingBuffer<Integer>(5).getCapacity());
+        assertEquals(8, new TickRingBuffer<Integer>(8).getCapacity());
+    }
+
+    @Test
+    void testDrainTo_ShouldReturnElementsInPublishOrder() {
+        // Given
+        TickRingBuffer<Integer> ringBuffer = new TickRingBuffer<>(4);
+        ringBuffer.publish(1);
+        ringBuffer.publish(2);
+        ringBuffer.publish(3);
+
+        // When
+        List<Integer> drained = new ArrayList<>();
+        int count = ringBuffer.drainTo(drained, 10, null);
+
+        // Then
+        assertEquals(3, count);
+        assertEquals(List.of(1, 2, 3), drained);
+        assertEquals(0, ringBuffer.getDepth());
+    }
+
+    @Test
+    void testPublish_WhenFull_ShouldDropAndCount() {
+        // Given
+        TickRingBuffer<Integer> ringBuffer = new TickRingBuffer<>(2);
+        assertTrue(ringBuffer.publish(1));
+        assertTrue(ringBuffer.publish(2));
+
+        // When
+        boolean accepted = ringBuffer.publish(3);
+
+        // Then
+        assertFalse(accepted, "Producer must not block or overwrite when ring is full");
+        assertEquals(1, ringBuffer.getDroppedCount());
+        assertEquals(2, ringBuffer.getPublishedCount());
+        assertEquals(2, ringBuffer.getDepth());
+    }
+
+    @Test
+    void testDrainTo_ShouldWrapAroundAndReportLatency() {
+        // Given
+        TickRingBuffer<Integer> ringBuffer = new TickRingBuffer<>(2);
+        List<Integer> drained = new ArrayList<>();
+        List<Long> latencies = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            ringBuffer.publish(i);
+            ringBuffer.drainTo(drained, 1, latencies::add);
+        }
+
+        // Then
+        assertEquals(List.of(0, 1, 2, 3, 4), drained);
+        assertEquals(5, latencies.size());
+        assertTrue(latencies.stream().allMatch(latency -> latency >= 0));
+    }
+}